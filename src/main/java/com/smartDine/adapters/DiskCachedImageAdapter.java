@@ -0,0 +1,312 @@
+package com.smartDine.adapters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.smartDine.dto.ImageFetchRequest;
+import com.smartDine.dto.ImageResponseDTO;
+import com.smartDine.dto.UploadResponse;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * ImageAdapter decorator that keeps recently read images in a local directory, so repeated
+ * reads of the same key do not go back to the remote storage.
+ *
+ * Entries are kept in LRU order under a total size budget. A miss downloads the whole
+ * image once and answers the request from that download; conditions and byte ranges of hits
+ * are answered locally, and their content is sent with FileChannel.transferTo. Uploads and
+ * deletes through this node evict the key, and a download that raced with an eviction is
+ * served but not cached. Changes made through other nodes are only noticed once an entry is
+ * older than ttlMillis: it is then revalidated with a conditional read of its entity tag and
+ * kept if the image did not change. The index lives in memory only, so files left by a
+ * previous run are removed on startup. Hits, misses (every read sent to the remote storage,
+ * revalidations included), evictions and size are published as the cache.gets,
+ * cache.evictions and cache.size meters tagged cache=imageDisk.
+ */
+@Service
+@Primary
+// Only S3 reads are worth caching on local disk
+@ConditionalOnExpression("${smartdine.images.disk-cache.enabled:true} and '${smartdine.images.storage:s3}' == 's3'")
+public class DiskCachedImageAdapter implements ImageAdapter {
+
+    static final String CACHE_NAME = "imageDisk";
+    private static final String FILE_SUFFIX = ".img";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final ImageAdapter delegate;
+    private final Path directory;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final long ttlMillis;
+
+    // Access-ordered, guarded by itself
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private long evictionVersion;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * A cached image and the time after which it has to be revalidated with the storage.
+     */
+    private record Entry(LocalImage image, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+
+    public DiskCachedImageAdapter(
+            @Qualifier("imageS3Adapter") ImageAdapter delegate,
+            MeterRegistry meterRegistry,
+            @Value("${smartdine.images.disk-cache.directory:${java.io.tmpdir}/smartdine-image-cache}") String directory,
+            @Value("${smartdine.images.disk-cache.max-bytes:268435456}") long maxBytes,
+            @Value("${smartdine.images.disk-cache.ttl-ms:600000}") long ttlMillis) throws IOException {
+        this.delegate = delegate;
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+        // A single image may take at most a quarter of the budget
+        this.maxEntryBytes = maxBytes / 4;
+        removeLeftovers();
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+            .tags("cache", CACHE_NAME, "result", "hit")
+            .description("Image reads served from the local disk")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+            .tags("cache", CACHE_NAME, "result", "miss")
+            .description("Image reads sent to the remote storage")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+            .tags("cache", CACHE_NAME)
+            .description("Images dropped from the local disk by updates or to stay within budget")
+            .register(meterRegistry);
+        Gauge.builder("cache.size", this, DiskCachedImageAdapter::size)
+            .tags("cache", CACHE_NAME)
+            .description("Images on the local disk")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public UploadResponse uploadImage(MultipartFile image, String path) throws IOException {
+        UploadResponse response = delegate.uploadImage(image, path);
+        evict(path);
+        return response;
+    }
+
+    /**
+     * Serves the image from disk, downloading it first on a miss or revalidating it once it
+     * expired. Every path reads the storage at most once. Images larger than a quarter of
+     * the budget are not cached.
+     */
+    @Override
+    public ImageResponseDTO getImage(String key, ImageFetchRequest request) {
+        Entry entry;
+        long version;
+        synchronized (entries) {
+            entry = entries.get(key);
+            version = evictionVersion;
+        }
+        if (entry != null && !entry.isExpired(System.currentTimeMillis())) {
+            ImageResponseDTO response = entry.image().serve(key, request);
+            if (response != null) {
+                hits.increment();
+                return response;
+            }
+            // The file is gone: drop the entry and read it again
+            evict(key);
+            entry = null;
+        }
+        misses.increment();
+
+        String cachedETag = entry != null ? entry.image().eTag() : null;
+        ImageResponseDTO fetched = delegate.getImage(key, cachedETag != null
+            ? new ImageFetchRequest(List.of(cachedETag), null, null, null)
+            : ImageFetchRequest.full());
+        if (fetched.isNotModified()) {
+            ImageResponseDTO response = renew(key, entry, request);
+            if (response != null) {
+                return response;
+            }
+            // Evicted while it was revalidated
+            fetched = delegate.getImage(key, ImageFetchRequest.full());
+        }
+        if (fetched.getContentLength() > maxEntryBytes && !request.isRange() && !request.isConditional()) {
+            return fetched;
+        }
+        return store(key, fetched, version, request);
+    }
+
+    @Override
+    public void deleteImage(String key) {
+        delegate.deleteImage(key);
+        evict(key);
+    }
+
+    /**
+     * Drops a key from the cache and deletes its file.
+     */
+    public void evict(String key) {
+        Entry removed;
+        synchronized (entries) {
+            evictionVersion++;
+            removed = entries.remove(key);
+            if (removed != null) {
+                totalBytes -= removed.image().size();
+                evictions.increment();
+            }
+        }
+        if (removed != null) {
+            deleteQuietly(removed.image().file());
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    long totalBytes() {
+        synchronized (entries) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * Starts a new time to live for an entry the storage reported as unchanged and answers
+     * the request from it. Returns null if the entry was evicted in the meantime.
+     */
+    private ImageResponseDTO renew(String key, Entry entry, ImageFetchRequest request) {
+        synchronized (entries) {
+            if (entries.get(key) != entry) {
+                return null;
+            }
+            // Served under the lock, so an eviction cannot delete the file before it is open
+            ImageResponseDTO response = entry.image().serve(key, request);
+            if (response != null) {
+                entries.put(key, new Entry(entry.image(), System.currentTimeMillis() + ttlMillis));
+            }
+            return response;
+        }
+    }
+
+    /**
+     * Writes a downloaded image to disk and answers the request from it. The file is
+     * indexed unless it is too large or the key was evicted while it was being downloaded;
+     * otherwise it stays private to this read.
+     */
+    private ImageResponseDTO store(String key, ImageResponseDTO image, long version, ImageFetchRequest request) {
+        Path file = directory.resolve(fileNameOf(key));
+        Path temp = null;
+        try (InputStream content = image.getInputStream()) {
+            temp = Files.createTempFile(directory, "download-", TEMP_SUFFIX);
+            long size = Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+
+            List<Path> dropped = new ArrayList<>();
+            ImageResponseDTO response;
+            synchronized (entries) {
+                if (size > maxEntryBytes || evictionVersion != version) {
+                    // The open channel keeps the content readable once the file is deleted
+                    return localImage(temp, size, image).serve(key, request);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                temp = null;
+                LocalImage stored = localImage(file, size, image);
+                Entry previous = entries.put(key, new Entry(stored, System.currentTimeMillis() + ttlMillis));
+                if (previous != null) {
+                    totalBytes -= previous.image().size();
+                }
+                totalBytes += size;
+                ensureCapacity(key, dropped);
+                // Served under the lock, so an eviction cannot delete the file before it is open
+                response = stored.serve(key, request);
+            }
+            dropped.forEach(DiskCachedImageAdapter::deleteQuietly);
+            return response;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo guardar en caché la imagen: " + key, e);
+        } finally {
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    private static LocalImage localImage(Path file, long size, ImageResponseDTO image) {
+        return new LocalImage(file, size, image.getContentType(), image.getFilename(), image.getETag(),
+            image.getLastModified());
+    }
+
+    /**
+     * Drops least recently used entries until the cache fits its budget, never dropping the
+     * key just stored. Called with the entries lock held.
+     */
+    private void ensureCapacity(String keep, List<Path> dropped) {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> candidate = eldest.next();
+            if (candidate.getKey().equals(keep)) {
+                continue;
+            }
+            eldest.remove();
+            totalBytes -= candidate.getValue().image().size();
+            dropped.add(candidate.getValue().image().file());
+            evictions.increment();
+        }
+    }
+
+    private void removeLeftovers() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{img,tmp}")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    /**
+     * Keys are hashed so that any key maps to a single flat file name inside the directory.
+     */
+    private static String fileNameOf(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest) + FILE_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Removed again on the next startup
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.smartDine.adapters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.smartDine.dto.ImageFetchRequest;
+import com.smartDine.dto.ImageResponseDTO;
+import com.smartDine.dto.UploadResponse;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local filesystem implementation of the ImageAdapter interface, for single-node
+ * deployments and tests that should not depend on S3. Selected with
+ * smartdine.images.storage=filesystem.
+ *
+ * Content is stored once per SHA-256 hash under blobs/, so identical uploads share a file;
+ * each key is a small reference file under refs/ pointing at its blob, and a blob is deleted
+ * with its last reference. The hash doubles as the entity tag. New files are written to a
+ * temporary file and committed by a single sync thread, which forces every file of a batch
+ * and then syncs each touched directory once, so concurrent uploads share the directory
+ * syncs. Uploads and deletes of the same key are serialized by a striped lock held from
+ * the moment the reference file is moved into place until the index is updated, so the
+ * index and refs/ always agree on the latest one. Reads are served with
+ * FileChannel.transferTo. The reference index lives in memory and is rebuilt from refs/ on
+ * startup, dropping dangling references and orphaned blobs.
+ */
+@Service
+@ConditionalOnProperty(prefix = "smartdine.images", name = "storage", havingValue = "filesystem")
+public class FileSystemImageAdapter implements ImageAdapter {
+
+    private static final String REF_SUFFIX = ".ref";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String IMAGES_URL = "/smartdine/api/images?key=";
+    private static final int KEY_LOCK_STRIPES = 256;
+
+    private final Path blobs;
+    private final Path refs;
+    private final int syncBatchSize;
+    private final long syncWindowMillis;
+
+    // Both guarded by refCounts, which is always taken after a key lock
+    private final Map<String, LocalImage> index = new HashMap<>();
+    private final Map<String, Integer> refCounts = new HashMap<>();
+    private final Object[] keyLocks = new Object[KEY_LOCK_STRIPES];
+
+    private final LinkedBlockingQueue<PendingCommit> commits = new LinkedBlockingQueue<>();
+    private final Thread syncThread;
+    private volatile boolean running = true;
+
+    /**
+     * Temporary files to move into place, in order, once they are on disk.
+     */
+    private record PendingCommit(List<Path[]> moves, CompletableFuture<Void> done) {
+    }
+
+    public FileSystemImageAdapter(
+            @Value("${smartdine.images.filesystem.directory:${java.io.tmpdir}/smartdine-images}") String directory,
+            @Value("${smartdine.images.filesystem.sync-batch-size:64}") int syncBatchSize,
+            @Value("${smartdine.images.filesystem.sync-window-ms:2}") long syncWindowMillis) throws IOException {
+        Path root = Files.createDirectories(Path.of(directory));
+        this.blobs = Files.createDirectories(root.resolve("blobs"));
+        this.refs = Files.createDirectories(root.resolve("refs"));
+        this.syncBatchSize = Math.max(1, syncBatchSize);
+        this.syncWindowMillis = syncWindowMillis;
+        for (int i = 0; i < KEY_LOCK_STRIPES; i++) {
+            keyLocks[i] = new Object();
+        }
+        loadIndex();
+
+        this.syncThread = new Thread(this::runSync, "image-fs-sync");
+        this.syncThread.setDaemon(true);
+        this.syncThread.start();
+    }
+
+    /**
+     * Stores an image under path, reusing the stored content when an identical image exists.
+     * Returns once the image and its reference are on disk.
+     */
+    @Override
+    public UploadResponse uploadImage(MultipartFile image, String path) throws IOException {
+        if (image == null || image.isEmpty()) {
+            throw new IllegalArgumentException("Image file cannot be null or empty");
+        }
+
+        Path blobTemp = Files.createTempFile(blobs, "upload-", TEMP_SUFFIX);
+        Path refTemp = null;
+        String hash = null;
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(image.getInputStream(), digest)) {
+                size = Files.copy(in, blobTemp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            hash = hex(digest.digest());
+            Path blob = blobPath(hash);
+
+            boolean stored;
+            synchronized (refCounts) {
+                // Pin the blob so a concurrent delete cannot remove it
+                refCounts.merge(hash, 1, Integer::sum);
+                stored = Files.exists(blob);
+            }
+
+            LocalImage entry = new LocalImage(blob, size, contentTypeOf(image), filenameOf(path), hash,
+                System.currentTimeMillis());
+            refTemp = Files.createTempFile(refs, "ref-", TEMP_SUFFIX);
+            writeRef(refTemp, path, entry);
+
+            List<Path[]> moves = new ArrayList<>();
+            if (stored) {
+                Files.deleteIfExists(blobTemp);
+            } else {
+                Files.createDirectories(blob.getParent());
+                moves.add(new Path[] { blobTemp, blob });
+            }
+            // The blob is moved before the reference that points at it
+            moves.add(new Path[] { refTemp, refPath(path) });
+            synchronized (keyLockOf(path)) {
+                commit(moves);
+                synchronized (refCounts) {
+                    LocalImage previous = index.put(path, entry);
+                    if (previous != null) {
+                        release(previous.eTag());
+                    }
+                }
+            }
+            hash = null;
+            return new UploadResponse(path, IMAGES_URL + URLEncoder.encode(path, StandardCharsets.UTF_8),
+                entry.contentType(), size);
+        } finally {
+            deleteQuietly(blobTemp);
+            if (refTemp != null) {
+                deleteQuietly(refTemp);
+            }
+            if (hash != null) {
+                synchronized (refCounts) {
+                    release(hash);
+                }
+            }
+        }
+    }
+
+    @Override
+    public ImageResponseDTO getImage(String key, ImageFetchRequest request) {
+        LocalImage entry;
+        synchronized (refCounts) {
+            entry = index.get(key);
+        }
+        ImageResponseDTO response = entry != null ? entry.serve(key, request) : null;
+        if (response == null) {
+            throw new IllegalArgumentException("No se encontró el archivo con la clave: " + key);
+        }
+        return response;
+    }
+
+    @Override
+    public void deleteImage(String key) {
+        synchronized (keyLockOf(key)) {
+            synchronized (refCounts) {
+                LocalImage removed = index.remove(key);
+                if (removed == null) {
+                    return;
+                }
+                deleteQuietly(refPath(key));
+                release(removed.eTag());
+            }
+        }
+    }
+
+    int size() {
+        synchronized (refCounts) {
+            return index.size();
+        }
+    }
+
+    int blobCount() {
+        synchronized (refCounts) {
+            return refCounts.size();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        syncThread.interrupt();
+    }
+
+    /**
+     * Hands the moves to the sync thread and waits until they are durable.
+     */
+    private void commit(List<Path[]> moves) throws IOException {
+        PendingCommit pending = new PendingCommit(moves, new CompletableFuture<>());
+        if (!running) {
+            throw new IOException("El almacenamiento de imágenes se está cerrando");
+        }
+        commits.add(pending);
+        try {
+            pending.done().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Se interrumpió el guardado de la imagen", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("No se pudo guardar la imagen", e.getCause());
+        }
+    }
+
+    private void runSync() {
+        List<PendingCommit> batch = new ArrayList<>();
+        while (running) {
+            try {
+                batch.add(commits.take());
+                // Give concurrent uploads a moment to join the batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(syncWindowMillis);
+                while (batch.size() < syncBatchSize) {
+                    PendingCommit next = commits.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                syncBatch(batch);
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        IOException closed = new IOException("El almacenamiento de imágenes se está cerrando");
+        commits.forEach(pending -> pending.done().completeExceptionally(closed));
+    }
+
+    /**
+     * Forces every temporary file, moves them into place and syncs each touched directory
+     * once. A failure only fails the commit it belongs to.
+     */
+    private void syncBatch(List<PendingCommit> batch) {
+        Set<Path> directories = new LinkedHashSet<>();
+        List<PendingCommit> moved = new ArrayList<>();
+        for (PendingCommit pending : batch) {
+            try {
+                for (Path[] move : pending.moves()) {
+                    force(move[0], false);
+                }
+                for (Path[] move : pending.moves()) {
+                    Files.move(move[0], move[1], StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    directories.add(move[1].getParent());
+                }
+                moved.add(pending);
+            } catch (IOException | RuntimeException e) {
+                pending.done().completeExceptionally(e);
+            }
+        }
+        try {
+            for (Path directory : directories) {
+                force(directory, true);
+            }
+            moved.forEach(pending -> pending.done().complete(null));
+        } catch (IOException e) {
+            moved.forEach(pending -> pending.done().completeExceptionally(e));
+        }
+    }
+
+    private static void force(Path path, boolean directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                directory ? StandardOpenOption.READ : StandardOpenOption.WRITE)) {
+            channel.force(true);
+        } catch (IOException e) {
+            if (!directory) {
+                throw e;
+            }
+            // Some platforms cannot open or sync directories; the file itself is on disk
+        }
+    }
+
+    /**
+     * Drops a reference to a blob, deleting the blob with its last reference. Called with
+     * the refCounts lock held.
+     */
+    private void release(String hash) {
+        Integer remaining = refCounts.computeIfPresent(hash, (ignored, count) -> count > 1 ? count - 1 : null);
+        if (remaining == null) {
+            deleteQuietly(blobPath(hash));
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(refs)) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().endsWith(REF_SUFFIX)) {
+                    deleteQuietly(file);
+                    continue;
+                }
+                Properties ref = new Properties();
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    ref.load(reader);
+                } catch (IOException | IllegalArgumentException e) {
+                    deleteQuietly(file);
+                    continue;
+                }
+                String hash = ref.getProperty("hash");
+                Path blob = hash != null ? blobPath(hash) : null;
+                if (blob == null || !Files.exists(blob)) {
+                    // Interrupted before its blob was stored
+                    deleteQuietly(file);
+                    continue;
+                }
+                LocalImage entry = new LocalImage(blob, Files.size(blob), ref.getProperty("contentType"),
+                    ref.getProperty("filename"), hash, Long.valueOf(ref.getProperty("lastModified", "0")));
+                index.put(ref.getProperty("key"), entry);
+                refCounts.merge(hash, 1, Integer::sum);
+            }
+        }
+
+        try (Stream<Path> stored = Files.walk(blobs)) {
+            stored.filter(Files::isRegularFile)
+                .filter(file -> !refCounts.containsKey(file.getFileName().toString()))
+                .forEach(FileSystemImageAdapter::deleteQuietly);
+        }
+    }
+
+    private static void writeRef(Path file, String key, LocalImage entry) throws IOException {
+        Properties ref = new Properties();
+        ref.setProperty("key", key);
+        ref.setProperty("hash", entry.eTag());
+        ref.setProperty("contentType", entry.contentType());
+        ref.setProperty("filename", entry.filename());
+        ref.setProperty("lastModified", String.valueOf(entry.lastModified()));
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            ref.store(writer, null);
+        }
+    }
+
+    private Object keyLockOf(String key) {
+        return keyLocks[(key.hashCode() & 0x7fffffff) % KEY_LOCK_STRIPES];
+    }
+
+    /**
+     * Blobs are spread over 256 directories by the first byte of their hash.
+     */
+    private Path blobPath(String hash) {
+        return blobs.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * Keys are hashed so that any key maps to a single flat file name inside refs/.
+     */
+    private Path refPath(String key) {
+        return refs.resolve(hex(sha256().digest(key.getBytes(StandardCharsets.UTF_8))) + REF_SUFFIX);
+    }
+
+    private static String contentTypeOf(MultipartFile image) {
+        String contentType = image.getContentType();
+        return contentType == null || contentType.isBlank() ? "application/octet-stream" : contentType;
+    }
+
+    private static String filenameOf(String key) {
+        return key.contains("/") ? key.substring(key.lastIndexOf('/') + 1) : key;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Removed again on the next startup
+        }
+    }
+}
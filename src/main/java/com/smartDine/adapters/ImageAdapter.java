@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import com.smartDine.dto.ImageFetchRequest;
 import com.smartDine.dto.ImageResponseDTO;
 import com.smartDine.dto.UploadResponse;
 
@@ -31,7 +32,22 @@ public interface ImageAdapter {
      * @return ImageResponseDTO containing the image stream and metadata
      * @throws IllegalArgumentException if the image is not found
      */
-    ImageResponseDTO getImage(String key);
+    default ImageResponseDTO getImage(String key) {
+        return getImage(key, ImageFetchRequest.full());
+    }
+
+    /**
+     * Retrieves an image, or a byte range of it, together with its metadata in a single
+     * storage call, honoring the entity tag and modification date conditions.
+     * 
+     * @param key the key/path of the image to retrieve
+     * @param request the conditions and byte range of the read
+     * @return ImageResponseDTO with the content, or marked as not modified when the
+     *         conditions match and no content was read
+     * @throws IllegalArgumentException if the image is not found
+     * @throws com.smartDine.exceptions.RangeNotSatisfiableException if the range lies outside the image
+     */
+    ImageResponseDTO getImage(String key, ImageFetchRequest request);
 
     /**
      * Deletes an image from the storage system.
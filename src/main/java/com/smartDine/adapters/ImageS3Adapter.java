@@ -1,23 +1,31 @@
 package com.smartDine.adapters;
 
 import java.io.IOException;
-import java.io.InputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.smartDine.dto.ImageFetchRequest;
 import com.smartDine.dto.ImageResponseDTO;
 import com.smartDine.dto.UploadResponse;
+import com.smartDine.exceptions.RangeNotSatisfiableException;
 import com.smartDine.services.S3Service;
 
 /**
  * S3 implementation of the ImageAdapter interface.
  * This adapter encapsulates the S3Service and adapts it to the ImageAdapter interface,
  * following the Adapter design pattern.
+ * It is the default storage; smartdine.images.storage=filesystem replaces it with
+ * FileSystemImageAdapter.
  */
 @Service
+@ConditionalOnProperty(prefix = "smartdine.images", name = "storage", havingValue = "s3", matchIfMissing = true)
 public class ImageS3Adapter implements ImageAdapter {
     
     @Autowired
@@ -46,43 +54,57 @@ public class ImageS3Adapter implements ImageAdapter {
     }
     
     /**
-     * Retrieves an image from AWS S3 with its metadata.
+     * Retrieves an image, or a byte range of it, from AWS S3 with its metadata in a
+     * single GetObject call. The conditions are evaluated by S3.
      * 
      * @param key the S3 key of the image to retrieve
-     * @return ImageResponseDTO containing the image stream and metadata
+     * @param request the conditions and byte range of the read
+     * @return ImageResponseDTO containing the image stream and metadata, or marked as not modified
      * @throws IllegalArgumentException if the image is not found
      */
     @Override
-    public ImageResponseDTO getImage(String key) {
+    public ImageResponseDTO getImage(String key, ImageFetchRequest request) {
+        S3Object object;
         try {
-            // Get the InputStreamResource from S3
-            InputStreamResource resource = adaptee.getFile(key);
-            
-            // Get metadata from S3
-            com.amazonaws.services.s3.model.ObjectMetadata metadata = adaptee.getMetadata(key);
-            
-            // Extract the underlying InputStream
-            InputStream inputStream = resource.getInputStream();
-            
-            // Extract content type from metadata
-            String contentType = metadata.getContentType();
-            if (contentType == null || contentType.isBlank()) {
-                contentType = "application/octet-stream";
+            object = adaptee.getObject(key, request);
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                throw new RangeNotSatisfiableException(key);
             }
-            
-            // Extract content length from metadata
-            long contentLength = metadata.getContentLength();
-            
-            // Extract filename from key (part after last slash)
-            String filename = key.contains("/") ? key.substring(key.lastIndexOf('/') + 1) : key;
-            
-            // Create and return the response DTO
-            return new ImageResponseDTO(inputStream, contentType, contentLength, filename);
-            
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Failed to retrieve image with key: " + key, e);
+            throw new IllegalArgumentException("No se encontró el archivo con la clave: " + key, e);
         }
+
+        if (object == null) {
+            // The object still matches the conditions; a single tag is known to be the current one
+            return ImageResponseDTO.notModified(request.ifNoneMatch().size() == 1 ? request.ifNoneMatch().get(0) : null);
+        }
+
+        ObjectMetadata metadata = object.getObjectMetadata();
+
+        // Extract content type from metadata
+        String contentType = metadata.getContentType();
+        if (contentType == null || contentType.isBlank()) {
+            contentType = "application/octet-stream";
+        }
+
+        // Extract filename from key (part after last slash)
+        String filename = key.contains("/") ? key.substring(key.lastIndexOf('/') + 1) : key;
+
+        ImageResponseDTO response = new ImageResponseDTO(object.getObjectContent(), contentType,
+            metadata.getContentLength(), filename);
+        response.setETag(metadata.getETag());
+        response.setLastModified(metadata.getLastModified() != null ? metadata.getLastModified().getTime() : null);
+        response.setTotalLength(metadata.getInstanceLength());
+
+        // S3 answers with the whole object when the range covers all of it
+        Long[] contentRange = metadata.getContentRange();
+        if (request.isRange() && contentRange != null) {
+            response.setRangeStart(contentRange[0]);
+            response.setRangeEnd(contentRange[1]);
+        }
+        return response;
     }
+
     @Override
     public void deleteImage(String key) {
         adaptee.deleteFile(key);
@@ -0,0 +1,70 @@
+package com.smartDine.adapters;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.smartDine.dto.ImageFetchRequest;
+import com.smartDine.dto.ImageResponseDTO;
+import com.smartDine.exceptions.RangeNotSatisfiableException;
+
+/**
+ * An image stored in a local file together with the metadata needed to serve it.
+ */
+record LocalImage(Path file, long size, String contentType, String filename, String eTag, Long lastModified) {
+
+    /**
+     * Answers a request from the file, evaluating its conditions and byte range locally.
+     * The content is read through a FileRegionInputStream, so it can be sent with
+     * FileChannel.transferTo. Returns null if the file no longer exists.
+     */
+    ImageResponseDTO serve(String key, ImageFetchRequest request) {
+        if (isNotModified(request)) {
+            return ImageResponseDTO.notModified(eTag);
+        }
+
+        long start = 0;
+        long end = size - 1;
+        if (request.isRange()) {
+            if (request.rangeStart() >= size) {
+                throw new RangeNotSatisfiableException(key);
+            }
+            start = request.rangeStart();
+            if (request.rangeEnd() != null) {
+                end = Math.min(request.rangeEnd(), end);
+            }
+        }
+
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer la imagen: " + key, e);
+        }
+
+        long length = end - start + 1;
+        ImageResponseDTO response = new ImageResponseDTO(new FileRegionInputStream(channel, start, length),
+            contentType, length, filename);
+        response.setETag(eTag);
+        response.setLastModified(lastModified);
+        response.setTotalLength(size);
+        if (request.isRange()) {
+            response.setRangeStart(start);
+            response.setRangeEnd(end);
+        }
+        return response;
+    }
+
+    private boolean isNotModified(ImageFetchRequest request) {
+        if (!request.ifNoneMatch().isEmpty()) {
+            return eTag != null && request.ifNoneMatch().contains(eTag);
+        }
+        // HTTP dates have a one second resolution
+        return request.ifModifiedSince() != null && lastModified != null
+            && lastModified / 1000 <= request.ifModifiedSince() / 1000;
+    }
+}
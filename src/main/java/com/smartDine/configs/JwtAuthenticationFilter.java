@@ -13,7 +13,12 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
+import com.smartDine.entity.User;
 import com.smartDine.services.JwtService;
+import com.smartDine.services.PrincipalCache;
+import com.smartDine.services.PrincipalCache.CachedPrincipal;
+
+import io.jsonwebtoken.Claims;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -26,14 +31,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     public JwtAuthenticationFilter(
         JwtService jwtService,
         UserDetailsService userDetailsService,
+        PrincipalCache principalCache,
         HandlerExceptionResolver handlerExceptionResolver
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
         this.handlerExceptionResolver = handlerExceptionResolver;
     }
 
@@ -52,14 +60,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            // Parsed and verified once; every check below works on these claims
+            final Claims claims = jwtService.extractAllClaims(jwt);
+            final String userEmail = claims.getSubject();
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
             if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = resolvePrincipal(claims, userEmail);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -76,4 +86,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             handlerExceptionResolver.resolveException(request, response, null, exception);
         }
     }
+
+    /**
+     * Tokens carrying a user id are resolved from the principal cache, as long as the cached
+     * snapshot agrees with the email, role and subtype signed into the token; a miss, a
+     * mismatch, or a token issued without an id loads the user by email.
+     *
+     * Either way the principal is a snapshot (see CachedPrincipal.toUser) that only carries
+     * the user's id, name, email and role, so no caller can come to rely on a loaded entity
+     * that the cache would not provide.
+     */
+    private UserDetails resolvePrincipal(Claims claims, String userEmail) {
+        Long userId = jwtService.extractUserId(claims);
+        boolean cacheable = userId != null && principalCache.isEnabled();
+        if (cacheable) {
+            CachedPrincipal cached = principalCache.get(userId);
+            if (cached != null && cached.matches(userEmail,
+                    claims.get(JwtService.CLAIM_ROLE, String.class),
+                    claims.get(JwtService.CLAIM_USER_TYPE, String.class))) {
+                return cached.toUser();
+            }
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        if (!(userDetails instanceof User user)) {
+            return userDetails;
+        }
+        if (cacheable && userId.equals(user.getId())) {
+            principalCache.put(user);
+        }
+        return CachedPrincipal.of(user).toUser();
+    }
 }
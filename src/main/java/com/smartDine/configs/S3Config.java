@@ -4,6 +4,11 @@ import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
+
+import java.util.concurrent.Executors;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -28,4 +33,22 @@ public class S3Config {
                 .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
                 .build();
     }
+
+    /**
+     * Multipart uploads: objects from the threshold up are sent in parts of partSize bytes,
+     * several at a time.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public TransferManager transferManager(
+            AmazonS3 amazonS3,
+            @Value("${aws.s3.multipart.threshold-bytes:5242880}") long thresholdBytes,
+            @Value("${aws.s3.multipart.part-size-bytes:5242880}") long partSizeBytes,
+            @Value("${aws.s3.multipart.threads:8}") int threads) {
+        return TransferManagerBuilder.standard()
+                .withS3Client(amazonS3)
+                .withMultipartUploadThreshold(thresholdBytes)
+                .withMinimumUploadPartSize(partSizeBytes)
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(threads))
+                .build();
+    }
 }
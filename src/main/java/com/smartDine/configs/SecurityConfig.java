@@ -16,6 +16,8 @@ import java.util.List;
 
 import org.springframework.http.HttpMethod;
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -34,6 +36,8 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authz -> authz
+                        // Async dispatches of streams (SSE) were authorized on the original request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/smartdine/api/auth/**").permitAll()
                         .requestMatchers("/actuator/health/**").permitAll() // Health check endpoint
                         .requestMatchers("/h2-console/**").permitAll()
@@ -1,6 +1,7 @@
 package com.smartDine.controllers;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,7 +19,7 @@ import org.springframework.web.multipart.MultipartFile;
 import com.smartDine.dto.CommunityDTO;
 import com.smartDine.dto.CreateCommunityDTO;
 import com.smartDine.dto.MemberDTO;
-import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Community;
 import com.smartDine.entity.Member;
 import com.smartDine.entity.User;
@@ -74,12 +75,14 @@ public class CommunityController {
     }
 
     @PostMapping("communities/{id}/images")
-    public ResponseEntity<UploadResponse> uploadCommunityImage(
+    public ResponseEntity<UploadTicketDTO> uploadCommunityImage(
             @PathVariable Long id,
             @RequestParam() MultipartFile file,
             @AuthenticationPrincipal User user) throws IOException {
-        UploadResponse response = communityService.uploadCommunityImage(id, file, user);
-        return ResponseEntity.ok(response);
+        UploadTicketDTO ticket = communityService.uploadCommunityImage(id, file, user);
+        return ResponseEntity.accepted()
+                .location(URI.create("/smartdine/api/uploads/" + ticket.getTicketId()))
+                .body(ticket);
     }
 
     @GetMapping("me/communities")
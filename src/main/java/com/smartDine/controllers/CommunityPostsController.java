@@ -16,7 +16,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.smartDine.dto.community.post.CommunityPostCursor;
 import com.smartDine.dto.community.post.CommunityPostResponseDTO;
+import com.smartDine.dto.community.post.CommunityPostSearchResultDTO;
 import com.smartDine.dto.community.post.CommunityPostSummaryDTO;
 import com.smartDine.dto.community.post.CreateCommunityPostRequestDTO;
 import com.smartDine.dto.community.post.CreateOpenReservationPostDTO;
@@ -34,6 +36,8 @@ import jakarta.validation.Valid;
 @Validated
 public class CommunityPostsController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final CommunityPostService communityPostService;
 
     public CommunityPostsController(CommunityPostService communityPostService) {
@@ -49,6 +53,10 @@ public class CommunityPostsController {
         return ResponseEntity.ok(CommunityPostResponseDTO.fromEntity(post));
     }
 
+    /**
+     * Gets a community's posts. The optional search matches whole words of the title or
+     * description, or their beginning, and orders the posts by relevance.
+     */
     @GetMapping("/communities/{communityId}/posts")
     public ResponseEntity<List<CommunityPostResponseDTO>> getPostsByCommunity(
             @PathVariable Long communityId,
@@ -59,6 +67,40 @@ public class CommunityPostsController {
         return ResponseEntity.ok(CommunityPostResponseDTO.fromEntity(posts));
     }
 
+    /**
+     * Gets a page of a community's posts, newest first.
+     * When the page is full, the X-Next-Cursor header carries the cursor of the next one.
+     */
+    @GetMapping("/communities/{communityId}/feed")
+    public ResponseEntity<List<CommunityPostResponseDTO>> getFeed(
+            @PathVariable Long communityId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal User user) {
+        List<CommunityPostResponseDTO> page = communityPostService.getFeed(communityId, cursor, limit,
+                user != null ? user.getId() : null);
+        if (page.size() == limit) {
+            String nextCursor = CommunityPostCursor.of(page.get(page.size() - 1)).toString();
+            return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, nextCursor).body(page);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Searches a community's posts by title and description, best match first, with a
+     * highlighted excerpt of each description.
+     */
+    @GetMapping("/communities/{communityId}/posts/search")
+    public ResponseEntity<List<CommunityPostSearchResultDTO>> searchPosts(
+            @PathVariable Long communityId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(communityPostService.searchPosts(communityId, q, page, size,
+                user != null ? user.getId() : null));
+    }
+
     @GetMapping("/communities/posts/{postId}")
     public ResponseEntity<CommunityPostResponseDTO> getPost(
             @PathVariable Long postId,
@@ -67,6 +109,9 @@ public class CommunityPostsController {
         return ResponseEntity.ok(CommunityPostResponseDTO.fromEntity(post));
     }
 
+    /**
+     * Gets a member's posts, with the same optional search as a community's posts.
+     */
     @GetMapping("/communities/members/{memberId}/posts")
     public ResponseEntity<List<CommunityPostSummaryDTO>> getPostsByMember(
             @PathVariable Long memberId,
@@ -1,6 +1,9 @@
 package com.smartDine.controllers;
 
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
@@ -16,6 +19,7 @@ import com.smartDine.entity.Customer;
 import com.smartDine.entity.Role;
 import com.smartDine.entity.User;
 import com.smartDine.services.CustomerService;
+import com.smartDine.services.FriendSuggestionService;
 import com.smartDine.services.FriendshipRequestService;
 import com.smartDine.services.FriendshipService;
 
@@ -27,17 +31,22 @@ import com.smartDine.services.FriendshipService;
 @RequestMapping("/smartdine/api")
 public class CustomerController {
 
+    static final int MAX_SUGGESTIONS = 50;
+
     private final CustomerService customerService;
     private final FriendshipService friendshipService;
     private final FriendshipRequestService friendshipRequestService;
+    private final FriendSuggestionService friendSuggestionService;
 
     public CustomerController(
             CustomerService customerService,
             FriendshipService friendshipService,
-            FriendshipRequestService friendshipRequestService) {
+            FriendshipRequestService friendshipRequestService,
+            FriendSuggestionService friendSuggestionService) {
         this.customerService = customerService;
         this.friendshipService = friendshipService;
         this.friendshipRequestService = friendshipRequestService;
+        this.friendSuggestionService = friendSuggestionService;
     }
 
     /**
@@ -46,7 +55,9 @@ public class CustomerController {
      * 
      * Returns customers matching the search term (case-insensitive, partial match).
      * The authenticated user is excluded from results.
-     * Results include friendship status (isFriend) and pending request status (hasPendingRequest).
+     * Results include friendship status (isFriend), mutual friends and pending request status
+     * (hasPendingRequest), and are ranked by social distance: friends first, then friends of
+     * friends by number of mutual friends, then everyone else.
      * 
      * @param name The search term (minimum 2 characters required)
      * @param user The authenticated user
@@ -83,8 +94,16 @@ public class CustomerController {
                 .map(customer -> {
                     CustomerSearchDTO dto = CustomerSearchDTO.fromEntity(customer);
                     
-                    // Check if they are friends
+                    // Check if they are friends, or else how many friends they share
                     dto.setFriend(friendshipService.areFriends(authenticatedCustomer, customer));
+                    if (dto.isFriend()) {
+                        dto.setSocialDistance(FriendSuggestionService.FRIEND);
+                    } else {
+                        dto.setMutualFriends(friendSuggestionService.getMutualFriends(user.getId(), customer.getId()));
+                        dto.setSocialDistance(dto.getMutualFriends() > 0
+                                ? FriendSuggestionService.FRIEND_OF_FRIEND
+                                : FriendSuggestionService.UNRELATED);
+                    }
                     
                     // Check if there's a pending friend request between them
                     dto.setHasPendingRequest(
@@ -93,6 +112,53 @@ public class CustomerController {
                     
                     return dto;
                 })
+                // Closest first: friends, then friends of friends by mutual friends
+                .sorted(Comparator.comparingInt(CustomerSearchDTO::getSocialDistance)
+                        .thenComparing(Comparator.comparingInt(CustomerSearchDTO::getMutualFriends).reversed()))
+                .collect(Collectors.toList());
+
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * Suggest friends of friends of the authenticated customer.
+     * GET /smartdine/api/customers/suggestions?limit=10
+     * 
+     * Returns customers who share friends with the authenticated user, most mutual friends first.
+     * 
+     * @param limit Maximum number of suggestions (1 to 50)
+     * @param user The authenticated user
+     * @return List of suggested customers with their mutual friend count
+     */
+    @GetMapping("/customers/suggestions")
+    public ResponseEntity<List<CustomerSearchDTO>> suggestFriends(
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal User user
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (user.getRole() != Role.ROLE_CUSTOMER) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+
+        List<FriendSuggestionService.Suggestion> suggestions = friendSuggestionService.getSuggestions(user.getId(), limit);
+        Map<Long, Customer> customers = customerService.getCustomersByIds(
+                suggestions.stream().map(FriendSuggestionService.Suggestion::customerId).toList())
+                .stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        List<CustomerSearchDTO> results = suggestions.stream()
+                .filter(suggestion -> customers.containsKey(suggestion.customerId()))
+                .map(suggestion -> {
+                    CustomerSearchDTO dto = CustomerSearchDTO.fromEntity(customers.get(suggestion.customerId()));
+                    dto.setMutualFriends(suggestion.mutualFriends());
+                    dto.setSocialDistance(FriendSuggestionService.FRIEND_OF_FRIEND);
+                    return dto;
+                })
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(results);
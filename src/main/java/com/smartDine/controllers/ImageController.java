@@ -1,48 +1,34 @@
 package com.smartDine.controllers;
 
+import java.io.IOException;
+
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
-import org.springframework.http.ContentDisposition;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.smartDine.adapters.ImageAdapter;
-import com.smartDine.dto.ImageResponseDTO;
+import com.smartDine.dto.ImageVariant;
+import com.smartDine.services.ImageDeliveryService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("smartdine/api")
 public class ImageController {
 
     @Autowired
-    private ImageAdapter imageAdapter;
+    private ImageDeliveryService imageDeliveryService;
 
+    /**
+     * GET /images?key=&variant= - Streams an image. variant is thumbnail, medium or full
+     * (default). Supports If-None-Match / If-Modified-Since (304) and single byte ranges (206).
+     */
     @GetMapping("/images")
-    public ResponseEntity<InputStreamResource> getImage(@RequestParam ("key") String key) {
-        // Get image with metadata from adapter
-        ImageResponseDTO imageResponse = imageAdapter.getImage(key);
-        
-        // Create InputStreamResource from the InputStream
-        InputStreamResource resource = new InputStreamResource(imageResponse.getInputStream());
-
-        // Parse content type, fallback to octet-stream if invalid
-        MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
-        String contentType = imageResponse.getContentType();
-        if (contentType != null && !contentType.isBlank()) {
-            try { 
-                mediaType = MediaType.parseMediaType(contentType); 
-            } catch (org.springframework.http.InvalidMediaTypeException ignored) {}
-        }
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        ContentDisposition.inline().filename(imageResponse.getFilename()).toString())
-                .contentType(mediaType)
-                .contentLength(imageResponse.getContentLength())
-                .body(resource);
+    public void getImage(@RequestParam ("key") String key,
+            @RequestParam(value = "variant", required = false) String variant,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        imageDeliveryService.writeImage(key, ImageVariant.fromParam(variant), request, response);
     }
 }
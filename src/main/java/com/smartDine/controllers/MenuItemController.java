@@ -24,7 +24,7 @@ import org.springframework.web.multipart.MultipartFile;
 import com.smartDine.dto.MenuItemDTO;
 import com.smartDine.dto.UpdateDishDTO;
 import com.smartDine.dto.UpdateDrinkDTO;
-import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Dish;
 import com.smartDine.entity.Drink;
@@ -75,15 +75,16 @@ public class MenuItemController {
      * @param menuItemId the ID of the menu item
      * @param file the image file to upload
      * @param user the authenticated user (must be the restaurant owner)
-     * @return ResponseEntity containing UploadResponse with file details
-     * @throws IOException if the file upload fails
+     * @return 202 Accepted with the UploadTicketDTO; Location points to its status, which
+     *         can only be read from this node
+     * @throws IOException if the file upload cannot be accepted
      */
     @PostMapping(
         value = "/restaurants/{restaurantId}/menu-items/{menuItemId}/images",
         consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
         produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<UploadResponse> uploadMenuItemImage(
+    public ResponseEntity<UploadTicketDTO> uploadMenuItemImage(
             @PathVariable Long restaurantId,
             @PathVariable Long menuItemId,
             @RequestPart("file") MultipartFile file,
@@ -101,11 +102,11 @@ public class MenuItemController {
         }
         
         // Delegate upload and assignment to service
-        UploadResponse response = menuItemService.uploadMenuItemImage(
+        UploadTicketDTO ticket = menuItemService.uploadMenuItemImage(
             restaurantId, menuItemId, file, (Business) user);
-        URI location = URI.create("/api/images/" + response.getKey());
+        URI location = URI.create("/smartdine/api/uploads/" + ticket.getTicketId());
         
-        return ResponseEntity.created(location).body(response);
+        return ResponseEntity.accepted().location(location).body(ticket);
     }
     
     /**
@@ -3,18 +3,24 @@ package com.smartDine.controllers;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.smartDine.dto.NotificationCursor;
 import com.smartDine.dto.NotificationDTO;
 import com.smartDine.entity.Notification;
 import com.smartDine.entity.User;
 import com.smartDine.services.NotificationService;
+import com.smartDine.services.NotificationStreamService;
 
 /**
  * Controller for managing user notifications.
@@ -23,10 +29,15 @@ import com.smartDine.services.NotificationService;
 @RequestMapping("/smartdine/api")
 public class NotificationController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final NotificationService notificationService;
+    private final NotificationStreamService notificationStreamService;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService,
+            NotificationStreamService notificationStreamService) {
         this.notificationService = notificationService;
+        this.notificationStreamService = notificationStreamService;
     }
 
     /**
@@ -45,6 +56,80 @@ public class NotificationController {
         return ResponseEntity.ok(NotificationDTO.fromEntity(notifications));
     }
 
+    /**
+     * Get a page of the authenticated user's notifications, newest first.
+     * GET /me/notifications/inbox
+     * When the page is full, the X-Next-Cursor header carries the cursor of the next one.
+     */
+    @GetMapping("/me/notifications/inbox")
+    public ResponseEntity<List<NotificationDTO>> getMyInbox(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean unreadOnly
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        List<NotificationDTO> page = notificationService.getInboxPage(user, cursor, limit, unreadOnly);
+        if (page.size() == limit) {
+            String nextCursor = NotificationCursor.of(page.get(page.size() - 1)).toString();
+            return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, nextCursor).body(page);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Get the number of unread notifications of the authenticated user.
+     * GET /me/notifications/unread-count
+     */
+    @GetMapping("/me/notifications/unread-count")
+    public ResponseEntity<Long> getMyUnreadCount(
+            @AuthenticationPrincipal User user
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        return ResponseEntity.ok(notificationService.getUnreadCount(user));
+    }
+
+    /**
+     * Mark all notifications of the authenticated user as read.
+     * POST /me/notifications/read-all
+     */
+    @PostMapping("/me/notifications/read-all")
+    public ResponseEntity<Void> markAllMyNotificationsAsRead(
+            @AuthenticationPrincipal User user
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        notificationService.markAllAsRead(user);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Stream new notifications of the authenticated user as Server-Sent Events.
+     * GET /me/notifications/stream
+     * On reconnect, the Last-Event-ID header replays the notifications missed meanwhile.
+     */
+    @GetMapping(value = "/me/notifications/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMyNotifications(
+            @AuthenticationPrincipal User user,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        SseEmitter emitter = notificationStreamService.newEmitter();
+        notificationStreamService.subscribe(user, lastEventId, emitter);
+        return ResponseEntity.ok(emitter);
+    }
+
     /**
      * Mark a notification as read.
      * POST /notifications/{id}/read
@@ -12,9 +12,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.smartDine.dto.FriendDTO;
+import com.smartDine.dto.NotificationCursor;
 import com.smartDine.dto.RequestCreationDTO;
 import com.smartDine.dto.RequestDTO;
 import com.smartDine.entity.Customer;
@@ -37,6 +39,8 @@ import jakarta.validation.Valid;
  * Endpoints:
  * - POST /users/{id}/requests?type=FRIEND_REQUEST - Send a request
  * - GET /me/requests?type=FRIEND_REQUEST - Get pending requests of a type
+ * - GET /me/requests/inbox - Get a page of pending friend requests
+ * - GET /me/requests/count - Get the number of pending friend requests
  * - POST /requests/{id}/accept - Accept a request
  * - POST /requests/{id}/reject - Reject a request
  * - GET /me/friends - Get friends list
@@ -134,6 +138,58 @@ public class RequestController {
         return ResponseEntity.ok(RequestDTO.fromEntity(requests));
     }
 
+    /**
+     * Get a page of the pending friend requests received by the authenticated user, newest first.
+     * GET /me/requests/inbox
+     * When the page is full, the X-Next-Cursor header carries the cursor of the next one.
+     * 
+     * @param user The authenticated user
+     * @param cursor The cursor of the page, or none for the first page
+     * @param limit Maximum number of requests to return
+     * @return The page of pending requests
+     */
+    @GetMapping("/me/requests/inbox")
+    public ResponseEntity<List<RequestDTO>> getPendingRequestsInbox(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (user.getRole() != Role.ROLE_CUSTOMER) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        List<RequestDTO> page = friendshipRequestService.getPendingRequestsPage(user, cursor, limit);
+        if (page.size() == limit) {
+            String nextCursor = NotificationCursor.of(page.get(page.size() - 1)).toString();
+            return ResponseEntity.ok().header(NotificationController.NEXT_CURSOR_HEADER, nextCursor).body(page);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * Get the number of pending friend requests received by the authenticated user.
+     * GET /me/requests/count
+     * 
+     * @param user The authenticated user
+     * @return The pending count
+     */
+    @GetMapping("/me/requests/count")
+    public ResponseEntity<Long> getPendingRequestsCount(
+            @AuthenticationPrincipal User user
+    ) {
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (user.getRole() != Role.ROLE_CUSTOMER) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok(friendshipRequestService.getPendingCount(user));
+    }
+
     /**
      * Accept a request.
      * POST /requests/{id}/accept
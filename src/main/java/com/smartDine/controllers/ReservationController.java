@@ -1,5 +1,8 @@
 package com.smartDine.controllers;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -19,8 +22,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.smartDine.dto.AddParticipantRequestDTO;
 import com.smartDine.dto.ProfileDTO;
+import com.smartDine.dto.ReservationCursor;
 import com.smartDine.dto.ReservationDTO;
 import com.smartDine.dto.ReservationDetailsDTO;
 import com.smartDine.dto.ReservationParticipationDTO;
@@ -35,6 +41,7 @@ import com.smartDine.entity.User;
 import com.smartDine.services.CustomerService;
 import com.smartDine.services.ReservationService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -42,14 +49,20 @@ import jakarta.validation.Valid;
 @CrossOrigin(origins = "*")
 public class ReservationController {
 
+    static final String NDJSON = "application/x-ndjson";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ReservationService reservationService;
     private final CustomerService customerService;
+    private final ObjectMapper objectMapper;
 
     public ReservationController(
             ReservationService reservationService,
-            CustomerService customerService) {
+            CustomerService customerService,
+            ObjectMapper objectMapper) {
         this.reservationService = reservationService;
         this.customerService = customerService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/reservations")
@@ -96,15 +109,21 @@ public class ReservationController {
         }
 
         Customer customer = customerService.getCustomerById(user.getId());
-        List<Reservation> allReservations = reservationService.getAllReservationsForCustomer(customer.getId());
-        List<ReservationDetailsDTO> response = ReservationDetailsDTO.fromEntity(allReservations);
+        List<ReservationDetailsDTO> response = reservationService.getReservationDetailsForCustomer(customer.getId());
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Reservations of a restaurant for a date, ordered by time slot start and then id.
+     * With a limit the result is a keyset page and the X-Next-Cursor header carries the
+     * cursor of the next one.
+     */
     @GetMapping("/restaurants/{id}/reservations")
     public ResponseEntity<List<RestaurantReservationDTO>> getRestaurantReservations(
         @PathVariable Long id,
         @RequestParam(required = true) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
         @AuthenticationPrincipal User user
     ) {
         if (user == null) {
@@ -115,11 +134,47 @@ public class ReservationController {
         }
 
         Business business = (Business) user;
-        List<Reservation> reservations = reservationService.getReservationsByRestaurantAndDate(id, date, business);
-        List<RestaurantReservationDTO> response = RestaurantReservationDTO.fromEntity(reservations);
+        List<RestaurantReservationDTO> response = reservationService.getReservationPage(id, date, business, cursor, limit);
+        if (limit != null && response.size() == limit) {
+            String nextCursor = ReservationCursor.of(response.get(response.size() - 1)).toString();
+            return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, nextCursor).body(response);
+        }
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Same listing as NDJSON (one reservation per line), streamed straight from the database
+     * cursor. Selected with "Accept: application/x-ndjson".
+     */
+    @GetMapping(value = "/restaurants/{id}/reservations", produces = NDJSON)
+    public void streamRestaurantReservations(
+        @PathVariable Long id,
+        @RequestParam(required = true) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+        @AuthenticationPrincipal User user,
+        HttpServletResponse response
+    ) throws IOException {
+        if (user == null) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        if (user.getRole() != Role.ROLE_BUSINESS) {
+            throw new BadCredentialsException("Only business owners can access restaurant reservations");
+        }
+
+        response.setContentType(NDJSON);
+        OutputStream out = response.getOutputStream();
+        ObjectWriter writer = objectMapper.writerFor(RestaurantReservationDTO.class);
+        reservationService.streamReservations(id, date, (Business) user, reservation -> {
+            try {
+                out.write(writer.writeValueAsBytes(reservation));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+
     @GetMapping("/reservations/{id}/participants")
     public ResponseEntity<List<ProfileDTO>> getReservationParticipants(
         @PathVariable Long id,
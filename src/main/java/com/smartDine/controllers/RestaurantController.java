@@ -23,7 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.smartDine.dto.RestaurantDTO;
-import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Restaurant;
 import com.smartDine.entity.User;
@@ -39,12 +39,14 @@ public class RestaurantController {
     private RestaurantService restaurantService;
 
     /**
-     * GET /restaurants - Get all restaurants or search by name
+     * GET /restaurants - Get a page of restaurants, or a ranked page of search results
      */
     @GetMapping
     public ResponseEntity<List<RestaurantDTO>> getRestaurants(
-        @RequestParam(value = "search", required = false) String searchTerm) {
-        List<Restaurant> restaurants = restaurantService.getRestaurants(searchTerm);
+        @RequestParam(value = "search", required = false) String searchTerm,
+        @RequestParam(value = "page", defaultValue = "0") int page,
+        @RequestParam(value = "size", defaultValue = "20") int size) {
+        List<Restaurant> restaurants = restaurantService.getRestaurants(searchTerm, page, size);
         List<RestaurantDTO> restaurantDTOs = RestaurantDTO.fromEntity(restaurants);
         return ResponseEntity.ok(restaurantDTOs);
     }
@@ -54,8 +56,7 @@ public class RestaurantController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<RestaurantDTO> getRestaurantById(@PathVariable Long id, @AuthenticationPrincipal User user) {
-        Restaurant restaurant = restaurantService.getRestaurantById(id);
-        RestaurantDTO restaurantDTO = RestaurantDTO.fromEntity(restaurant);
+        RestaurantDTO restaurantDTO = RestaurantDTO.fromMetadata(restaurantService.getRestaurantMetadata(id));
         return ResponseEntity.ok(restaurantDTO);
     }
     
@@ -97,7 +98,7 @@ public class RestaurantController {
         consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
         produces = MediaType.APPLICATION_JSON_VALUE
     )
-    public ResponseEntity<UploadResponse> upload(
+    public ResponseEntity<UploadTicketDTO> upload(
             @PathVariable Long id,
             @RequestPart("file") MultipartFile file,
             @AuthenticationPrincipal User user) throws java.io.IOException {
@@ -113,10 +114,11 @@ public class RestaurantController {
         }
         
         // Delegate upload and assignment to service
-        UploadResponse response = restaurantService.uploadRestaurantImage(id, file, (Business) user);
-        URI location = URI.create("/api/images/" + response.getKey());
+        // Stored in the background: the ticket reports when the image is assigned
+        UploadTicketDTO ticket = restaurantService.uploadRestaurantImage(id, file, (Business) user);
+        URI location = URI.create("/smartdine/api/uploads/" + ticket.getTicketId());
 
-        return ResponseEntity.created(location).body(response);
+        return ResponseEntity.accepted().location(location).body(ticket);
     }
     
 }
@@ -5,6 +5,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -17,7 +18,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartDine.dto.AvailabilityGridDTO;
 import com.smartDine.dto.RestaurantTableDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.RestaurantTable;
@@ -34,6 +39,9 @@ public class TableController {
     
     @Autowired
     private RestaurantTableService tableService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
     
     /**
      * POST /smartdine/api/restaurants/{restaurantId}/tables - Create a new table for a restaurant
@@ -79,6 +87,26 @@ public class TableController {
          return ResponseEntity.ok(avaliableTables);
 
     }
+
+    /**
+     * GET /smartdine/api/restaurants/{restaurantId}/tables/availability - Free table counts for
+     * every date and time slot in a range, streamed as JSON
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<StreamingResponseBody> getAvailabilityGrid(
+            @PathVariable Long restaurantId,
+            @RequestParam LocalDate from,
+            @RequestParam LocalDate to) {
+        AvailabilityGridDTO grid = tableService.getAvailabilityGrid(restaurantId, from, to);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                grid.writeTo(generator);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
     
     @GetMapping
     public ResponseEntity<List<RestaurantTableDTO>> getRestaurantTables(
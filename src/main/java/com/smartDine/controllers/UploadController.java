@@ -0,0 +1,32 @@
+package com.smartDine.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.smartDine.dto.UploadTicketDTO;
+import com.smartDine.entity.User;
+import com.smartDine.services.ImageUploadService;
+
+@RestController
+@RequestMapping("smartdine/api/uploads")
+public class UploadController {
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    /**
+     * GET /smartdine/api/uploads/{ticketId} - State of an image upload made by the user.
+     * Tickets are kept in the memory of the node that accepted the upload, so polling
+     * through another node returns not-found.
+     */
+    @GetMapping("/{ticketId}")
+    public ResponseEntity<UploadTicketDTO> getUpload(@PathVariable String ticketId,
+            @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(imageUploadService.getTicket(ticketId, user));
+    }
+}
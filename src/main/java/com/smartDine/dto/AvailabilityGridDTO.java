@@ -0,0 +1,148 @@
+package com.smartDine.dto;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.smartDine.entity.RestaurantTable;
+import com.smartDine.entity.TimeSlot;
+import com.smartDine.repository.ReservationRepository.ReservedTable;
+
+/**
+ * Availability matrix of a restaurant over a date range: for every date and every time
+ * slot of that day of the week, the number of free tables split by inside/outside and
+ * capacity bucket.
+ *
+ * Only the booked tables are kept (one bitmap per booked date and slot); the cells are
+ * computed while the JSON is written, so large ranges are never materialized.
+ */
+public class AvailabilityGridDTO {
+    public static final String[] CAPACITY_BUCKETS = {"1-2", "3-4", "5-6", "7+"};
+
+    private final Long restaurantId;
+    private final LocalDate from;
+    private final LocalDate to;
+
+    private final boolean[] outside;
+    private final int[] bucket;
+    private final Map<Long, Integer> tableIndex = new HashMap<>();
+    private final Map<DayOfWeek, List<Slot>> slotsByDay = new EnumMap<>(DayOfWeek.class);
+    private final Map<LocalDate, Map<Long, BitSet>> booked = new HashMap<>();
+
+    public AvailabilityGridDTO(Long restaurantId, LocalDate from, LocalDate to,
+            List<RestaurantTable> tables, List<TimeSlot> timeSlots, List<ReservedTable> reservedTables) {
+        this.restaurantId = restaurantId;
+        this.from = from;
+        this.to = to;
+
+        this.outside = new boolean[tables.size()];
+        this.bucket = new int[tables.size()];
+        for (int i = 0; i < tables.size(); i++) {
+            RestaurantTable table = tables.get(i);
+            tableIndex.put(table.getId(), i);
+            outside[i] = Boolean.TRUE.equals(table.getOutside());
+            bucket[i] = bucketOf(table.getCapacity());
+        }
+
+        for (TimeSlot timeSlot : timeSlots) {
+            slotsByDay.computeIfAbsent(timeSlot.getDayOfWeek(), day -> new ArrayList<>())
+                .add(new Slot(timeSlot.getId(), timeSlot.getStartTime(), timeSlot.getEndTime()));
+        }
+        slotsByDay.values().forEach(slots -> slots.sort(Comparator.comparing(Slot::startTime)));
+
+        for (ReservedTable reserved : reservedTables) {
+            Integer index = tableIndex.get(reserved.getTableId());
+            if (index != null) {
+                booked.computeIfAbsent(reserved.getDate(), date -> new HashMap<>())
+                    .computeIfAbsent(reserved.getTimeSlotId(), slot -> new BitSet(outside.length))
+                    .set(index);
+            }
+        }
+    }
+
+    public static int bucketOf(Integer capacity) {
+        if (capacity == null || capacity <= 2) {
+            return 0;
+        }
+        return Math.min((capacity - 1) / 2, CAPACITY_BUCKETS.length - 1);
+    }
+
+    /**
+     * Free tables of a cell, indexed as [outside ? 1 : 0][capacity bucket].
+     */
+    public int[][] freeTables(LocalDate date, Long timeSlotId) {
+        int[][] counts = new int[2][CAPACITY_BUCKETS.length];
+        Map<Long, BitSet> bookedOnDate = booked.get(date);
+        BitSet occupied = bookedOnDate != null ? bookedOnDate.get(timeSlotId) : null;
+        for (int i = 0; i < outside.length; i++) {
+            if (occupied == null || !occupied.get(i)) {
+                counts[outside[i] ? 1 : 0][bucket[i]]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Writes the grid as:
+     * {"restaurantId", "from", "to", "buckets": [...], "days": [{"date", "slots": [
+     *   {"timeSlotId", "startTime", "endTime", "inside": [...], "outside": [...]}]}]}
+     */
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("restaurantId", restaurantId);
+        generator.writeStringField("from", from.toString());
+        generator.writeStringField("to", to.toString());
+        generator.writeArrayFieldStart("buckets");
+        for (String name : CAPACITY_BUCKETS) {
+            generator.writeString(name);
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("days");
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            generator.writeStartObject();
+            generator.writeStringField("date", date.toString());
+            generator.writeArrayFieldStart("slots");
+            for (Slot slot : slotsByDay.getOrDefault(date.getDayOfWeek(), List.of())) {
+                int[][] counts = freeTables(date, slot.id());
+                generator.writeStartObject();
+                generator.writeNumberField("timeSlotId", slot.id());
+                generator.writeNumberField("startTime", slot.startTime());
+                generator.writeNumberField("endTime", slot.endTime());
+                generator.writeFieldName("inside");
+                generator.writeArray(counts[0], 0, counts[0].length);
+                generator.writeFieldName("outside");
+                generator.writeArray(counts[1], 0, counts[1].length);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.flush();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    public Long getRestaurantId() {
+        return restaurantId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    private record Slot(Long id, Double startTime, Double endTime) {}
+}
@@ -13,6 +13,8 @@ public class CustomerSearchDTO {
     private String email;
     private boolean isFriend;
     private boolean hasPendingRequest;
+    private int mutualFriends;
+    private int socialDistance;
 
     public CustomerSearchDTO() {
     }
@@ -66,6 +68,25 @@ public class CustomerSearchDTO {
         this.hasPendingRequest = hasPendingRequest;
     }
 
+    public int getMutualFriends() {
+        return mutualFriends;
+    }
+
+    public void setMutualFriends(int mutualFriends) {
+        this.mutualFriends = mutualFriends;
+    }
+
+    /**
+     * 1 for friends, 2 for friends of friends, 3 for anyone else.
+     */
+    public int getSocialDistance() {
+        return socialDistance;
+    }
+
+    public void setSocialDistance(int socialDistance) {
+        this.socialDistance = socialDistance;
+    }
+
     /**
      * Creates a CustomerSearchDTO from a Customer entity.
      * Note: isFriend and hasPendingRequest must be set separately after creation.
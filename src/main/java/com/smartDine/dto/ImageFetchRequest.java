@@ -0,0 +1,31 @@
+package com.smartDine.dto;
+
+import java.util.List;
+
+/**
+ * Conditions and byte range for a single image read.
+ *
+ * ifNoneMatch holds unquoted entity tags; ifModifiedSince is in epoch milliseconds and is
+ * only used when there are no entity tags. A null rangeStart reads the whole image, and a
+ * null rangeEnd reads from rangeStart to the end.
+ */
+public record ImageFetchRequest(List<String> ifNoneMatch, Long ifModifiedSince, Long rangeStart, Long rangeEnd) {
+
+    private static final ImageFetchRequest FULL = new ImageFetchRequest(List.of(), null, null, null);
+
+    public ImageFetchRequest {
+        ifNoneMatch = ifNoneMatch == null ? List.of() : List.copyOf(ifNoneMatch);
+    }
+
+    public static ImageFetchRequest full() {
+        return FULL;
+    }
+
+    public boolean isConditional() {
+        return !ifNoneMatch.isEmpty() || ifModifiedSince != null;
+    }
+
+    public boolean isRange() {
+        return rangeStart != null;
+    }
+}
@@ -2,7 +2,6 @@ package com.smartDine.dto;
 
 import java.io.InputStream;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -14,11 +13,10 @@ import lombok.Setter;
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class ImageResponseDTO {
     
     /**
-     * The input stream containing the image data
+     * The input stream containing the image data, or the requested range of it
      */
     private InputStream inputStream;
     
@@ -28,7 +26,7 @@ public class ImageResponseDTO {
     private String contentType;
     
     /**
-     * The size of the image in bytes
+     * The number of bytes in the input stream
      */
     private long contentLength;
     
@@ -36,4 +34,49 @@ public class ImageResponseDTO {
      * The filename extracted from the storage key
      */
     private String filename;
+
+    /**
+     * The entity tag of the stored image, without quotes, if the storage provides one
+     */
+    private String eTag;
+
+    /**
+     * Last modification time in epoch milliseconds, or null if unknown
+     */
+    private Long lastModified;
+
+    /**
+     * The size of the whole image in bytes, which differs from contentLength for ranges
+     */
+    private long totalLength;
+
+    /**
+     * First and last byte of a partial response, both null for the whole image
+     */
+    private Long rangeStart;
+    private Long rangeEnd;
+
+    /**
+     * True when the conditions of the request matched and no content was read
+     */
+    private boolean notModified;
+
+    public ImageResponseDTO(InputStream inputStream, String contentType, long contentLength, String filename) {
+        this.inputStream = inputStream;
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+        this.filename = filename;
+        this.totalLength = contentLength;
+    }
+
+    public static ImageResponseDTO notModified(String eTag) {
+        ImageResponseDTO response = new ImageResponseDTO();
+        response.setNotModified(true);
+        response.setETag(eTag);
+        return response;
+    }
+
+    public boolean isPartial() {
+        return rangeStart != null;
+    }
 }
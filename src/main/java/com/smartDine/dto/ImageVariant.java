@@ -0,0 +1,62 @@
+package com.smartDine.dto;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Sizes in which uploaded images are stored. FULL is the original upload; the others are
+ * downscaled copies whose longest side is at most maxSize pixels, stored under a key
+ * derived from the original one (restaurants/1/images/a.jpg becomes
+ * restaurants/1/images/a.thumbnail.jpg).
+ */
+public enum ImageVariant {
+    THUMBNAIL(160),
+    MEDIUM(640),
+    FULL(0);
+
+    private final int maxSize;
+
+    ImageVariant(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public String paramName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the storage key of this variant of an image.
+     */
+    public String keyFor(String key) {
+        if (this == FULL) {
+            return key;
+        }
+        int dot = key.lastIndexOf('.');
+        if (dot <= key.lastIndexOf('/')) {
+            return key + "." + paramName();
+        }
+        return key.substring(0, dot) + "." + paramName() + key.substring(dot);
+    }
+
+    /**
+     * Parses the variant query parameter; a missing value means FULL.
+     *
+     * @throws IllegalArgumentException if the value is not a known variant
+     */
+    public static ImageVariant fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        return Arrays.stream(values())
+            .filter(variant -> variant.paramName().equalsIgnoreCase(value.trim()))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Variante de imagen no válida: " + value
+                + ". Valores permitidos: " + Arrays.stream(values()).map(ImageVariant::paramName)
+                    .collect(Collectors.joining(", "))));
+    }
+}
@@ -0,0 +1,36 @@
+package com.smartDine.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset cursor for notification and request inboxes, ordered by date and then
+ * notification id, both descending. Serialized as "date_id".
+ */
+public record NotificationCursor(LocalDateTime date, Long id) {
+
+    public static NotificationCursor of(NotificationDTO notification) {
+        return new NotificationCursor(notification.getDate(), notification.getId());
+    }
+
+    public static NotificationCursor of(RequestDTO request) {
+        return new NotificationCursor(request.getCreatedAt(), request.getId());
+    }
+
+    public static NotificationCursor parse(String value) {
+        String[] parts = value.split("_");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            return new NotificationCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return date + "_" + id;
+    }
+}
@@ -0,0 +1,29 @@
+package com.smartDine.dto;
+
+/**
+ * Keyset cursor for restaurant reservation listings, ordered by time slot start and then
+ * reservation id. Serialized as "startTime:id".
+ */
+public record ReservationCursor(Double startTime, Long id) {
+
+    public static ReservationCursor of(RestaurantReservationDTO reservation) {
+        return new ReservationCursor(reservation.getStartTime(), reservation.getId());
+    }
+
+    public static ReservationCursor parse(String value) {
+        String[] parts = value.split(":");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            return new ReservationCursor(Double.valueOf(parts[0]), Long.valueOf(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return startTime + ":" + id;
+    }
+}
@@ -1,5 +1,6 @@
 package com.smartDine.dto;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import com.smartDine.entity.Reservation;
@@ -22,6 +23,15 @@ public class ReservationDetailsDTO {
     private int numberOfGuests;
     private String address ;
     private ReservationStatus status ;
+
+/**
+ * Used by the JPQL constructor expression in ReservationRepository.
+ */
+public ReservationDetailsDTO(Long reservationId, String restaurantName, String imageKey, LocalDate reservationDate,
+        Double startTime, Double endTime, int numberOfGuests, String address, ReservationStatus status) {
+    this(reservationId, restaurantName, imageKey, reservationDate.toString(), startTime, endTime,
+        numberOfGuests, address, status);
+}
 public static ReservationDetailsDTO fromEntity(Reservation reservation) {
     return new ReservationDetailsDTO(
         reservation.getId(),
@@ -88,6 +88,16 @@ public class RestaurantDTO {
         return dto;
     }
     
+    public static RestaurantDTO fromMetadata(RestaurantMetadata metadata) {
+        RestaurantDTO dto = new RestaurantDTO();
+        dto.setId(metadata.id());
+        dto.setName(metadata.name());
+        dto.setAddress(metadata.address());
+        dto.setDescription(metadata.description());
+        dto.setImageUrl(metadata.imageKey());
+        return dto;
+    }
+    
     private void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
@@ -0,0 +1,10 @@
+package com.smartDine.dto;
+
+/**
+ * The restaurant columns needed for ownership checks and for rendering a restaurant,
+ * without its menu, tables or time slots. Built by a constructor expression in
+ * RestaurantRepository and held by RestaurantMetadataCache.
+ */
+public record RestaurantMetadata(Long id, Long ownerId, String name, String address, String description,
+        String imageKey) {
+}
@@ -3,6 +3,7 @@ package com.smartDine.dto;
 import java.util.List;
 
 import com.smartDine.entity.Reservation;
+import com.smartDine.entity.ReservationStatus;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -27,6 +28,15 @@ public class RestaurantReservationDTO {
     private Boolean outside;
     private String status;
 
+    /**
+     * Used by the JPQL constructor expressions in ReservationRepository.
+     */
+    public RestaurantReservationDTO(Long id, String username, Long phoneNumber, Double startTime, Double endTime,
+            Integer numTable, Boolean outside, ReservationStatus status) {
+        this(id, username, phoneNumber, startTime, endTime, numTable, outside,
+            status != null ? status.name() : null);
+    }
+
     public static RestaurantReservationDTO fromEntity(Reservation reservation) {
         return new RestaurantReservationDTO(
             reservation.getId(),
@@ -0,0 +1,33 @@
+package com.smartDine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * State of an image upload accepted for background processing. The key is assigned to
+ * its entity only once the status is COMPLETED; url is set from then on.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadTicketDTO {
+
+    public enum Status {
+        PENDING,
+        UPLOADING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String ticketId;
+    private String key;
+    private Status status;
+    private int attempts;
+    private String url;
+    private String contentType;
+    private long size;
+    private String error; // Only set if the upload failed
+}
@@ -0,0 +1,40 @@
+package com.smartDine.dto.community.post;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset cursor for community feeds, ordered by publication date and then post id, both
+ * descending. Serialized as "publishedAt_id".
+ */
+public record CommunityPostCursor(LocalDateTime publishedAt, Long id) {
+
+    public static CommunityPostCursor of(CommunityPostBaseDTO post) {
+        return new CommunityPostCursor(post.getPublishedAt(), post.getId());
+    }
+
+    public static CommunityPostCursor parse(String value) {
+        String[] parts = value.split("_");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            return new CommunityPostCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    /**
+     * Whether a post comes after this cursor in feed order, i.e. is older.
+     */
+    public boolean isBefore(CommunityPostBaseDTO post) {
+        int byDate = post.getPublishedAt().compareTo(publishedAt);
+        return byDate < 0 || (byDate == 0 && post.getId() < id);
+    }
+
+    @Override
+    public String toString() {
+        return publishedAt + "_" + id;
+    }
+}
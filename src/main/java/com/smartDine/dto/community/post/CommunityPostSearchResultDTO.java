@@ -0,0 +1,34 @@
+package com.smartDine.dto.community.post;
+
+import com.smartDine.entity.community.CommunityPost;
+
+/**
+ * A post matching a search, with an HTML-escaped excerpt of its description where the
+ * matching words are wrapped in mark tags.
+ */
+public class CommunityPostSearchResultDTO extends CommunityPostResponseDTO {
+    private String snippet;
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+
+    public static CommunityPostSearchResultDTO fromEntity(CommunityPost post, String snippet) {
+        CommunityPostResponseDTO base = CommunityPostResponseDTO.fromEntity(post);
+        CommunityPostSearchResultDTO dto = new CommunityPostSearchResultDTO();
+        dto.setId(base.getId());
+        dto.setTitle(base.getTitle());
+        dto.setDescription(base.getDescription());
+        dto.setPublishedAt(base.getPublishedAt());
+        dto.setCommunityId(base.getCommunityId());
+        dto.setAuthorId(base.getAuthorId());
+        dto.setAuthorName(base.getAuthorName());
+        dto.setPostType(base.getPostType());
+        dto.setSnippet(snippet);
+        return dto;
+    }
+}
@@ -2,12 +2,15 @@ package com.smartDine.entity;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.Check;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -24,7 +27,10 @@ import lombok.Setter;
 @Entity
 @Table(name = "friendships", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_a_id", "user_b_id"})
+}, indexes = {
+    @Index(name = "idx_friendships_user_b_user_a", columnList = "user_b_id, user_a_id")
 })
+@Check(constraints = "user_a_id < user_b_id")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -11,6 +11,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
@@ -26,7 +27,12 @@ import lombok.Setter;
  * Base class for all notification types including requests.
  */
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_receiver_date", columnList = "receiver_id, date, id"),
+    @Index(name = "idx_notifications_receiver_read_date", columnList = "receiver_id, is_read, date"),
+    @Index(name = "idx_notifications_read_date", columnList = "is_read, date"),
+    @Index(name = "idx_notifications_group_receiver", columnList = "group_key, receiver_id")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "notification_type", discriminatorType = DiscriminatorType.STRING)
 @DiscriminatorValue("NOTIFICATION")
@@ -52,6 +58,14 @@ public class Notification {
     @Column(name = "is_read", nullable = false)
     private boolean read;
 
+    // Read notifications of a receiver sharing a key can be compacted into a digest
+    @Column(name = "group_key")
+    private String groupKey;
+
+    // How many notifications a digest stands for; null for a single notification
+    @Column(name = "grouped_count")
+    private Integer groupedCount;
+
     @PrePersist
     protected void onCreate() {
         if (date == null) {
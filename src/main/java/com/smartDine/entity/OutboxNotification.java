@@ -0,0 +1,53 @@
+package com.smartDine.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A notification written by a business transaction and not yet delivered.
+ * NotificationOutbox turns these rows into notifications in the background.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OutboxNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain column: the receiver is only resolved when the notification is delivered
+    @Column(name = "receiver_id", nullable = false)
+    private Long receiverId;
+
+    @Column(nullable = false)
+    private String message;
+
+    @Column(name = "group_key")
+    private String groupKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public OutboxNotification(Long receiverId, String message) {
+        this(receiverId, message, null);
+    }
+
+    public OutboxNotification(Long receiverId, String message, String groupKey) {
+        this.receiverId = receiverId;
+        this.message = message;
+        this.groupKey = groupKey;
+        this.createdAt = LocalDateTime.now();
+    }
+}
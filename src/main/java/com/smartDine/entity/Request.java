@@ -10,6 +10,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrimaryKeyJoinColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -17,10 +18,14 @@ import lombok.Setter;
 /**
  * Entity representing a request (friendship, community invite, etc.).
  * Extends Notification - a request IS a notification that can be accepted/rejected.
- * Only one pending request of each type can exist between two users.
+ * Only one pending request of each type can exist between two users: while pending, a
+ * request holds a canonical pending key for its type and pair of users, which is unique
+ * and cleared once the request is accepted or rejected.
  */
 @Entity
-@Table(name = "requests")
+@Table(name = "requests", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_requests_pending_key", columnNames = {"pending_key"})
+})
 @PrimaryKeyJoinColumn(name = "notification_id")
 @DiscriminatorValue("REQUEST")
 @Getter
@@ -40,11 +45,18 @@ public class Request extends Notification {
     @Column(nullable = false)
     private RequestStatus status;
 
+    // "TYPE:minId:maxId" while pending, null once resolved
+    @Column(name = "pending_key")
+    private String pendingKey;
+
     public Request(User sender, User receiver, RequestType requestType, String message) {
         super(receiver, message);
         this.sender = sender;
         this.requestType = requestType;
         this.status = RequestStatus.PENDING;
+        if (sender != null && receiver != null && sender.getId() != null && receiver.getId() != null) {
+            this.pendingKey = pendingKey(requestType, sender.getId(), receiver.getId());
+        }
     }
 
     /**
@@ -54,6 +66,14 @@ public class Request extends Notification {
         this(sender, receiver, requestType, generateDefaultMessage(sender, requestType));
     }
 
+    /**
+     * Builds the pending key of a request type between two users; the same in either
+     * direction.
+     */
+    public static String pendingKey(RequestType requestType, Long userId, Long otherId) {
+        return requestType.name() + ":" + Math.min(userId, otherId) + ":" + Math.max(userId, otherId);
+    }
+
     private static String generateDefaultMessage(User sender, RequestType requestType) {
         String senderName = sender != null ? sender.getName() : "Someone";
         if (requestType == RequestType.FRIEND_REQUEST) {
@@ -69,6 +89,7 @@ public class Request extends Notification {
      */
     public void accept() {
         this.status = RequestStatus.ACCEPTED;
+        this.pendingKey = null;
     }
 
     /**
@@ -76,6 +97,7 @@ public class Request extends Notification {
      */
     public void reject() {
         this.status = RequestStatus.REJECTED;
+        this.pendingKey = null;
     }
 
     /**
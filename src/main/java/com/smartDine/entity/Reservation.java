@@ -13,19 +13,32 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.Setter;
 
+/**
+ * A booking of a table for a time slot on a date. While not cancelled, a reservation holds
+ * the booking key of its (table, date, time slot), which is unique so the database rejects
+ * a second booking of the same slot; cancelling the reservation clears it.
+ */
 @Getter
 @Setter
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_reservations_booking_key", columnNames = {"booking_key"})
+}, indexes = {
+    @Index(name = "idx_reservations_customer_date_status", columnList = "customer_id, date, status"),
+    @Index(name = "idx_reservations_table_date_slot", columnList = "table_id, date, time_slot_id"),
+    @Index(name = "idx_reservations_restaurant_date", columnList = "restaurant_id, date")
+})
 public class Reservation {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -59,6 +72,9 @@ public class Reservation {
     @Column(name = "status")
     private ReservationStatus status;
 
+    @Column(name = "booking_key")
+    private String bookingKey;
+
     /**
      * Additional participants who joined the reservation (not including the creator).
      * The total number of people is: 1 (creator) + participants.size()
@@ -76,4 +92,11 @@ public class Reservation {
 
     @OneToMany(mappedBy = "reservation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ReservationParticipation> participations = new ArrayList<>();
+
+    /**
+     * Builds the booking key of a table, date and time slot.
+     */
+    public static String bookingKey(Long tableId, LocalDate date, Long timeSlotId) {
+        return tableId + ":" + date + ":" + timeSlotId;
+    }
 }
@@ -8,6 +8,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
@@ -24,6 +25,8 @@ import lombok.Setter;
 @Entity
 @Table(name = "reservation_participations", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"reservation_id", "customer_id"})
+}, indexes = {
+    @Index(name = "idx_participations_customer_reservation", columnList = "customer_id, reservation_id")
 })
 @Getter
 @Setter
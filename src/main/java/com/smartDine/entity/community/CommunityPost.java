@@ -1,6 +1,7 @@
 package com.smartDine.entity.community;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import com.smartDine.entity.Community;
 import com.smartDine.entity.Member;
@@ -15,6 +16,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
@@ -25,7 +27,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "community_posts")
+@Table(name = "community_posts", indexes = {
+    @Index(name = "idx_community_posts_community_published", columnList = "community_id, published_at, id")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "post_type", discriminatorType = DiscriminatorType.STRING)
 @DiscriminatorValue("NORMAL")
@@ -61,7 +65,8 @@ public class CommunityPost {
 
     @PrePersist
     protected void onCreate() {
-        publishedAt = LocalDateTime.now();
+        // Stored with microsecond precision, so cursors taken from memory match the database
+        publishedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     public Long getId() {
@@ -0,0 +1,11 @@
+package com.smartDine.exceptions;
+
+/**
+ * Exception thrown when the byte range requested for an image lies outside of it.
+ */
+public class RangeNotSatisfiableException extends RuntimeException {
+
+    public RangeNotSatisfiableException(String key) {
+        super("The requested range is not satisfiable for image: " + key);
+    }
+}
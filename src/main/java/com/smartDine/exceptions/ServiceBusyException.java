@@ -0,0 +1,15 @@
+package com.smartDine.exceptions;
+
+/**
+ * Exception thrown when a bounded work queue is full and the request cannot be accepted now.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.smartDine.exceptions;
+
+/**
+ * Exception thrown when a table is already booked for the requested date and time slot.
+ */
+public class TableAlreadyBookedException extends RuntimeException {
+
+    public TableAlreadyBookedException() {
+        super("The table is already booked for this date and time slot");
+    }
+
+    public TableAlreadyBookedException(String message) {
+        super(message);
+    }
+}
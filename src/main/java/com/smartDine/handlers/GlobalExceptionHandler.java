@@ -28,8 +28,11 @@ import com.smartDine.exceptions.IllegalReservationStateChangeException;
 import com.smartDine.exceptions.MissingQueryParamException;
 import com.smartDine.exceptions.NoUserIsMemberException;
 import com.smartDine.exceptions.NotRequestReceiverException;
+import com.smartDine.exceptions.RangeNotSatisfiableException;
 import com.smartDine.exceptions.RelatedEntityException;
 import com.smartDine.exceptions.SelfFriendRequestException;
+import com.smartDine.exceptions.ServiceBusyException;
+import com.smartDine.exceptions.TableAlreadyBookedException;
 
 import io.jsonwebtoken.ExpiredJwtException; 
 
@@ -218,6 +221,42 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDTO, HttpStatus.CONFLICT);
     }
 
+    /**
+     * Handle double bookings of a table (409 Conflict)
+     */
+    @ExceptionHandler(TableAlreadyBookedException.class)
+    public ResponseEntity<ErrorDTO> handleTableAlreadyBooked(TableAlreadyBookedException ex) {
+        ErrorDTO errorDTO = new ErrorDTO(
+            HttpStatus.CONFLICT.value(),
+            ex.getMessage()
+        );
+        return new ResponseEntity<>(errorDTO, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handle image range requests outside of the image (416 Range Not Satisfiable)
+     */
+    @ExceptionHandler(RangeNotSatisfiableException.class)
+    public ResponseEntity<ErrorDTO> handleRangeNotSatisfiable(RangeNotSatisfiableException ex) {
+        ErrorDTO errorDTO = new ErrorDTO(
+            HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value(),
+            ex.getMessage()
+        );
+        return new ResponseEntity<>(errorDTO, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    /**
+     * Handle full work queues (503 Service Unavailable)
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorDTO> handleServiceBusy(ServiceBusyException ex) {
+        ErrorDTO errorDTO = new ErrorDTO(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            ex.getMessage()
+        );
+        return new ResponseEntity<>(errorDTO, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     /**
      * Handle expired open reservation (409 Conflict)
      * Thrown when attempting to join an open reservation where the date has passed
@@ -0,0 +1,45 @@
+package com.smartDine.migrations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import com.smartDine.entity.ReservationStatus;
+
+/**
+ * Gives reservations booked before booking keys existed their key, so the unique constraint
+ * also covers them. Cancelled reservations get none, and should a slot hold several
+ * non-cancelled reservations, only the oldest gets it.
+ */
+@Component
+public class V2__Backfill_reservation_booking_keys extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        backfill(context.getConnection());
+    }
+
+    int backfill(Connection connection) throws SQLException {
+        if (!SchemaInspector.tableExists(connection, "reservations")) {
+            return 0;
+        }
+        try (Statement statement = connection.createStatement()) {
+            if (!SchemaInspector.columnExists(connection, "reservations", "booking_key")) {
+                statement.executeUpdate("ALTER TABLE reservations ADD COLUMN booking_key VARCHAR(255)");
+            }
+            int cancelled = ReservationStatus.CANCELLED.ordinal();
+            return statement.executeUpdate(
+                "UPDATE reservations SET booking_key = CONCAT(table_id, ':', reservations.date, ':', time_slot_id) "
+                + "WHERE booking_key IS NULL AND (status IS NULL OR status <> " + cancelled + ") "
+                + "AND id = (SELECT MIN(r.id) FROM reservations r WHERE r.table_id = reservations.table_id "
+                + "AND r.date = reservations.date AND r.time_slot_id = reservations.time_slot_id "
+                + "AND (r.status IS NULL OR r.status <> " + cancelled + ")) "
+                + "AND NOT EXISTS (SELECT 1 FROM reservations k "
+                + "WHERE k.booking_key = CONCAT(reservations.table_id, ':', reservations.date, ':', reservations.time_slot_id))");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.smartDine.migrations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import com.smartDine.entity.Request;
+import com.smartDine.entity.RequestStatus;
+import com.smartDine.entity.RequestType;
+
+/**
+ * Gives pending requests stored before pending keys existed their key (see
+ * Request.pendingKey), so the unique constraint also covers them. Should two of them share
+ * a key, only the oldest gets it; the other can still be accepted or rejected.
+ */
+@Component
+public class V3__Backfill_request_pending_keys extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        backfill(context.getConnection());
+    }
+
+    int backfill(Connection connection) throws SQLException {
+        if (!SchemaInspector.tableExists(connection, "requests")
+                || !SchemaInspector.tableExists(connection, "notifications")) {
+            return 0;
+        }
+        if (!SchemaInspector.columnExists(connection, "requests", "pending_key")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("ALTER TABLE requests ADD COLUMN pending_key VARCHAR(255)");
+            }
+        }
+
+        // Oldest first, so the oldest request of a pair keeps the key
+        Map<Long, String> keys = new LinkedHashMap<>();
+        Set<String> assigned = new HashSet<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT r.notification_id, r.request_type, r.sender_id, n.receiver_id "
+                + "FROM requests r JOIN notifications n ON n.id = r.notification_id "
+                + "WHERE r.status = ? AND r.pending_key IS NULL ORDER BY r.notification_id")) {
+            select.setString(1, RequestStatus.PENDING.name());
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    String key = Request.pendingKey(RequestType.valueOf(rows.getString("request_type")),
+                        rows.getLong("sender_id"), rows.getLong("receiver_id"));
+                    if (assigned.add(key)) {
+                        keys.put(rows.getLong("notification_id"), key);
+                    }
+                }
+            }
+        }
+
+        int updated = 0;
+        try (PreparedStatement taken = connection.prepareStatement("SELECT 1 FROM requests WHERE pending_key = ?");
+                PreparedStatement update = connection.prepareStatement(
+                    "UPDATE requests SET pending_key = ? WHERE notification_id = ?")) {
+            for (Map.Entry<Long, String> key : keys.entrySet()) {
+                taken.setString(1, key.getValue());
+                try (ResultSet rows = taken.executeQuery()) {
+                    if (rows.next()) {
+                        continue;
+                    }
+                }
+                update.setString(1, key.getValue());
+                update.setLong(2, key.getKey());
+                update.addBatch();
+                updated++;
+            }
+            if (updated > 0) {
+                update.executeBatch();
+            }
+        }
+        return updated;
+    }
+}
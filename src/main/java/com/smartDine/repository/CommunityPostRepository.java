@@ -1,9 +1,13 @@
 package com.smartDine.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.smartDine.entity.Community;
@@ -23,4 +27,40 @@ public interface CommunityPostRepository extends JpaRepository<CommunityPost, Lo
     @Query("SELECT p FROM CommunityPost p WHERE p.community = :community AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) "
             + "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')))")
     List<CommunityPost> searchByCommunity(Community community, String query);
+
+    /**
+     * Keyset page of a community's posts, newest first by publication date and then id,
+     * with their author and author's user fetched in the same query. A null cursor returns
+     * the first page.
+     */
+    @Query("SELECT p FROM CommunityPost p JOIN FETCH p.author a JOIN FETCH a.user JOIN FETCH p.community c "
+            + "WHERE c.id = :communityId "
+            + "AND (:beforeId IS NULL OR p.publishedAt < :beforeDate "
+            + "OR (p.publishedAt = :beforeDate AND p.id < :beforeId)) "
+            + "ORDER BY p.publishedAt DESC, p.id DESC")
+    List<CommunityPost> findFeedPage(
+            @Param("communityId") Long communityId,
+            @Param("beforeDate") LocalDateTime beforeDate,
+            @Param("beforeId") Long beforeId,
+            Pageable pageable);
+
+    /**
+     * Posts with the given ids, with their author, author's user and community fetched in
+     * the same query. The order is unspecified.
+     */
+    @Query("SELECT p FROM CommunityPost p JOIN FETCH p.author a JOIN FETCH a.user JOIN FETCH p.community "
+            + "WHERE p.id IN :ids")
+    List<CommunityPost> findAllWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.community.id AS communityId, p.author.id AS authorId, "
+            + "p.title AS title, p.description AS description FROM CommunityPost p")
+    List<PostSearchDocument> findSearchDocuments();
+
+    interface PostSearchDocument {
+        Long getId();
+        Long getCommunityId();
+        Long getAuthorId();
+        String getTitle();
+        String getDescription();
+    }
 }
@@ -1,4 +1,5 @@
 package com.smartDine.repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,4 +25,6 @@ public interface  CustomerRepository extends  JpaRepository<Customer,Integer> {
      * @return List of matching customers
      */
     List<Customer> findByNameContainingIgnoreCaseAndIdNot(String name, Long excludeId);
+
+    List<Customer> findByIdIn(Collection<Long> ids);
 }
@@ -1,5 +1,7 @@
 package com.smartDine.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,26 +13,68 @@ import org.springframework.stereotype.Repository;
 import com.smartDine.entity.Customer;
 import com.smartDine.entity.Friendship;
 
+/**
+ * Friendships are stored as ordered pairs (userA has the lower id), so every lookup
+ * between two users is a single probe of the (user_a_id, user_b_id) unique index and a
+ * user's friendships are two index ranges, one per column.
+ */
 @Repository
 public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
 
     /**
-     * Find all friendships where the user is either userA or userB.
+     * Find all friendships where the user is either userA or userB, with both users loaded.
      */
-    @Query("SELECT f FROM Friendship f WHERE f.userA = :user OR f.userB = :user")
-    List<Friendship> findAllByUser(@Param("user") Customer user);
+    default List<Friendship> findAllByUser(Customer user) {
+        List<Friendship> friendships = new ArrayList<>(findAllByUserA(user.getId()));
+        friendships.addAll(findAllByUserB(user.getId()));
+        return friendships;
+    }
+
+    @Query("SELECT f FROM Friendship f JOIN FETCH f.userA JOIN FETCH f.userB WHERE f.userA.id = :userId")
+    List<Friendship> findAllByUserA(@Param("userId") Long userId);
+
+    @Query("SELECT f FROM Friendship f JOIN FETCH f.userA JOIN FETCH f.userB WHERE f.userB.id = :userId")
+    List<Friendship> findAllByUserB(@Param("userId") Long userId);
+
+    /**
+     * Ids of every friend of a user.
+     */
+    @Query("SELECT f.userB.id FROM Friendship f WHERE f.userA.id = :userId")
+    List<Long> findFriendIdsAsUserA(@Param("userId") Long userId);
+
+    @Query("SELECT f.userA.id FROM Friendship f WHERE f.userB.id = :userId")
+    List<Long> findFriendIdsAsUserB(@Param("userId") Long userId);
+
+    /**
+     * Friendships of several users at once, as (userA id, userB id) pairs.
+     */
+    @Query("SELECT f.userA.id, f.userB.id FROM Friendship f WHERE f.userA.id IN :userIds")
+    List<Object[]> findPairsByUserAIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT f.userA.id, f.userB.id FROM Friendship f WHERE f.userB.id IN :userIds")
+    List<Object[]> findPairsByUserBIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Check if a friendship exists for an ordered pair (lowerId, higherId).
+     */
+    boolean existsByUserAIdAndUserBId(Long lowerId, Long higherId);
+
+    /**
+     * Find the friendship of an ordered pair (lowerId, higherId).
+     */
+    Optional<Friendship> findByUserAIdAndUserBId(Long lowerId, Long higherId);
 
     /**
      * Check if a friendship exists between two users (in any order).
      */
-    @Query("SELECT CASE WHEN COUNT(f) > 0 THEN true ELSE false END FROM Friendship f " +
-           "WHERE (f.userA = :userA AND f.userB = :userB) OR (f.userA = :userB AND f.userB = :userA)")
-    boolean existsBetween(@Param("userA") Customer userA, @Param("userB") Customer userB);
+    default boolean existsBetween(Customer userA, Customer userB) {
+        return existsByUserAIdAndUserBId(Math.min(userA.getId(), userB.getId()), Math.max(userA.getId(), userB.getId()));
+    }
 
     /**
      * Find a specific friendship between two users (in any order).
      */
-    @Query("SELECT f FROM Friendship f " +
-           "WHERE (f.userA = :userA AND f.userB = :userB) OR (f.userA = :userB AND f.userB = :userA)")
-    Optional<Friendship> findByUsers(@Param("userA") Customer userA, @Param("userB") Customer userB);
+    default Optional<Friendship> findByUsers(Customer userA, Customer userB) {
+        return findByUserAIdAndUserBId(Math.min(userA.getId(), userB.getId()), Math.max(userA.getId(), userB.getId()));
+    }
 }
@@ -1,8 +1,11 @@
 package com.smartDine.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.smartDine.entity.MenuItem;
@@ -10,4 +13,17 @@ import com.smartDine.entity.MenuItem;
 public interface MenuItemRepository extends JpaRepository<MenuItem,Long> 
 {
     Optional<MenuItem> findById(Long id);
+
+    boolean existsByIdAndRestaurantId(Long id, Long restaurantId);
+
+    @Query("SELECT m.name FROM MenuItem m WHERE m.restaurant.id = :restaurantId")
+    List<String> findNamesByRestaurantId(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT m.restaurant.id AS restaurantId, m.name AS name FROM MenuItem m WHERE m.restaurant IS NOT NULL")
+    List<RestaurantMenuItemName> findAllRestaurantMenuItemNames();
+
+    interface RestaurantMenuItemName {
+        Long getRestaurantId();
+        String getName();
+    }
 }
@@ -1,8 +1,13 @@
 package com.smartDine.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.smartDine.entity.Notification;
@@ -25,4 +30,40 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      * Count unread notifications for a user.
      */
     long countByReceiverAndReadFalse(User receiver);
+
+    /**
+     * Find the notifications of a user stored after the given id, oldest first.
+     */
+    List<Notification> findByReceiverIdAndIdGreaterThanOrderByIdAsc(Long receiverId, Long id, Pageable pageable);
+
+    /**
+     * Keyset page of a user's notifications, newest first by date and then id. A null
+     * cursor returns the first page; with unreadOnly only unread notifications are returned.
+     */
+    @Query("SELECT n FROM Notification n WHERE n.receiver.id = :receiverId "
+        + "AND (:unreadOnly = false OR n.read = false) "
+        + "AND (:beforeId IS NULL OR n.date < :beforeDate "
+        + "OR (n.date = :beforeDate AND n.id < :beforeId)) "
+        + "ORDER BY n.date DESC, n.id DESC")
+    List<Notification> findInboxPage(
+        @Param("receiverId") Long receiverId,
+        @Param("unreadOnly") boolean unreadOnly,
+        @Param("beforeDate") LocalDateTime beforeDate,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+
+    /**
+     * Count unread notifications for a user by id.
+     */
+    long countByReceiverIdAndReadFalse(Long receiverId);
+
+    /**
+     * Marks every unread notification of a user as read with a single UPDATE and returns
+     * how many rows changed.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "UPDATE notifications SET is_read = true WHERE receiver_id = :receiverId AND is_read = false",
+        nativeQuery = true)
+    int markAllAsRead(@Param("receiverId") Long receiverId);
 }
@@ -1,10 +1,16 @@
 package com.smartDine.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.smartDine.dto.RequestDTO;
 import com.smartDine.entity.Request;
 import com.smartDine.entity.RequestStatus;
 import com.smartDine.entity.RequestType;
@@ -19,8 +25,10 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
     List<Request> findByReceiverAndStatusOrderByDateDesc(User receiver, RequestStatus status);
 
     /**
-     * Find all requests for a receiver with a specific type and status.
+     * Find all requests for a receiver with a specific type and status, with their sender
+     * and receiver fetched in the same query.
      */
+    @EntityGraph(attributePaths = {"sender", "receiver"})
     List<Request> findByReceiverAndRequestTypeAndStatusOrderByDateDesc(
             User receiver, RequestType requestType, RequestStatus status);
 
@@ -36,4 +44,37 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
     boolean existsBySenderAndReceiverAndStatusOrReceiverAndSenderAndStatus(
             User sender1, User receiver1, RequestStatus status1,
             User sender2, User receiver2, RequestStatus status2);
+
+    /**
+     * Check if a pending request holds the given pending key. Native so that only the
+     * requests table is probed, through its unique index.
+     */
+    @Query(value = "select exists(select 1 from requests where pending_key = :pendingKey)", nativeQuery = true)
+    boolean existsByPendingKey(@Param("pendingKey") String pendingKey);
+
+    /**
+     * Keyset page of the requests of a type and status received by a user, newest first by
+     * date and then id, projected with their sender's details in a single query. A null
+     * cursor returns the first page.
+     */
+    @Query("SELECT new com.smartDine.dto.RequestDTO(r.id, s.id, s.name, s.email, rc.id, rc.name, "
+        + "r.requestType, r.status, r.date) "
+        + "FROM Request r JOIN r.sender s JOIN r.receiver rc "
+        + "WHERE rc.id = :receiverId AND r.requestType = :requestType AND r.status = :status "
+        + "AND (:beforeId IS NULL OR r.date < :beforeDate "
+        + "OR (r.date = :beforeDate AND r.id < :beforeId)) "
+        + "ORDER BY r.date DESC, r.id DESC")
+    List<RequestDTO> findInboxPage(
+        @Param("receiverId") Long receiverId,
+        @Param("requestType") RequestType requestType,
+        @Param("status") RequestStatus status,
+        @Param("beforeDate") LocalDateTime beforeDate,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+
+    /**
+     * Count the requests of a type and status received by a user.
+     */
+    long countByReceiverIdAndRequestTypeAndStatus(Long receiverId, RequestType requestType, RequestStatus status);
 }
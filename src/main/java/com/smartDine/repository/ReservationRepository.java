@@ -1,13 +1,22 @@
 package com.smartDine.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.smartDine.dto.ReservationDetailsDTO;
+import com.smartDine.dto.RestaurantReservationDTO;
 import com.smartDine.entity.Reservation;
+import com.smartDine.entity.ReservationStatus;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
@@ -23,4 +32,115 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     );
 
     List<Reservation> findByRestaurantIdAndDate(Long restaurantId, java.time.LocalDate date);
-}
\ No newline at end of file
+
+    // Only the table ids, used to build the occupancy bitmaps of the availability engine
+    @Query("SELECT r.restaurantTable.id FROM Reservation r WHERE r.restaurant.id = :restaurantId "
+        + "AND r.date = :date AND r.timeSlot.id = :timeSlotId AND (r.status IS NULL OR r.status <> :excludedStatus)")
+    List<Long> findReservedTableIds(
+        @Param("restaurantId") Long restaurantId,
+        @Param("date") java.time.LocalDate date,
+        @Param("timeSlotId") Long timeSlotId,
+        @Param("excludedStatus") ReservationStatus excludedStatus
+    );
+
+    /**
+     * Details of every reservation the customer owns or participates in, built in a single
+     * query without loading any entity.
+     */
+    @Query("SELECT new com.smartDine.dto.ReservationDetailsDTO(r.id, rest.name, rest.imageUrl, r.date, "
+        + "ts.startTime, ts.endTime, r.numGuests, rest.address, r.status) "
+        + "FROM Reservation r JOIN r.restaurant rest JOIN r.timeSlot ts "
+        + "WHERE r.customer.id = :customerId OR r.id IN ("
+        + "SELECT p.reservation.id FROM ReservationParticipation p WHERE p.customer.id = :customerId) "
+        + "ORDER BY r.date DESC, ts.startTime DESC")
+    List<ReservationDetailsDTO> findReservationDetailsForCustomer(@Param("customerId") Long customerId);
+
+    /**
+     * Keyset page of a restaurant's reservations for a date, ordered by time slot start and
+     * then reservation id. A null cursor returns the first page.
+     */
+    @Query("SELECT new com.smartDine.dto.RestaurantReservationDTO(r.id, c.name, c.phoneNumber, ts.startTime, "
+        + "ts.endTime, t.number, t.outside, r.status) "
+        + "FROM Reservation r JOIN r.customer c JOIN r.timeSlot ts JOIN r.restaurantTable t "
+        + "WHERE r.restaurant.id = :restaurantId AND r.date = :date "
+        + "AND (:afterId IS NULL OR ts.startTime > :afterStartTime "
+        + "OR (ts.startTime = :afterStartTime AND r.id > :afterId)) "
+        + "ORDER BY ts.startTime, r.id")
+    List<RestaurantReservationDTO> findReservationPage(
+        @Param("restaurantId") Long restaurantId,
+        @Param("date") java.time.LocalDate date,
+        @Param("afterStartTime") Double afterStartTime,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Same rows as findReservationPage, streamed from an open cursor. Must be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.smartDine.dto.RestaurantReservationDTO(r.id, c.name, c.phoneNumber, ts.startTime, "
+        + "ts.endTime, t.number, t.outside, r.status) "
+        + "FROM Reservation r JOIN r.customer c JOIN r.timeSlot ts JOIN r.restaurantTable t "
+        + "WHERE r.restaurant.id = :restaurantId AND r.date = :date "
+        + "ORDER BY ts.startTime, r.id")
+    Stream<RestaurantReservationDTO> streamReservations(
+        @Param("restaurantId") Long restaurantId,
+        @Param("date") java.time.LocalDate date
+    );
+
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r "
+        + "WHERE r.restaurantTable.id = :tableId AND r.date = :date AND r.timeSlot.id = :timeSlotId "
+        + "AND (r.status IS NULL OR r.status <> :excludedStatus)")
+    boolean existsBooking(
+        @Param("tableId") Long tableId,
+        @Param("date") java.time.LocalDate date,
+        @Param("timeSlotId") Long timeSlotId,
+        @Param("excludedStatus") ReservationStatus excludedStatus
+    );
+
+    /**
+     * Booked (date, time slot, table) triples of a restaurant over a date range, used to
+     * build the availability grid with a single query.
+     */
+    @Query("SELECT r.date AS date, r.timeSlot.id AS timeSlotId, r.restaurantTable.id AS tableId "
+        + "FROM Reservation r WHERE r.restaurant.id = :restaurantId AND r.date BETWEEN :from AND :to "
+        + "AND (r.status IS NULL OR r.status <> :excludedStatus)")
+    List<ReservedTable> findReservedTablesInRange(
+        @Param("restaurantId") Long restaurantId,
+        @Param("from") java.time.LocalDate from,
+        @Param("to") java.time.LocalDate to,
+        @Param("excludedStatus") ReservationStatus excludedStatus
+    );
+
+    /**
+     * Whether the customer owns or participates in a reservation with the given status on
+     * the given date whose time slot overlaps [startTime, endTime). Driven by the
+     * (customer_id, date, status) index on reservations and the customer_id index on
+     * reservation_participations, so its cost does not grow with the customer's history.
+     */
+    @Query("SELECT CASE WHEN COUNT(r) > 0 THEN true ELSE false END FROM Reservation r JOIN r.timeSlot ts "
+        + "WHERE r.date = :date AND r.status = :status "
+        + "AND (:excludeReservationId IS NULL OR r.id <> :excludeReservationId) "
+        + "AND ts.dayOfWeek = :dayOfWeek AND ts.startTime < :endTime AND ts.endTime > :startTime "
+        + "AND (r.customer.id = :customerId OR r.id IN ("
+        + "SELECT p.reservation.id FROM ReservationParticipation p WHERE p.customer.id = :customerId))")
+    boolean existsOverlappingReservation(
+        @Param("customerId") Long customerId,
+        @Param("date") java.time.LocalDate date,
+        @Param("status") ReservationStatus status,
+        @Param("dayOfWeek") java.time.DayOfWeek dayOfWeek,
+        @Param("startTime") Double startTime,
+        @Param("endTime") Double endTime,
+        @Param("excludeReservationId") Long excludeReservationId
+    );
+
+    interface ReservedTable {
+        java.time.LocalDate getDate();
+        Long getTimeSlotId();
+        Long getTableId();
+    }
+}
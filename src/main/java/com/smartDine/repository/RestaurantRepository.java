@@ -1,10 +1,14 @@
 package com.smartDine.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.smartDine.dto.RestaurantMetadata;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Restaurant;
 
@@ -12,4 +16,24 @@ import com.smartDine.entity.Restaurant;
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     List<Restaurant> findByNameContainingIgnoreCase(String name);
     List<Restaurant> findByOwner(Business owner);
+
+    // Reads the owner id from the foreign key, without joining the owner
+    @Query("SELECT new com.smartDine.dto.RestaurantMetadata(r.id, r.owner.id, r.name, r.address, r.description, "
+        + "r.imageUrl) FROM Restaurant r WHERE r.id = :id")
+    Optional<RestaurantMetadata> findMetadataById(@Param("id") Long id);
+
+    // Searchable text of every restaurant, used to build the search index
+    @Query("SELECT r.id AS id, r.name AS name, r.address AS address, r.description AS description FROM Restaurant r")
+    List<SearchDocument> findSearchDocuments();
+
+    @Query("SELECT r.id AS id, r.name AS name, r.address AS address, r.description AS description "
+        + "FROM Restaurant r WHERE r.id = :id")
+    Optional<SearchDocument> findSearchDocument(@Param("id") Long id);
+
+    interface SearchDocument {
+        Long getId();
+        String getName();
+        String getAddress();
+        String getDescription();
+    }
 }
@@ -20,6 +20,9 @@ public class BusinessService {
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     /**
@@ -88,7 +91,10 @@ public class BusinessService {
             business.setName(name);
         }
 
-        return businessRepository.save(business);
+        Business updated = businessRepository.save(business);
+        // The cached principal still carries the old email and profile data
+        principalCache.invalidate(businessId);
+        return updated;
     }
 
     /**
@@ -109,6 +115,7 @@ public class BusinessService {
 
         business.setPassword(passwordEncoder.encode(newPassword));
         businessRepository.save(business);
+        principalCache.invalidate(businessId);
     }
 
     /**
@@ -122,6 +129,7 @@ public class BusinessService {
             throw new IllegalArgumentException("Negocio no encontrado.");
         }
         businessRepository.deleteById(businessId);
+        principalCache.invalidate(businessId);
     }
 
     /**
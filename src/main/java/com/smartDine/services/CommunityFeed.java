@@ -0,0 +1,131 @@
+package com.smartDine.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.smartDine.dto.community.post.CommunityPostCursor;
+import com.smartDine.dto.community.post.CommunityPostResponseDTO;
+import com.smartDine.entity.community.CommunityPost;
+import com.smartDine.repository.CommunityPostRepository;
+
+/**
+ * Newest-first feeds of community posts, paged with (publishedAt, id) keyset cursors.
+ *
+ * For each community that is read, the latest ring-size posts are kept in memory, so pages
+ * near the top of a feed are served without touching the database; a page reaching past
+ * them is loaded with a single query that also fetches the authors. Posts created, updated
+ * or deleted through this node, including those removed with their author's membership,
+ * update the rings once their transaction commits.
+ *
+ * Rings live on a VersionedCache: one loaded while a post of its community was changing is
+ * served but not cached, and beyond max-communities rings the least recently read are
+ * dropped. Rings also expire after ttl-ms, which bounds how long changes made elsewhere,
+ * such as posts written by other nodes or renamed authors, stay invisible.
+ */
+@Service
+public class CommunityFeed {
+
+    private static final Comparator<CommunityPostResponseDTO> NEWEST_FIRST =
+        Comparator.comparing(CommunityPostResponseDTO::getPublishedAt)
+            .thenComparing(CommunityPostResponseDTO::getId)
+            .reversed();
+
+    private final CommunityPostRepository communityPostRepository;
+    private final int ringSize;
+    private final VersionedCache<Long, Ring> rings;
+
+    /**
+     * The latest posts of a community, newest first. When complete, they are all of its
+     * posts; otherwise they are exactly the posts down to the last one.
+     */
+    private record Ring(List<CommunityPostResponseDTO> posts, boolean complete) {
+    }
+
+    public CommunityFeed(
+            CommunityPostRepository communityPostRepository,
+            @Value("${smartdine.communities.feed.ring-size:50}") int ringSize,
+            @Value("${smartdine.communities.feed.max-communities:1000}") int maxCommunities,
+            @Value("${smartdine.communities.feed.ttl-ms:60000}") long ttlMillis) {
+        this.communityPostRepository = communityPostRepository;
+        this.ringSize = Math.max(1, ringSize);
+        this.rings = new VersionedCache<>(ttlMillis, maxCommunities);
+    }
+
+    /**
+     * Returns up to limit posts of a community older than the cursor, newest first. A null
+     * cursor returns the first page.
+     */
+    public List<CommunityPostResponseDTO> getPage(Long communityId, CommunityPostCursor before, int limit) {
+        Ring ring = rings.get(communityId, this::loadRing);
+        List<CommunityPostResponseDTO> page = new ArrayList<>(limit);
+        for (CommunityPostResponseDTO post : ring.posts()) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (before == null || before.isBefore(post)) {
+                page.add(post);
+            }
+        }
+        if (page.size() == limit || ring.complete()) {
+            return page;
+        }
+        return load(communityId, before, limit);
+    }
+
+    /**
+     * Adds or replaces a post in its community's ring once the current transaction commits.
+     */
+    public void postSaved(CommunityPost post) {
+        CommunityPostResponseDTO saved = CommunityPostResponseDTO.fromEntity(post);
+        rings.updateAfterCommit(saved.getCommunityId(), ring -> {
+            List<CommunityPostResponseDTO> posts = new ArrayList<>(ring.posts());
+            boolean present = posts.removeIf(existing -> existing.getId().equals(saved.getId()));
+            // A new post older than a partial ring is outside the window it covers
+            if (!present && !ring.complete() && !posts.isEmpty()
+                    && NEWEST_FIRST.compare(saved, posts.get(posts.size() - 1)) > 0) {
+                return ring;
+            }
+            posts.add(saved);
+            posts.sort(NEWEST_FIRST);
+            boolean complete = ring.complete() && posts.size() <= ringSize;
+            return new Ring(List.copyOf(posts.subList(0, Math.min(posts.size(), ringSize))), complete);
+        });
+    }
+
+    /**
+     * Removes a post from its community's ring once the current transaction commits.
+     */
+    public void postDeleted(Long communityId, Long postId) {
+        rings.updateAfterCommit(communityId, ring -> {
+            List<CommunityPostResponseDTO> posts = new ArrayList<>(ring.posts());
+            posts.removeIf(existing -> existing.getId().equals(postId));
+            // An emptied partial ring covers nothing; reload it on next read
+            return posts.isEmpty() && !ring.complete() ? null : new Ring(List.copyOf(posts), ring.complete());
+        });
+    }
+
+    public void clear() {
+        rings.clear();
+    }
+
+    private Ring loadRing(Long communityId) {
+        // One extra post tells whether the community has more than the ring holds
+        List<CommunityPostResponseDTO> posts = load(communityId, null, ringSize + 1);
+        return posts.size() > ringSize
+            ? new Ring(List.copyOf(posts.subList(0, ringSize)), false)
+            : new Ring(List.copyOf(posts), true);
+    }
+
+    private List<CommunityPostResponseDTO> load(Long communityId, CommunityPostCursor before, int limit) {
+        return CommunityPostResponseDTO.fromEntity(communityPostRepository.findFeedPage(
+            communityId,
+            before != null ? before.publishedAt() : null,
+            before != null ? before.id() : null,
+            PageRequest.of(0, limit)));
+    }
+}
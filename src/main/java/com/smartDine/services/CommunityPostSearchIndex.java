@@ -0,0 +1,391 @@
+package com.smartDine.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import com.smartDine.entity.community.CommunityPost;
+import com.smartDine.repository.CommunityPostRepository;
+import com.smartDine.repository.CommunityPostRepository.PostSearchDocument;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory inverted index over community post titles and descriptions.
+ *
+ * Text is folded and split into terms the same way as RestaurantSearchIndex. Each term keeps
+ * a posting map post id -> weight, where the weight grows with the field (title above
+ * description) and, within the description, with how often the term appears. A query term
+ * matches exactly or as the prefix of indexed terms, and posts are ranked by the sum of
+ * their best match for each query term, weighted by how rare the matched term is. Searches
+ * are scoped to a community or an author. Unlike a substring match, a query word never
+ * matches in the middle of a word ("ella" does not find "paella").
+ *
+ * The index is rebuilt from the database at startup and updated once the transactions that
+ * create, update or delete a post through this node commit, including posts removed with
+ * their author's membership. It is also rebuilt every rebuild-interval-ms, so posts written
+ * by other nodes show up within that interval; with rebuild-interval-ms=0 it is not. As in
+ * RestaurantSearchIndex, updates and rebuilds take a generation number, and a rebuild keeps
+ * the posts updated after it started instead of its older snapshot of them.
+ */
+@Service
+public class CommunityPostSearchIndex {
+
+    static final float TITLE_WEIGHT = 3f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float EXACT_MATCH = 1f;
+    private static final float PREFIX_MATCH = 0.75f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final int SNIPPET_LEAD = 40;
+
+    private static final String UTF_8 = "UTF-8";
+    private static final Pattern WORDS = Pattern.compile("[\\p{L}\\p{N}\\p{M}]+");
+    private static final Comparator<Map.Entry<Long, Float>> RANKING =
+        Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final CommunityPostRepository communityPostRepository;
+    private final boolean rebuildOnStartup;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final AtomicLong generations = new AtomicLong();
+    /** Generation of the last update applied to each post since the last rebuild. */
+    private final Map<Long, Long> appliedGenerations = new HashMap<>();
+    private long rebuiltGeneration;
+
+    private record Document(Long communityId, Long authorId, Map<String, Float> terms) {
+    }
+
+    public CommunityPostSearchIndex(
+            CommunityPostRepository communityPostRepository,
+            @Value("${smartdine.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+            @Value("${smartdine.communities.search.rebuild-interval-ms:300000}") long rebuildIntervalMillis) {
+        this.communityPostRepository = communityPostRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+
+        if (rebuildIntervalMillis > 0) {
+            this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "community-post-search-rebuild");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::rebuildQuietly, rebuildIntervalMillis,
+                rebuildIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Replaces the whole index with the posts currently in the database, reading them with
+     * one query.
+     *
+     * @return the number of indexed posts
+     */
+    public int rebuild() {
+        long generation = generations.incrementAndGet();
+        Map<Long, Document> loaded = new HashMap<>();
+        for (PostSearchDocument document : communityPostRepository.findSearchDocuments()) {
+            loaded.put(document.getId(), new Document(document.getCommunityId(), document.getAuthorId(),
+                termsOf(document.getTitle(), document.getDescription())));
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Posts updated after this rebuild started keep their newer state
+            Map<Long, Document> newer = new HashMap<>();
+            appliedGenerations.forEach((id, applied) -> {
+                if (applied > generation) {
+                    newer.put(id, documents.get(id));
+                }
+            });
+            appliedGenerations.values().removeIf(applied -> applied <= generation);
+            rebuiltGeneration = generation;
+            documents.clear();
+            postings.clear();
+            loaded.forEach((id, document) -> {
+                if (!newer.containsKey(id)) {
+                    addDocument(id, document);
+                }
+            });
+            newer.forEach((id, document) -> {
+                if (document != null) {
+                    addDocument(id, document);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return loaded.size();
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException ignored) {
+            // The current index keeps serving; the next run tries again
+        }
+    }
+
+    /**
+     * Indexes a post, replacing any previous version, once the current transaction commits.
+     */
+    public void put(CommunityPost post) {
+        Long postId = post.getId();
+        Document document = new Document(post.getCommunity().getId(), post.getAuthor().getId(),
+            termsOf(post.getTitle(), post.getDescription()));
+        TransactionCallbacks.afterCommit(() -> apply(postId, generations.incrementAndGet(), document));
+    }
+
+    /**
+     * Removes a post from the index once the current transaction commits.
+     */
+    public void remove(Long postId) {
+        TransactionCallbacks.afterCommit(() -> apply(postId, generations.incrementAndGet(), null));
+    }
+
+    /**
+     * Ranked page of the ids of the posts matching the query, best match first, limited to
+     * a community and/or an author when given.
+     */
+    public List<Long> search(String query, Long communityId, Long authorId, int page, int size) {
+        List<String> tokens = RestaurantSearchIndex.tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty() || page < 0 || size <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Float> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                Map<Long, Float> best = new HashMap<>();
+                matchingTerms(token).forEach((term, quality) -> {
+                    Map<Long, Float> posting = postings.get(term);
+                    float score = quality * inverseDocumentFrequency(posting.size());
+                    posting.forEach((id, weight) -> {
+                        Document document = documents.get(id);
+                        if ((communityId == null || communityId.equals(document.communityId()))
+                                && (authorId == null || authorId.equals(document.authorId()))) {
+                            best.merge(id, score * weight, Math::max);
+                        }
+                    });
+                });
+                best.forEach((id, score) -> scores.merge(id, score, Float::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long offset = (long) page * size;
+        if (offset >= scores.size()) {
+            return List.of();
+        }
+        // Only the entries up to the requested page are kept and sorted
+        int limit = (int) Math.min(offset + size, scores.size());
+        PriorityQueue<Map.Entry<Long, Float>> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return ranked.subList((int) offset, ranked.size()).stream().map(Map.Entry::getKey).toList();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Excerpt of a text around its first word matching the query, HTML-escaped and with the
+     * matching words wrapped in mark tags. Without a match, the start of the text is used.
+     */
+    static String snippet(String text, String query) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        List<String> tokens = RestaurantSearchIndex.tokenize(query);
+        List<int[]> matches = new ArrayList<>();
+        Matcher words = WORDS.matcher(text);
+        while (words.find()) {
+            if (matchesAny(words.group(), tokens)) {
+                matches.add(new int[] { words.start(), words.end() });
+            }
+        }
+
+        int start = 0;
+        if (!matches.isEmpty() && matches.get(0)[0] > SNIPPET_LEAD) {
+            // Start at a word boundary a little before the first match
+            start = text.lastIndexOf(' ', matches.get(0)[0] - SNIPPET_LEAD) + 1;
+        }
+        int end = Math.min(text.length(), start + SNIPPET_LENGTH);
+        if (end < text.length()) {
+            int space = text.lastIndexOf(' ', end);
+            if (space > start) {
+                end = space;
+            }
+        }
+
+        StringBuilder snippet = new StringBuilder();
+        if (start > 0) {
+            snippet.append("…");
+        }
+        int position = start;
+        for (int[] match : matches) {
+            if (match[0] < start) {
+                continue;
+            }
+            if (match[1] > end) {
+                break;
+            }
+            snippet.append(HtmlUtils.htmlEscape(text.substring(position, match[0]), UTF_8))
+                .append("<mark>")
+                .append(HtmlUtils.htmlEscape(text.substring(match[0], match[1]), UTF_8))
+                .append("</mark>");
+            position = match[1];
+        }
+        snippet.append(HtmlUtils.htmlEscape(text.substring(position, end), UTF_8));
+        if (end < text.length()) {
+            snippet.append("…");
+        }
+        return snippet.toString();
+    }
+
+    private static boolean matchesAny(String word, List<String> tokens) {
+        for (String term : RestaurantSearchIndex.tokenize(word)) {
+            for (String token : tokens) {
+                if (term.equals(token) || (token.length() >= MIN_PREFIX_LENGTH && term.startsWith(token))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces the indexed document of a post, or removes it when document is null, unless
+     * a newer generation was already applied.
+     */
+    private void apply(Long postId, long generation, Document document) {
+        lock.writeLock().lock();
+        try {
+            long applied = appliedGenerations.getOrDefault(postId, rebuiltGeneration);
+            if (applied > generation) {
+                return;
+            }
+            appliedGenerations.put(postId, generation);
+            removeDocument(postId);
+            if (document != null) {
+                addDocument(postId, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(Long postId, Document document) {
+        documents.put(postId, document);
+        document.terms().forEach((term, weight) ->
+            postings.computeIfAbsent(term, t -> new HashMap<>()).put(postId, weight));
+    }
+
+    private void removeDocument(Long postId) {
+        Document document = documents.remove(postId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms().keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            posting.remove(postId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Indexed terms matching a query term, with the quality of each match.
+     */
+    private Map<String, Float> matchingTerms(String token) {
+        Map<String, Float> matches = new HashMap<>();
+        if (postings.containsKey(token)) {
+            matches.put(token, EXACT_MATCH);
+        }
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matches.put(term, PREFIX_MATCH);
+            }
+        }
+        return matches;
+    }
+
+    private float inverseDocumentFrequency(int documentFrequency) {
+        return (float) Math.log(1.0 + (double) documents.size() / documentFrequency);
+    }
+
+    /**
+     * Term weights of a post: the title weight for title terms, otherwise the description
+     * weight scaled logarithmically by the number of occurrences.
+     */
+    private static Map<String, Float> termsOf(String title, String description) {
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (String term : RestaurantSearchIndex.tokenize(description)) {
+            occurrences.merge(term, 1, Integer::sum);
+        }
+        Map<String, Float> terms = new HashMap<>();
+        occurrences.forEach((term, count) ->
+            terms.put(term, DESCRIPTION_WEIGHT * (1f + (float) Math.log(count))));
+        for (String term : RestaurantSearchIndex.tokenize(title)) {
+            terms.merge(term, TITLE_WEIGHT, Math::max);
+        }
+        return terms;
+    }
+}
@@ -2,6 +2,8 @@ package com.smartDine.services;
 
 import java.util.List;
 
+import com.smartDine.dto.community.post.CommunityPostResponseDTO;
+import com.smartDine.dto.community.post.CommunityPostSearchResultDTO;
 import com.smartDine.dto.community.post.CreateCommunityPostRequestDTO;
 import com.smartDine.dto.community.post.CreateOpenReservationPostDTO;
 import com.smartDine.dto.community.post.UpdateCommunityPostRequestDTO;
@@ -13,10 +15,43 @@ public interface CommunityPostService {
 
     CommunityPost getPostById(Long postId, Long currentUserId);
 
+    /**
+     * Gets a member's posts. With a search, only the posts whose title or description
+     * contain the searched words, or words starting with them, are returned, best match
+     * first; a word is not matched in the middle of another (see CommunityPostSearchIndex).
+     */
     List<CommunityPost> getPostsByMember(Long memberId, String search, Long currentUserId);
 
+    /**
+     * Gets a community's posts, filtered and ranked by an optional search as in
+     * getPostsByMember.
+     */
     List<CommunityPost> getPostsByCommunity(Long communityId, String search, Long currentUserId);
 
+    /**
+     * Gets a page of a community's feed, newest first.
+     * 
+     * @param communityId The ID of the community
+     * @param cursor The cursor of the last post of the previous page, or null for the first page
+     * @param limit Maximum number of posts to return
+     * @param currentUserId The ID of the current user (can be null for public communities)
+     * @return The page of posts
+     */
+    List<CommunityPostResponseDTO> getFeed(Long communityId, String cursor, int limit, Long currentUserId);
+
+    /**
+     * Searches a community's posts by title and description, best match first.
+     * 
+     * @param communityId The ID of the community
+     * @param query The words to search for; each may also match as a prefix
+     * @param page Zero-based page number
+     * @param size Maximum number of posts to return
+     * @param currentUserId The ID of the current user (can be null for public communities)
+     * @return The page of matching posts with highlighted snippets
+     */
+    List<CommunityPostSearchResultDTO> searchPosts(Long communityId, String query, int page, int size,
+            Long currentUserId);
+
     CommunityPost updatePost(Long postId, Long currentUserId, UpdateCommunityPostRequestDTO requestDTO);
 
     void deletePost(Long postId, Long currentUserId);
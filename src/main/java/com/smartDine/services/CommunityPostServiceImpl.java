@@ -1,12 +1,18 @@
 package com.smartDine.services;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.smartDine.dto.community.post.CommunityPostCursor;
+import com.smartDine.dto.community.post.CommunityPostResponseDTO;
+import com.smartDine.dto.community.post.CommunityPostSearchResultDTO;
 import com.smartDine.dto.community.post.CreateCommunityPostRequestDTO;
 import com.smartDine.dto.community.post.CreateOpenReservationPostDTO;
 import com.smartDine.dto.community.post.UpdateCommunityPostRequestDTO;
@@ -30,13 +36,18 @@ import com.smartDine.repository.UserRepository;
 @Service
 public class CommunityPostServiceImpl implements CommunityPostService {
 
+    static final int MAX_FEED_PAGE_SIZE = 100;
+    static final int MAX_SEARCH_PAGE_SIZE = 100;
+
     private final CommunityPostRepository communityPostRepository;
     private final CommunityMemberRepository communityMemberRepository;
     private final CommunityRepository communityRepository;
     private final UserRepository userRepository;
     private final OpenReservationPostRepository openReservationPostRepository;
     private final ReservationService reservationService;
-    private final NotificationService notificationService;
+    private final NotificationOutbox notificationOutbox;
+    private final CommunityFeed communityFeed;
+    private final CommunityPostSearchIndex communityPostSearchIndex;
 
     public CommunityPostServiceImpl(CommunityPostRepository communityPostRepository,
             CommunityMemberRepository communityMemberRepository,
@@ -44,14 +55,18 @@ public class CommunityPostServiceImpl implements CommunityPostService {
             UserRepository userRepository,
             OpenReservationPostRepository openReservationPostRepository,
             ReservationService reservationService,
-            NotificationService notificationService) {
+            NotificationOutbox notificationOutbox,
+            CommunityFeed communityFeed,
+            CommunityPostSearchIndex communityPostSearchIndex) {
         this.communityPostRepository = communityPostRepository;
         this.communityMemberRepository = communityMemberRepository;
         this.communityRepository = communityRepository;
         this.userRepository = userRepository;
         this.openReservationPostRepository = openReservationPostRepository;
         this.reservationService = reservationService;
-        this.notificationService = notificationService;
+        this.notificationOutbox = notificationOutbox;
+        this.communityFeed = communityFeed;
+        this.communityPostSearchIndex = communityPostSearchIndex;
     }
 
     @Override
@@ -66,7 +81,10 @@ public class CommunityPostServiceImpl implements CommunityPostService {
         }
 
         CommunityPost post = CreateCommunityPostRequestDTO.toEntity(requestDTO, community, member);
-        return communityPostRepository.save(post);
+        CommunityPost saved = communityPostRepository.save(post);
+        communityFeed.postSaved(saved);
+        communityPostSearchIndex.put(saved);
+        return saved;
     }
 
     @Override
@@ -89,7 +107,7 @@ public class CommunityPostServiceImpl implements CommunityPostService {
         validateReadAccess(author.getCommunity(), currentUserId);
 
         if (search != null && !search.isBlank()) {
-            return communityPostRepository.searchByAuthor(author, search);
+            return findRanked(communityPostSearchIndex.search(search, null, author.getId(), 0, Integer.MAX_VALUE));
         } else {
             return communityPostRepository.findByAuthor(author);
         }
@@ -103,12 +121,44 @@ public class CommunityPostServiceImpl implements CommunityPostService {
         validateReadAccess(community, currentUserId);
 
         if (search != null && !search.isBlank()) {
-            return communityPostRepository.searchByCommunity(community, search);
+            return findRanked(communityPostSearchIndex.search(search, community.getId(), null, 0, Integer.MAX_VALUE));
         } else {
             return communityPostRepository.findByCommunity(community);
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommunityPostResponseDTO> getFeed(Long communityId, String cursor, int limit, Long currentUserId) {
+        if (limit < 1 || limit > MAX_FEED_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_FEED_PAGE_SIZE);
+        }
+        CommunityPostCursor before = cursor != null ? CommunityPostCursor.parse(cursor) : null;
+        validateReadAccess(getCommunity(communityId), currentUserId);
+        return communityFeed.getPage(communityId, before, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommunityPostSearchResultDTO> searchPosts(Long communityId, String query, int page, int size,
+            Long currentUserId) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        validateReadAccess(getCommunity(communityId), currentUserId);
+
+        return findRanked(communityPostSearchIndex.search(query, communityId, null, page, size)).stream()
+                .map(post -> CommunityPostSearchResultDTO.fromEntity(post,
+                        CommunityPostSearchIndex.snippet(post.getDescription(), query)))
+                .toList();
+    }
+
     @Override
     @Transactional
     public CommunityPost updatePost(Long postId, Long currentUserId,
@@ -128,7 +178,10 @@ public class CommunityPostServiceImpl implements CommunityPostService {
             post.setDescription(requestDTO.getDescription());
         }
 
-        return communityPostRepository.save(post);
+        CommunityPost saved = communityPostRepository.save(post);
+        communityFeed.postSaved(saved);
+        communityPostSearchIndex.put(saved);
+        return saved;
     }
 
     @Override
@@ -143,6 +196,8 @@ public class CommunityPostServiceImpl implements CommunityPostService {
         }
 
         communityPostRepository.delete(post);
+        communityFeed.postDeleted(post.getCommunity().getId(), post.getId());
+        communityPostSearchIndex.remove(post.getId());
     }
 
     private void validateReadAccess(Community community, Long currentUserId) {
@@ -165,6 +220,19 @@ public class CommunityPostServiceImpl implements CommunityPostService {
                 .orElseThrow(() -> new IllegalArgumentException("Community not found with id: " + communityId));
     }
 
+    /**
+     * Loads the posts with the given ids in one query, keeping the order of the ids. Posts
+     * deleted since they were ranked are skipped.
+     */
+    private List<CommunityPost> findRanked(List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CommunityPost> posts = communityPostRepository.findAllWithAuthorByIdIn(postIds).stream()
+                .collect(Collectors.toMap(CommunityPost::getId, Function.identity()));
+        return postIds.stream().map(posts::get).filter(Objects::nonNull).toList();
+    }
+
     private User getUser(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + userId));
@@ -220,7 +288,10 @@ public class CommunityPostServiceImpl implements CommunityPostService {
 
         // Create and save the post
         OpenReservationPost post = CreateOpenReservationPostDTO.toEntity(requestDTO, community, member, reservation);
-        return openReservationPostRepository.save(post);
+        OpenReservationPost saved = openReservationPostRepository.save(post);
+        communityFeed.postSaved(saved);
+        communityPostSearchIndex.put(saved);
+        return saved;
     }
 
     @Override
@@ -271,7 +342,7 @@ public class CommunityPostServiceImpl implements CommunityPostService {
                 customer.getName(),
                 post.getTitle(),
                 post.getCommunity().getName());
-        notificationService.createNotification(reservationCreator, message);
+        notificationOutbox.enqueue(reservationCreator, message, "open-reservation-joins:" + post.getId());
         
         return savedPost;
     }
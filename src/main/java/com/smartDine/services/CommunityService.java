@@ -10,9 +10,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.smartDine.adapters.ImageAdapter;
 import com.smartDine.dto.CreateCommunityDTO;
-import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Community;
 import com.smartDine.entity.CommunityType;
@@ -22,6 +21,7 @@ import com.smartDine.entity.MemberRole;
 import com.smartDine.entity.User;
 import com.smartDine.repository.CommunityRepository;
 import com.smartDine.repository.MemberRepository;
+import com.smartDine.repository.UserRepository;
 
 @Service
 public class CommunityService {
@@ -33,7 +33,10 @@ public class CommunityService {
     private MemberRepository memberRepository;
 
     @Autowired
-    private ImageAdapter imageAdapter;
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageUploadService imageUploadService;
 
     @Transactional(readOnly = true)
     public List<Community> getCommunities(String search) {
@@ -50,11 +53,14 @@ public class CommunityService {
     }
 
     @Transactional
-    public Community createCommunity(CreateCommunityDTO createDTO, User user) {
+    public Community createCommunity(CreateCommunityDTO createDTO, User principal) {
         // Check if name exists
         if (communityRepository.existsByNameIgnoreCase(createDTO.getName())) {
             throw new IllegalArgumentException("A community with this name already exists");
         }
+        // The principal only carries an id; the owner member needs the stored user
+        User user = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + principal.getId()));
 
         Community community = new Community();
         community.setName(createDTO.getName());
@@ -88,8 +94,7 @@ public class CommunityService {
         return savedCommunity;
     }
 
-    @Transactional
-    public UploadResponse uploadCommunityImage(Long communityId, MultipartFile file, User user) throws IOException {
+    public UploadTicketDTO uploadCommunityImage(Long communityId, MultipartFile file, User user) throws IOException {
         Community community = getCommunityById(communityId);
 
         // Check if user is OWNER or ADMIN
@@ -112,12 +117,12 @@ public class CommunityService {
         String keyName = "communities/%d/images/%s.%s"
                 .formatted(communityId, UUID.randomUUID(), ext);
 
-        UploadResponse response = imageAdapter.uploadImage(file, keyName);
-
-        community.setImageUrl(response.getKey());
-        communityRepository.save(community);
-
-        return response;
+        // Upload in the background; the image is assigned to the community once stored
+        return imageUploadService.submit(file, keyName, user.getId(), key -> {
+            Community stored = getCommunityById(communityId);
+            stored.setImageUrl(key);
+            communityRepository.save(stored);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -1,5 +1,6 @@
 package com.smartDine.services;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,9 @@ public class CustomerService  {
     @Autowired
     private CustomerRepository clientsRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
 
@@ -37,6 +41,7 @@ public class CustomerService  {
 
         client.setPassword(passwordEncoder.encode(newPassword));
         clientsRepository.save(client);
+        principalCache.invalidate(clientId);
     }
     public Customer getCustomerById(Long id) {
         return clientsRepository.findById(id)
@@ -74,7 +79,10 @@ public class CustomerService  {
         if (number != null) clientToUpdate.setPhoneNumber(number);
         if (email != null) clientToUpdate.setEmail(email);
 
-        return clientsRepository.save(clientToUpdate);
+        Customer updated = clientsRepository.save(clientToUpdate);
+        // The cached principal still carries the old email and profile data
+        principalCache.invalidate(clientId);
+        return updated;
     }
 
     /**
@@ -91,6 +99,7 @@ public class CustomerService  {
                 .orElseThrow(() -> new IllegalArgumentException("Client not found."));
 
         clientsRepository.delete(client);
+        principalCache.invalidate(clientId);
     }
 
     /**
@@ -127,4 +136,14 @@ public class CustomerService  {
     public List<Customer> searchCustomers(String name, Long excludeUserId) {
         return clientsRepository.findByNameContainingIgnoreCaseAndIdNot(name, excludeUserId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Finds the customers with the given IDs, in no particular order.
+     *
+     * @param ids The customer IDs.
+     * @return The customers that exist.
+     */
+    public List<Customer> getCustomersByIds(Collection<Long> ids) {
+        return ids.isEmpty() ? List.of() : clientsRepository.findByIdIn(ids);
+    }
+}
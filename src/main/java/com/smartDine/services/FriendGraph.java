@@ -0,0 +1,116 @@
+package com.smartDine.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.smartDine.repository.FriendshipRepository;
+
+/**
+ * In-memory adjacency lists of the friendship graph. A customer's friend ids are loaded on
+ * first use and then kept up to date by FriendshipService once each change commits, so
+ * friendship checks and friend id lookups do not touch the database.
+ *
+ * Only customers whose friends are loaded are updated. While a friendship change is
+ * committing, the friends of its two customers are read from the database without being
+ * cached. Up to max-size customers are kept, the least recently used going first.
+ */
+@Service
+public class FriendGraph {
+
+    private static final int PRELOAD_CHUNK = 500;
+
+    private final FriendshipRepository friendshipRepository;
+    private final VersionedCache<Long, FriendSet> friends;
+
+    public FriendGraph(
+            FriendshipRepository friendshipRepository,
+            @Value("${smartdine.friends.graph.max-size:100000}") int maxSize) {
+        this.friendshipRepository = friendshipRepository;
+        this.friends = new VersionedCache<>(0L, maxSize);
+    }
+
+    /**
+     * Checks whether two customers are friends.
+     */
+    public boolean areFriends(Long customerId, Long otherId) {
+        FriendSet known = friends.getIfPresent(otherId);
+        if (known != null) {
+            return known.contains(customerId);
+        }
+        return friendsOf(customerId).contains(otherId);
+    }
+
+    /**
+     * Returns the ids of a customer's friends.
+     */
+    public List<Long> getFriendIds(Long customerId) {
+        long[] ids = friendsOf(customerId).toArray();
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    /**
+     * Adds a friendship once the current transaction commits, or right away outside one.
+     */
+    public void friendshipCreated(Long customerId, Long otherId) {
+        friends.changeAfterCommit(List.of(customerId, otherId), () -> update(customerId, otherId, true));
+    }
+
+    /**
+     * Removes a friendship once the current transaction commits, or right away outside one.
+     */
+    public void friendshipRemoved(Long customerId, Long otherId) {
+        friends.changeAfterCommit(List.of(customerId, otherId), () -> update(customerId, otherId, false));
+    }
+
+    public void clear() {
+        friends.clear();
+    }
+
+    /**
+     * Loads the friends of every given customer that is not loaded yet, a chunk of
+     * customers per query instead of one customer at a time.
+     */
+    void preload(Collection<Long> customerIds) {
+        List<Long> missing = customerIds.stream().distinct().filter(id -> friends.getIfPresent(id) == null).toList();
+        for (int from = 0; from < missing.size(); from += PRELOAD_CHUNK) {
+            friends.getAll(missing.subList(from, Math.min(missing.size(), from + PRELOAD_CHUNK)), this::load);
+        }
+    }
+
+    FriendSet friendsOf(Long customerId) {
+        return friends.get(customerId, id -> {
+            List<Long> ids = new ArrayList<>(friendshipRepository.findFriendIdsAsUserA(id));
+            ids.addAll(friendshipRepository.findFriendIdsAsUserB(id));
+            return FriendSet.of(ids);
+        });
+    }
+
+    private Map<Long, FriendSet> load(List<Long> customerIds) {
+        Map<Long, List<Long>> ids = new HashMap<>();
+        customerIds.forEach(id -> ids.put(id, new ArrayList<>()));
+        for (Object[] pair : friendshipRepository.findPairsByUserAIn(customerIds)) {
+            ids.get((Long) pair[0]).add((Long) pair[1]);
+        }
+        for (Object[] pair : friendshipRepository.findPairsByUserBIn(customerIds)) {
+            ids.get((Long) pair[1]).add((Long) pair[0]);
+        }
+        Map<Long, FriendSet> loaded = new HashMap<>();
+        ids.forEach((id, friendIds) -> loaded.put(id, FriendSet.of(friendIds)));
+        return loaded;
+    }
+
+    private void update(Long customerId, Long otherId, boolean friendship) {
+        friends.update(customerId, set -> friendship ? set.with(otherId) : set.without(otherId));
+        friends.update(otherId, set -> friendship ? set.with(customerId) : set.without(customerId));
+    }
+}
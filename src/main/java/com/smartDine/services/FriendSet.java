@@ -0,0 +1,80 @@
+package com.smartDine.services;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable set of customer ids backed by an open-addressing table of primitive longs, so
+ * membership checks take constant time without boxing. Changes return a new set; friend
+ * lists are small and change rarely, so readers never need a lock.
+ */
+final class FriendSet {
+
+    static final FriendSet EMPTY = new FriendSet(new long[0]);
+
+    // Id 0 is never generated, so it marks a free slot
+    private static final long FREE = 0L;
+
+    private final long[] ids;
+    private final long[] table;
+
+    private FriendSet(long[] ids) {
+        this.ids = ids;
+        this.table = new long[tableSize(ids.length)];
+        for (long id : ids) {
+            table[slot(table, id)] = id;
+        }
+    }
+
+    static FriendSet of(Collection<Long> ids) {
+        return ids.isEmpty() ? EMPTY : new FriendSet(ids.stream().mapToLong(Long::longValue).distinct().toArray());
+    }
+
+    boolean contains(long id) {
+        return id != FREE && table.length > 0 && table[slot(table, id)] == id;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    long[] toArray() {
+        return ids.clone();
+    }
+
+    FriendSet with(long id) {
+        if (contains(id)) {
+            return this;
+        }
+        long[] updated = Arrays.copyOf(ids, ids.length + 1);
+        updated[ids.length] = id;
+        return new FriendSet(updated);
+    }
+
+    FriendSet without(long id) {
+        if (!contains(id)) {
+            return this;
+        }
+        long[] updated = Arrays.stream(ids).filter(other -> other != id).toArray();
+        return updated.length == 0 ? EMPTY : new FriendSet(updated);
+    }
+
+    /**
+     * Returns the slot holding id, or the free slot where it would go.
+     */
+    private static int slot(long[] table, long id) {
+        int mask = table.length - 1;
+        int slot = Long.hashCode(id * 0x9E3779B97F4A7C15L) & mask;
+        while (table[slot] != FREE && table[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Smallest power of two that keeps the table at most half full.
+     */
+    private static int tableSize(int count) {
+        return count == 0 ? 0 : Integer.highestOneBit(count * 2 - 1) << 1;
+    }
+}
@@ -0,0 +1,267 @@
+package com.smartDine.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Friends-of-friends of each customer with their mutual friend counts, built on the
+ * FriendGraph adjacency sets.
+ *
+ * A customer's suggestions are computed on first use by walking their friends (loaded in
+ * chunks) and kept ranked, so a page of suggestions is a sublist. Committed friendship
+ * changes then only adjust the counts of the two customers and of their friends, instead of
+ * recomputing anyone's list; every friend set this needs is read before any cached entry is
+ * touched. Customers with more than max-scanned-friends friends get counts from that many
+ * friends only: such partial entries are dropped and recomputed on the next change instead
+ * of being adjusted. Up to max-size customers are kept, the least recently used going first.
+ */
+@Service
+public class FriendSuggestionService {
+
+    /** Social distance of a friend. */
+    public static final int FRIEND = 1;
+    /** Social distance of a friend of a friend. */
+    public static final int FRIEND_OF_FRIEND = 2;
+    /** Social distance of anyone farther away. */
+    public static final int UNRELATED = 3;
+
+    private static final Comparator<Suggestion> RANKING =
+        Comparator.comparingInt(Suggestion::mutualFriends).reversed().thenComparing(Suggestion::customerId);
+
+    private final FriendGraph friendGraph;
+    private final int maxScannedFriends;
+    private final VersionedCache<Long, Suggestions> suggestions;
+
+    /**
+     * A suggested customer and how many friends they share with the customer.
+     */
+    public record Suggestion(Long customerId, int mutualFriends) {
+    }
+
+    /**
+     * The suggestions of a customer, by candidate and ranked, most mutual friends first.
+     * Partial when only some of the customer's friends were walked.
+     */
+    private record Suggestions(Map<Long, Integer> counts, List<Suggestion> ranked, boolean partial) {
+
+        static Suggestions of(Map<Long, Integer> counts, boolean partial) {
+            List<Suggestion> ranked = new ArrayList<>(counts.size());
+            counts.forEach((candidate, count) -> {
+                if (count > 0) {
+                    ranked.add(new Suggestion(candidate, count));
+                }
+            });
+            ranked.sort(RANKING);
+            Map<Long, Integer> positive = new HashMap<>();
+            ranked.forEach(suggestion -> positive.put(suggestion.customerId(), suggestion.mutualFriends()));
+            return new Suggestions(Map.copyOf(positive), List.copyOf(ranked), partial);
+        }
+
+        /**
+         * Adds delta to one candidate's count, moving it within the ranking.
+         */
+        Suggestions with(long candidate, int delta) {
+            int current = counts.getOrDefault(candidate, 0);
+            int updated = Math.max(0, current + delta);
+            if (updated == current) {
+                return this;
+            }
+            Map<Long, Integer> newCounts = new HashMap<>(counts);
+            List<Suggestion> newRanked = new ArrayList<>(ranked);
+            if (current > 0) {
+                newRanked.remove(Collections.binarySearch(newRanked, new Suggestion(candidate, current), RANKING));
+            }
+            if (updated > 0) {
+                Suggestion suggestion = new Suggestion(candidate, updated);
+                newRanked.add(-Collections.binarySearch(newRanked, suggestion, RANKING) - 1, suggestion);
+                newCounts.put(candidate, updated);
+            } else {
+                newCounts.remove(candidate);
+            }
+            return new Suggestions(Map.copyOf(newCounts), List.copyOf(newRanked), partial);
+        }
+    }
+
+    public FriendSuggestionService(
+            FriendGraph friendGraph,
+            @Value("${smartdine.friends.suggestions.max-scanned-friends:1000}") int maxScannedFriends,
+            @Value("${smartdine.friends.suggestions.max-size:10000}") int maxSize) {
+        this.friendGraph = friendGraph;
+        this.maxScannedFriends = Math.max(1, maxScannedFriends);
+        this.suggestions = new VersionedCache<>(0L, maxSize);
+    }
+
+    /**
+     * Returns up to limit friends of friends of a customer, most mutual friends first.
+     */
+    public List<Suggestion> getSuggestions(Long customerId, int limit) {
+        List<Suggestion> ranked = suggestionsOf(customerId).ranked();
+        return ranked.subList(0, Math.max(0, Math.min(limit, ranked.size())));
+    }
+
+    /**
+     * Returns how many friends two customers share; 0 when they are friends themselves.
+     */
+    public int getMutualFriends(Long customerId, Long otherId) {
+        return suggestionsOf(customerId).counts().getOrDefault(otherId, 0);
+    }
+
+    /**
+     * Returns the social distance between two customers: FRIEND, FRIEND_OF_FRIEND or
+     * UNRELATED.
+     */
+    public int getDistance(Long customerId, Long otherId) {
+        if (friendGraph.friendsOf(customerId).contains(otherId)) {
+            return FRIEND;
+        }
+        return suggestionsOf(customerId).counts().containsKey(otherId) ? FRIEND_OF_FRIEND : UNRELATED;
+    }
+
+    /**
+     * Adjusts the suggestions around a new friendship once the current transaction commits.
+     * Must be called after FriendGraph.friendshipCreated so the graph is updated first.
+     */
+    public void friendshipCreated(Long customerId, Long otherId) {
+        suggestions.changeAfterCommit(affected(customerId, otherId), () -> update(customerId, otherId, true));
+    }
+
+    /**
+     * Adjusts the suggestions around a removed friendship once the current transaction
+     * commits. Must be called after FriendGraph.friendshipRemoved.
+     */
+    public void friendshipRemoved(Long customerId, Long otherId) {
+        suggestions.changeAfterCommit(affected(customerId, otherId), () -> update(customerId, otherId, false));
+    }
+
+    public void clear() {
+        suggestions.clear();
+    }
+
+    private Suggestions suggestionsOf(Long customerId) {
+        return suggestions.get(customerId, this::compute);
+    }
+
+    private Suggestions compute(Long customerId) {
+        FriendSet friends = friendGraph.friendsOf(customerId);
+        long[] scanned = friends.toArray();
+        boolean partial = scanned.length > maxScannedFriends;
+        if (partial) {
+            scanned = Arrays.copyOf(scanned, maxScannedFriends);
+        }
+        List<Long> friendIds = new ArrayList<>(scanned.length);
+        for (long id : scanned) {
+            friendIds.add(id);
+        }
+        friendGraph.preload(friendIds);
+
+        Map<Long, Integer> counts = new HashMap<>();
+        for (long friendId : scanned) {
+            for (long candidate : friendGraph.friendsOf(friendId).toArray()) {
+                if (candidate != customerId && !friends.contains(candidate)) {
+                    counts.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+        return Suggestions.of(counts, partial);
+    }
+
+    /**
+     * Customers whose suggestions a change between a and b can affect: a, b and their
+     * friends.
+     */
+    private List<Long> affected(Long a, Long b) {
+        Set<Long> keys = new LinkedHashSet<>();
+        keys.add(a);
+        keys.add(b);
+        for (long id : friendGraph.friendsOf(a).toArray()) {
+            keys.add(id);
+        }
+        for (long id : friendGraph.friendsOf(b).toArray()) {
+            keys.add(id);
+        }
+        return List.copyOf(keys);
+    }
+
+    /**
+     * Applies a friendship change between a and b. Paths of length two through the changed
+     * edge are a-b-x and b-a-y for every friend x of b and y of a, so only a, b and their
+     * friends see their counts change. Friend sets are read first, since reading one may hit
+     * the database.
+     */
+    private void update(Long a, Long b, boolean created) {
+        FriendSet friendsOfA = friendGraph.friendsOf(a);
+        FriendSet friendsOfB = friendGraph.friendsOf(b);
+        Map<Long, FriendSet> cachedFriendsOfA = cachedFriends(friendsOfA, b);
+        Map<Long, FriendSet> cachedFriendsOfB = cachedFriends(friendsOfB, a);
+
+        int delta = created ? 1 : -1;
+        updateEndpoint(a, b, friendsOfA, friendsOfB, created);
+        updateEndpoint(b, a, friendsOfB, friendsOfA, created);
+        cachedFriendsOfA.forEach((y, friendsOfY) -> {
+            if (!friendsOfY.contains(b)) {
+                suggestions.update(y, current -> current.partial() ? null : current.with(b, delta));
+            }
+        });
+        cachedFriendsOfB.forEach((x, friendsOfX) -> {
+            if (!friendsOfX.contains(a)) {
+                suggestions.update(x, current -> current.partial() ? null : current.with(a, delta));
+            }
+        });
+    }
+
+    /**
+     * The friend sets of the given friends, except one, that have cached suggestions.
+     */
+    private Map<Long, FriendSet> cachedFriends(FriendSet friends, long except) {
+        List<Long> cached = new ArrayList<>();
+        for (long id : friends.toArray()) {
+            if (id != except && suggestions.getIfPresent(id) != null) {
+                cached.add(id);
+            }
+        }
+        friendGraph.preload(cached);
+        Map<Long, FriendSet> friendSets = new HashMap<>();
+        cached.forEach(id -> friendSets.put(id, friendGraph.friendsOf(id)));
+        return friendSets;
+    }
+
+    /**
+     * Updates the suggestions of one end of the changed friendship, if cached.
+     */
+    private void updateEndpoint(Long self, Long other, FriendSet ownFriends, FriendSet otherFriends, boolean created) {
+        suggestions.update(self, current -> {
+            if (current.partial()) {
+                return null;
+            }
+            Map<Long, Integer> updated = new HashMap<>(current.counts());
+            int delta = created ? 1 : -1;
+            for (long x : otherFriends.toArray()) {
+                if (x != self && !ownFriends.contains(x)) {
+                    updated.merge(x, delta, Integer::sum);
+                }
+            }
+            if (created) {
+                updated.remove(other);
+            } else {
+                int mutual = 0;
+                for (long x : ownFriends.toArray()) {
+                    if (otherFriends.contains(x)) {
+                        mutual++;
+                    }
+                }
+                updated.put(other, mutual);
+            }
+            return Suggestions.of(updated, false);
+        });
+    }
+}
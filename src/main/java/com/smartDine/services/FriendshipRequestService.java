@@ -2,12 +2,13 @@ package com.smartDine.services;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.smartDine.entity.Customer;
 import com.smartDine.entity.Request;
-import com.smartDine.entity.RequestStatus;
 import com.smartDine.entity.RequestType;
 import com.smartDine.exceptions.DuplicateFriendRequestException;
 import com.smartDine.exceptions.FriendshipAlreadyExistsException;
@@ -29,9 +30,14 @@ public class FriendshipRequestService extends RequestService {
     public FriendshipRequestService(
             NotificationRepository notificationRepository,
             RequestRepository requestRepository,
+            PendingRequestIndex pendingRequestIndex,
+            PendingRequestCounter pendingRequestCounter,
             CustomerRepository customerRepository,
-            FriendshipService friendshipService) {
-        super(notificationRepository, requestRepository);
+            FriendshipService friendshipService,
+            ApplicationEventPublisher eventPublisher,
+            UnreadNotificationCounter unreadCounter) {
+        super(notificationRepository, requestRepository, pendingRequestIndex, pendingRequestCounter, eventPublisher,
+                unreadCounter);
         this.customerRepository = customerRepository;
         this.friendshipService = friendshipService;
     }
@@ -88,6 +94,11 @@ public class FriendshipRequestService extends RequestService {
             throw new SelfFriendRequestException();
         }
 
+        // Validate: no duplicate pending request (in either direction)
+        if (pendingRequestIndex.isPendingForInsert(RequestType.FRIEND_REQUEST, sender.getId(), receiverId)) {
+            throw new DuplicateFriendRequestException();
+        }
+
         // Validate: receiver exists and is a Customer
         Customer receiver = customerRepository.findById(receiverId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + receiverId));
@@ -97,22 +108,21 @@ public class FriendshipRequestService extends RequestService {
             throw new FriendshipAlreadyExistsException();
         }
 
-        // Validate: no duplicate pending request (in either direction)
-        boolean pendingExists = requestRepository.existsBySenderAndReceiverAndRequestTypeAndStatus(
-                sender, receiver, RequestType.FRIEND_REQUEST, RequestStatus.PENDING);
-        boolean reversePendingExists = requestRepository.existsBySenderAndReceiverAndRequestTypeAndStatus(
-                receiver, sender, RequestType.FRIEND_REQUEST, RequestStatus.PENDING);
-
-        if (pendingExists || reversePendingExists) {
-            throw new DuplicateFriendRequestException();
-        }
-
         // Create the message for the notification
         String message = sender.getName() + " te ha enviado una solicitud de amistad";
 
-        // Create and save the request (which is also a notification)
-        Request request = new Request(sender, receiver, RequestType.FRIEND_REQUEST, message);
-        return requestRepository.save(request);
+        // Create and save the request (which is also a notification). The unique pending key
+        // rejects a duplicate sent concurrently in either direction.
+        Request request;
+        try {
+            request = requestRepository.save(new Request(sender, receiver, RequestType.FRIEND_REQUEST, message));
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateFriendRequestException();
+        }
+        pendingRequestIndex.requestCreated(request.getPendingKey());
+        pendingRequestCounter.adjustAfterCommit(receiverId, RequestType.FRIEND_REQUEST, 1);
+        publishCreated(request);
+        return request;
     }
 
     /**
@@ -133,13 +143,7 @@ public class FriendshipRequestService extends RequestService {
      * @param customer2 Second customer
      * @return true if there's a pending request between them
      */
-    @Transactional(readOnly = true)
     public boolean hasPendingRequestBetween(Customer customer1, Customer customer2) {
-        boolean pendingFromFirstToSecond = requestRepository.existsBySenderAndReceiverAndRequestTypeAndStatus(
-                customer1, customer2, RequestType.FRIEND_REQUEST, RequestStatus.PENDING);
-        boolean pendingFromSecondToFirst = requestRepository.existsBySenderAndReceiverAndRequestTypeAndStatus(
-                customer2, customer1, RequestType.FRIEND_REQUEST, RequestStatus.PENDING);
-        
-        return pendingFromFirstToSecond || pendingFromSecondToFirst;
+        return pendingRequestIndex.isPending(RequestType.FRIEND_REQUEST, customer1.getId(), customer2.getId());
     }
 }
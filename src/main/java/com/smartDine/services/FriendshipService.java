@@ -17,10 +17,15 @@ public class FriendshipService {
 
     private final FriendshipRepository friendshipRepository;
     private final CustomerRepository customerRepository;
+    private final FriendGraph friendGraph;
+    private final FriendSuggestionService friendSuggestionService;
 
-    public FriendshipService(FriendshipRepository friendshipRepository, CustomerRepository customerRepository) {
+    public FriendshipService(FriendshipRepository friendshipRepository, CustomerRepository customerRepository,
+            FriendGraph friendGraph, FriendSuggestionService friendSuggestionService) {
         this.friendshipRepository = friendshipRepository;
         this.customerRepository = customerRepository;
+        this.friendGraph = friendGraph;
+        this.friendSuggestionService = friendSuggestionService;
     }
 
     /**
@@ -35,15 +40,24 @@ public class FriendshipService {
     }
 
     /**
-     * Check if two customers are friends.
+     * Get the ids of a customer's friends, served from the friend graph.
+     * 
+     * @param customer The customer
+     * @return List of friend ids
+     */
+    public List<Long> getFriendIds(Customer customer) {
+        return friendGraph.getFriendIds(customer.getId());
+    }
+
+    /**
+     * Check if two customers are friends, served from the friend graph.
      * 
      * @param userA First customer
      * @param userB Second customer
      * @return true if they are friends
      */
-    @Transactional(readOnly = true)
     public boolean areFriends(Customer userA, Customer userB) {
-        return friendshipRepository.existsBetween(userA, userB);
+        return friendGraph.areFriends(userA.getId(), userB.getId());
     }
 
     /**
@@ -57,12 +71,14 @@ public class FriendshipService {
      */
     @Transactional
     public Friendship createFriendship(Customer userA, Customer userB) {
-        if (areFriends(userA, userB)) {
+        if (friendshipRepository.existsBetween(userA, userB)) {
             throw new FriendshipAlreadyExistsException();
         }
 
-        Friendship friendship = new Friendship(userA, userB);
-        return friendshipRepository.save(friendship);
+        Friendship friendship = friendshipRepository.save(new Friendship(userA, userB));
+        friendGraph.friendshipCreated(userA.getId(), userB.getId());
+        friendSuggestionService.friendshipCreated(userA.getId(), userB.getId());
+        return friendship;
     }
 
     /**
@@ -82,5 +98,7 @@ public class FriendshipService {
                 .orElseThrow(() -> new FriendshipNotFoundException("You are not friends with this user"));
 
         friendshipRepository.delete(friendship);
+        friendGraph.friendshipRemoved(customer.getId(), friend.getId());
+        friendSuggestionService.friendshipRemoved(customer.getId(), friend.getId());
     }
 }
@@ -0,0 +1,203 @@
+package com.smartDine.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import com.smartDine.adapters.FileRegionInputStream;
+import com.smartDine.adapters.ImageAdapter;
+import com.smartDine.dto.ImageFetchRequest;
+import com.smartDine.dto.ImageResponseDTO;
+import com.smartDine.dto.ImageVariant;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes stored images to HTTP responses, with conditional GET (If-None-Match,
+ * If-Modified-Since) and single byte range support.
+ *
+ * The conditions and the range are handed to the ImageAdapter so the storage answers
+ * them together with the content in one call. Content is copied through buffers borrowed
+ * from a fixed pool, so serving an image allocates no copy buffer per request; images read
+ * from local files are sent with FileChannel.transferTo instead.
+ */
+@Service
+public class ImageDeliveryService {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SINGLE_RANGE = Pattern.compile("^bytes=(\\d+)-(\\d*)$");
+
+    private final ImageAdapter imageAdapter;
+    private final ImageVariantService imageVariantService;
+    private final BlockingQueue<byte[]> buffers;
+
+    public ImageDeliveryService(
+            ImageAdapter imageAdapter,
+            ImageVariantService imageVariantService,
+            @Value("${smartdine.images.pooled-buffers:64}") int pooledBuffers) {
+        this.imageAdapter = imageAdapter;
+        this.imageVariantService = imageVariantService;
+        this.buffers = new ArrayBlockingQueue<>(Math.max(1, pooledBuffers));
+    }
+
+    /**
+     * Answers an image request with 200, 206 (single range) or 304 (conditions matched).
+     * A scaled variant that was never generated, as for images uploaded before variants
+     * existed or in formats that cannot be decoded, is answered with the original; variants
+     * known to be missing are not read again (see ImageVariantService#isMissing).
+     *
+     * @throws IllegalArgumentException if the image is not found
+     * @throws com.smartDine.exceptions.RangeNotSatisfiableException if the range lies outside the image
+     */
+    public void writeImage(String key, ImageVariant variant, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ImageFetchRequest fetch = fetchRequestOf(request);
+        ImageResponseDTO image = null;
+        String variantKey = variant.keyFor(key);
+        if (variant != ImageVariant.FULL && !imageVariantService.isMissing(variantKey)) {
+            try {
+                image = imageAdapter.getImage(variantKey, fetch);
+            } catch (IllegalArgumentException e) {
+                imageVariantService.markMissing(variantKey);
+            }
+        }
+        if (image == null) {
+            image = imageAdapter.getImage(key, fetch);
+        }
+
+        if (image.isNotModified()) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            if (image.getETag() != null) {
+                response.setHeader(HttpHeaders.ETAG, quote(image.getETag()));
+            }
+            return;
+        }
+
+        try (InputStream content = image.getInputStream()) {
+            response.setContentType(mediaTypeOf(image.getContentType()).toString());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.inline().filename(image.getFilename()).build().toString());
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (image.getETag() != null) {
+                response.setHeader(HttpHeaders.ETAG, quote(image.getETag()));
+            }
+            if (image.getLastModified() != null) {
+                response.setDateHeader(HttpHeaders.LAST_MODIFIED, image.getLastModified());
+            }
+            if (image.isPartial()) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + image.getRangeStart() + "-" + image.getRangeEnd() + "/" + image.getTotalLength());
+            }
+            response.setContentLengthLong(image.getContentLength());
+            copy(content, response.getOutputStream());
+        }
+    }
+
+    /**
+     * Reads the conditional and range headers. Malformed dates, multiple ranges and ranges
+     * guarded by If-Range are ignored, which makes the response a plain 200.
+     */
+    static ImageFetchRequest fetchRequestOf(HttpServletRequest request) {
+        List<String> ifNoneMatch = parseETags(request.getHeader(HttpHeaders.IF_NONE_MATCH));
+        Long ifModifiedSince = null;
+        if (ifNoneMatch.isEmpty()) {
+            try {
+                long date = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+                ifModifiedSince = date >= 0 ? date : null;
+            } catch (IllegalArgumentException ignored) {
+                // Unparseable date: the condition is ignored
+            }
+        }
+
+        Long rangeStart = null;
+        Long rangeEnd = null;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && request.getHeader(HttpHeaders.IF_RANGE) == null) {
+            Matcher matcher = SINGLE_RANGE.matcher(range.trim());
+            if (matcher.matches()) {
+                try {
+                    long start = Long.parseLong(matcher.group(1));
+                    Long end = matcher.group(2).isEmpty() ? null : Long.parseLong(matcher.group(2));
+                    if (end == null || end >= start) {
+                        rangeStart = start;
+                        rangeEnd = end;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // Out of range numbers: the header is ignored
+                }
+            }
+        }
+        return new ImageFetchRequest(ifNoneMatch, ifModifiedSince, rangeStart, rangeEnd);
+    }
+
+    private static List<String> parseETags(String header) {
+        List<String> tags = new ArrayList<>();
+        if (header == null) {
+            return tags;
+        }
+        for (String tag : header.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (!tag.isEmpty() && !tag.equals("*")) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    private static String quote(String eTag) {
+        return "\"" + eTag + "\"";
+    }
+
+    private static MediaType mediaTypeOf(String contentType) {
+        if (contentType != null && !contentType.isBlank()) {
+            try {
+                return MediaType.parseMediaType(contentType);
+            } catch (InvalidMediaTypeException ignored) {
+                // Fall back to octet-stream
+            }
+        }
+        return MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    private void copy(InputStream in, OutputStream out) throws IOException {
+        if (in instanceof FileRegionInputStream) {
+            // Local files are handed to FileChannel.transferTo
+            in.transferTo(out);
+            return;
+        }
+        byte[] buffer = buffers.poll();
+        if (buffer == null) {
+            buffer = new byte[BUFFER_SIZE];
+        }
+        try {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            // Dropped when the pool is already full
+            buffers.offer(buffer);
+        }
+    }
+}
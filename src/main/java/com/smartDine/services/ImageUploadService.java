@@ -0,0 +1,274 @@
+package com.smartDine.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.smartDine.adapters.ImageAdapter;
+import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
+import com.smartDine.dto.UploadTicketDTO.Status;
+import com.smartDine.entity.User;
+import com.smartDine.exceptions.ServiceBusyException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stores uploaded images in the background and returns a ticket right away, so the
+ * request thread and its transaction are not held for the transfer.
+ *
+ * The upload is copied to a local file before the request ends and stored from there by
+ * a fixed worker pool, which also queues the generation of its variants (see
+ * ImageVariantService) without waiting for them. Failed transfers are
+ * retried with exponential backoff; invalid images are not. Once the image is stored the
+ * caller's callback assigns the key to its entity in a new transaction; if that fails the
+ * stored image is deleted again. At most threads + queue-capacity uploads are in flight,
+ * later ones are rejected with ServiceBusyException. With threads=0 uploads run on the
+ * calling thread, inside its transaction. Finished tickets are kept for ticket-ttl-ms.
+ *
+ * Tickets live in this node's memory only: a ticket can only be read from the node that
+ * accepted the upload, and uploads still in flight when the node stops are lost (the
+ * entity keeps its previous image).
+ */
+@Service
+public class ImageUploadService {
+
+    private static final String NOT_FOUND_MSG = "Subida no encontrada: %s";
+
+    private final ImageAdapter imageAdapter;
+    private final ImageVariantService imageVariantService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore inFlight;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long ticketTtlMillis;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    private static final class Ticket {
+        private final String id = UUID.randomUUID().toString();
+        private final String key;
+        private final Long userId;
+        private final String contentType;
+        private final long size;
+        private volatile Status status = Status.PENDING;
+        private volatile int attempts;
+        private volatile boolean variantsQueued;
+        private volatile String url;
+        private volatile String error;
+        private volatile long finishedAt;
+
+        private Ticket(String key, Long userId, String contentType, long size) {
+            this.key = key;
+            this.userId = userId;
+            this.contentType = contentType;
+            this.size = size;
+        }
+
+        private boolean isExpired(long now, long ttlMillis) {
+            return finishedAt > 0 && finishedAt + ttlMillis <= now;
+        }
+
+        private UploadTicketDTO toDTO() {
+            return new UploadTicketDTO(id, key, status, attempts, url, contentType, size, error);
+        }
+    }
+
+    public ImageUploadService(
+            ImageAdapter imageAdapter,
+            ImageVariantService imageVariantService,
+            PlatformTransactionManager transactionManager,
+            @Value("${smartdine.uploads.threads:4}") int threads,
+            @Value("${smartdine.uploads.queue-capacity:64}") int queueCapacity,
+            @Value("${smartdine.uploads.max-attempts:3}") int maxAttempts,
+            @Value("${smartdine.uploads.retry-backoff-ms:500}") long retryBackoffMillis,
+            @Value("${smartdine.uploads.ticket-ttl-ms:3600000}") long ticketTtlMillis) {
+        this.imageAdapter = imageAdapter;
+        this.imageVariantService = imageVariantService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.ticketTtlMillis = ticketTtlMillis;
+        this.inFlight = new Semaphore(Math.max(1, threads + queueCapacity));
+        if (threads > 0) {
+            AtomicInteger threadCount = new AtomicInteger();
+            // The semaphore bounds the queue
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "image-uploads-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Accepts an image for storage under key and returns its ticket. onComplete receives
+     * the key once the image is stored and runs in a transaction.
+     *
+     * @throws ServiceBusyException if too many uploads are in flight
+     * @throws IOException if the upload cannot be copied to a local file
+     */
+    public UploadTicketDTO submit(MultipartFile file, String key, Long userId, Consumer<String> onComplete)
+            throws IOException {
+        purgeExpired(System.currentTimeMillis());
+        if (!inFlight.tryAcquire()) {
+            throw new ServiceBusyException("Hay demasiadas subidas en curso, inténtelo de nuevo más tarde");
+        }
+
+        SpooledImageFile spooled;
+        try {
+            spooled = spool(file);
+        } catch (IOException | RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+
+        Ticket ticket = new Ticket(key, userId, file.getContentType(), file.getSize());
+        tickets.put(ticket.id, ticket);
+        if (executor == null) {
+            process(ticket, spooled, onComplete);
+        } else {
+            try {
+                executor.execute(() -> process(ticket, spooled, onComplete));
+            } catch (RejectedExecutionException e) {
+                // The pool is shutting down
+                deleteQuietly(spooled.getPath());
+                inFlight.release();
+                finish(ticket, Status.FAILED, null, "La subida no pudo iniciarse");
+            }
+        }
+        return ticket.toDTO();
+    }
+
+    /**
+     * Returns the state of an upload made by the given user.
+     *
+     * @throws IllegalArgumentException if the ticket does not exist, expired or belongs to another user
+     */
+    public UploadTicketDTO getTicket(String ticketId, User user) {
+        purgeExpired(System.currentTimeMillis());
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null || user == null || !Objects.equals(ticket.userId, user.getId())) {
+            throw new IllegalArgumentException(String.format(NOT_FOUND_MSG, ticketId));
+        }
+        return ticket.toDTO();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void process(Ticket ticket, SpooledImageFile file, Consumer<String> onComplete) {
+        Status outcome = Status.FAILED;
+        String url = null;
+        String error = null;
+        try {
+            UploadResponse stored = store(ticket, file);
+            try {
+                transactionTemplate.executeWithoutResult(status -> onComplete.accept(ticket.key));
+            } catch (RuntimeException e) {
+                // Nothing references the stored image
+                discard(ticket.key);
+                throw e;
+            }
+            url = stored != null ? stored.getUrl() : null;
+            outcome = Status.COMPLETED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = "La subida se interrumpió";
+        } catch (Exception e) {
+            error = e.getMessage();
+        } finally {
+            deleteQuietly(file.getPath());
+            inFlight.release();
+        }
+        // Published last, so a finished ticket no longer counts as in flight
+        finish(ticket, outcome, url, error);
+    }
+
+    private static void finish(Ticket ticket, Status outcome, String url, String error) {
+        ticket.url = url;
+        ticket.error = error;
+        ticket.finishedAt = System.currentTimeMillis();
+        ticket.status = outcome;
+    }
+
+    private UploadResponse store(Ticket ticket, SpooledImageFile file) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            ticket.attempts = attempt;
+            ticket.status = Status.UPLOADING;
+            try {
+                if (!ticket.variantsQueued) {
+                    imageVariantService.createVariants(file, ticket.key);
+                    // Retries only resend the original
+                    ticket.variantsQueued = true;
+                }
+                return imageAdapter.uploadImage(file, ticket.key);
+            } catch (IllegalArgumentException e) {
+                // Invalid image: retrying will not help
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                Thread.sleep(retryBackoffMillis << (attempt - 1));
+            }
+        }
+    }
+
+    private SpooledImageFile spool(MultipartFile file) throws IOException {
+        Path path = Files.createTempFile("smartdine-upload-", ".tmp");
+        try {
+            file.transferTo(path);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(path);
+            throw e;
+        }
+        return new SpooledImageFile(path, file.getOriginalFilename(), file.getContentType(), file.getSize());
+    }
+
+    private void discard(String key) {
+        try {
+            imageAdapter.deleteImage(key);
+            imageVariantService.deleteVariants(key);
+        } catch (RuntimeException ignored) {
+            // An orphaned image is harmless
+        }
+    }
+
+    private void purgeExpired(long now) {
+        tickets.values().removeIf(ticket -> ticket.isExpired(now, ticketTtlMillis));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Left in the temporary directory
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.smartDine.services;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.smartDine.adapters.ImageAdapter;
+import com.smartDine.dto.ImageVariant;
+import com.smartDine.exceptions.ServiceBusyException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates and stores the downscaled variants (see ImageVariant) of uploaded images.
+ *
+ * Decoding and resizing run in the background on a small fixed pool with a bounded queue,
+ * so concurrent uploads cannot exhaust CPU or memory; when the queue is full the upload is
+ * rejected with ServiceBusyException. Each variant is produced from the next larger one and
+ * is encoded in the format of the original. A variant that cannot be encoded or stored is
+ * skipped without affecting the others, and formats ImageIO cannot decode get no variants;
+ * GET /images then falls back to the original.
+ *
+ * Variant keys the storage reported missing are remembered for missing-ttl-ms, so images
+ * without variants (such as those uploaded before variants existed) cost one failed read
+ * per variant and node in that period rather than one per request.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final List<ImageVariant> SCALED_VARIANTS = Arrays.stream(ImageVariant.values())
+        .filter(variant -> variant.getMaxSize() > 0)
+        .sorted(Comparator.comparingInt(ImageVariant::getMaxSize).reversed())
+        .toList();
+
+    private final ImageAdapter imageAdapter;
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+    private final long missingTtlMillis;
+    private final int maxMissing;
+
+    // Insertion-ordered variant key -> expiry, guarded by itself
+    private final LinkedHashMap<String, Long> missingVariants = new LinkedHashMap<>();
+
+    public ImageVariantService(
+            ImageAdapter imageAdapter,
+            @Value("${smartdine.images.variants.threads:2}") int threads,
+            @Value("${smartdine.images.variants.queue-capacity:32}") int queueCapacity,
+            @Value("${smartdine.images.variants.max-pixels:40000000}") long maxPixels,
+            @Value("${smartdine.images.variants.missing-ttl-ms:300000}") long missingTtlMillis,
+            @Value("${smartdine.images.variants.missing-max-size:10000}") int maxMissing) {
+        this.imageAdapter = imageAdapter;
+        this.maxPixels = maxPixels;
+        this.missingTtlMillis = missingTtlMillis;
+        this.maxMissing = maxMissing;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "image-variants-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Checks the size of an image and queues the generation of its scaled variants, stored
+     * under keys derived from key. Images that already fit a variant are stored unchanged.
+     *
+     * @return a future that completes once every variant was stored or skipped
+     * @throws IllegalArgumentException if the image has more pixels than allowed
+     * @throws ServiceBusyException if too many images are being processed
+     * @throws IOException if the image cannot be read
+     */
+    public Future<?> createVariants(MultipartFile original, String key) throws IOException {
+        byte[] bytes = original.getBytes();
+        String contentType = original.getContentType();
+        checkDimensions(bytes);
+        try {
+            return executor.submit(() -> writeVariants(bytes, contentType, key));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceBusyException("Hay demasiadas imágenes en proceso, inténtelo de nuevo más tarde", e);
+        }
+    }
+
+    /**
+     * Whether the storage recently reported this variant key as missing.
+     */
+    public boolean isMissing(String variantKey) {
+        synchronized (missingVariants) {
+            Long expiresAt = missingVariants.get(variantKey);
+            if (expiresAt == null) {
+                return false;
+            }
+            if (expiresAt <= System.currentTimeMillis()) {
+                missingVariants.remove(variantKey);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Remembers that the storage has no image under this variant key. Once full, the oldest
+     * entry is dropped.
+     */
+    public void markMissing(String variantKey) {
+        if (missingTtlMillis <= 0 || maxMissing <= 0) {
+            return;
+        }
+        synchronized (missingVariants) {
+            missingVariants.remove(variantKey);
+            missingVariants.put(variantKey, System.currentTimeMillis() + missingTtlMillis);
+            Iterator<String> eldest = missingVariants.keySet().iterator();
+            while (missingVariants.size() > maxMissing) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Deletes the scaled variants of an image. The original is left to the caller.
+     */
+    public void deleteVariants(String key) {
+        if (key == null) {
+            return;
+        }
+        for (ImageVariant variant : SCALED_VARIANTS) {
+            imageAdapter.deleteImage(variant.keyFor(key));
+        }
+    }
+
+    int queuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reads only the header of the image to reject ones with too many pixels before they
+     * are stored. Formats ImageIO cannot decode are let through.
+     */
+    private void checkDimensions(byte[] bytes) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IllegalArgumentException("La imagen es demasiado grande: %dx%d píxeles"
+                        .formatted(reader.getWidth(0), reader.getHeight(0)));
+                }
+            } catch (IOException e) {
+                // Unreadable header: decoding fails later and the image gets no variants
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeVariants(byte[] bytes, String contentType, String key) {
+        String formatName;
+        BufferedImage image;
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                formatName = reader.getFormatName();
+                image = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Undecodable image: the original serves every variant
+            return;
+        }
+
+        boolean opaque = isJpeg(formatName);
+        for (ImageVariant variant : SCALED_VARIANTS) {
+            String variantKey = variant.keyFor(key);
+            try {
+                byte[] variantBytes;
+                if (Math.max(image.getWidth(), image.getHeight()) <= variant.getMaxSize()) {
+                    variantBytes = bytes;
+                } else {
+                    image = scaleToFit(image, variant.getMaxSize(), opaque);
+                    variantBytes = encode(image, formatName);
+                    if (variantBytes == null) {
+                        // No writer for this format: the original serves every variant
+                        return;
+                    }
+                }
+                imageAdapter.uploadImage(new VariantFile(variantKey, contentType, variantBytes), variantKey);
+                synchronized (missingVariants) {
+                    missingVariants.remove(variantKey);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Skipped: requests for this variant fall back to the original
+            }
+        }
+    }
+
+    /**
+     * Downscales an image so its longest side is maxSize, halving it first while it is at
+     * least twice as large, which keeps bilinear filtering from skipping source pixels.
+     */
+    static BufferedImage scaleToFit(BufferedImage source, int maxSize, boolean opaque) {
+        double ratio = (double) maxSize / Math.max(source.getWidth(), source.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height,
+                opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (opaque) {
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Encodes an image, or returns null when ImageIO has no writer for the format.
+     */
+    private static byte[] encode(BufferedImage image, String formatName) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+        if (!writers.hasNext()) {
+            return null;
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(image);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean isJpeg(String formatName) {
+        return formatName.equalsIgnoreCase("jpeg") || formatName.equalsIgnoreCase("jpg");
+    }
+
+    /**
+     * In-memory MultipartFile for the generated variants.
+     */
+    private record VariantFile(String key, String contentType, byte[] bytes) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return key.substring(key.lastIndexOf('/') + 1);
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return bytes.length == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return bytes.length;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.write(dest.toPath(), bytes);
+        }
+    }
+}
@@ -4,26 +4,57 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.smartDine.entity.Business;
+import com.smartDine.entity.User;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 @Service
 public class JwtService {
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_USER_TYPE = "type";
+    public static final String BUSINESS_TYPE = "business";
+    public static final String CUSTOMER_TYPE = "customer";
+
     @Value("${security.jwt.secret-key}")
     private String secretKey;
 
     @Value("${security.jwt.expiration-time}")
     private long jwtExpiration;
 
+    @Value("${security.jwt.claims-cache-size:10000}")
+    private int claimsCacheSize;
+
+    private Key signInKey;
+    private JwtParser parser;
+
+    /**
+     * Verified tokens and their claims. Entries are dropped once the token expires, and
+     * the whole map is bounded by claimsCacheSize.
+     */
+    private final Map<String, Claims> verifiedClaims = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -33,8 +64,58 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Verifies the token signature and expiration and returns its claims. A token that
+     * was already verified and has not expired is served from memory.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims extractAllClaims(String token) {
+        Claims cached = verifiedClaims.get(token);
+        if (cached != null) {
+            if (!isExpired(cached)) {
+                return cached;
+            }
+            verifiedClaims.remove(token);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claimsCacheSize > 0) {
+            ensureCapacity();
+            verifiedClaims.put(token, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * Generates a token for the user. For application users the id, role and subtype are
+     * signed into the claims so the principal can be resolved without a lookup by email.
+     */
     public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user && user.getId() != null) {
+            claims.put(CLAIM_USER_ID, user.getId());
+            if (user.getRole() != null) {
+                claims.put(CLAIM_ROLE, user.getRole().name());
+            }
+            claims.put(CLAIM_USER_TYPE, userTypeOf(user));
+        }
+        return generateToken(claims, userDetails);
+    }
+
+    /**
+     * The user id signed into the token, or null for tokens issued without one.
+     */
+    public Long extractUserId(Claims claims) {
+        Object userId = claims.get(CLAIM_USER_ID);
+        return userId instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * The subtype signed into tokens for the user: business or customer.
+     */
+    public static String userTypeOf(User user) {
+        return user instanceof Business ? BUSINESS_TYPE : CUSTOMER_TYPE;
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -56,34 +137,32 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Same check as {@link #isTokenValid(String, UserDetails)} on already parsed claims.
+     */
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private void ensureCapacity() {
+        if (verifiedClaims.size() < claimsCacheSize) {
+            return;
+        }
+        verifiedClaims.values().removeIf(this::isExpired);
+        if (verifiedClaims.size() >= claimsCacheSize) {
+            verifiedClaims.clear();
+        }
     }
-}
\ No newline at end of file
+}
@@ -10,9 +10,11 @@ import com.smartDine.entity.Community;
 import com.smartDine.entity.Member;
 import com.smartDine.entity.MemberRole;
 import com.smartDine.entity.User;
+import com.smartDine.entity.community.CommunityPost;
 import com.smartDine.exceptions.NoUserIsMemberException;
 import com.smartDine.repository.CommunityRepository;
 import com.smartDine.repository.MemberRepository;
+import com.smartDine.repository.UserRepository;
 
 @Service
 public class MemberService {
@@ -23,10 +25,22 @@ public class MemberService {
     @Autowired
     private CommunityRepository communityRepository;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CommunityFeed communityFeed;
+
+    @Autowired
+    private CommunityPostSearchIndex communityPostSearchIndex;
+
     @Transactional
-    public Member joinCommunity(Long communityId, User user) {
+    public Member joinCommunity(Long communityId, User principal) {
         Community community = communityRepository.findById(communityId)
                 .orElseThrow(() -> new IllegalArgumentException("Community not found with ID: " + communityId));
+        // The principal only carries an id; the member needs the stored user
+        User user = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new IllegalArgumentException("User not found with id: " + principal.getId()));
 
         // Check visibility
         if (!community.isVisibility()) {
@@ -75,6 +89,7 @@ public class MemberService {
      * Only allowed if:
      * - The requesting user is the owner of the community (OWNER role), OR
      * - The member being deleted is the requesting user themselves
+     * The member's posts are deleted with it.
      * 
      * @param memberId ID of the member to delete
      * @param requestingUser User making the delete request
@@ -102,6 +117,10 @@ public class MemberService {
             );
         }
 
+        for (CommunityPost post : memberToDelete.getPosts()) {
+            communityFeed.postDeleted(post.getCommunity().getId(), post.getId());
+            communityPostSearchIndex.remove(post.getId());
+        }
         memberRepository.delete(memberToDelete);
     }
 }
@@ -15,7 +15,7 @@ import com.smartDine.dto.DrinkDTO;
 import com.smartDine.dto.MenuItemDTO;
 import com.smartDine.dto.UpdateDishDTO;
 import com.smartDine.dto.UpdateDrinkDTO;
-import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Dish;
 import com.smartDine.entity.Drink;
@@ -37,6 +37,12 @@ public class MenuItemService {
     private RestaurantService restaurantService;
     @Autowired
     private ImageAdapter imageAdapter;
+    @Autowired
+    private ImageVariantService imageVariantService;
+    @Autowired
+    private ImageUploadService imageUploadService;
+    @Autowired
+    private RestaurantSearchIndex searchIndex;
  
 
     public MenuItem createMenuItemForRestaurant(Long restaurantId, MenuItemDTO menuItemDTO, Business owner) {
@@ -89,19 +95,19 @@ public void addImage(Long menuItemId, String imageUrl) {
 }
 
     /**
-     * Uploads an image for a MenuItem and assigns it to the entity.
+     * Uploads an image for a MenuItem in the background and assigns it to the entity once
+     * it is stored.
      * Validates that the business user owns the restaurant containing the menu item.
      * 
      * @param restaurantId the ID of the restaurant
      * @param menuItemId the ID of the menu item
      * @param file the image file to upload
      * @param business the business owner
-     * @return UploadResponse containing upload details
-     * @throws IOException if the upload fails
+     * @return UploadTicketDTO to follow the upload
+     * @throws IOException if the upload cannot be accepted
      * @throws IllegalArgumentException if validation fails
      */
-    @Transactional
-    public UploadResponse uploadMenuItemImage(Long restaurantId, Long menuItemId, MultipartFile file, Business business) throws IOException {
+    public UploadTicketDTO uploadMenuItemImage(Long restaurantId, Long menuItemId, MultipartFile file, Business business) throws IOException {
         
         // Validate restaurant ownership
         if (!restaurantService.isOwnerOfRestaurant(restaurantId, business)) {
@@ -109,12 +115,12 @@ public void addImage(Long menuItemId, String imageUrl) {
         }
         
         // Validate menu item exists
-        MenuItem menuItem = menuItemRepository.findById(menuItemId)
-            .orElseThrow(() -> new IllegalArgumentException("Menu item not found with ID: " + menuItemId));
+        if (!menuItemRepository.existsById(menuItemId)) {
+            throw new IllegalArgumentException("Menu item not found with ID: " + menuItemId);
+        }
         
         // Validate menu item belongs to the restaurant
-        Restaurant restaurant = restaurantService.getRestaurantById(restaurantId);
-        if (!restaurant.getMenu().contains(menuItem)) {
+        if (!menuItemRepository.existsByIdAndRestaurantId(menuItemId, restaurantId)) {
             throw new IllegalArgumentException("Menu item does not belong to this restaurant");
         }
         
@@ -133,14 +139,13 @@ public void addImage(Long menuItemId, String imageUrl) {
         String keyName = "restaurants/%d/menu-items/%d/images/%s.%s"
             .formatted(restaurantId, menuItemId, java.util.UUID.randomUUID(), ext);
         
-        // Upload image using the adapter
-        UploadResponse response = imageAdapter.uploadImage(file, keyName);
-        
-        // Assign the image to the menu item
-        menuItem.setImageUrl(keyName);
-        menuItemRepository.save(menuItem);
-        
-        return response;
+        // Upload in the background; the image is assigned to the menu item once stored
+        return imageUploadService.submit(file, keyName, business.getId(), key -> {
+            MenuItem stored = menuItemRepository.findById(menuItemId)
+                .orElseThrow(() -> new IllegalArgumentException("Menu item not found with ID: " + menuItemId));
+            stored.setImageUrl(key);
+            menuItemRepository.save(stored);
+        });
     }
     
     @Transactional
@@ -161,7 +166,9 @@ public void addImage(Long menuItemId, String imageUrl) {
         // Delete the menu item
         menuItemRepository.delete(menuItem);
         menuItemRepository.flush() ; 
+        searchIndex.refresh(restaurantId);
         imageAdapter.deleteImage(menuItem.getImageUrl());
+        imageVariantService.deleteVariants(menuItem.getImageUrl());
     }
 
     /**
@@ -211,7 +218,9 @@ public void addImage(Long menuItemId, String imageUrl) {
         dish.setCourseType(updateDishDTO.getCourseType());
         dish.setElements(updateDishDTO.getElements());
         
-        return dishRepository.save(dish);
+        Dish savedDish = dishRepository.save(dish);
+        searchIndex.refresh(restaurantId);
+        return savedDish;
     }
 
     /**
@@ -260,7 +269,9 @@ public void addImage(Long menuItemId, String imageUrl) {
         drink.setDescription(updateDrinkDTO.getDescription());
         drink.setDrinkType(updateDrinkDTO.getDrinkType());
         
-        return drinkRepository.save(drink);
+        Drink savedDrink = drinkRepository.save(drink);
+        searchIndex.refresh(restaurantId);
+        return savedDrink;
     }
 
 }
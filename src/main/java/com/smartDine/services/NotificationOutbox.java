@@ -0,0 +1,269 @@
+package com.smartDine.services;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.smartDine.dto.NotificationDTO;
+import com.smartDine.entity.OutboxNotification;
+import com.smartDine.entity.User;
+import com.smartDine.repository.OutboxNotificationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Transactional outbox for notifications.
+ *
+ * Business transactions only append a row to notification_outbox, which commits or rolls
+ * back with them. A single background dispatcher moves committed rows into notifications
+ * in batches: it claims them by deleting them, inserts the notifications with one JDBC
+ * batch and publishes a NotificationsDispatchedEvent, all in the same transaction, so
+ * listeners can register work for its commit as they do for NotificationService. The
+ * dispatcher wakes up after every commit that added rows and also polls every
+ * poll-interval-ms; with poll-interval-ms=0 it does not run and dispatchPending must be
+ * called. A batch that fails is retried one row at a time and rows
+ * that still fail (e.g. the receiver was deleted) are dropped and counted.
+ */
+@Service
+public class NotificationOutbox {
+
+    private static final String SELECT_PENDING =
+        "select id, receiver_id, message, group_key, created_at from notification_outbox order by id limit ?";
+    private static final String CLAIM = "delete from notification_outbox where id = ?";
+    private static final String INSERT_NOTIFICATION =
+        "insert into notifications (message, date, receiver_id, group_key, is_read, notification_type) values (?, ?, ?, ?, false, 'NOTIFICATION')";
+
+    private final OutboxNotificationRepository outboxRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final ScheduledThreadPoolExecutor dispatcher;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final Counter dispatched;
+    private final Counter dropped;
+
+    private record Pending(long id, Long receiverId, String message, String groupKey, LocalDateTime createdAt) {
+    }
+
+    private record Delivered(Long receiverId, NotificationDTO notification) {
+    }
+
+    public NotificationOutbox(
+            OutboxNotificationRepository outboxRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${smartdine.notifications.outbox.batch-size:200}") int batchSize,
+            @Value("${smartdine.notifications.outbox.poll-interval-ms:1000}") long pollIntervalMillis) {
+        this.outboxRepository = outboxRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = Math.max(1, batchSize);
+        this.dispatched = Counter.builder("notifications.outbox.dispatched")
+            .description("Notifications moved from the outbox into the notifications table")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("notifications.outbox.dropped")
+            .description("Outbox rows that could not be delivered and were discarded")
+            .register(meterRegistry);
+
+        if (pollIntervalMillis > 0) {
+            this.dispatcher = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "notification-outbox");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.dispatcher.scheduleWithFixedDelay(this::dispatchQuietly, pollIntervalMillis,
+                pollIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.dispatcher = null;
+        }
+    }
+
+    /**
+     * Queues a notification for a user as part of the current transaction. It is stored
+     * shortly after the transaction commits, and discarded if it rolls back.
+     */
+    @Transactional
+    public void enqueue(User receiver, String message) {
+        enqueue(receiver, message, null);
+    }
+
+    /**
+     * Same as enqueue(receiver, message), tagging the notification with a group key so
+     * that repeated notifications of the same kind, once read, can be compacted into a digest
+     * (see NotificationRetentionJob).
+     */
+    @Transactional
+    public void enqueue(User receiver, String message, String groupKey) {
+        outboxRepository.save(new OutboxNotification(receiver.getId(), message, groupKey));
+        if (dispatcher != null) {
+            TransactionCallbacks.afterCommit(this::wakeUp);
+        }
+    }
+
+    /**
+     * Moves every committed outbox row into notifications and returns how many were stored.
+     */
+    public int dispatchPending() {
+        int total = 0;
+        int stored;
+        do {
+            stored = dispatchBatch();
+            total += stored;
+        } while (stored == batchSize);
+        return total;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the dispatcher now, coalescing the wake-ups of commits that happen meanwhile.
+     */
+    private void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                wakeUpPending.set(false);
+                dispatchQuietly();
+            });
+        }
+    }
+
+    private void dispatchQuietly() {
+        try {
+            dispatchPending();
+        } catch (RuntimeException ignored) {
+            // Rows stay in the outbox and are retried on the next poll
+        }
+    }
+
+    /**
+     * Dispatches up to batchSize rows and returns how many rows were taken from the outbox.
+     */
+    private int dispatchBatch() {
+        List<Pending> batch = jdbcTemplate.query(SELECT_PENDING, (rs, rowNum) -> new Pending(
+            rs.getLong("id"), rs.getLong("receiver_id"), rs.getString("message"), rs.getString("group_key"),
+            rs.getTimestamp("created_at").toLocalDateTime()), batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Delivered> stored;
+        try {
+            stored = transactionTemplate.execute(status -> store(batch));
+        } catch (DataAccessException e) {
+            // Find the rows that cannot be stored
+            stored = new ArrayList<>();
+            for (Pending pending : batch) {
+                try {
+                    stored.addAll(transactionTemplate.execute(status -> store(List.of(pending))));
+                } catch (DataAccessException rowFailure) {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(CLAIM, pending.id()));
+                    dropped.increment();
+                }
+            }
+        }
+
+        dispatched.increment(stored.size());
+        return batch.size();
+    }
+
+    /**
+     * Claims the rows, inserts their notifications and publishes them. Rows claimed by
+     * another dispatcher in the meantime are skipped. Called in a transaction.
+     */
+    private List<Delivered> store(List<Pending> batch) {
+        int[] claimed = jdbcTemplate.batchUpdate(CLAIM, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, batch.get(i).id());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+        List<Pending> owned = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (claimed[i] != 0) {
+                owned.add(batch.get(i));
+            }
+        }
+        if (owned.isEmpty()) {
+            return List.of();
+        }
+
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            connection -> connection.prepareStatement(INSERT_NOTIFICATION, new String[] { "id" }),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Pending pending = owned.get(i);
+                    ps.setString(1, pending.message());
+                    ps.setTimestamp(2, Timestamp.valueOf(pending.createdAt()));
+                    ps.setLong(3, pending.receiverId());
+                    ps.setString(4, pending.groupKey());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return owned.size();
+                }
+            },
+            keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        List<Delivered> delivered = new ArrayList<>(owned.size());
+        for (int i = 0; i < owned.size(); i++) {
+            Pending pending = owned.get(i);
+            Long id = i < generated.size() ? idOf(generated.get(i)) : null;
+            delivered.add(new Delivered(pending.receiverId(), new NotificationDTO(id, pending.message(),
+                pending.createdAt(), false, "NOTIFICATION", null, null, null, null)));
+        }
+        publish(delivered);
+        return delivered;
+    }
+
+    private void publish(List<Delivered> stored) {
+        Map<Long, List<NotificationDTO>> byReceiver = new LinkedHashMap<>();
+        for (Delivered delivered : stored) {
+            byReceiver.computeIfAbsent(delivered.receiverId(), ignored -> new ArrayList<>()).add(delivered.notification());
+        }
+        eventPublisher.publishEvent(new NotificationsDispatchedEvent(byReceiver));
+    }
+
+    private static Long idOf(Map<String, Object> key) {
+        Object value = key.size() == 1 ? key.values().iterator().next() : key.getOrDefault("id", key.get("ID"));
+        return value instanceof Number number ? number.longValue() : null;
+    }
+}
@@ -0,0 +1,216 @@
+package com.smartDine.services;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the notifications table from growing without bound.
+ *
+ * Every interval-ms a background run deletes read notifications older than
+ * read-max-age-days (requests only once they are no longer pending), and compacts read
+ * notifications of a receiver that share a group key and are older than
+ * compact-after-minutes into one digest: the newest row is kept with a "(y N más)" suffix
+ * and the others are deleted. Unread notifications are never compacted, so each one keeps
+ * its own message until the receiver has seen it, and the job never changes unread
+ * counts. Work is done in batches of batch-size rows, each in its own short transaction,
+ * and a run stops after max-batches-per-run batches. With interval-ms=0 nothing is
+ * scheduled and run must be called.
+ */
+@Service
+public class NotificationRetentionJob {
+
+    private static final String SELECT_EXPIRED =
+        "select n.id from notifications n left join requests r on r.notification_id = n.id "
+        + "where n.is_read = true and n.date < ? and (r.notification_id is null or r.status <> 'PENDING') "
+        + "order by n.id limit ?";
+    private static final String DELETE_REQUEST = "delete from requests where notification_id = ?";
+    private static final String DELETE_NOTIFICATION = "delete from notifications where id = ?";
+    private static final String SELECT_GROUPS =
+        "select receiver_id, group_key from notifications "
+        + "where group_key is not null and is_read = true and date < ? group by receiver_id, group_key having count(*) > 1 limit ?";
+    private static final String SELECT_GROUP =
+        "select id, message, grouped_count from notifications "
+        + "where receiver_id = ? and group_key = ? and is_read = true and date < ? order by id desc limit ?";
+    private static final String UPDATE_DIGEST =
+        "update notifications set message = ?, grouped_count = ? where id = ?";
+    private static final Pattern DIGEST_SUFFIX = Pattern.compile(" \\(y \\d+ más\\)$");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long readMaxAgeDays;
+    private final long compactAfterMinutes;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Counter purged;
+    private final Counter compacted;
+    private final Timer duration;
+
+    private record Group(Long receiverId, String groupKey) {
+    }
+
+    private record Row(long id, String message, int count) {
+    }
+
+    /**
+     * Rows removed by one run.
+     */
+    public record Result(int purged, int compacted) {
+    }
+
+    public NotificationRetentionJob(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${smartdine.notifications.retention.read-max-age-days:30}") long readMaxAgeDays,
+            @Value("${smartdine.notifications.retention.compact-after-minutes:60}") long compactAfterMinutes,
+            @Value("${smartdine.notifications.retention.batch-size:500}") int batchSize,
+            @Value("${smartdine.notifications.retention.max-batches-per-run:100}") int maxBatchesPerRun,
+            @Value("${smartdine.notifications.retention.interval-ms:3600000}") long intervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readMaxAgeDays = readMaxAgeDays;
+        this.compactAfterMinutes = compactAfterMinutes;
+        this.batchSize = Math.max(2, batchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+        this.purged = Counter.builder("notifications.retention.purged")
+            .description("Read notifications deleted by the retention job")
+            .register(meterRegistry);
+        this.compacted = Counter.builder("notifications.retention.compacted")
+            .description("Notifications folded into digests by the retention job")
+            .register(meterRegistry);
+        this.duration = Timer.builder("notifications.retention.duration")
+            .description("Time taken by a notification retention run")
+            .register(meterRegistry);
+
+        if (intervalMillis > 0) {
+            this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "notification-retention");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::runQuietly, intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Purges expired notifications and compacts repeated ones, returning the rows removed.
+     */
+    public Result run() {
+        return duration.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            int purgedRows = purge(now.minusDays(readMaxAgeDays));
+            int compactedRows = compact(now.minusMinutes(compactAfterMinutes));
+            return new Result(purgedRows, compactedRows);
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void runQuietly() {
+        try {
+            run();
+        } catch (RuntimeException ignored) {
+            // Nothing was lost; the next run picks up where this one stopped
+        }
+    }
+
+    private int purge(LocalDateTime cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_EXPIRED, Long.class, Timestamp.valueOf(cutoff), batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                deleteAll(DELETE_REQUEST, ids);
+                deleteAll(DELETE_NOTIFICATION, ids);
+            });
+            total += ids.size();
+            purged.increment(ids.size());
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private int compact(LocalDateTime cutoff) {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Group> groups = jdbcTemplate.query(SELECT_GROUPS,
+                (rs, rowNum) -> new Group(rs.getLong("receiver_id"), rs.getString("group_key")),
+                Timestamp.valueOf(cutoff), batchSize);
+            if (groups.isEmpty()) {
+                break;
+            }
+            for (Group group : groups) {
+                int removed = transactionTemplate.execute(status -> compactGroup(group, cutoff));
+                total += removed;
+                compacted.increment(removed);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Folds up to batchSize read rows of a group into the newest one and returns how many rows
+     * were deleted. Called in a transaction.
+     */
+    private int compactGroup(Group group, LocalDateTime cutoff) {
+        List<Row> rows = jdbcTemplate.query(SELECT_GROUP,
+            (rs, rowNum) -> new Row(rs.getLong("id"), rs.getString("message"),
+                rs.getObject("grouped_count") != null ? rs.getInt("grouped_count") : 1),
+            group.receiverId(), group.groupKey(), Timestamp.valueOf(cutoff), batchSize);
+        if (rows.size() < 2) {
+            return 0;
+        }
+
+        Row newest = rows.get(0);
+        int count = rows.stream().mapToInt(Row::count).sum();
+        String message = DIGEST_SUFFIX.matcher(newest.message()).replaceFirst("") + " (y " + (count - 1) + " más)";
+        jdbcTemplate.update(UPDATE_DIGEST, message, count, newest.id());
+        deleteAll(DELETE_NOTIFICATION, rows.subList(1, rows.size()).stream().map(Row::id).toList());
+        return rows.size() - 1;
+    }
+
+    private void deleteAll(String sql, List<Long> ids) {
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, ids.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+    }
+}
@@ -1,10 +1,15 @@
 package com.smartDine.services;
 
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.smartDine.dto.NotificationCursor;
+import com.smartDine.dto.NotificationDTO;
 import com.smartDine.entity.Notification;
 import com.smartDine.entity.User;
 import com.smartDine.repository.NotificationRepository;
@@ -12,10 +17,17 @@ import com.smartDine.repository.NotificationRepository;
 @Service
 public class NotificationService {
 
+    static final int MAX_PAGE_SIZE = 100;
+
     protected final NotificationRepository notificationRepository;
+    protected final ApplicationEventPublisher eventPublisher;
+    protected final UnreadNotificationCounter unreadCounter;
 
-    public NotificationService(NotificationRepository notificationRepository) {
+    public NotificationService(NotificationRepository notificationRepository, ApplicationEventPublisher eventPublisher,
+            UnreadNotificationCounter unreadCounter) {
         this.notificationRepository = notificationRepository;
+        this.eventPublisher = eventPublisher;
+        this.unreadCounter = unreadCounter;
     }
 
     /**
@@ -27,8 +39,9 @@ public class NotificationService {
      */
     @Transactional
     public Notification createNotification(User receiver, String message) {
-        Notification notification = new Notification(receiver, message);
-        return notificationRepository.save(notification);
+        Notification notification = notificationRepository.save(new Notification(receiver, message));
+        publishCreated(notification);
+        return notification;
     }
 
     /**
@@ -53,6 +66,53 @@ public class NotificationService {
         return notificationRepository.findByReceiverAndReadFalseOrderByDateDesc(user);
     }
 
+    /**
+     * Get a keyset page of a user's notifications, newest first by date and then id.
+     * 
+     * @param user The user
+     * @param cursor The cursor of the last notification of the previous page, or null for the first page
+     * @param limit Maximum number of notifications
+     * @param unreadOnly Whether to return only unread notifications
+     * @return The page of notifications
+     * @throws IllegalArgumentException if the cursor or the limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public List<NotificationDTO> getInboxPage(User user, String cursor, int limit, boolean unreadOnly) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        NotificationCursor before = cursor != null ? NotificationCursor.parse(cursor) : null;
+        return NotificationDTO.fromEntity(notificationRepository.findInboxPage(
+                user.getId(),
+                unreadOnly,
+                before != null ? before.date() : null,
+                before != null ? before.id() : null,
+                PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Get the number of unread notifications of a user, served from memory.
+     * 
+     * @param user The user
+     * @return The unread count
+     */
+    public long getUnreadCount(User user) {
+        return unreadCounter.get(user.getId());
+    }
+
+    /**
+     * Mark every unread notification of a user as read with a single update.
+     * 
+     * @param user The user
+     * @return The number of notifications marked as read
+     */
+    @Transactional
+    public int markAllAsRead(User user) {
+        int updated = notificationRepository.markAllAsRead(user.getId());
+        unreadCounter.adjustAfterCommit(user.getId(), -updated);
+        return updated;
+    }
+
     /**
      * Mark a notification as read.
      * 
@@ -70,7 +130,19 @@ public class NotificationService {
             throw new IllegalArgumentException("You are not the receiver of this notification");
         }
 
-        notification.markAsRead();
+        if (!notification.isRead()) {
+            notification.markAsRead();
+            unreadCounter.adjustAfterCommit(user.getId(), -1);
+        }
         return notificationRepository.save(notification);
     }
+
+    /**
+     * Announces a stored notification so it can be pushed to its receiver once the
+     * transaction commits (see NotificationStreamService).
+     */
+    protected void publishCreated(Notification notification) {
+        eventPublisher.publishEvent(new NotificationsDispatchedEvent(
+                Map.of(notification.getReceiver().getId(), List.of(NotificationDTO.fromEntity(notification)))));
+    }
 }
@@ -0,0 +1,302 @@
+package com.smartDine.services;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.smartDine.dto.NotificationDTO;
+import com.smartDine.entity.User;
+import com.smartDine.repository.NotificationRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes new notifications to connected clients over Server-Sent Events.
+ *
+ * Every stored notification (see NotificationsDispatchedEvent) is fanned out in memory to
+ * the open streams of its receiver once its transaction commits; the event id is the
+ * notification id. Outbox batches may commit out of id order, so live events are never
+ * filtered by id: a stream only skips the ones its replay already sent. Each stream has a
+ * bounded queue drained by a small shared sender pool, so a slow client never blocks the
+ * publisher: when its queue is full the stream is closed and the client reconnects. On reconnect the Last-Event-ID header replays the missed
+ * notifications from the database; if more than replay-limit were missed a "resync" event
+ * tells the client to reload its list instead. Each user keeps at most
+ * max-streams-per-user streams, closing the oldest, and idle streams get a heartbeat
+ * comment so proxies keep them open.
+ */
+@Service
+public class NotificationStreamService {
+
+    static final String NOTIFICATION_EVENT = "notification";
+    static final String RESYNC_EVENT = "resync";
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor sender;
+    private final ScheduledThreadPoolExecutor heartbeats;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final int maxStreamsPerUser;
+    private final int replayLimit;
+
+    private final Map<Long, List<Stream>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger openStreams = new AtomicInteger();
+
+    private record Event(Long id, SseEventBuilder builder) {
+    }
+
+    /**
+     * An open stream. Only one thread sends to it at a time: the one that set draining.
+     */
+    private final class Stream {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Event> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final Set<Long> replayedIds = ConcurrentHashMap.newKeySet();
+
+        private Stream(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    public NotificationStreamService(
+            NotificationRepository notificationRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${smartdine.notifications.stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${smartdine.notifications.stream.queue-capacity:256}") int queueCapacity,
+            @Value("${smartdine.notifications.stream.max-streams-per-user:5}") int maxStreamsPerUser,
+            @Value("${smartdine.notifications.stream.replay-limit:100}") int replayLimit,
+            @Value("${smartdine.notifications.stream.sender-threads:2}") int senderThreads,
+            @Value("${smartdine.notifications.stream.heartbeat-ms:25000}") long heartbeatMillis) {
+        this.notificationRepository = notificationRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.timeoutMillis = timeoutMillis;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxStreamsPerUser = Math.max(1, maxStreamsPerUser);
+        this.replayLimit = Math.max(1, replayLimit);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "notification-stream-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.heartbeats = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (heartbeatMillis > 0) {
+            heartbeats.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMillis, heartbeatMillis,
+                TimeUnit.MILLISECONDS);
+        }
+
+        Gauge.builder("notifications.stream.connections", openStreams, AtomicInteger::get)
+            .description("Open notification streams")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns a new emitter for a stream, with the configured timeout.
+     */
+    public SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * Opens a stream of the user's notifications on the emitter. When lastEventId is given,
+     * the notifications stored after it are sent first. They are read in a short read-only
+     * transaction that ends before anything is written to the client.
+     */
+    public void subscribe(User user, Long lastEventId, SseEmitter emitter) {
+        Stream stream = new Stream(user.getId(), emitter);
+        emitter.onCompletion(() -> remove(stream));
+        emitter.onTimeout(() -> close(stream));
+        emitter.onError(error -> close(stream));
+
+        // Hold the sender back until the replay is out; live events queue up meanwhile
+        stream.draining.set(true);
+        register(stream);
+        try {
+            if (lastEventId != null) {
+                replay(stream, lastEventId);
+            }
+        } catch (IOException e) {
+            close(stream);
+            return;
+        } finally {
+            stream.draining.set(false);
+        }
+        scheduleDrain(stream);
+    }
+
+    /**
+     * Fans stored notifications out to the open streams of their receivers. Runs after the
+     * storing transaction commits, or right away outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationsStored(NotificationsDispatchedEvent event) {
+        event.byReceiver().forEach((receiverId, notifications) -> {
+            List<Stream> receiverStreams = streams.get(receiverId);
+            if (receiverStreams == null) {
+                return;
+            }
+            for (Stream stream : receiverStreams) {
+                for (NotificationDTO notification : notifications) {
+                    offer(stream, new Event(notification.getId(), notificationEvent(notification)));
+                }
+                scheduleDrain(stream);
+            }
+        });
+    }
+
+    int openStreams(Long userId) {
+        List<Stream> userStreams = streams.get(userId);
+        return userStreams == null ? 0 : userStreams.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        sender.shutdownNow();
+        streams.values().forEach(userStreams -> userStreams.forEach(this::close));
+    }
+
+    private void register(Stream stream) {
+        List<Stream> oldest = new ArrayList<>();
+        streams.compute(stream.userId, (userId, userStreams) -> {
+            List<Stream> updated = userStreams != null ? userStreams : new CopyOnWriteArrayList<>();
+            oldest.addAll(updated.subList(0, Math.max(0, updated.size() - maxStreamsPerUser + 1)));
+            updated.add(stream);
+            return updated;
+        });
+        openStreams.incrementAndGet();
+        oldest.forEach(this::close);
+    }
+
+    private void replay(Stream stream, Long lastEventId) throws IOException {
+        List<NotificationDTO> missed = readOnlyTransaction.execute(status -> NotificationDTO.fromEntity(
+            notificationRepository.findByReceiverIdAndIdGreaterThanOrderByIdAsc(
+                stream.userId, lastEventId, PageRequest.of(0, replayLimit + 1))));
+        if (missed.size() > replayLimit) {
+            // Too far behind: the client reloads its notifications instead
+            stream.emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+            return;
+        }
+        for (NotificationDTO notification : missed) {
+            stream.replayedIds.add(notification.getId());
+            stream.emitter.send(notificationEvent(notification));
+        }
+    }
+
+    /**
+     * Queues an event, closing the stream when its client is too far behind.
+     */
+    private void offer(Stream stream, Event event) {
+        if (stream.closed.get()) {
+            return;
+        }
+        if (!stream.queue.offer(event)) {
+            // The client reconnects with Last-Event-ID and catches up from the database
+            close(stream);
+        }
+    }
+
+    private void scheduleDrain(Stream stream) {
+        if (stream.closed.get() || stream.queue.isEmpty() || !stream.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> drain(stream));
+        } catch (RejectedExecutionException e) {
+            stream.draining.set(false);
+            close(stream);
+        }
+    }
+
+    private void drain(Stream stream) {
+        try {
+            Event event;
+            while (!stream.closed.get() && (event = stream.queue.poll()) != null) {
+                if (event.id() != null && stream.replayedIds.remove(event.id())) {
+                    // Already sent by the replay
+                    continue;
+                }
+                stream.emitter.send(event.builder());
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(stream);
+        } finally {
+            stream.draining.set(false);
+        }
+        // Events offered after the last poll but before draining was released
+        scheduleDrain(stream);
+    }
+
+    private void sendHeartbeats() {
+        streams.values().forEach(userStreams -> userStreams.forEach(stream -> {
+            if (stream.queue.isEmpty()) {
+                offer(stream, new Event(null, SseEmitter.event().comment("heartbeat")));
+                scheduleDrain(stream);
+            }
+        }));
+    }
+
+    private void close(Stream stream) {
+        if (stream.closed.compareAndSet(false, true)) {
+            stream.queue.clear();
+            remove(stream);
+            try {
+                stream.emitter.complete();
+            } catch (IllegalStateException ignored) {
+                // Already completed by the container
+            }
+        }
+    }
+
+    private void remove(Stream stream) {
+        stream.closed.set(true);
+        streams.computeIfPresent(stream.userId, (userId, userStreams) -> {
+            if (userStreams.remove(stream)) {
+                openStreams.decrementAndGet();
+            }
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+    }
+
+    private static SseEventBuilder notificationEvent(NotificationDTO notification) {
+        SseEventBuilder event = SseEmitter.event().name(NOTIFICATION_EVENT).data(notification, MediaType.APPLICATION_JSON);
+        return notification.getId() != null ? event.id(String.valueOf(notification.getId())) : event;
+    }
+}
@@ -0,0 +1,13 @@
+package com.smartDine.services;
+
+import java.util.List;
+import java.util.Map;
+
+import com.smartDine.dto.NotificationDTO;
+
+/**
+ * Published by NotificationOutbox after a batch of notifications has been stored,
+ * with the new notifications grouped by receiver id.
+ */
+public record NotificationsDispatchedEvent(Map<Long, List<NotificationDTO>> byReceiver) {
+}
@@ -0,0 +1,54 @@
+package com.smartDine.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.smartDine.entity.RequestStatus;
+import com.smartDine.entity.RequestType;
+import com.smartDine.repository.RequestRepository;
+
+/**
+ * Number of pending requests of each type received by a user, loaded from the database on
+ * first use and then kept up to date incrementally: sent requests add to it and accepted or
+ * rejected ones subtract from it, once their transaction commits.
+ *
+ * Counts are kept per (user, request type) in a VersionedCache, so a count read while a
+ * request is being sent or resolved is served without being cached, and counts expire after
+ * ttl-ms.
+ */
+@Service
+public class PendingRequestCounter {
+
+    private final RequestRepository requestRepository;
+    private final VersionedCache<Key, Long> counts;
+
+    private record Key(Long userId, RequestType requestType) {
+    }
+
+    public PendingRequestCounter(
+            RequestRepository requestRepository,
+            @Value("${smartdine.requests.pending-count.ttl-ms:600000}") long ttlMillis,
+            @Value("${smartdine.requests.pending-count.max-size:10000}") int maxSize) {
+        this.requestRepository = requestRepository;
+        this.counts = new VersionedCache<>(ttlMillis, maxSize);
+    }
+
+    /**
+     * Returns the number of pending requests of a type received by a user.
+     */
+    public long get(Long userId, RequestType requestType) {
+        return counts.get(new Key(userId, requestType), key -> requestRepository
+            .countByReceiverIdAndRequestTypeAndStatus(key.userId(), key.requestType(), RequestStatus.PENDING));
+    }
+
+    /**
+     * Adds delta to a count once the current transaction commits, or right away outside a
+     * transaction.
+     */
+    public void adjustAfterCommit(Long userId, RequestType requestType, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        counts.updateAfterCommit(new Key(userId, requestType), count -> Math.max(0, count + delta));
+    }
+}
@@ -0,0 +1,82 @@
+package com.smartDine.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.smartDine.entity.Request;
+import com.smartDine.entity.RequestType;
+import com.smartDine.repository.RequestRepository;
+
+/**
+ * Which pending keys (see Request.pendingKey) are currently held by a pending request, so
+ * "is there a pending request between these two users, in either direction" is a single
+ * probe. A key unknown to the index is looked up once on the requests table's unique index
+ * and remembered for ttl-ms, pending or not; created and resolved requests update it once
+ * their transaction commits.
+ *
+ * The index is only a shortcut: sending a request relies on the pending_key unique
+ * constraint to reject duplicates, and confirms a cached "pending" against the database
+ * (see isPendingForInsert), so a stale entry never rejects a valid request.
+ */
+@Service
+public class PendingRequestIndex {
+
+    private final RequestRepository requestRepository;
+    private final VersionedCache<String, Boolean> pending;
+
+    public PendingRequestIndex(
+            RequestRepository requestRepository,
+            @Value("${smartdine.requests.pending-index.ttl-ms:60000}") long ttlMillis,
+            @Value("${smartdine.requests.pending-index.max-size:100000}") int maxSize) {
+        this.requestRepository = requestRepository;
+        this.pending = new VersionedCache<>(ttlMillis, maxSize);
+    }
+
+    /**
+     * Checks whether a pending request of a type exists between two users, in either
+     * direction.
+     */
+    public boolean isPending(RequestType requestType, Long userId, Long otherId) {
+        return pending.get(Request.pendingKey(requestType, userId, otherId), requestRepository::existsByPendingKey);
+    }
+
+    /**
+     * Same as isPending, for a caller about to store a request between the two users. A
+     * cached "free" is trusted, as the unique constraint rejects the insert should it be
+     * stale; a cached "pending" is checked again in the database.
+     */
+    public boolean isPendingForInsert(RequestType requestType, Long userId, Long otherId) {
+        String key = Request.pendingKey(requestType, userId, otherId);
+        if (Boolean.FALSE.equals(pending.getIfPresent(key))) {
+            return false;
+        }
+        pending.invalidate(key);
+        return pending.get(key, requestRepository::existsByPendingKey);
+    }
+
+    /**
+     * Marks a key as pending once the current transaction commits.
+     */
+    public void requestCreated(String pendingKey) {
+        update(pendingKey, true);
+    }
+
+    /**
+     * Marks a key as free once the current transaction commits.
+     */
+    public void requestResolved(String pendingKey) {
+        update(pendingKey, false);
+    }
+
+    public void clear() {
+        pending.clear();
+    }
+
+    private void update(String pendingKey, boolean isPending) {
+        if (pendingKey != null) {
+            pending.changeAfterCommit(List.of(pendingKey), () -> pending.put(pendingKey, isPending));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.smartDine.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.smartDine.entity.Business;
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Role;
+import com.smartDine.entity.User;
+
+/**
+ * Snapshots of authenticated users keyed by the id carried in their token, so a request
+ * with a known token is authenticated without reading the users tables. Entries live for
+ * ttlMillis and are dropped explicitly whenever a user's credentials or email change.
+ */
+@Service
+public class PrincipalCache {
+
+    @Value("${security.principal-cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<Long, Entry> principals = new ConcurrentHashMap<>();
+
+    /**
+     * Immutable copy of the fields of a user that requests need from their principal. The
+     * cached entity itself is never handed out, since it is mutable and would be shared
+     * between request threads.
+     */
+    public record CachedPrincipal(Long id, String name, String email, Role role, String type) {
+
+        public static CachedPrincipal of(User user) {
+            return new CachedPrincipal(user.getId(), user.getName(), user.getEmail(), user.getRole(),
+                JwtService.userTypeOf(user));
+        }
+
+        /**
+         * Whether this snapshot belongs to the subject of a token and agrees with the role
+         * and subtype signed into it. Claims missing from the token are not checked.
+         */
+        public boolean matches(String email, String roleClaim, String typeClaim) {
+            return this.email.equals(email)
+                && (roleClaim == null || (role != null && roleClaim.equals(role.name())))
+                && (typeClaim == null || typeClaim.equals(type));
+        }
+
+        /**
+         * A new, request-scoped user of the cached subtype carrying the snapshot fields.
+         *
+         * It identifies the caller and is not an entity: its other fields and collections
+         * are unset and it is not managed. Services that link to the user, or need anything
+         * beyond id, name, email and role, load it by id (e.g. with getReferenceById).
+         */
+        public User toUser() {
+            User user = JwtService.BUSINESS_TYPE.equals(type) ? new Business() : new Customer();
+            user.setId(id);
+            user.setName(name);
+            user.setEmail(email);
+            if (role != null) {
+                user.setRole(role.name().substring("ROLE_".length()));
+            }
+            return user;
+        }
+    }
+
+    private record Entry(CachedPrincipal principal, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+
+    public boolean isEnabled() {
+        return ttlMillis > 0 && maxSize > 0;
+    }
+
+    /**
+     * Returns the snapshot of the user with the given id, or null if it is unknown or expired.
+     */
+    public CachedPrincipal get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        Entry entry = principals.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            principals.remove(userId, entry);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    public void put(User user) {
+        if (!isEnabled() || user == null || user.getId() == null) {
+            return;
+        }
+        ensureCapacity();
+        principals.put(user.getId(), new Entry(CachedPrincipal.of(user), System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Drops the cached user now and, inside a transaction, again after it completes so a
+     * concurrent request cannot re-cache the old row before the change is committed.
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        principals.remove(userId);
+        TransactionCallbacks.afterCompletion(() -> principals.remove(userId));
+    }
+
+    public void clear() {
+        principals.clear();
+    }
+
+    int size() {
+        return principals.size();
+    }
+
+    private void ensureCapacity() {
+        if (principals.size() < maxSize) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        principals.values().removeIf(entry -> entry.isExpired(now));
+        if (principals.size() >= maxSize) {
+            principals.clear();
+        }
+    }
+}
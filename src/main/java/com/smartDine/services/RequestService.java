@@ -2,8 +2,12 @@ package com.smartDine.services;
 
 import java.util.List;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.smartDine.dto.NotificationCursor;
+import com.smartDine.dto.RequestDTO;
 import com.smartDine.entity.Request;
 import com.smartDine.entity.RequestStatus;
 import com.smartDine.entity.RequestType;
@@ -20,12 +24,20 @@ import com.smartDine.repository.RequestRepository;
 public abstract class RequestService extends NotificationService {
 
     protected final RequestRepository requestRepository;
+    protected final PendingRequestIndex pendingRequestIndex;
+    protected final PendingRequestCounter pendingRequestCounter;
 
     public RequestService(
             NotificationRepository notificationRepository,
-            RequestRepository requestRepository) {
-        super(notificationRepository);
+            RequestRepository requestRepository,
+            PendingRequestIndex pendingRequestIndex,
+            PendingRequestCounter pendingRequestCounter,
+            ApplicationEventPublisher eventPublisher,
+            UnreadNotificationCounter unreadCounter) {
+        super(notificationRepository, eventPublisher, unreadCounter);
         this.requestRepository = requestRepository;
+        this.pendingRequestIndex = pendingRequestIndex;
+        this.pendingRequestCounter = pendingRequestCounter;
     }
 
     /**
@@ -60,6 +72,41 @@ public abstract class RequestService extends NotificationService {
                 user, getRequestType(), RequestStatus.PENDING);
     }
 
+    /**
+     * Get a page of the pending requests of this type received by a user, newest first,
+     * with each sender's details loaded in the same query.
+     * 
+     * @param user The user (receiver)
+     * @param cursor The cursor returned with the previous page, or null for the first page
+     * @param limit Maximum number of requests to return (1 to MAX_PAGE_SIZE)
+     * @return The page of pending requests
+     * @throws IllegalArgumentException if the cursor or the limit is invalid
+     */
+    @Transactional(readOnly = true)
+    public List<RequestDTO> getPendingRequestsPage(User user, String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        NotificationCursor before = cursor != null ? NotificationCursor.parse(cursor) : null;
+        return requestRepository.findInboxPage(
+                user.getId(),
+                getRequestType(),
+                RequestStatus.PENDING,
+                before != null ? before.date() : null,
+                before != null ? before.id() : null,
+                PageRequest.of(0, limit));
+    }
+
+    /**
+     * Get the number of pending requests of this type received by a user, served from memory.
+     * 
+     * @param user The user (receiver)
+     * @return The pending count
+     */
+    public long getPendingCount(User user) {
+        return pendingRequestCounter.get(user.getId(), getRequestType());
+    }
+
     /**
      * Accept a request.
      * 
@@ -76,9 +123,12 @@ public abstract class RequestService extends NotificationService {
 
         validateReceiverAndPending(request, user);
 
-        // Accept the request
+        // Accept the request, freeing its pending key
+        String pendingKey = request.getPendingKey();
         request.accept();
         request = requestRepository.save(request);
+        pendingRequestIndex.requestResolved(pendingKey);
+        pendingRequestCounter.adjustAfterCommit(user.getId(), request.getRequestType(), -1);
 
         // Call subclass-specific logic
         onAccept(request);
@@ -102,9 +152,12 @@ public abstract class RequestService extends NotificationService {
 
         validateReceiverAndPending(request, user);
 
-        // Reject the request
+        // Reject the request, freeing its pending key
+        String pendingKey = request.getPendingKey();
         request.reject();
         request = requestRepository.save(request);
+        pendingRequestIndex.requestResolved(pendingKey);
+        pendingRequestCounter.adjustAfterCommit(user.getId(), request.getRequestType(), -1);
 
         // Call subclass-specific logic
         onReject(request);
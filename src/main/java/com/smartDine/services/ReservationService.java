@@ -2,13 +2,21 @@ package com.smartDine.services;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.smartDine.dto.ReservationDTO;
+import com.smartDine.dto.ReservationCursor;
+import com.smartDine.dto.ReservationDetailsDTO;
+import com.smartDine.dto.RestaurantReservationDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Customer;
 import com.smartDine.entity.Reservation;
@@ -21,6 +29,8 @@ import com.smartDine.entity.TimeSlot;
 import com.smartDine.entity.User;
 import com.smartDine.exceptions.ExpiredOpenReservationException;
 import com.smartDine.exceptions.IllegalReservationStateChangeException;
+import com.smartDine.exceptions.TableAlreadyBookedException;
+import com.smartDine.repository.CustomerRepository;
 import com.smartDine.repository.ReservationRepository;
 import com.smartDine.repository.TimeSlotRepository;
 
@@ -34,15 +44,23 @@ public class ReservationService {
     @Autowired
     private TimeSlotRepository timeSlotRepository;
     @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
     private  RestaurantTableService restaurantTableService;
     @Autowired
     private  ReservationParticipationService reservationParticipationService;
     @Autowired
-    private NotificationService notificationService;
+    private NotificationOutbox notificationOutbox;
     @Autowired
     private FriendshipService friendshipService;
     @Autowired
     private CustomerService customerService;
+    @Autowired
+    private TableAvailabilityEngine availabilityEngine;
+    @Autowired
+    private TableBookingLocks bookingLocks;
+
+    static final int MAX_PAGE_SIZE = 500;
 
     @Transactional
     public Reservation createReservation(ReservationDTO reservationDTO, Customer customer) {
@@ -55,11 +73,20 @@ public class ReservationService {
             throw new IllegalArgumentException("Time slot does not belong to the provided restaurant");
         }
 
-       RestaurantTable availableTable  = restaurantTableService.getTableById(reservationDTO.getTableId());
-    
+        // Bookings of the same slot on this instance wait for each other; across instances the
+        // unique booking key rejects the second one
+        bookingLocks.lockUntilCompletion(reservationDTO.getTableId(), reservationDTO.getDate(), timeSlot.getId());
+        RestaurantTable availableTable = restaurantTableService.getTableById(reservationDTO.getTableId());
+
+        if (reservationRepository.existsBooking(availableTable.getId(), reservationDTO.getDate(),
+                timeSlot.getId(), ReservationStatus.CANCELLED)) {
+            throw new TableAlreadyBookedException();
+        }
 
         Reservation reservation = ReservationDTO.toEntity(reservationDTO);
-        reservation.setCustomer(customer);
+        // The customer may be the authenticated principal, which only carries an id
+        reservation.setCustomer(customerRepository.findById(customer.getId())
+            .orElseThrow(() -> new IllegalArgumentException("Customer not found with id: " + customer.getId())));
         reservation.setRestaurant(restaurant);
         reservation.setTimeSlot(timeSlot);
         reservation.setRestaurantTable(availableTable);
@@ -67,8 +94,16 @@ public class ReservationService {
         reservation.setNumGuests(reservationDTO.getNumCustomers());
         reservation.setStatus(ReservationStatus.CONFIRMED);
         reservation.setCreatedAt(LocalDate.now());
-        
-        Reservation savedReservation = reservationRepository.save(reservation);
+        reservation.setBookingKey(Reservation.bookingKey(availableTable.getId(), reservationDTO.getDate(), timeSlot.getId()));
+
+        Reservation savedReservation;
+        try {
+            savedReservation = reservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw new TableAlreadyBookedException();
+        }
+        availabilityEngine.reservationBooked(restaurant.getId(), savedReservation.getDate(),
+                timeSlot.getId(), availableTable.getId());
         
         // Notify restaurant owner about the new reservation
         String message = String.format("%s ha hecho una reserva en el %s a las %.0f el día %s",
@@ -76,7 +111,7 @@ public class ReservationService {
                 restaurant.getName(),
                 timeSlot.getStartTime(),
                 reservationDTO.getDate().toString());
-        notificationService.createNotification(restaurant.getOwner(), message);
+        notificationOutbox.enqueue(restaurant.getOwner(), message, "restaurant-reservations:" + restaurant.getId());
         
         return savedReservation;
     }
@@ -109,6 +144,18 @@ public class ReservationService {
                 participatedReservations.stream()
         ).distinct().toList();
     }
+    /**
+     * Gets the details of all reservations of a customer (owned + participated) with a
+     * single projection query, newest first.
+     *
+     * @param customerId The ID of the customer
+     * @return List of reservation details
+     */
+    @Transactional(readOnly = true)
+    public List<ReservationDetailsDTO> getReservationDetailsForCustomer(Long customerId) {
+        return reservationRepository.findReservationDetailsForCustomer(customerId);
+    }
+
     @Transactional(readOnly = true)
     public List<Reservation> getReservationsByRestaurantAndDateAndTimeSlot(Long restaurantId, java.time.LocalDate date, Long timeSlotId) {
         return reservationRepository.findByRestaurantIdAndDateAndTimeSlotId(restaurantId, date, timeSlotId);
@@ -122,6 +169,47 @@ public class ReservationService {
         return reservationRepository.findByRestaurantIdAndDate(restaurantId, date);
     }
 
+    /**
+     * Gets a keyset page of a restaurant's reservations for a date, ordered by time slot
+     * start and then reservation id.
+     *
+     * @param cursor The cursor of the last row of the previous page, or null for the first page
+     * @param limit Maximum number of rows, or null for the whole day
+     */
+    @Transactional(readOnly = true)
+    public List<RestaurantReservationDTO> getReservationPage(Long restaurantId, LocalDate date, Business business,
+            String cursor, Integer limit) {
+        if (!restaurantService.isOwnerOfRestaurant(restaurantId, business)) {
+            throw new IllegalArgumentException("You are not the owner of this restaurant");
+        }
+        if (limit != null && (limit < 1 || limit > MAX_PAGE_SIZE)) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ReservationCursor after = cursor != null ? ReservationCursor.parse(cursor) : null;
+        return reservationRepository.findReservationPage(
+            restaurantId,
+            date,
+            after != null ? after.startTime() : null,
+            after != null ? after.id() : null,
+            limit != null ? PageRequest.of(0, limit) : Pageable.unpaged()
+        );
+    }
+
+    /**
+     * Streams every reservation of a restaurant for a date to the consumer, in the same
+     * order as getReservationPage, without holding the whole day in memory.
+     */
+    @Transactional(readOnly = true)
+    public void streamReservations(Long restaurantId, LocalDate date, Business business,
+            Consumer<RestaurantReservationDTO> consumer) {
+        if (!restaurantService.isOwnerOfRestaurant(restaurantId, business)) {
+            throw new IllegalArgumentException("You are not the owner of this restaurant");
+        }
+        try (Stream<RestaurantReservationDTO> reservations = reservationRepository.streamReservations(restaurantId, date)) {
+            reservations.forEach(consumer);
+        }
+    }
+
     /**
      * Changes the status of a reservation.
      * 
@@ -164,6 +252,9 @@ public class ReservationService {
         if (newStatus == ReservationStatus.CANCELLED) {
             // Both customer and business can cancel
             reservation.setStatus(ReservationStatus.CANCELLED);
+            reservation.setBookingKey(null);
+            availabilityEngine.reservationReleased(reservation.getRestaurant().getId(), reservation.getDate(),
+                    reservation.getTimeSlot().getId(), reservation.getRestaurantTable().getId());
         } else if (newStatus == ReservationStatus.COMPLETED) {
             // Only business can complete
             if (!isBusinessOwner) {
@@ -232,58 +323,16 @@ public class ReservationService {
      */
     @Transactional(readOnly = true)
     public boolean hasTimeConflict(Customer customer, TimeSlot timeSlot, LocalDate date, Long excludeReservationId) {
-        // Get all reservations for this customer on this date
-        List<Reservation> customerReservations = reservationRepository.findByCustomerId(customer.getId());
-        
-        for (Reservation existing : customerReservations) {
-            // Skip the reservation we're trying to join
-            if (excludeReservationId != null && existing.getId().equals(excludeReservationId)) {
-                continue;
-            }
-            
-            // Only check confirmed reservations on the same date
-            if (existing.getStatus() == ReservationStatus.CONFIRMED && existing.getDate().equals(date)) {
-                // Check if time slots overlap
-                TimeSlot existingSlot = existing.getTimeSlot();
-                if (timeSlotsOverlap(existingSlot, timeSlot)) {
-                    return true;
-                }
-            }
-        }
-        
-        // Also check if the customer is a participant in other reservations
-        List<ReservationParticipation> participations = reservationParticipationService.getUserParticipations(customer.getId());
-        for (ReservationParticipation participation : participations) {
-            Reservation existing = participation.getReservation();
-            if (excludeReservationId != null && existing.getId().equals(excludeReservationId)) {
-                continue;
-            }
-            
-            if (existing.getStatus() == ReservationStatus.CONFIRMED 
-                && existing.getDate().equals(date)) {
-                TimeSlot existingSlot = existing.getTimeSlot();
-                if (timeSlotsOverlap(existingSlot, timeSlot)) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
-    }
-
-    /**
-     * Checks if two time slots overlap.
-     */
-    private boolean timeSlotsOverlap(TimeSlot slot1, TimeSlot slot2) {
-        // Time slots overlap if they're on the same day and times intersect
-        if (slot1.getDayOfWeek() != slot2.getDayOfWeek()) {
-            return false;
-        }
-        
-        // Check if time ranges overlap
-        // Overlap occurs when: start1 < end2 AND start2 < end1
-        return slot1.getStartTime() < slot2.getEndTime() 
-            && slot2.getStartTime() < slot1.getEndTime();
+        // Owned and participated reservations are checked with a single indexed query
+        return reservationRepository.existsOverlappingReservation(
+            customer.getId(),
+            date,
+            ReservationStatus.CONFIRMED,
+            timeSlot.getDayOfWeek(),
+            timeSlot.getStartTime(),
+            timeSlot.getEndTime(),
+            excludeReservationId
+        );
     }
 
     /**
@@ -464,7 +513,7 @@ public class ReservationService {
                 owner.getName(),
                 reservation.getRestaurant().getName(),
                 reservation.getDate().toString());
-        notificationService.createNotification(friend, message);
+        notificationOutbox.enqueue(friend, message);
 
         return participation;
     }
@@ -512,7 +561,7 @@ public class ReservationService {
             String message = String.format("Has sido eliminado de la reserva en %s el día %s",
                     reservation.getRestaurant().getName(),
                     reservation.getDate().toString());
-            notificationService.createNotification(participant, message);
+            notificationOutbox.enqueue(participant, message);
         }
     }
 }
@@ -0,0 +1,89 @@
+package com.smartDine.services;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.smartDine.dto.RestaurantMetadata;
+import com.smartDine.repository.RestaurantRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read-through cache of restaurant metadata (owner id, name, address, description and
+ * image key), so ownership checks and restaurant rendering do not reload the restaurant
+ * row on every call.
+ *
+ * Every change to these columns goes through RestaurantService, which evicts the entry;
+ * until the changing transaction completes the restaurant is read from the database on
+ * every lookup, so no copy read before the commit can stay cached. Hits, misses, evictions
+ * and size are published as the cache.gets, cache.evictions and cache.size meters tagged
+ * cache=restaurantMetadata.
+ */
+@Service
+public class RestaurantMetadataCache {
+
+    static final String CACHE_NAME = "restaurantMetadata";
+    private static final String NOT_FOUND_MSG = "Restaurante no encontrado con ID: %d";
+
+    private final RestaurantRepository restaurantRepository;
+    private final VersionedCache<Long, RestaurantMetadata> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RestaurantMetadataCache(
+            RestaurantRepository restaurantRepository,
+            MeterRegistry meterRegistry,
+            @Value("${smartdine.restaurant-cache.ttl-ms:600000}") long ttlMillis,
+            @Value("${smartdine.restaurant-cache.max-size:10000}") int maxSize) {
+        this.restaurantRepository = restaurantRepository;
+        this.entries = new VersionedCache<>(ttlMillis, maxSize);
+
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+            .tags("cache", CACHE_NAME, "result", "hit")
+            .description("Restaurant metadata lookups served from memory")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+            .tags("cache", CACHE_NAME, "result", "miss")
+            .description("Restaurant metadata lookups loaded from the database")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", entries, VersionedCache::evictionCount)
+            .tags("cache", CACHE_NAME)
+            .description("Restaurant metadata entries dropped by updates or to stay bounded")
+            .register(meterRegistry);
+        Gauge.builder("cache.size", entries, VersionedCache::size)
+            .tags("cache", CACHE_NAME)
+            .description("Restaurant metadata entries in memory")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the metadata of a restaurant, loading it on a miss.
+     *
+     * @throws IllegalArgumentException if the restaurant does not exist
+     */
+    public RestaurantMetadata get(Long restaurantId) {
+        RestaurantMetadata cached = entries.getIfPresent(restaurantId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        return entries.get(restaurantId, id -> restaurantRepository.findMetadataById(id)
+            .orElseThrow(() -> new IllegalArgumentException(String.format(NOT_FOUND_MSG, id))));
+    }
+
+    /**
+     * Drops a restaurant now and keeps it out of the cache until the current transaction
+     * completes, whatever its outcome.
+     */
+    public void evict(Long restaurantId) {
+        entries.invalidate(restaurantId);
+        entries.changeAfterCommit(List.of(restaurantId), () -> entries.invalidate(restaurantId));
+    }
+}
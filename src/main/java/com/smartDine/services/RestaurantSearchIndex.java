@@ -0,0 +1,412 @@
+package com.smartDine.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.smartDine.repository.MenuItemRepository;
+import com.smartDine.repository.MenuItemRepository.RestaurantMenuItemName;
+import com.smartDine.repository.RestaurantRepository;
+import com.smartDine.repository.RestaurantRepository.SearchDocument;
+
+/**
+ * In-memory inverted index over restaurant names, addresses, descriptions and menu item
+ * names.
+ *
+ * Text is folded (lower case, no accents) and split into terms. Each term keeps a posting
+ * map restaurant id -> field weight, and every term is also indexed by its trigrams, so a
+ * misspelled query term is matched against the vocabulary instead of every restaurant.
+ * A query term matches exactly, as the prefix of indexed terms, or fuzzily (shared trigrams
+ * and a bounded edit distance). Restaurants are ranked by the sum of their best match for
+ * each query term, weighted by field and by how rare the matched term is.
+ *
+ * The index is rebuilt from the database at startup and updated once the transactions that
+ * change a restaurant or its menu commit. Each update and rebuild takes a generation number
+ * before it reads the database, and an older read never replaces what a newer one applied,
+ * so updates finishing out of order cannot bring back a stale restaurant.
+ *
+ * Ranking scores every restaurant matching a query term, so queries made of common words
+ * cost time proportional to the number of matches: over 100k synthetic restaurants the
+ * median is below 1 ms for selective terms but 10-20 ms for words shared by a quarter of
+ * them (see RestaurantSearchIndexTest, run with -Pdev,benchmark).
+ */
+@Service
+public class RestaurantSearchIndex {
+
+    static final float NAME_WEIGHT = 4f;
+    static final float MENU_WEIGHT = 2f;
+    static final float ADDRESS_WEIGHT = 1.5f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float EXACT_MATCH = 1f;
+    private static final float PREFIX_MATCH = 0.75f;
+    private static final float FUZZY_MATCH = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.2;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Map.Entry<Long, Float>> RANKING =
+        Map.Entry.<Long, Float>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final boolean rebuildOnStartup;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Map<String, Float>> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> trigramTerms = new HashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+    /** Generation of the last update applied to each restaurant since the last rebuild. */
+    private final Map<Long, Long> appliedGenerations = new HashMap<>();
+    private long rebuiltGeneration;
+
+    public RestaurantSearchIndex(
+            RestaurantRepository restaurantRepository,
+            MenuItemRepository menuItemRepository,
+            @Value("${smartdine.search.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces the whole index with the restaurants currently in the database, reading them
+     * with two queries.
+     *
+     * @return the number of indexed restaurants
+     */
+    public int rebuild() {
+        long generation = generations.incrementAndGet();
+        Map<Long, List<String>> menuItemNames = new HashMap<>();
+        for (RestaurantMenuItemName item : menuItemRepository.findAllRestaurantMenuItemNames()) {
+            menuItemNames.computeIfAbsent(item.getRestaurantId(), id -> new ArrayList<>()).add(item.getName());
+        }
+        Map<Long, Map<String, Float>> loaded = new HashMap<>();
+        for (SearchDocument document : restaurantRepository.findSearchDocuments()) {
+            loaded.put(document.getId(), termsOf(document.getName(), document.getAddress(),
+                document.getDescription(), menuItemNames.getOrDefault(document.getId(), List.of())));
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Restaurants updated after this rebuild started keep their newer state
+            Map<Long, Map<String, Float>> newer = new HashMap<>();
+            appliedGenerations.forEach((id, applied) -> {
+                if (applied > generation) {
+                    newer.put(id, documents.get(id));
+                }
+            });
+            appliedGenerations.values().removeIf(applied -> applied <= generation);
+            rebuiltGeneration = generation;
+            documents.clear();
+            postings.clear();
+            trigramTerms.clear();
+            loaded.forEach((id, terms) -> {
+                if (!newer.containsKey(id)) {
+                    addDocument(id, terms);
+                }
+            });
+            newer.forEach((id, terms) -> {
+                if (terms != null) {
+                    addDocument(id, terms);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return loaded.size();
+    }
+
+    /**
+     * Once the current transaction commits, re-reads a restaurant and its menu item names
+     * and indexes them. A restaurant that no longer exists is removed.
+     */
+    public void refresh(Long restaurantId) {
+        TransactionCallbacks.afterCommit(() -> reload(restaurantId));
+    }
+
+    /**
+     * Removes a restaurant from the index once the current transaction commits.
+     */
+    public void remove(Long restaurantId) {
+        TransactionCallbacks.afterCommit(() -> apply(restaurantId, generations.incrementAndGet(), null));
+    }
+
+    /**
+     * Ranked page of the ids of the restaurants matching the query, best match first.
+     */
+    public List<Long> search(String query, int page, int size) {
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty() || page < 0 || size <= 0) {
+            return List.of();
+        }
+
+        Map<Long, Float> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String token : tokens) {
+                Map<Long, Float> best = new HashMap<>();
+                matchingTerms(token).forEach((term, quality) -> {
+                    Map<Long, Float> posting = postings.get(term);
+                    float score = quality * inverseDocumentFrequency(posting.size());
+                    posting.forEach((id, weight) -> best.merge(id, score * weight, Math::max));
+                });
+                best.forEach((id, score) -> scores.merge(id, score, Float::sum));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long offset = (long) page * size;
+        if (offset >= scores.size()) {
+            return List.of();
+        }
+        // Only the entries up to the requested page are kept and sorted
+        int limit = (int) Math.min(offset + size, scores.size());
+        PriorityQueue<Map.Entry<Long, Float>> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Map.Entry<Long, Float>> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return ranked.subList((int) offset, ranked.size()).stream().map(Map.Entry::getKey).toList();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void put(Long restaurantId, String name, String address, String description, Collection<String> menuItemNames) {
+        apply(restaurantId, generations.incrementAndGet(), termsOf(name, address, description, menuItemNames));
+    }
+
+    /**
+     * Reads the committed state of a restaurant. The generation is taken before reading, so
+     * a later generation has always seen at least the same commits.
+     */
+    private void reload(Long restaurantId) {
+        long generation = generations.incrementAndGet();
+        Map<String, Float> terms = restaurantRepository.findSearchDocument(restaurantId)
+            .map(document -> termsOf(document.getName(), document.getAddress(), document.getDescription(),
+                menuItemRepository.findNamesByRestaurantId(restaurantId)))
+            .orElse(null);
+        apply(restaurantId, generation, terms);
+    }
+
+    /**
+     * Replaces the indexed terms of a restaurant, or removes it when terms is null, unless a
+     * newer generation was already applied.
+     */
+    private void apply(Long restaurantId, long generation, Map<String, Float> terms) {
+        lock.writeLock().lock();
+        try {
+            long applied = appliedGenerations.getOrDefault(restaurantId, rebuiltGeneration);
+            if (applied > generation) {
+                return;
+            }
+            appliedGenerations.put(restaurantId, generation);
+            removeDocument(restaurantId);
+            if (terms != null) {
+                addDocument(restaurantId, terms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(Long restaurantId, Map<String, Float> terms) {
+        documents.put(restaurantId, terms);
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> {
+            for (String trigram : trigrams(t)) {
+                trigramTerms.computeIfAbsent(trigram, g -> new HashSet<>()).add(t);
+            }
+            return new HashMap<>();
+        }).put(restaurantId, weight));
+    }
+
+    private void removeDocument(Long restaurantId) {
+        Map<String, Float> terms = documents.remove(restaurantId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms.keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            posting.remove(restaurantId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String trigram : trigrams(term)) {
+                    Set<String> trigramPosting = trigramTerms.get(trigram);
+                    trigramPosting.remove(term);
+                    if (trigramPosting.isEmpty()) {
+                        trigramTerms.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexed terms matching a query term, with the quality of each match.
+     */
+    private Map<String, Float> matchingTerms(String token) {
+        Map<String, Float> matches = new HashMap<>();
+        if (postings.containsKey(token)) {
+            matches.put(token, EXACT_MATCH);
+        }
+
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                matches.put(term, PREFIX_MATCH);
+            }
+        }
+
+        if (token.length() >= MIN_FUZZY_LENGTH) {
+            Map<String, Integer> sharedTrigrams = new HashMap<>();
+            for (String trigram : trigrams(token)) {
+                Set<String> terms = trigramTerms.get(trigram);
+                if (terms != null) {
+                    terms.forEach(term -> sharedTrigrams.merge(term, 1, Integer::sum));
+                }
+            }
+            int maxEdits = token.length() <= 5 ? 1 : 2;
+            sharedTrigrams.forEach((term, shared) -> {
+                if (matches.containsKey(term) || Math.abs(term.length() - token.length()) > maxEdits) {
+                    return;
+                }
+                // Padded terms have as many trigrams as characters
+                double similarity = 2.0 * shared / (token.length() + term.length());
+                if (similarity < MIN_TRIGRAM_SIMILARITY) {
+                    return;
+                }
+                int distance = editDistance(token, term, maxEdits);
+                if (distance <= maxEdits) {
+                    matches.put(term, FUZZY_MATCH * (1f - (float) distance / token.length()));
+                }
+            });
+        }
+        return matches;
+    }
+
+    private float inverseDocumentFrequency(int documentFrequency) {
+        return (float) Math.log(1.0 + (double) documents.size() / documentFrequency);
+    }
+
+    private static Map<String, Float> termsOf(String name, String address, String description,
+            Collection<String> menuItemNames) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        addTerms(terms, address, ADDRESS_WEIGHT);
+        for (String menuItemName : menuItemNames) {
+            addTerms(terms, menuItemName, MENU_WEIGHT);
+        }
+        addTerms(terms, name, NAME_WEIGHT);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, weight, Math::max);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+            .replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> trigrams(String term) {
+        String padded = " " + term + " ";
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Optimal string alignment distance (adjacent swaps count as one edit), giving up with
+     * max + 1 as soon as it is known to exceed max.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        int[] beforePrevious = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+}
@@ -2,41 +2,74 @@ package com.smartDine.services;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.smartDine.adapters.ImageAdapter;
 import com.smartDine.dto.RestaurantDTO;
-import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.RestaurantMetadata;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.MenuItem;
 import com.smartDine.entity.Restaurant;
 import com.smartDine.entity.RestaurantTable;
 import com.smartDine.entity.TimeSlot;
+import com.smartDine.repository.BusinessRepository;
 import com.smartDine.repository.RestaurantRepository;
 
 @Service 
 public class RestaurantService {
     @Autowired 
     private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private BusinessRepository businessRepository;
     
     @Autowired
-    private ImageAdapter imageAdapter;
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private TableAvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private RestaurantSearchIndex searchIndex;
+
+    @Autowired
+    private RestaurantMetadataCache metadataCache;
 
     private static final String NOT_FOUND_MSG = "Restaurante no encontrado con ID: %d";
+    static final int MAX_PAGE_SIZE = 100;
     
     /**
-     * Get all restaurants or search by name
+     * Get a page of restaurants ordered by id, or a ranked page of the restaurants matching
+     * the search over names, addresses, descriptions and menu items
      */
-    public List<Restaurant> getRestaurants(String search) {
-        if (search == null || search.isEmpty()) {
-            return restaurantRepository.findAll();
-        } else {
-            return restaurantRepository.findByNameContainingIgnoreCase(search);
+    public List<Restaurant> getRestaurants(String search, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (search == null || search.isBlank()) {
+            return restaurantRepository.findAll(PageRequest.of(page, size, Sort.by("id"))).getContent();
         }
+
+        List<Long> ids = searchIndex.search(search, page, size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Restaurant> restaurants = restaurantRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Restaurant::getId, Function.identity()));
+        return ids.stream().map(restaurants::get).filter(Objects::nonNull).toList();
     }
     
     /**
@@ -48,7 +81,15 @@ public class RestaurantService {
     }
     
     /**
-     * Create a new restaurant
+     * Get the cached owner, name, address, description and image key of a restaurant
+     */
+    public RestaurantMetadata getRestaurantMetadata(Long id) {
+        return metadataCache.get(id);
+    }
+    
+    /**
+     * Create a new restaurant. The owner may be the authenticated principal, which only
+     * carries an id, so the restaurant is linked to the stored business by id.
      */
     public Restaurant createRestaurant(RestaurantDTO restaurantDTO , Business owner) {
         // Validate that restaurant name doesn't already exist
@@ -63,8 +104,10 @@ public class RestaurantService {
         }
         
         Restaurant restaurant = RestaurantDTO.toEntity(restaurantDTO);
-        restaurant.setOwner(owner);
-        return restaurantRepository.save(restaurant);
+        restaurant.setOwner(businessRepository.getReferenceById(owner.getId()));
+        Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        searchIndex.refresh(savedRestaurant.getId());
+        return savedRestaurant;
     }
     
     /**
@@ -88,7 +131,10 @@ public class RestaurantService {
         existingRestaurant.setAddress(restaurantDTO.getAddress());
         existingRestaurant.setDescription(restaurantDTO.getDescription());
         
-        return restaurantRepository.save(existingRestaurant);
+        Restaurant savedRestaurant = restaurantRepository.save(existingRestaurant);
+        metadataCache.evict(id);
+        searchIndex.refresh(id);
+        return savedRestaurant;
     }
     
     /**
@@ -99,18 +145,20 @@ public class RestaurantService {
             throw new IllegalArgumentException(String.format(NOT_FOUND_MSG, id));
         }
         restaurantRepository.deleteById(id);
+        availabilityEngine.evictRestaurant(id);
+        metadataCache.evict(id);
+        searchIndex.remove(id);
     }
 
     public boolean isOwnerOfRestaurant(Long restaurantId, Business business) {
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-            .orElseThrow(() -> new IllegalArgumentException(String.format(NOT_FOUND_MSG, restaurantId)));
-        return restaurant.getOwner().getId().equals(business.getId());
+        return metadataCache.get(restaurantId).ownerId().equals(business.getId());
     }
 
     public Restaurant createRestaurant(Business owner, RestaurantDTO restaurantDTO) {
         Restaurant restaurant = RestaurantDTO.toEntity(restaurantDTO);
-        restaurant.setOwner(owner);
+        restaurant.setOwner(businessRepository.getReferenceById(owner.getId()));
         Restaurant savedRestaurant = restaurantRepository.save(restaurant);
+        searchIndex.refresh(savedRestaurant.getId());
         // Añadir el restaurante a la lista del propietario
         List<Restaurant> restaurants = owner.getRestaurants();
         if (restaurants == null) {
@@ -132,6 +180,7 @@ public class RestaurantService {
         menu.add(menuItem);
         restaurant.setMenu(menu);
         restaurantRepository.save(restaurant);
+        searchIndex.refresh(restaurantId);
         return true;
     }
     public List<MenuItem> getMenuItems(Long restaurantId) {
@@ -178,17 +227,18 @@ public class RestaurantService {
     }
     
     /**
-     * Uploads an image for a restaurant and assigns it to the restaurant entity.
+     * Uploads an image for a restaurant in the background and assigns it to the restaurant
+     * entity once it is stored.
      * Validates that the business user owns the restaurant.
      * 
      * @param restaurantId the ID of the restaurant
      * @param file the image file to upload
      * @param business the business owner
-     * @return UploadResponse containing upload details
-     * @throws IOException if the upload fails
+     * @return UploadTicketDTO to follow the upload
+     * @throws IOException if the upload cannot be accepted
      * @throws IllegalArgumentException if validation fails
      */
-    public UploadResponse uploadRestaurantImage(Long restaurantId, MultipartFile file, Business business) throws IOException {
+    public UploadTicketDTO uploadRestaurantImage(Long restaurantId, MultipartFile file, Business business) throws IOException {
         // Validate restaurant ownership
         if (!isOwnerOfRestaurant(restaurantId, business)) {
             throw new IllegalArgumentException("You do not own this restaurant");
@@ -209,16 +259,14 @@ public class RestaurantService {
         String keyName = "restaurants/%d/images/%s.%s"
             .formatted(restaurantId, java.util.UUID.randomUUID(), ext);
         
-        // Upload image using the adapter
-        UploadResponse response = imageAdapter.uploadImage(file, keyName);
-        
-        // Assign the image to the restaurant
-        Restaurant restaurant = restaurantRepository.findById(restaurantId)
-            .orElseThrow(() -> new IllegalArgumentException(String.format(NOT_FOUND_MSG, restaurantId)));
-        restaurant.setImageUrl(keyName);
-        restaurantRepository.save(restaurant);
-        
-        return response;
+        // Upload in the background; the image is assigned to the restaurant once stored
+        return imageUploadService.submit(file, keyName, business.getId(), key -> {
+            Restaurant restaurant = restaurantRepository.findById(restaurantId)
+                .orElseThrow(() -> new IllegalArgumentException(String.format(NOT_FOUND_MSG, restaurantId)));
+            restaurant.setImageUrl(key);
+            restaurantRepository.save(restaurant);
+            metadataCache.evict(restaurantId);
+        });
     }
 
     public List<Restaurant> getRestaurantsByOwner(Business business) {
@@ -1,22 +1,24 @@
 package com.smartDine.services;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.smartDine.dto.AvailabilityGridDTO;
 import com.smartDine.dto.RestaurantTableDTO;
 import com.smartDine.entity.Business;
-import com.smartDine.entity.Reservation;
+import com.smartDine.entity.ReservationStatus;
 import com.smartDine.entity.Restaurant;
 import com.smartDine.entity.RestaurantTable;
+import com.smartDine.entity.TimeSlot;
 import com.smartDine.exceptions.RelatedEntityException;
 import com.smartDine.repository.ReservationRepository;
+import com.smartDine.repository.ReservationRepository.ReservedTable;
 import com.smartDine.repository.RestaurantTableRepository;
 
 @Service
@@ -27,7 +29,11 @@ public class RestaurantTableService {
     @Autowired
     private RestaurantService restaurantService;
     @Autowired
-    private ReservationRepository reservationRepository; 
+    private TableAvailabilityEngine availabilityEngine;
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    static final int MAX_GRID_DAYS = 31;
     
     @Transactional(readOnly = true) 
     public List<RestaurantTableDTO> getAvailableTables(Long restaurantId, Long timeSlotId, 
@@ -36,28 +42,33 @@ public class RestaurantTableService {
             throw new IllegalArgumentException("Outside preference is required");
         }
 
-        List<RestaurantTable> restaurantTables = restaurantService.getTables(restaurantId);
-
-        List<Reservation> reservations = reservationRepository.findByRestaurantIdAndDateAndTimeSlotId(
-            restaurantId,
-            date,
-            timeSlotId
-        );
+        return availabilityEngine.getAvailableTables(restaurantId, timeSlotId, date, outside);
+    }
 
-        Set<Long> reservedTableIds = reservations.stream()
-            .map(r -> r.getRestaurantTable().getId())
-            .collect(Collectors.toSet());
+    /**
+     * Builds the availability grid of a restaurant between two dates (both inclusive)
+     * from a single range query over its reservations.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityGridDTO getAvailabilityGrid(Long restaurantId, LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both from and to dates are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("The to date must not be before the from date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_GRID_DAYS) {
+            throw new IllegalArgumentException("The date range cannot exceed " + MAX_GRID_DAYS + " days");
+        }
 
-        List<RestaurantTable> availableTables = restaurantTables.stream()
-            .filter(t -> isTableAvailable(t, outside, reservedTableIds))
-            .collect(Collectors.toList());
+        List<RestaurantTable> tables = restaurantService.getTables(restaurantId);
+        List<TimeSlot> timeSlots = restaurantService.getTimeSlots(restaurantId);
+        List<ReservedTable> reservedTables = reservationRepository.findReservedTablesInRange(
+            restaurantId, from, to, ReservationStatus.CANCELLED);
 
-        return RestaurantTableDTO.fromEntity(availableTables);
+        return new AvailabilityGridDTO(restaurantId, from, to, tables, timeSlots, reservedTables);
     }
 
-    private boolean isTableAvailable(RestaurantTable table, Boolean outside, Set<Long> reservedTableIds) {
-        return table.getOutside().equals(outside) && !reservedTableIds.contains(table.getId());
-    }
     @Transactional
     public RestaurantTable createTable(Long restaurantId, RestaurantTableDTO tableDTO, Business business) {
         if (business == null || business.getId() == null) {
@@ -87,6 +98,7 @@ public class RestaurantTableService {
         
         // Add the table to the restaurant's list
         restaurantService.addTable(restaurantId, savedTable);
+        availabilityEngine.evictRestaurant(restaurantId);
         
         return savedTable;
     }
@@ -142,6 +154,7 @@ public class RestaurantTableService {
         // Delete the table
         tableRepository.delete(table);
         tableRepository.flush(); // Forzar la ejecución inmediata para capturar excepciones de integridad referencial
+        availabilityEngine.evictRestaurant(restaurantId);
     }
     catch(DataIntegrityViolationException e ) {
                 throw new RelatedEntityException("No se puede eliminar la mesa porque tiene reservas asociadas.");
@@ -1,6 +1,7 @@
 package com.smartDine.services ;
 
 import java.io.IOException;
+import java.util.Date;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,10 +13,13 @@ import org.springframework.web.multipart.MultipartFile;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.smartDine.dto.ImageFetchRequest;
 
 @Service
 public class S3Service {
@@ -23,11 +27,16 @@ public class S3Service {
     @Autowired
     private AmazonS3 amazonS3; // inyectado por campo, no constructor
 
+    @Autowired
+    private TransferManager transferManager;
+
     @Value("${aws.s3.bucket}")
     private String bucketName;
 
     /**
      * Sube el archivo a S3 y devuelve la URL de acceso.
+     * Los archivos copiados a disco (SpooledImageFile) se suben con el TransferManager, que
+     * por encima del umbral de multipart sube las partes en paralelo.
      * Si no desea objetos públicos, quite el withCannedAcl y genere URL presignadas en el controlador.
      */
     public String uploadFile(MultipartFile file, String keyName) throws IOException {
@@ -35,6 +44,19 @@ public class S3Service {
         metadata.setContentLength(file.getSize());
         metadata.setContentType(file.getContentType());
 
+        if (file instanceof SpooledImageFile spooled) {
+            PutObjectRequest put = new PutObjectRequest(bucketName, keyName, spooled.getPath().toFile())
+                    .withMetadata(metadata)
+                    .withCannedAcl(CannedAccessControlList.PublicRead);
+            try {
+                transferManager.upload(put).waitForCompletion();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Se interrumpió la subida del archivo: " + keyName, e);
+            }
+            return amazonS3.getUrl(bucketName, keyName).toString();
+        }
+
         PutObjectRequest put = new PutObjectRequest(
                 bucketName,
                 keyName,
@@ -61,6 +83,28 @@ public class S3Service {
         }
     }
 
+    /**
+     * Obtiene el objeto (o el rango de bytes pedido) junto con sus metadatos en una sola
+     * petición. Devuelve null si S3 indica que el objeto no ha cambiado según las
+     * condiciones (If-None-Match / If-Modified-Since).
+     */
+    public S3Object getObject(String keyName, ImageFetchRequest fetch) {
+        GetObjectRequest request = new GetObjectRequest(bucketName, keyName);
+        if (!fetch.ifNoneMatch().isEmpty()) {
+            request.setNonmatchingETagConstraints(fetch.ifNoneMatch());
+        } else if (fetch.ifModifiedSince() != null) {
+            request.setModifiedSinceConstraint(new Date(fetch.ifModifiedSince()));
+        }
+        if (fetch.rangeStart() != null) {
+            if (fetch.rangeEnd() != null) {
+                request.setRange(fetch.rangeStart(), fetch.rangeEnd());
+            } else {
+                request.setRange(fetch.rangeStart());
+            }
+        }
+        return amazonS3.getObject(request);
+    }
+
     /**
      * (Opcional) Metadatos útiles para cabeceras HTTP (Content-Type, Content-Length, etc.).
      */
@@ -0,0 +1,280 @@
+package com.smartDine.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.smartDine.dto.RestaurantTableDTO;
+import com.smartDine.entity.ReservationStatus;
+import com.smartDine.entity.RestaurantTable;
+import com.smartDine.repository.ReservationRepository;
+import com.smartDine.repository.RestaurantRepository;
+import com.smartDine.repository.RestaurantTableRepository;
+
+/**
+ * In-memory table availability engine.
+ *
+ * Keeps, per restaurant, an immutable table layout (tables sorted by id, each one
+ * with a fixed index) and, per (restaurant, date, timeSlot), an occupancy bitmap
+ * where bit i is set when the table with index i is booked.
+ *
+ * Bitmaps are loaded from the database on a cold miss and then updated incrementally
+ * after the booking transactions commit, so availability lookups are answered from
+ * memory without hydrating reservations.
+ */
+@Service
+public class TableAvailabilityEngine {
+
+    private static final String NOT_FOUND_MSG = "Restaurante no encontrado con ID: %d";
+    private static final int STRIPES = 64;
+
+    private final ReservationRepository reservationRepository;
+    private final RestaurantTableRepository tableRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final int maxSlots;
+
+    private final Map<Long, TableLayout> layouts = new ConcurrentHashMap<>();
+    private final Map<SlotKey, BitSet> occupancy = new ConcurrentHashMap<>();
+
+    /**
+     * Version counters and locks striped by slot key. A cold load only publishes its
+     * bitmap if no committed booking touched the same stripe while it was querying.
+     */
+    private final AtomicLongArray stripeVersions = new AtomicLongArray(STRIPES);
+    private final Object[] stripeLocks = new Object[STRIPES];
+
+    /**
+     * Version counters and locks striped by restaurant, bumped by every eviction. A layout
+     * loaded before its tables changed is never published, and neither is a bitmap built
+     * against a layout that is no longer cached. Taken before a slot lock when both are.
+     */
+    private final AtomicLongArray layoutVersions = new AtomicLongArray(STRIPES);
+    private final Object[] layoutLocks = new Object[STRIPES];
+
+    public TableAvailabilityEngine(
+            ReservationRepository reservationRepository,
+            RestaurantTableRepository tableRepository,
+            RestaurantRepository restaurantRepository,
+            @Value("${smartdine.availability.max-slots:50000}") int maxSlots) {
+        this.reservationRepository = reservationRepository;
+        this.tableRepository = tableRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.maxSlots = maxSlots;
+        for (int i = 0; i < STRIPES; i++) {
+            stripeLocks[i] = new Object();
+            layoutLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Returns the free tables of a restaurant for a date and time slot, filtered by
+     * the outside preference.
+     *
+     * @throws IllegalArgumentException if the restaurant does not exist
+     */
+    public List<RestaurantTableDTO> getAvailableTables(Long restaurantId, Long timeSlotId,
+            LocalDate date, boolean outside) {
+        TableLayout layout = getLayout(restaurantId);
+        BitSet occupied = getOccupancy(layout, new SlotKey(restaurantId, date, timeSlotId));
+
+        BitSet free = (BitSet) (outside ? layout.outsideMask : layout.insideMask).clone();
+        free.andNot(occupied);
+
+        List<RestaurantTableDTO> result = new ArrayList<>(free.cardinality());
+        for (int i = free.nextSetBit(0); i >= 0; i = free.nextSetBit(i + 1)) {
+            result.add(copyOf(layout.tables.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Records a new booking once the surrounding transaction commits.
+     */
+    public void reservationBooked(Long restaurantId, LocalDate date, Long timeSlotId, Long tableId) {
+        TransactionCallbacks.afterCommit(() -> update(new SlotKey(restaurantId, date, timeSlotId), tableId, true));
+    }
+
+    /**
+     * Frees a booked table once the surrounding transaction commits.
+     */
+    public void reservationReleased(Long restaurantId, LocalDate date, Long timeSlotId, Long tableId) {
+        TransactionCallbacks.afterCommit(() -> update(new SlotKey(restaurantId, date, timeSlotId), tableId, false));
+    }
+
+    /**
+     * Drops every cached layout and bitmap of a restaurant. Must be called when its
+     * tables change, since table indexes are derived from the layout.
+     */
+    public void evictRestaurant(Long restaurantId) {
+        evictNow(restaurantId);
+        TransactionCallbacks.afterCommit(() -> evictNow(restaurantId));
+    }
+
+    private void evictNow(Long restaurantId) {
+        int stripe = layoutStripeOf(restaurantId);
+        synchronized (layoutLocks[stripe]) {
+            layoutVersions.incrementAndGet(stripe);
+            layouts.remove(restaurantId);
+            occupancy.keySet().removeIf(key -> key.restaurantId().equals(restaurantId));
+        }
+    }
+
+    private TableLayout getLayout(Long restaurantId) {
+        TableLayout layout = layouts.get(restaurantId);
+        if (layout != null) {
+            return layout;
+        }
+
+        int stripe = layoutStripeOf(restaurantId);
+        long version = layoutVersions.get(stripe);
+        List<RestaurantTable> tables = tableRepository.findByRestaurantId(restaurantId);
+        if (tables.isEmpty() && !restaurantRepository.existsById(restaurantId)) {
+            throw new IllegalArgumentException(String.format(NOT_FOUND_MSG, restaurantId));
+        }
+        layout = new TableLayout(tables);
+        if (canPublish()) {
+            synchronized (layoutLocks[stripe]) {
+                if (layoutVersions.get(stripe) == version) {
+                    layouts.putIfAbsent(restaurantId, layout);
+                }
+            }
+        }
+        return layout;
+    }
+
+    private BitSet getOccupancy(TableLayout layout, SlotKey key) {
+        BitSet occupied = occupancy.get(key);
+        if (occupied != null) {
+            return occupied;
+        }
+
+        int stripe = stripeOf(key);
+        long version = stripeVersions.get(stripe);
+
+        List<Long> reservedTableIds = reservationRepository.findReservedTableIds(
+            key.restaurantId(), key.date(), key.timeSlotId(), ReservationStatus.CANCELLED);
+        BitSet loaded = new BitSet(layout.size());
+        for (Long tableId : reservedTableIds) {
+            Integer index = layout.indexOf.get(tableId);
+            if (index != null) {
+                loaded.set(index);
+            }
+        }
+
+        if (canPublish()) {
+            synchronized (layoutLocks[layoutStripeOf(key.restaurantId())]) {
+                synchronized (stripeLocks[stripe]) {
+                    if (stripeVersions.get(stripe) == version && layouts.get(key.restaurantId()) == layout) {
+                        ensureCapacity();
+                        occupancy.putIfAbsent(key, loaded);
+                    }
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private void update(SlotKey key, Long tableId, boolean booked) {
+        int stripe = stripeOf(key);
+        synchronized (stripeLocks[stripe]) {
+            stripeVersions.incrementAndGet(stripe);
+            TableLayout layout = layouts.get(key.restaurantId());
+            Integer index = layout != null ? layout.indexOf.get(tableId) : null;
+            if (index != null) {
+                occupancy.computeIfPresent(key, (k, current) -> {
+                    BitSet next = (BitSet) current.clone();
+                    next.set(index, booked);
+                    return next;
+                });
+                return;
+            }
+        }
+        // Unknown table for the cached layout: let the next lookup reload it
+        evictNow(key.restaurantId());
+    }
+
+    /**
+     * Keeps the cache bounded: past dates go first, and if that is not enough the
+     * whole occupancy map is dropped and rebuilt lazily.
+     */
+    private void ensureCapacity() {
+        if (occupancy.size() < maxSlots) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        occupancy.keySet().removeIf(key -> key.date().isBefore(today));
+        if (occupancy.size() >= maxSlots) {
+            occupancy.clear();
+        }
+    }
+
+    /**
+     * Data read inside a read-write transaction may include uncommitted bookings,
+     * so it is only served, never cached.
+     */
+    private boolean canPublish() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private int stripeOf(SlotKey key) {
+        return (key.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private int layoutStripeOf(Long restaurantId) {
+        return (restaurantId.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private static RestaurantTableDTO copyOf(RestaurantTableDTO table) {
+        RestaurantTableDTO dto = new RestaurantTableDTO(table.getNumber(), table.getCapacity(), table.getOutside());
+        dto.setId(table.getId());
+        dto.setRestaurantId(table.getRestaurantId());
+        return dto;
+    }
+
+    private record SlotKey(Long restaurantId, LocalDate date, Long timeSlotId) {}
+
+    /**
+     * Immutable snapshot of a restaurant's tables, indexed by position.
+     */
+    private static final class TableLayout {
+        private final List<RestaurantTableDTO> tables;
+        private final Map<Long, Integer> indexOf;
+        private final BitSet outsideMask;
+        private final BitSet insideMask;
+
+        private TableLayout(List<RestaurantTable> entities) {
+            List<RestaurantTable> sorted = new ArrayList<>(entities);
+            sorted.sort(Comparator.comparing(RestaurantTable::getId));
+
+            this.tables = new ArrayList<>(sorted.size());
+            this.indexOf = new HashMap<>();
+            this.outsideMask = new BitSet(sorted.size());
+            this.insideMask = new BitSet(sorted.size());
+            for (int i = 0; i < sorted.size(); i++) {
+                RestaurantTable table = sorted.get(i);
+                tables.add(RestaurantTableDTO.fromEntity(table));
+                indexOf.put(table.getId(), i);
+                if (Boolean.TRUE.equals(table.getOutside())) {
+                    outsideMask.set(i);
+                } else {
+                    insideMask.set(i);
+                }
+            }
+        }
+
+        private int size() {
+            return tables.size();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartDine.services;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Striped in-process locks that serialize bookings of the same (table, date, timeSlot).
+ *
+ * A lock is held until the surrounding transaction completes, so the next booking of
+ * the same slot only checks availability once the previous one is committed or rolled
+ * back. Bookings of unrelated slots hash to different stripes and do not wait for each other.
+ */
+@Service
+public class TableBookingLocks {
+
+    private static final int STRIPES = 1024;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public TableBookingLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Acquires the lock of a slot and releases it when the current transaction completes.
+     *
+     * @throws IllegalStateException if there is no active transaction
+     */
+    public void lockUntilCompletion(Long tableId, LocalDate date, Long timeSlotId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Table bookings must run inside a transaction");
+        }
+        ReentrantLock lock = locks[stripeOf(tableId, date, timeSlotId)];
+        lock.lock();
+        TransactionCallbacks.afterCompletion(lock::unlock);
+    }
+
+    private int stripeOf(Long tableId, LocalDate date, Long timeSlotId) {
+        return (Objects.hash(tableId, date, timeSlotId) & 0x7fffffff) % STRIPES;
+    }
+}
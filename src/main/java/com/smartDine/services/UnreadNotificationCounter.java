@@ -0,0 +1,75 @@
+package com.smartDine.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.smartDine.dto.NotificationDTO;
+import com.smartDine.repository.NotificationRepository;
+
+/**
+ * Unread notification count per user, loaded from the database on first use and then kept
+ * up to date incrementally: stored notifications (see NotificationsDispatchedEvent) add to
+ * it and reads subtract from it, both once their transaction commits.
+ *
+ * Adjustments are registered while their transaction runs, so a count read between the
+ * commit and the adjustment is not cached and the same change is never counted twice
+ * (see VersionedCache). Counts expire after ttl-ms, which bounds the drift from rows
+ * changed outside the application.
+ */
+@Service
+public class UnreadNotificationCounter {
+
+    private final NotificationRepository notificationRepository;
+    private final VersionedCache<Long, Long> counts;
+
+    public UnreadNotificationCounter(
+            NotificationRepository notificationRepository,
+            @Value("${smartdine.notifications.unread-count.ttl-ms:600000}") long ttlMillis,
+            @Value("${smartdine.notifications.unread-count.max-size:10000}") int maxSize) {
+        this.notificationRepository = notificationRepository;
+        this.counts = new VersionedCache<>(ttlMillis, maxSize);
+    }
+
+    /**
+     * Returns the number of unread notifications of a user.
+     */
+    public long get(Long userId) {
+        return counts.get(userId, notificationRepository::countByReceiverIdAndReadFalse);
+    }
+
+    /**
+     * Adds delta to a user's count once the current transaction commits, or right away
+     * outside a transaction.
+     */
+    public void adjustAfterCommit(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        counts.updateAfterCommit(userId, count -> Math.max(0, count + delta));
+    }
+
+    /**
+     * Drops a user's count so it is reloaded on next use.
+     */
+    public void evict(Long userId) {
+        counts.invalidate(userId);
+    }
+
+    /**
+     * Counts newly stored notifications once the storing transaction commits. Both
+     * NotificationService and NotificationOutbox publish the event inside that transaction,
+     * so the adjustment is registered before the rows become visible.
+     */
+    @EventListener
+    public void onNotificationsStored(NotificationsDispatchedEvent event) {
+        event.byReceiver().forEach((receiverId, notifications) ->
+            adjustAfterCommit(receiverId, unread(notifications)));
+    }
+
+    private static long unread(List<NotificationDTO> notifications) {
+        return notifications.stream().filter(notification -> !notification.isRead()).count();
+    }
+}
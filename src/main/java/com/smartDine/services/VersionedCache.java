@@ -0,0 +1,303 @@
+package com.smartDine.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded map of values loaded from the database and then kept up to date in memory, used
+ * by the caches of this package.
+ *
+ * Every key has its own version, bumped by each change to it. A loaded value is cached only
+ * if the version of its key did not move while it was read and no change to the key was
+ * waiting for its transaction to complete (see changeAfterCommit). A change committed just
+ * before a load is therefore never applied a second time on top of it, and changes to one
+ * key never keep another from being cached.
+ *
+ * Hits read a concurrent map without locking. When ttlMillis is positive entries expire
+ * after it. Beyond maxSize entries, expired ones are dropped first and then the least
+ * recently used tenth; a maxSize of zero or less disables caching.
+ */
+final class VersionedCache<K, V> {
+
+    private static final Comparator<Slot<?>> LEAST_RECENTLY_USED = Comparator.comparingLong(slot -> slot.lastAccess);
+
+    private final long ttlMillis;
+    private final int maxSize;
+
+    private final Map<K, Slot<V>> slots = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private final LongAdder evictions = new LongAdder();
+    private int cached;
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    /**
+     * State of a key. The entry and lastAccess are read without the lock; the other
+     * fields are guarded by it. A slot is removed once it holds nothing.
+     */
+    private static final class Slot<V> {
+        private volatile Entry<V> entry;
+        private volatile long lastAccess;
+        private long version;
+        private int loads;
+        private int pendingChanges;
+    }
+
+    VersionedCache(long ttlMillis, int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cached value of a key, or null when it is missing or expired.
+     */
+    V getIfPresent(K key) {
+        Slot<V> slot = slots.get(key);
+        Entry<V> entry = slot != null ? slot.entry : null;
+        if (entry == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.expiresAt() <= now) {
+            return null;
+        }
+        if (slot.lastAccess != now) {
+            slot.lastAccess = now;
+        }
+        return entry.value();
+    }
+
+    /**
+     * Returns the value of a key, loading it on a miss. The loader runs without any lock
+     * held and must not return null.
+     */
+    V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        Map<K, V> loaded = getAll(List.of(key), keys -> Map.of(key, loader.apply(key)));
+        return loaded.get(key);
+    }
+
+    /**
+     * Loads the values of the given keys that are not cached with one call to the loader,
+     * and returns the loaded values. The loader gets the missing keys and must return a
+     * value for each.
+     */
+    Map<K, V> getAll(Collection<K> keys, Function<List<K>, Map<K, V>> loader) {
+        Map<K, Long> versions = new HashMap<>();
+        long start = System.currentTimeMillis();
+        synchronized (writeLock) {
+            for (K key : keys) {
+                Slot<V> slot = slots.computeIfAbsent(key, k -> new Slot<>());
+                Entry<V> entry = slot.entry;
+                if (!versions.containsKey(key) && (entry == null || entry.expiresAt() <= start)) {
+                    slot.loads++;
+                    versions.put(key, slot.version);
+                }
+            }
+        }
+        if (versions.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<K, V> loaded = Map.of();
+        try {
+            loaded = loader.apply(List.copyOf(versions.keySet()));
+            return loaded;
+        } finally {
+            long now = System.currentTimeMillis();
+            synchronized (writeLock) {
+                for (Map.Entry<K, Long> version : versions.entrySet()) {
+                    K key = version.getKey();
+                    Slot<V> slot = slots.get(key);
+                    slot.loads--;
+                    V value = loaded.get(key);
+                    if (value != null && maxSize > 0 && slot.version == version.getValue() && slot.pendingChanges == 0) {
+                        store(slot, value, now);
+                    }
+                    release(key, slot);
+                }
+                trim(now);
+            }
+        }
+    }
+
+    /**
+     * Stores a value, replacing the cached one.
+     */
+    void put(K key, V value) {
+        long now = System.currentTimeMillis();
+        synchronized (writeLock) {
+            Slot<V> slot = slots.computeIfAbsent(key, k -> new Slot<>());
+            slot.version++;
+            if (maxSize > 0) {
+                store(slot, value, now);
+            }
+            release(key, slot);
+            trim(now);
+        }
+    }
+
+    /**
+     * Changes the cached value of a key, if any; a null result drops it. Either way, loads
+     * of the key that are still running are not cached.
+     */
+    void update(K key, UnaryOperator<V> change) {
+        synchronized (writeLock) {
+            Slot<V> slot = slots.get(key);
+            if (slot == null) {
+                return;
+            }
+            slot.version++;
+            Entry<V> entry = slot.entry;
+            if (entry != null) {
+                V updated = change.apply(entry.value());
+                if (updated != null) {
+                    slot.entry = new Entry<>(updated, entry.expiresAt());
+                } else {
+                    drop(slot);
+                }
+            }
+            release(key, slot);
+        }
+    }
+
+    /**
+     * Runs a change once the current transaction commits, or right away outside one. Until
+     * the transaction completes, values loaded for the given keys are served but not cached:
+     * the database may already include the change while the cache does not yet.
+     */
+    void changeAfterCommit(Collection<K> keys, Runnable change) {
+        synchronized (writeLock) {
+            for (K key : keys) {
+                slots.computeIfAbsent(key, k -> new Slot<>()).pendingChanges++;
+            }
+        }
+        TransactionCallbacks.afterCommit(change);
+        TransactionCallbacks.afterCompletion(() -> {
+            synchronized (writeLock) {
+                for (K key : keys) {
+                    Slot<V> slot = slots.get(key);
+                    slot.pendingChanges--;
+                    slot.version++;
+                    release(key, slot);
+                }
+            }
+        });
+    }
+
+    /**
+     * Same as update, once the current transaction commits (see changeAfterCommit).
+     */
+    void updateAfterCommit(K key, UnaryOperator<V> change) {
+        changeAfterCommit(List.of(key), () -> update(key, change));
+    }
+
+    /**
+     * Drops a key so it is reloaded on next use.
+     */
+    void invalidate(K key) {
+        update(key, value -> null);
+    }
+
+    void clear() {
+        synchronized (writeLock) {
+            slots.forEach((key, slot) -> {
+                slot.version++;
+                if (slot.entry != null) {
+                    drop(slot);
+                }
+                release(key, slot);
+            });
+        }
+    }
+
+    /**
+     * Returns the keys with a cached value, expired or not.
+     */
+    List<K> keys() {
+        List<K> keys = new ArrayList<>();
+        slots.forEach((key, slot) -> {
+            if (slot.entry != null) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+
+    int size() {
+        synchronized (writeLock) {
+            return cached;
+        }
+    }
+
+    /**
+     * Returns how many entries were dropped, by changes or to stay bounded.
+     */
+    long evictionCount() {
+        return evictions.sum();
+    }
+
+    private void store(Slot<V> slot, V value, long now) {
+        if (slot.entry == null) {
+            cached++;
+        }
+        slot.entry = new Entry<>(value, ttlMillis > 0 ? now + ttlMillis : Long.MAX_VALUE);
+        slot.lastAccess = now;
+    }
+
+    private void drop(Slot<V> slot) {
+        slot.entry = null;
+        cached--;
+        evictions.increment();
+    }
+
+    private void release(K key, Slot<V> slot) {
+        if (slot.entry == null && slot.loads == 0 && slot.pendingChanges == 0) {
+            slots.remove(key, slot);
+        }
+    }
+
+    /**
+     * Brings the cache back to maxSize entries: expired ones first, then the least
+     * recently used tenth, so the scan runs once every tenth of maxSize new entries.
+     */
+    private void trim(long now) {
+        if (cached <= maxSize) {
+            return;
+        }
+        List<Map.Entry<K, Slot<V>>> live = new ArrayList<>();
+        slots.entrySet().forEach(candidate -> {
+            Entry<V> entry = candidate.getValue().entry;
+            if (entry == null) {
+                return;
+            }
+            if (entry.expiresAt() <= now) {
+                drop(candidate.getValue());
+                release(candidate.getKey(), candidate.getValue());
+            } else {
+                live.add(candidate);
+            }
+        });
+        if (cached <= maxSize) {
+            return;
+        }
+        live.sort(Map.Entry.comparingByValue(LEAST_RECENTLY_USED));
+        int excess = Math.min(live.size(), Math.max(cached - maxSize, maxSize / 10));
+        for (Map.Entry<K, Slot<V>> candidate : live.subList(0, excess)) {
+            drop(candidate.getValue());
+            release(candidate.getKey(), candidate.getValue());
+        }
+    }
+}
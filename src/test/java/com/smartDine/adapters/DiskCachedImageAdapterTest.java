@@ -0,0 +1,258 @@
+package com.smartDine.adapters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.smartDine.dto.ImageFetchRequest;
+import com.smartDine.dto.ImageResponseDTO;
+import com.smartDine.dto.UploadResponse;
+import com.smartDine.exceptions.RangeNotSatisfiableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DiskCachedImageAdapterTest {
+
+    private static final String KEY = "restaurants/1/images/photo.jpg";
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path storageDir;
+
+    @TempDir
+    Path cacheDir;
+
+    private LocalStorage storage;
+    private SimpleMeterRegistry meterRegistry;
+    private DiskCachedImageAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalStorage(storageDir);
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new DiskCachedImageAdapter(storage, meterRegistry, cacheDir.toString(), 40, 60_000L);
+        storage.uploadImage(image(CONTENT), KEY);
+    }
+
+    @Test
+    @DisplayName("Should read an image from the storage once and serve later reads from disk")
+    void servesRepeatedReadsFromDisk() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            ImageResponseDTO image = adapter.getImage(KEY);
+            assertInstanceOf(FileRegionInputStream.class, image.getInputStream());
+            assertEquals(CONTENT, read(image));
+            assertEquals("image/jpeg", image.getContentType());
+            assertEquals("photo.jpg", image.getFilename());
+            assertEquals(10, image.getContentLength());
+        }
+
+        assertEquals(1, storage.reads.get());
+        assertEquals(2.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+    }
+
+    @Test
+    @DisplayName("Should answer byte ranges and conditions of cached images locally")
+    void answersRangesAndConditions() throws IOException {
+        adapter.getImage(KEY).getInputStream().close();
+
+        ImageResponseDTO range = adapter.getImage(KEY, new ImageFetchRequest(List.of(), null, 2L, 5L));
+        assertEquals("2345", read(range));
+        assertEquals(2L, range.getRangeStart());
+        assertEquals(5L, range.getRangeEnd());
+        assertEquals(10, range.getTotalLength());
+
+        ImageResponseDTO openEnded = adapter.getImage(KEY, new ImageFetchRequest(List.of(), null, 7L, 100L));
+        assertEquals("789", read(openEnded));
+
+        ImageResponseDTO notModified = adapter.getImage(KEY, new ImageFetchRequest(List.of("v1"), null, null, null));
+        assertTrue(notModified.isNotModified());
+        assertEquals("v1", notModified.getETag());
+
+        assertFalse(adapter.getImage(KEY, new ImageFetchRequest(List.of("old"), null, null, null)).isNotModified());
+        assertThrows(RangeNotSatisfiableException.class,
+            () -> adapter.getImage(KEY, new ImageFetchRequest(List.of(), null, 10L, null)));
+        assertEquals(1, storage.reads.get());
+    }
+
+    @Test
+    @DisplayName("Should evict an image and its file when it is deleted")
+    void evictsOnDelete() throws IOException {
+        adapter.getImage(KEY).getInputStream().close();
+        assertEquals(1, cachedFiles());
+
+        adapter.deleteImage(KEY);
+
+        assertEquals(0, adapter.size());
+        assertEquals(0, cachedFiles());
+        assertThrows(IllegalArgumentException.class, () -> adapter.getImage(KEY));
+    }
+
+    @Test
+    @DisplayName("Should drop the least recently used images to stay within its budget")
+    void staysWithinBudget() throws IOException {
+        for (String name : List.of("a", "b", "c", "d")) {
+            storage.uploadImage(image(CONTENT), name);
+        }
+
+        adapter.getImage("a").getInputStream().close();
+        adapter.getImage("b").getInputStream().close();
+        adapter.getImage("a").getInputStream().close();
+        adapter.getImage("c").getInputStream().close();
+        adapter.getImage(KEY).getInputStream().close();
+        assertEquals(40, adapter.totalBytes());
+
+        // "b" is the least recently used image
+        adapter.getImage("d").getInputStream().close();
+        assertEquals(40, adapter.totalBytes());
+        assertEquals(4, adapter.size());
+        assertEquals(4, cachedFiles());
+        assertEquals(5, storage.reads.get());
+
+        adapter.getImage("a").getInputStream().close();
+        assertEquals(5, storage.reads.get());
+        adapter.getImage("b").getInputStream().close();
+        assertEquals(6, storage.reads.get());
+    }
+
+    @Test
+    @DisplayName("Should pass images larger than a quarter of the budget through to the storage")
+    void passesLargeImagesThrough() throws IOException {
+        storage.uploadImage(image("x".repeat(11)), "large");
+
+        assertEquals("x".repeat(11), read(adapter.getImage("large")));
+        assertEquals("x".repeat(11), read(adapter.getImage("large")));
+        assertEquals("xxx", read(adapter.getImage("large", new ImageFetchRequest(List.of(), null, 2L, 4L))));
+
+        assertEquals(0, adapter.size());
+        assertEquals(0, cachedFiles());
+        // Each read, ranges included, is answered from a single storage read
+        assertEquals(3, storage.reads.get());
+    }
+
+    @Test
+    @DisplayName("Should revalidate expired images with their entity tag and pick up changes from other nodes")
+    void revalidatesExpiredImages() throws Exception {
+        adapter = new DiskCachedImageAdapter(storage, meterRegistry, cacheDir.resolve("ttl").toString(), 40, 1L);
+        assertEquals(CONTENT, read(adapter.getImage(KEY)));
+
+        Thread.sleep(5);
+        assertEquals(CONTENT, read(adapter.getImage(KEY)));
+        assertEquals(1, storage.notModified.get());
+
+        // Another node replaces the image behind the cache
+        storage.eTag = "v2";
+        storage.uploadImage(image("abcdefghij"), KEY);
+        Thread.sleep(5);
+
+        assertEquals("abcdefghij", read(adapter.getImage(KEY)));
+        assertEquals(3, storage.reads.get());
+        assertEquals(1, adapter.size());
+    }
+
+    @Test
+    @DisplayName("Should re-read an image whose cached file disappeared")
+    void recoversFromMissingFile() throws IOException {
+        adapter.getImage(KEY).getInputStream().close();
+        try (var files = Files.list(cacheDir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+
+        assertEquals(CONTENT, read(adapter.getImage(KEY)));
+        assertEquals(2, storage.reads.get());
+    }
+
+    private long cachedFiles() throws IOException {
+        try (var files = Files.list(cacheDir)) {
+            return files.count();
+        }
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tags("cache", DiskCachedImageAdapter.CACHE_NAME, "result", result)
+            .functionCounter().count();
+    }
+
+    private static MockMultipartFile image(String content) {
+        return new MockMultipartFile("file", "photo.jpg", "image/jpeg", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(ImageResponseDTO image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = image.getInputStream()) {
+            in.transferTo(out);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Local filesystem stand-in for the remote storage. Every object has the current entity
+     * tag, and only full and If-None-Match reads are supported, which is all the cache asks for.
+     */
+    private static class LocalStorage implements ImageAdapter {
+
+        private final Path root;
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger notModified = new AtomicInteger();
+        private volatile String eTag = "v1";
+
+        LocalStorage(Path root) {
+            this.root = root;
+        }
+
+        @Override
+        public UploadResponse uploadImage(MultipartFile image, String path) throws IOException {
+            Path file = root.resolve(path.replace('/', '_'));
+            image.transferTo(file);
+            return new UploadResponse(path, file.toUri().toString(), image.getContentType(), image.getSize());
+        }
+
+        @Override
+        public ImageResponseDTO getImage(String key, ImageFetchRequest request) {
+            reads.incrementAndGet();
+            if (request.ifNoneMatch().contains(eTag)) {
+                notModified.incrementAndGet();
+                return ImageResponseDTO.notModified(eTag);
+            }
+            Path file = root.resolve(key.replace('/', '_'));
+            try {
+                String filename = key.contains("/") ? key.substring(key.lastIndexOf('/') + 1) : key;
+                ImageResponseDTO response = new ImageResponseDTO(Files.newInputStream(file), "image/jpeg",
+                    Files.size(file), filename);
+                response.setETag(eTag);
+                response.setLastModified(1_700_000_000_000L);
+                return response;
+            } catch (IOException e) {
+                throw new IllegalArgumentException("No se encontró el archivo con la clave: " + key, e);
+            }
+        }
+
+        @Override
+        public void deleteImage(String key) {
+            try {
+                Files.deleteIfExists(root.resolve(key.replace('/', '_')));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
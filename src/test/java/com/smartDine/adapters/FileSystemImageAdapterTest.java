@@ -0,0 +1,171 @@
+package com.smartDine.adapters;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.smartDine.dto.ImageFetchRequest;
+import com.smartDine.dto.ImageResponseDTO;
+import com.smartDine.dto.UploadResponse;
+import com.smartDine.exceptions.RangeNotSatisfiableException;
+
+class FileSystemImageAdapterTest {
+
+    private static final String KEY = "restaurants/1/images/photo.jpg";
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path directory;
+
+    private FileSystemImageAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        adapter = new FileSystemImageAdapter(directory.toString(), 64, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        adapter.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should store an image and serve it, its byte ranges and its conditions from disk")
+    void storesAndServesImages() throws IOException {
+        UploadResponse upload = adapter.uploadImage(image(CONTENT), KEY);
+        assertEquals(KEY, upload.getKey());
+        assertEquals("/smartdine/api/images?key=restaurants%2F1%2Fimages%2Fphoto.jpg", upload.getUrl());
+        assertEquals(10, upload.getSize());
+
+        ImageResponseDTO image = adapter.getImage(KEY);
+        assertInstanceOf(FileRegionInputStream.class, image.getInputStream());
+        assertEquals(CONTENT, read(image));
+        assertEquals("image/jpeg", image.getContentType());
+        assertEquals("photo.jpg", image.getFilename());
+        assertEquals(64, image.getETag().length(), "The content hash is the entity tag");
+
+        ImageResponseDTO range = adapter.getImage(KEY, new ImageFetchRequest(List.of(), null, 2L, 5L));
+        assertEquals("2345", read(range));
+        assertEquals(10, range.getTotalLength());
+
+        assertTrue(adapter.getImage(KEY, new ImageFetchRequest(List.of(image.getETag()), null, null, null)).isNotModified());
+        assertThrows(RangeNotSatisfiableException.class,
+            () -> adapter.getImage(KEY, new ImageFetchRequest(List.of(), null, 10L, null)));
+        assertThrows(IllegalArgumentException.class, () -> adapter.getImage("restaurants/1/images/missing.jpg"));
+    }
+
+    @Test
+    @DisplayName("Should keep identical images once and delete the content with its last key")
+    void deduplicatesContent() throws IOException {
+        adapter.uploadImage(image(CONTENT), KEY);
+        adapter.uploadImage(image(CONTENT), "menu-items/2/images/copy.jpg");
+
+        assertEquals(2, adapter.size());
+        assertEquals(1, adapter.blobCount());
+        assertEquals(1, blobFiles());
+
+        adapter.deleteImage(KEY);
+        assertEquals(CONTENT, read(adapter.getImage("menu-items/2/images/copy.jpg")));
+        assertThrows(IllegalArgumentException.class, () -> adapter.getImage(KEY));
+
+        adapter.deleteImage("menu-items/2/images/copy.jpg");
+        assertEquals(0, adapter.blobCount());
+        assertEquals(0, blobFiles());
+    }
+
+    @Test
+    @DisplayName("Should replace the content of a key and drop the old content")
+    void replacesContent() throws IOException {
+        adapter.uploadImage(image(CONTENT), KEY);
+        String firstTag = adapter.getImage(KEY).getETag();
+
+        adapter.uploadImage(image("abcdef"), KEY);
+
+        ImageResponseDTO image = adapter.getImage(KEY);
+        assertEquals("abcdef", read(image));
+        assertNotEquals(firstTag, image.getETag());
+        assertEquals(1, blobFiles());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index on startup and drop dangling references and orphaned content")
+    void rebuildsIndexOnStartup() throws IOException {
+        adapter.uploadImage(image(CONTENT), KEY);
+        adapter.uploadImage(image("abcdef"), "restaurants/1/images/other.jpg");
+        adapter.shutdown();
+
+        // An orphaned blob and a reference whose blob was never stored
+        Path blobs = directory.resolve("blobs");
+        Files.createDirectories(blobs.resolve("ff"));
+        Files.writeString(blobs.resolve("ff").resolve("ff00"), "orphan");
+        Files.writeString(directory.resolve("refs").resolve("dangling.ref"), "key=lost.jpg\nhash=aa11\n");
+
+        adapter = new FileSystemImageAdapter(directory.toString(), 64, 2);
+
+        assertEquals(2, adapter.size());
+        assertEquals(CONTENT, read(adapter.getImage(KEY)));
+        assertEquals("image/jpeg", adapter.getImage(KEY).getContentType());
+        assertEquals(2, blobFiles());
+        assertTrue(Files.notExists(directory.resolve("refs").resolve("dangling.ref")));
+    }
+
+    @Test
+    @DisplayName("Should commit concurrent uploads in shared sync batches")
+    void storesConcurrentUploads() throws Exception {
+        ExecutorService uploaders = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UploadResponse>> uploads = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String content = "image-" + i;
+                String key = "restaurants/1/images/" + i + ".jpg";
+                uploads.add(uploaders.submit(() -> adapter.uploadImage(image(content), key)));
+            }
+            for (Future<UploadResponse> upload : uploads) {
+                upload.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            uploaders.shutdownNow();
+        }
+
+        assertEquals(32, adapter.size());
+        assertEquals(32, blobFiles());
+        assertEquals("image-17", read(adapter.getImage("restaurants/1/images/17.jpg")));
+    }
+
+    private long blobFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory.resolve("blobs"))) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static MockMultipartFile image(String content) {
+        return new MockMultipartFile("file", "photo.jpg", "image/jpeg", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(ImageResponseDTO image) throws IOException {
+        try (InputStream in = image.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
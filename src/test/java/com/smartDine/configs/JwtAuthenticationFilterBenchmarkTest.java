@@ -0,0 +1,88 @@
+package com.smartDine.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.smartDine.entity.Customer;
+import com.smartDine.services.JwtService;
+import com.smartDine.services.PrincipalCache;
+
+/**
+ * Throughput of JwtAuthenticationFilter for a repeated bearer token, with the verified
+ * claims cache disabled (every request verifies the signature once) and enabled.
+ * The user lookup is mocked so only the token path is measured. Tagged "benchmark", so it
+ * only runs with -Pdev,benchmark.
+ */
+class JwtAuthenticationFilterBenchmarkTest {
+
+    private static final String SECRET = "VGhpcyBpcyBhIHZlcnkgbG9uZyBzZWNyZXQga2V5IGZvciBqd3QgdG9rZW5zIHRoYXQgaXMgYmFzZTY0IGVuY29kZWQ=";
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Should authenticate repeated tokens faster with the claims cache than without it")
+    void filterThroughput() throws Exception {
+        double uncached = opsPerSecond(0);
+        double cached = opsPerSecond(10_000);
+
+        System.out.printf("JwtAuthenticationFilter: %.0f req/s without claims cache, %.0f req/s with claims cache%n",
+            uncached, cached);
+        assertTrue(cached > uncached, "claims cache did not speed up the filter");
+    }
+
+    private double opsPerSecond(int cacheSize) throws Exception {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3600000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", cacheSize);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        Customer customer = new Customer("Bench", "bench@smartdine.com", "password", 123456789L);
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(customer.getEmail())).thenReturn(customer);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+            jwtService, userDetailsService, new PrincipalCache(), mock(HandlerExceptionResolver.class));
+        String header = "Bearer " + jwtService.generateToken(customer);
+
+        for (int i = 0; i < WARMUP; i++) {
+            authenticate(filter, header);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            authenticate(filter, header);
+        }
+        long elapsed = System.nanoTime() - start;
+        return ITERATIONS / (elapsed / 1_000_000_000.0);
+    }
+
+    private void authenticate(JwtAuthenticationFilter filter, String header) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/smartdine/api/me");
+        request.addHeader("Authorization", header);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals("bench@smartdine.com",
+            ((Customer) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getEmail());
+        SecurityContextHolder.clearContext();
+    }
+}
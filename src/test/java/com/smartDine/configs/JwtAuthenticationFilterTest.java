@@ -0,0 +1,138 @@
+package com.smartDine.configs;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Role;
+import com.smartDine.services.JwtService;
+import com.smartDine.services.PrincipalCache;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "VGhpcyBpcyBhIHZlcnkgbG9uZyBzZWNyZXQga2V5IGZvciBqd3QgdG9rZW5zIHRoYXQgaXMgYmFzZTY0IGVuY29kZWQ=";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private HandlerExceptionResolver handlerExceptionResolver;
+
+    private JwtService jwtService;
+    private PrincipalCache principalCache;
+    private JwtAuthenticationFilter filter;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3600000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheSize", 100);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        principalCache = new PrincipalCache();
+        ReflectionTestUtils.setField(principalCache, "ttlMillis", 60000L);
+        ReflectionTestUtils.setField(principalCache, "maxSize", 100);
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, principalCache, handlerExceptionResolver);
+
+        customer = new Customer("Filter Customer", "filter@smartdine.com", "password", 123456789L);
+        customer.setId(7L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should load the user once and serve later requests from the principal cache")
+    void resolvesPrincipalFromCache() throws Exception {
+        when(userDetailsService.loadUserByUsername("filter@smartdine.com")).thenReturn(customer);
+        String token = jwtService.generateToken(customer);
+
+        Object first = authenticate(token);
+        for (int i = 0; i < 4; i++) {
+            Customer principal = assertInstanceOf(Customer.class, authenticate(token));
+            assertEquals(7L, principal.getId());
+            assertEquals("filter@smartdine.com", principal.getEmail());
+            assertEquals(Role.ROLE_CUSTOMER, principal.getRole());
+            assertNotSame(first, principal);
+        }
+
+        verify(userDetailsService, times(1)).loadUserByUsername("filter@smartdine.com");
+    }
+
+    @Test
+    @DisplayName("Should reload the user when the token's role or subtype disagrees with the cached snapshot")
+    void reloadsWhenClaimsDisagree() throws Exception {
+        when(userDetailsService.loadUserByUsername("filter@smartdine.com")).thenReturn(customer);
+        authenticate(jwtService.generateToken(customer));
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(JwtService.CLAIM_USER_ID, customer.getId());
+        claims.put(JwtService.CLAIM_USER_TYPE, JwtService.BUSINESS_TYPE);
+        authenticate(jwtService.generateToken(claims, customer));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("filter@smartdine.com");
+    }
+
+    @Test
+    @DisplayName("Should reload the user after the cached principal is invalidated")
+    void reloadsAfterInvalidation() throws Exception {
+        when(userDetailsService.loadUserByUsername("filter@smartdine.com")).thenReturn(customer);
+        String token = jwtService.generateToken(customer);
+
+        authenticate(token);
+        principalCache.invalidate(customer.getId());
+        authenticate(token);
+
+        verify(userDetailsService, times(2)).loadUserByUsername("filter@smartdine.com");
+    }
+
+    @Test
+    @DisplayName("Should fall back to a lookup by email for tokens issued without a user id")
+    void loadsUsersForTokensWithoutId() throws Exception {
+        when(userDetailsService.loadUserByUsername("filter@smartdine.com")).thenReturn(customer);
+        String token = jwtService.generateToken(new HashMap<>(), customer);
+
+        authenticate(token);
+        authenticate(token);
+
+        verify(userDetailsService, times(2)).loadUserByUsername("filter@smartdine.com");
+        assertEquals(0, (int) ReflectionTestUtils.invokeMethod(principalCache, "size"));
+    }
+
+    private Object authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/smartdine/api/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
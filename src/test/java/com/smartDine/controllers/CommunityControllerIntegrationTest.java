@@ -23,7 +23,7 @@ import org.springframework.test.context.ActiveProfiles;
 import com.smartDine.dto.CommunityDTO;
 import com.smartDine.dto.CreateCommunityDTO;
 import com.smartDine.dto.MemberDTO;
-import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Community;
 import com.smartDine.entity.Customer;
@@ -138,24 +138,29 @@ public class CommunityControllerIntegrationTest {
     }
 
     @Test
-    public void uploadCommunityImage_shouldReturnUploadResponse() throws IOException {
+    public void uploadCommunityImage_shouldReturnUploadTicket() throws IOException {
         MockMultipartFile file = new MockMultipartFile(
                 "file",
                 "test-image.jpg",
                 "image/jpeg",
                 "test image content".getBytes());
 
-        UploadResponse mockResponse = new UploadResponse(
+        UploadTicketDTO mockResponse = new UploadTicketDTO(
+                "ticket-1",
                 "communities/100/images/test-uuid.jpg",
+                UploadTicketDTO.Status.COMPLETED,
+                1,
                 "https://smartdine-s3-bucket.s3.amazonaws.com/communities/100/images/test-uuid.jpg",
                 "image/jpeg",
-                file.getSize());
+                file.getSize(),
+                null);
 
         when(communityService.uploadCommunityImage(eq(100L), any(), eq(sampleOwner))).thenReturn(mockResponse);
 
-        ResponseEntity<UploadResponse> resp = communityController.uploadCommunityImage(100L, file, sampleOwner);
+        ResponseEntity<UploadTicketDTO> resp = communityController.uploadCommunityImage(100L, file, sampleOwner);
 
-        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(HttpStatus.ACCEPTED, resp.getStatusCode());
+        assertEquals("/smartdine/api/uploads/ticket-1", resp.getHeaders().getLocation().toString());
         assertNotNull(resp.getBody());
         assertNotNull(resp.getBody().getKey());
         assertNotNull(resp.getBody().getUrl());
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.verify;
@@ -20,6 +21,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -28,6 +30,8 @@ import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.method.support.ModelAndViewContainer;
 
+import com.smartDine.dto.community.post.CommunityPostResponseDTO;
+import com.smartDine.dto.community.post.CommunityPostSearchResultDTO;
 import com.smartDine.entity.Community;
 import com.smartDine.entity.CommunityType;
 import com.smartDine.entity.Customer;
@@ -134,6 +138,38 @@ public class CommunityPostsControllerTest {
         verify(communityPostService).getPostsByMember(anyLong(), any(), any());
     }
 
+    @Test
+    void getFeedShouldReturnNextCursorWhenPageIsFull() throws Exception {
+        LocalDateTime publishedAt = LocalDateTime.of(2025, 5, 1, 12, 0);
+        CommunityPost newer = createTestPost(7L, "Newer", "Body");
+        newer.setPublishedAt(publishedAt.plusHours(1));
+        CommunityPost older = createTestPost(6L, "Older", "Body");
+        older.setPublishedAt(publishedAt);
+        when(communityPostService.getFeed(eq(1L), eq(null), eq(2), eq(5L)))
+                .thenReturn(CommunityPostResponseDTO.fromEntity(List.of(newer, older)));
+
+        mockMvc.perform(get("/smartdine/api/communities/1/feed").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[0].authorName").value("Tester"))
+                .andExpect(header().string(CommunityPostsController.NEXT_CURSOR_HEADER, publishedAt + "_6"));
+    }
+
+    @Test
+    void searchPostsShouldReturnRankedResultsWithSnippets() throws Exception {
+        CommunityPost post = createTestPost(8L, "Paella", "La mejor paella");
+        when(communityPostService.searchPosts(1L, "paella", 1, 10, 5L))
+                .thenReturn(List.of(CommunityPostSearchResultDTO.fromEntity(post, "La mejor <mark>paella</mark>")));
+
+        mockMvc.perform(get("/smartdine/api/communities/1/posts/search")
+                        .param("q", "paella")
+                        .param("page", "1")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(8))
+                .andExpect(jsonPath("$[0].snippet").value("La mejor <mark>paella</mark>"));
+    }
+
     @Test
     void deletePostShouldReturnNoContent() throws Exception {
         mockMvc.perform(delete("/smartdine/api/communities/posts/4"))
@@ -24,6 +24,7 @@ import com.smartDine.dto.CustomerSearchDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Customer;
 import com.smartDine.services.CustomerService;
+import com.smartDine.services.FriendSuggestionService;
 import com.smartDine.services.FriendshipRequestService;
 import com.smartDine.services.FriendshipService;
 
@@ -39,6 +40,9 @@ class CustomerControllerTest {
     @Mock
     private FriendshipRequestService friendshipRequestService;
 
+    @Mock
+    private FriendSuggestionService friendSuggestionService;
+
     @InjectMocks
     private CustomerController customerController;
 
@@ -235,5 +239,61 @@ class CustomerControllerTest {
             // Verify that searchCustomers was called with the authenticated user's ID to exclude
             verify(customerService).searchCustomers("test", 1L);
         }
+    
+        @Test
+        @DisplayName("Should rank friends first and then customers by mutual friends")
+        void searchCustomersRankedBySocialDistance() {
+            Customer otherCustomer3 = new Customer();
+            otherCustomer3.setId(5L);
+            otherCustomer3.setName("Juan López");
+            when(customerService.getCustomerById(1L)).thenReturn(authenticatedCustomer);
+            when(customerService.searchCustomers("juan", 1L)).thenReturn(List.of(otherCustomer1, otherCustomer2, otherCustomer3));
+            when(friendshipService.areFriends(authenticatedCustomer, otherCustomer1)).thenReturn(false);
+            when(friendshipService.areFriends(authenticatedCustomer, otherCustomer2)).thenReturn(false);
+            when(friendshipService.areFriends(authenticatedCustomer, otherCustomer3)).thenReturn(true);
+            when(friendSuggestionService.getMutualFriends(1L, 2L)).thenReturn(1);
+            when(friendSuggestionService.getMutualFriends(1L, 3L)).thenReturn(4);
+
+            ResponseEntity<List<CustomerSearchDTO>> response = customerController.searchCustomers("juan", authenticatedCustomer);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(List.of(5L, 3L, 2L), response.getBody().stream().map(CustomerSearchDTO::getId).toList());
+            assertEquals(FriendSuggestionService.FRIEND, response.getBody().get(0).getSocialDistance());
+            assertEquals(4, response.getBody().get(1).getMutualFriends());
+            assertEquals(FriendSuggestionService.FRIEND_OF_FRIEND, response.getBody().get(2).getSocialDistance());
+        }
+    }
+
+    @Nested
+    @DisplayName("Suggest Friends - GET /customers/suggestions")
+    class SuggestFriendsTests {
+
+        @Test
+        @DisplayName("Should return suggestions with their mutual friends")
+        void suggestFriendsSuccess() {
+            when(friendSuggestionService.getSuggestions(1L, 10)).thenReturn(List.of(
+                new FriendSuggestionService.Suggestion(3L, 2), new FriendSuggestionService.Suggestion(2L, 1)));
+            when(customerService.getCustomersByIds(List.of(3L, 2L))).thenReturn(List.of(otherCustomer1, otherCustomer2));
+
+            ResponseEntity<List<CustomerSearchDTO>> response = customerController.suggestFriends(10, authenticatedCustomer);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(List.of(3L, 2L), response.getBody().stream().map(CustomerSearchDTO::getId).toList());
+            assertEquals(2, response.getBody().get(0).getMutualFriends());
+        }
+
+        @Test
+        @DisplayName("Should return BAD_REQUEST when limit is out of range")
+        void suggestFriendsBadLimit() {
+            assertEquals(HttpStatus.BAD_REQUEST, customerController.suggestFriends(0, authenticatedCustomer).getStatusCode());
+            assertEquals(HttpStatus.BAD_REQUEST,
+                customerController.suggestFriends(CustomerController.MAX_SUGGESTIONS + 1, authenticatedCustomer).getStatusCode());
+        }
+
+        @Test
+        @DisplayName("Should return FORBIDDEN when user is a business")
+        void suggestFriendsForbiddenForBusiness() {
+            assertEquals(HttpStatus.FORBIDDEN, customerController.suggestFriends(10, business).getStatusCode());
+        }
     }
 }
@@ -39,7 +39,7 @@ import com.smartDine.dto.DishDTO;
 import com.smartDine.dto.DrinkDTO;
 import com.smartDine.dto.UpdateDishDTO;
 import com.smartDine.dto.UpdateDrinkDTO;
-import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.CourseType;
 import com.smartDine.entity.Dish;
@@ -268,17 +268,21 @@ public class MenuItemControllerTest {
         String expectedKeyName = "restaurants/1/menu-items/10/images/test-uuid.jpg";
         String expectedUrl = "https://smartdine-s3-bucket.s3.amazonaws.com/" + expectedKeyName;
 
-        // Mock uploadMenuItemImage to return [keyName, url]
+        // Mock uploadMenuItemImage to return a completed ticket
         when(menuItemService.uploadMenuItemImage(eq(restaurantId), eq(menuItemId), any(MultipartFile.class), eq(businessOwner)))
-            .thenReturn(new UploadResponse(
+            .thenReturn(new UploadTicketDTO(
+                "ticket-1",
                 expectedKeyName,
+                UploadTicketDTO.Status.COMPLETED,
+                1,
                 expectedUrl,
                 "image/jpeg",
-                testImageFile.getSize()
+                testImageFile.getSize(),
+                null
             ));
 
         // When
-        ResponseEntity<UploadResponse> response = menuItemController.uploadMenuItemImage(
+        ResponseEntity<UploadTicketDTO> response = menuItemController.uploadMenuItemImage(
             restaurantId,
             menuItemId,
             testImageFile,
@@ -287,9 +291,10 @@ public class MenuItemControllerTest {
 
         // Then
         assertNotNull(response, "Response should not be null");
-        assertEquals(HttpStatus.CREATED, response.getStatusCode(), "Should return CREATED status");
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode(), "Should return ACCEPTED status");
+        assertEquals("/smartdine/api/uploads/ticket-1", response.getHeaders().getLocation().toString());
         
-        UploadResponse body = response.getBody();
+        UploadTicketDTO body = response.getBody();
         assertNotNull(body, "Response body should not be null");
         assertEquals(expectedKeyName, body.getKey(), "Key should match expected");
         assertEquals(expectedUrl, body.getUrl(), "URL should match expected");
@@ -327,7 +332,7 @@ public class MenuItemControllerTest {
         );
 
         // When
-        ResponseEntity<UploadResponse> response = menuItemController.uploadMenuItemImage(
+        ResponseEntity<UploadTicketDTO> response = menuItemController.uploadMenuItemImage(
             restaurantId,
             menuItemId,
             emptyFile,
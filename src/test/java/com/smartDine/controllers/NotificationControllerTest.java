@@ -1,10 +1,12 @@
 package com.smartDine.controllers;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +20,7 @@ import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.smartDine.dto.NotificationDTO;
 import com.smartDine.entity.Customer;
@@ -25,6 +28,7 @@ import com.smartDine.entity.Notification;
 import com.smartDine.entity.Request;
 import com.smartDine.entity.RequestType;
 import com.smartDine.services.NotificationService;
+import com.smartDine.services.NotificationStreamService;
 
 @ExtendWith(MockitoExtension.class)
 class NotificationControllerTest {
@@ -32,6 +36,9 @@ class NotificationControllerTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private NotificationStreamService notificationStreamService;
+
     @InjectMocks
     private NotificationController notificationController;
 
@@ -202,4 +209,79 @@ class NotificationControllerTest {
             }
         }
     }
+
+    // ========== Stream My Notifications Tests ==========
+    @Nested
+    @DisplayName("Stream My Notifications - GET /me/notifications/stream")
+    class StreamMyNotificationsTests {
+
+        @Test
+        @DisplayName("Should return UNAUTHORIZED when user is null")
+        void streamUnauthorized() {
+            ResponseEntity<SseEmitter> response = notificationController.streamMyNotifications(null, null);
+
+            assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        }
+
+        @Test
+        @DisplayName("Should open a stream that resumes after the last event id")
+        void streamResumesAfterLastEventId() {
+            SseEmitter emitter = new SseEmitter();
+            when(notificationStreamService.newEmitter()).thenReturn(emitter);
+
+            ResponseEntity<SseEmitter> response = notificationController.streamMyNotifications(customer, 10L);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(emitter, response.getBody());
+            verify(notificationStreamService).subscribe(customer, 10L, emitter);
+        }
+    }
+
+    // ========== Inbox Tests ==========
+    @Nested
+    @DisplayName("Inbox - GET /me/notifications/inbox, unread-count and read-all")
+    class InboxTests {
+
+        @Test
+        @DisplayName("Should return the cursor of the next page when the page is full")
+        void inboxFullPageHasNextCursor() {
+            NotificationDTO last = NotificationDTO.fromEntity(notification);
+            last.setDate(LocalDateTime.of(2025, 5, 1, 10, 30));
+            when(notificationService.getInboxPage(customer, null, 1, false)).thenReturn(List.of(last));
+
+            ResponseEntity<List<NotificationDTO>> response = notificationController.getMyInbox(customer, null, 1, false);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals("2025-05-01T10:30_10", response.getHeaders().getFirst(NotificationController.NEXT_CURSOR_HEADER));
+        }
+
+        @Test
+        @DisplayName("Should not return a cursor on the last page")
+        void inboxLastPageHasNoCursor() {
+            when(notificationService.getInboxPage(customer, null, 20, true)).thenReturn(Collections.emptyList());
+
+            ResponseEntity<List<NotificationDTO>> response = notificationController.getMyInbox(customer, null, 20, true);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNull(response.getHeaders().getFirst(NotificationController.NEXT_CURSOR_HEADER));
+        }
+
+        @Test
+        @DisplayName("Should return the unread count and mark everything as read")
+        void unreadCountAndReadAll() {
+            when(notificationService.getUnreadCount(customer)).thenReturn(4L);
+
+            assertEquals(4L, notificationController.getMyUnreadCount(customer).getBody());
+            assertEquals(HttpStatus.NO_CONTENT, notificationController.markAllMyNotificationsAsRead(customer).getStatusCode());
+            verify(notificationService).markAllAsRead(customer);
+        }
+
+        @Test
+        @DisplayName("Should return UNAUTHORIZED when user is null")
+        void inboxUnauthorized() {
+            assertEquals(HttpStatus.UNAUTHORIZED, notificationController.getMyInbox(null, null, 20, false).getStatusCode());
+            assertEquals(HttpStatus.UNAUTHORIZED, notificationController.getMyUnreadCount(null).getStatusCode());
+            assertEquals(HttpStatus.UNAUTHORIZED, notificationController.markAllMyNotificationsAsRead(null).getStatusCode());
+        }
+    }
 }
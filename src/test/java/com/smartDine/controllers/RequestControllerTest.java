@@ -1,10 +1,12 @@
 package com.smartDine.controllers;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -22,6 +24,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import com.smartDine.dto.FriendDTO;
+import com.smartDine.dto.NotificationCursor;
 import com.smartDine.dto.RequestCreationDTO;
 import com.smartDine.dto.RequestDTO;
 import com.smartDine.entity.Business;
@@ -237,6 +240,62 @@ class RequestControllerTest {
         }
     }
 
+    // ========== Pending Requests Inbox Tests ==========
+    @Nested
+    @DisplayName("Pending Requests Inbox - GET /me/requests/inbox and /me/requests/count")
+    class PendingRequestsInboxTests {
+
+        private RequestDTO incoming(Long id, LocalDateTime date) {
+            return new RequestDTO(id, 2L, "Test Friend", "friend@test.com", 1L, "Test Customer",
+                RequestType.FRIEND_REQUEST, RequestStatus.PENDING, date);
+        }
+
+        @Test
+        @DisplayName("Should return the next cursor when the page is full")
+        void getInboxFullPage() {
+            LocalDateTime date = LocalDateTime.of(2025, 5, 1, 12, 0);
+            List<RequestDTO> page = List.of(incoming(12L, date), incoming(11L, date.minusHours(1)));
+            when(friendshipRequestService.getPendingRequestsPage(customer, null, 2)).thenReturn(page);
+
+            ResponseEntity<List<RequestDTO>> response = requestController.getPendingRequestsInbox(customer, null, 2);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(page, response.getBody());
+            assertEquals(new NotificationCursor(date.minusHours(1), 11L).toString(),
+                response.getHeaders().getFirst(NotificationController.NEXT_CURSOR_HEADER));
+        }
+
+        @Test
+        @DisplayName("Should omit the next cursor on the last page")
+        void getInboxLastPage() {
+            when(friendshipRequestService.getPendingRequestsPage(customer, "cursor", 20))
+                .thenReturn(List.of(incoming(11L, LocalDateTime.of(2025, 5, 1, 12, 0))));
+
+            ResponseEntity<List<RequestDTO>> response = requestController.getPendingRequestsInbox(customer, "cursor", 20);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNull(response.getHeaders().getFirst(NotificationController.NEXT_CURSOR_HEADER));
+        }
+
+        @Test
+        @DisplayName("Should return the pending count")
+        void getPendingCount() {
+            when(friendshipRequestService.getPendingCount(customer)).thenReturn(3L);
+
+            ResponseEntity<Long> response = requestController.getPendingRequestsCount(customer);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(3L, response.getBody());
+        }
+
+        @Test
+        @DisplayName("Should return FORBIDDEN when user is Business")
+        void getInboxForbiddenForBusiness() {
+            assertEquals(HttpStatus.FORBIDDEN, requestController.getPendingRequestsInbox(business, null, 20).getStatusCode());
+            assertEquals(HttpStatus.FORBIDDEN, requestController.getPendingRequestsCount(business).getStatusCode());
+        }
+    }
+
     // ========== Accept Request Tests ==========
     @Nested
     @DisplayName("Accept Request - POST /requests/{id}/accept")
@@ -3,6 +3,7 @@ package com.smartDine.controllers;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -12,16 +13,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.BadCredentialsException;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartDine.dto.AddParticipantRequestDTO;
 import com.smartDine.dto.ProfileDTO;
 import com.smartDine.dto.ReservationDTO;
@@ -50,6 +56,9 @@ class ReservationControllerTest {
     @Mock
     private CustomerService customerService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private ReservationController reservationController;
 
@@ -135,7 +144,7 @@ class ReservationControllerTest {
     @Test
     void getMyReservationsReturnsListForCustomer() {
         when(customerService.getCustomerById(1L)).thenReturn(customer);
-        when(reservationService.getAllReservationsForCustomer(1L)).thenReturn(List.of(reservation));
+        when(reservationService.getReservationDetailsForCustomer(1L)).thenReturn(ReservationDetailsDTO.fromEntity(List.of(reservation)));
 
         ResponseEntity<List<ReservationDetailsDTO>> response = reservationController.getMyReservations(customer);
 
@@ -184,7 +193,7 @@ class ReservationControllerTest {
 
         // Mock: Service returns both owned and participated reservations
         when(customerService.getCustomerById(1L)).thenReturn(customer);
-        when(reservationService.getAllReservationsForCustomer(1L)).thenReturn(List.of(reservation, participatedReservation));
+        when(reservationService.getReservationDetailsForCustomer(1L)).thenReturn(ReservationDetailsDTO.fromEntity(List.of(reservation, participatedReservation)));
 
         ResponseEntity<List<ReservationDetailsDTO>> response = reservationController.getMyReservations(customer);
 
@@ -204,7 +213,7 @@ class ReservationControllerTest {
     void getMyReservationsRemovesDuplicatesWhenUserOwnsAndParticipatesInSameReservation() {
         // Edge case: Service handles duplicate removal
         when(customerService.getCustomerById(1L)).thenReturn(customer);
-        when(reservationService.getAllReservationsForCustomer(1L)).thenReturn(List.of(reservation));
+        when(reservationService.getReservationDetailsForCustomer(1L)).thenReturn(ReservationDetailsDTO.fromEntity(List.of(reservation)));
 
         ResponseEntity<List<ReservationDetailsDTO>> response = reservationController.getMyReservations(customer);
 
@@ -231,7 +240,7 @@ class ReservationControllerTest {
         participatedReservation.setStatus(ReservationStatus.CONFIRMED);
 
         when(customerService.getCustomerById(1L)).thenReturn(customer);
-        when(reservationService.getAllReservationsForCustomer(1L)).thenReturn(List.of(participatedReservation));
+        when(reservationService.getReservationDetailsForCustomer(1L)).thenReturn(ReservationDetailsDTO.fromEntity(List.of(participatedReservation)));
 
         ResponseEntity<List<ReservationDetailsDTO>> response = reservationController.getMyReservations(customer);
 
@@ -244,7 +253,7 @@ class ReservationControllerTest {
     @Test
     void getRestaurantReservationsAsCustomerThrowsBadCredentials() {
         assertThrows(BadCredentialsException.class, () -> 
-            reservationController.getRestaurantReservations(10L, reservationDate, customer)
+            reservationController.getRestaurantReservations(10L, reservationDate, null, null, customer)
         );
     }
 
@@ -254,11 +263,11 @@ class ReservationControllerTest {
         businessUser.setId(5L);
         businessUser.setName("Business Owner");
 
-        when(reservationService.getReservationsByRestaurantAndDate(eq(10L), eq(reservationDate), any(Business.class)))
-            .thenReturn(List.of(reservation));
+        when(reservationService.getReservationPage(eq(10L), eq(reservationDate), any(Business.class), isNull(), isNull()))
+            .thenReturn(RestaurantReservationDTO.fromEntity(List.of(reservation)));
 
         ResponseEntity<List<RestaurantReservationDTO>> response = 
-            reservationController.getRestaurantReservations(10L, reservationDate, businessUser);
+            reservationController.getRestaurantReservations(10L, reservationDate, null, null, businessUser);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
@@ -276,10 +285,46 @@ class ReservationControllerTest {
     @Test
     void getRestaurantReservationsWithNullUserReturnsUnauthorized() {
         ResponseEntity<List<RestaurantReservationDTO>> response = 
-            reservationController.getRestaurantReservations(10L, reservationDate, null);
+            reservationController.getRestaurantReservations(10L, reservationDate, null, null, null);
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
     }
 
+    @Test
+    void getRestaurantReservationsWithFullPageReturnsNextCursor() {
+        Business businessUser = new Business();
+        businessUser.setId(5L);
+
+        when(reservationService.getReservationPage(eq(10L), eq(reservationDate), any(Business.class), isNull(), eq(1)))
+            .thenReturn(RestaurantReservationDTO.fromEntity(List.of(reservation)));
+
+        ResponseEntity<List<RestaurantReservationDTO>> response =
+            reservationController.getRestaurantReservations(10L, reservationDate, null, 1, businessUser);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("12.0:40", response.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    void streamRestaurantReservationsWritesOneJsonObjectPerLine() throws Exception {
+        Business businessUser = new Business();
+        businessUser.setId(5L);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        doAnswer(invocation -> {
+            Consumer<RestaurantReservationDTO> consumer = invocation.getArgument(3);
+            consumer.accept(RestaurantReservationDTO.fromEntity(reservation));
+            consumer.accept(RestaurantReservationDTO.fromEntity(reservation));
+            return null;
+        }).when(reservationService).streamReservations(eq(10L), eq(reservationDate), any(Business.class), any());
+
+        reservationController.streamRestaurantReservations(10L, reservationDate, businessUser, servletResponse);
+
+        String[] lines = servletResponse.getContentAsString().split("\n");
+        assertEquals("application/x-ndjson", servletResponse.getContentType());
+        assertEquals(2, lines.length);
+        assertEquals(40L, objectMapper.readTree(lines[0]).get("id").asLong());
+    }
+
     // ==================== updateReservationStatus Tests ====================
 
     @Test
@@ -51,9 +51,9 @@ public class RestaurantControllerIntegrationTest {
 
     @Test
     public void getRestaurants_publicEndpoint_shouldReturnList() {
-        when(restaurantService.getRestaurants(null)).thenReturn(List.of(sampleRestaurant));
+        when(restaurantService.getRestaurants(null, 0, 20)).thenReturn(List.of(sampleRestaurant));
 
-        ResponseEntity<List<RestaurantDTO>> resp = restaurantController.getRestaurants(null);
+        ResponseEntity<List<RestaurantDTO>> resp = restaurantController.getRestaurants(null, 0, 20);
 
         assertEquals(HttpStatus.OK, resp.getStatusCode());
         assertNotNull(resp.getBody());
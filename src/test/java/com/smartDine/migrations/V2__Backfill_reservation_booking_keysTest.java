@@ -0,0 +1,97 @@
+package com.smartDine.migrations;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import com.smartDine.entity.Business;
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Reservation;
+import com.smartDine.entity.ReservationStatus;
+import com.smartDine.entity.Restaurant;
+import com.smartDine.entity.RestaurantTable;
+import com.smartDine.entity.TimeSlot;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+class V2__Backfill_reservation_booking_keysTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Should key the oldest non-cancelled reservation of each slot and leave the rest unkeyed")
+    void backfillsBookingKeys() throws Exception {
+        Business owner = new Business("Owner", "owner@example.com", "password", 111111111L);
+        owner.setRestaurants(new ArrayList<>());
+        entityManager.persist(owner);
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Restaurant");
+        restaurant.setAddress("1 Main St");
+        restaurant.setDescription("Description");
+        restaurant.setOwner(owner);
+        entityManager.persist(restaurant);
+        TimeSlot slot = new TimeSlot();
+        slot.setRestaurant(restaurant);
+        slot.setDayOfWeek(DayOfWeek.MONDAY);
+        slot.setStartTime(13.0);
+        slot.setEndTime(15.0);
+        entityManager.persist(slot);
+        RestaurantTable table = new RestaurantTable();
+        table.setRestaurant(restaurant);
+        table.setNumber(1);
+        table.setCapacity(4);
+        table.setOutside(false);
+        entityManager.persist(table);
+        Customer customer = new Customer("Customer", "customer@example.com", "password", 222222222L);
+        customer.setReservations(new ArrayList<>());
+        entityManager.persist(customer);
+
+        LocalDate date = LocalDate.of(2030, 1, 7);
+        Reservation cancelled = reservation(customer, restaurant, slot, table, date, ReservationStatus.CANCELLED);
+        Reservation oldest = reservation(customer, restaurant, slot, table, date, ReservationStatus.CONFIRMED);
+        Reservation duplicate = reservation(customer, restaurant, slot, table, date, ReservationStatus.COMPLETED);
+        Reservation otherDay = reservation(customer, restaurant, slot, table, date.plusWeeks(1), ReservationStatus.CONFIRMED);
+        entityManager.flush();
+        entityManager.clear();
+
+        int updated = new V2__Backfill_reservation_booking_keys().backfill(DataSourceUtils.getConnection(dataSource));
+
+        assertEquals(2, updated);
+        assertNull(entityManager.find(Reservation.class, cancelled.getId()).getBookingKey());
+        assertEquals(Reservation.bookingKey(table.getId(), date, slot.getId()),
+            entityManager.find(Reservation.class, oldest.getId()).getBookingKey());
+        assertNull(entityManager.find(Reservation.class, duplicate.getId()).getBookingKey());
+        assertEquals(Reservation.bookingKey(table.getId(), date.plusWeeks(1), slot.getId()),
+            entityManager.find(Reservation.class, otherDay.getId()).getBookingKey());
+    }
+
+    private Reservation reservation(Customer customer, Restaurant restaurant, TimeSlot slot, RestaurantTable table,
+            LocalDate date, ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setCustomer(customer);
+        reservation.setRestaurant(restaurant);
+        reservation.setTimeSlot(slot);
+        reservation.setRestaurantTable(table);
+        reservation.setNumGuests(2);
+        reservation.setDate(date);
+        reservation.setCreatedAt(LocalDate.now());
+        reservation.setStatus(status);
+        entityManager.persist(reservation);
+        return reservation;
+    }
+}
@@ -0,0 +1,69 @@
+package com.smartDine.migrations;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Request;
+import com.smartDine.entity.RequestType;
+
+import jakarta.persistence.EntityManager;
+
+@DataJpaTest
+class V3__Backfill_request_pending_keysTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Should key the oldest pending request of each pair and leave the rest unkeyed")
+    void backfillsPendingKeys() throws Exception {
+        Customer ana = customer("Ana", "ana@example.com", 333333331L);
+        Customer luis = customer("Luis", "luis@example.com", 333333332L);
+        Customer eva = customer("Eva", "eva@example.com", 333333333L);
+
+        Request oldest = unkeyed(new Request(luis, ana, RequestType.FRIEND_REQUEST));
+        Request reversed = unkeyed(new Request(ana, luis, RequestType.FRIEND_REQUEST));
+        Request accepted = new Request(ana, eva, RequestType.FRIEND_REQUEST);
+        accepted.accept();
+        entityManager.persist(accepted);
+        Request other = unkeyed(new Request(eva, luis, RequestType.FRIEND_REQUEST));
+        entityManager.flush();
+        entityManager.clear();
+
+        int updated = new V3__Backfill_request_pending_keys().backfill(DataSourceUtils.getConnection(dataSource));
+
+        assertEquals(2, updated);
+        assertEquals(Request.pendingKey(RequestType.FRIEND_REQUEST, ana.getId(), luis.getId()),
+            entityManager.find(Request.class, oldest.getId()).getPendingKey());
+        assertNull(entityManager.find(Request.class, reversed.getId()).getPendingKey());
+        assertNull(entityManager.find(Request.class, accepted.getId()).getPendingKey());
+        assertEquals(Request.pendingKey(RequestType.FRIEND_REQUEST, eva.getId(), luis.getId()),
+            entityManager.find(Request.class, other.getId()).getPendingKey());
+    }
+
+    private Customer customer(String name, String email, long phone) {
+        Customer customer = new Customer(name, email, "password", phone);
+        entityManager.persist(customer);
+        return customer;
+    }
+
+    /**
+     * Stores a pending request as it was stored before pending keys existed.
+     */
+    private Request unkeyed(Request request) {
+        request.setPendingKey(null);
+        entityManager.persist(request);
+        return request;
+    }
+}
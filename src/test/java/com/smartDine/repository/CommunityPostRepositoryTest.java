@@ -80,4 +80,22 @@ public class CommunityPostRepositoryTest {
         var results = communityPostRepository.findByAuthor(member);
         assertEquals(2, results.size());
     }
+
+    @Test
+    void findSearchDocumentsShouldProjectIndexedFields() {
+        var documents = communityPostRepository.findSearchDocuments();
+        assertEquals(2, documents.size());
+        var first = documents.stream().filter(d -> d.getTitle().equals("First title")).findFirst().orElseThrow();
+        assertEquals(community.getId(), first.getCommunityId());
+        assertEquals(member.getId(), first.getAuthorId());
+        assertEquals("A description about spring data", first.getDescription());
+    }
+
+    @Test
+    void findAllWithAuthorByIdInShouldFetchAuthors() {
+        var ids = communityPostRepository.findAll().stream().map(CommunityPost::getId).toList();
+        var results = communityPostRepository.findAllWithAuthorByIdIn(ids);
+        assertEquals(2, results.size());
+        assertEquals("Tester", results.get(0).getAuthor().getUser().getName());
+    }
 }
@@ -0,0 +1,84 @@
+package com.smartDine.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Notification;
+
+@DataJpaTest
+class NotificationRepositoryTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Customer receiver;
+    private List<Notification> notifications;
+
+    @BeforeEach
+    void setUp() {
+        receiver = userRepository.save(new Customer("Receiver", "receiver@example.com", "password", 123456789L));
+        Customer other = userRepository.save(new Customer("Other", "other@example.com", "password", 987654321L));
+
+        // Two notifications share a date so the id breaks the tie
+        notifications = List.of(
+            notification(receiver, "Primera", NOON.minusHours(1)),
+            notification(receiver, "Segunda", NOON),
+            notification(receiver, "Tercera", NOON),
+            notification(receiver, "Cuarta", NOON.plusHours(1)));
+        notificationRepository.saveAll(notifications);
+        notificationRepository.save(notification(other, "Ajena", NOON));
+        notificationRepository.flush();
+    }
+
+    @Test
+    @DisplayName("Should page a user's inbox newest first by date and then id")
+    void pagesInboxByDateAndId() {
+        List<Notification> first = notificationRepository.findInboxPage(
+            receiver.getId(), false, null, null, PageRequest.of(0, 2));
+        assertEquals(List.of("Cuarta", "Tercera"), messages(first));
+
+        Notification last = first.get(1);
+        List<Notification> second = notificationRepository.findInboxPage(
+            receiver.getId(), false, last.getDate(), last.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of("Segunda", "Primera"), messages(second));
+    }
+
+    @Test
+    @DisplayName("Should mark every unread notification of a user as read in one update")
+    void marksAllAsRead() {
+        Notification read = notifications.get(0);
+        read.markAsRead();
+        notificationRepository.saveAndFlush(read);
+
+        assertEquals(3, notificationRepository.markAllAsRead(receiver.getId()));
+
+        assertEquals(0, notificationRepository.countByReceiverIdAndReadFalse(receiver.getId()));
+        assertEquals(0, notificationRepository.findInboxPage(
+            receiver.getId(), true, null, null, PageRequest.of(0, 10)).size());
+        assertEquals(1, notificationRepository.findAll().stream().filter(n -> !n.isRead()).count());
+    }
+
+    private static Notification notification(Customer receiver, String message, LocalDateTime date) {
+        Notification notification = new Notification(receiver, message);
+        notification.setDate(date);
+        return notification;
+    }
+
+    private static List<String> messages(List<Notification> notifications) {
+        return notifications.stream().map(Notification::getMessage).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.smartDine.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import com.smartDine.dto.RequestDTO;
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Request;
+import com.smartDine.entity.RequestStatus;
+import com.smartDine.entity.RequestType;
+
+@DataJpaTest
+class RequestRepositoryTest {
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Customer first;
+    private Customer second;
+
+    @BeforeEach
+    void setUp() {
+        first = userRepository.save(new Customer("First", "first@example.com", "password", 123456789L));
+        second = userRepository.save(new Customer("Second", "second@example.com", "password", 987654321L));
+    }
+
+    @Test
+    @DisplayName("Should reject a second pending request of the same type in either direction")
+    void rejectsDuplicatePendingRequest() {
+        requestRepository.saveAndFlush(new Request(first, second, RequestType.FRIEND_REQUEST));
+
+        assertTrue(requestRepository.existsByPendingKey(
+            Request.pendingKey(RequestType.FRIEND_REQUEST, second.getId(), first.getId())));
+        assertThrows(DataIntegrityViolationException.class,
+            () -> requestRepository.saveAndFlush(new Request(second, first, RequestType.FRIEND_REQUEST)));
+    }
+
+    @Test
+    @DisplayName("Should free the pending key once a request is resolved")
+    void freesPendingKeyWhenResolved() {
+        Request request = requestRepository.saveAndFlush(new Request(first, second, RequestType.FRIEND_REQUEST));
+        request.reject();
+        requestRepository.saveAndFlush(request);
+
+        String key = Request.pendingKey(RequestType.FRIEND_REQUEST, first.getId(), second.getId());
+        assertFalse(requestRepository.existsByPendingKey(key));
+
+        requestRepository.saveAndFlush(new Request(second, first, RequestType.FRIEND_REQUEST));
+        requestRepository.saveAndFlush(new Request(first, second, RequestType.COMMUNITY_INVITE));
+        assertTrue(requestRepository.existsByPendingKey(key));
+    }
+
+    @Test
+    @DisplayName("Should page pending requests of a receiver with their senders, newest first")
+    void pagesPendingInboxWithSenders() {
+        LocalDateTime noon = LocalDateTime.of(2025, 5, 1, 12, 0);
+        Customer third = userRepository.save(new Customer("Third", "third@example.com", "password", 555555555L));
+        Customer fourth = userRepository.save(new Customer("Fourth", "fourth@example.com", "password", 444444444L));
+        Request oldest = request(first, noon.minusHours(1));
+        Request tied = request(third, noon);
+        Request newest = request(fourth, noon);
+        Request resolved = new Request(second, first, RequestType.FRIEND_REQUEST);
+        resolved.accept();
+        requestRepository.saveAllAndFlush(List.of(oldest, tied, newest, resolved));
+
+        List<RequestDTO> page = requestRepository.findInboxPage(second.getId(), RequestType.FRIEND_REQUEST,
+            RequestStatus.PENDING, null, null, PageRequest.of(0, 2));
+        assertEquals(List.of(newest.getId(), tied.getId()), page.stream().map(RequestDTO::getId).toList());
+        assertEquals("Fourth", page.get(0).getSenderName());
+        assertEquals("fourth@example.com", page.get(0).getSenderEmail());
+
+        RequestDTO last = page.get(1);
+        List<RequestDTO> next = requestRepository.findInboxPage(second.getId(), RequestType.FRIEND_REQUEST,
+            RequestStatus.PENDING, last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+        assertEquals(List.of(oldest.getId()), next.stream().map(RequestDTO::getId).toList());
+        assertEquals(3, requestRepository.countByReceiverIdAndRequestTypeAndStatus(
+            second.getId(), RequestType.FRIEND_REQUEST, RequestStatus.PENDING));
+    }
+
+    private Request request(Customer sender, LocalDateTime date) {
+        Request request = new Request(sender, second, RequestType.FRIEND_REQUEST);
+        request.setDate(date);
+        return request;
+    }
+}
@@ -0,0 +1,140 @@
+package com.smartDine.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import com.smartDine.dto.community.post.CommunityPostCursor;
+import com.smartDine.dto.community.post.CommunityPostResponseDTO;
+import com.smartDine.entity.Community;
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Member;
+import com.smartDine.entity.community.CommunityPost;
+import com.smartDine.repository.CommunityPostRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CommunityFeedTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+    @Mock
+    private CommunityPostRepository communityPostRepository;
+
+    // Stored posts of community 1
+    private final List<CommunityPost> posts = new ArrayList<>();
+
+    private Community community;
+    private Member author;
+    private CommunityFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        community = new Community();
+        community.setId(1L);
+        Customer user = new Customer();
+        user.setId(5L);
+        user.setName("Autora");
+        author = new Member();
+        author.setId(10L);
+        author.setUser(user);
+
+        // Posts 1 to 5, one hour apart; posts 4 and 5 share a date so the id breaks the tie
+        for (long id = 1; id <= 5; id++) {
+            posts.add(post(id, NOON.plusHours(Math.min(id, 4))));
+        }
+        lenient().when(communityPostRepository.findFeedPage(eq(1L), any(), any(), any(Pageable.class)))
+            .thenAnswer(invocation -> page(invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3)));
+
+        feed = new CommunityFeed(communityPostRepository, 3, 10, 60_000);
+    }
+
+    @Test
+    @DisplayName("Should serve the top of a feed from memory and load pages past it")
+    void servesTopFromRing() {
+        assertEquals(List.of(5L, 4L), ids(feed.getPage(1L, null, 2)));
+        assertEquals(List.of(5L, 4L, 3L), ids(feed.getPage(1L, null, 3)));
+        verify(communityPostRepository, times(1)).findFeedPage(eq(1L), any(), any(), any(Pageable.class));
+
+        List<CommunityPostResponseDTO> first = feed.getPage(1L, null, 2);
+        List<CommunityPostResponseDTO> second = feed.getPage(1L, CommunityPostCursor.of(first.get(1)), 2);
+        assertEquals(List.of(3L, 2L), ids(second));
+        assertEquals(List.of(1L), ids(feed.getPage(1L, CommunityPostCursor.of(second.get(1)), 2)));
+        verify(communityPostRepository, times(3)).findFeedPage(eq(1L), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should keep the ring up to date with saved and deleted posts")
+    void updatesRing() {
+        feed.getPage(1L, null, 1);
+
+        CommunityPost newest = post(6L, NOON.plusHours(6));
+        posts.add(newest);
+        feed.postSaved(newest);
+        CommunityPost edited = posts.get(3);
+        edited.setTitle("Editado");
+        feed.postSaved(edited);
+        posts.remove(4);
+        feed.postDeleted(1L, 5L);
+
+        List<CommunityPostResponseDTO> top = feed.getPage(1L, null, 2);
+        assertEquals(List.of(6L, 4L), ids(top));
+        assertEquals("Editado", top.get(1).getTitle());
+        verify(communityPostRepository, times(1)).findFeedPage(eq(1L), any(), any(), any(Pageable.class));
+
+        // The ring now holds 6 and 4 only, so a third post needs the database
+        assertEquals(List.of(6L, 4L, 3L), ids(feed.getPage(1L, null, 3)));
+    }
+
+    @Test
+    @DisplayName("Should reload rings once they expire, picking up changes made elsewhere")
+    void expiresRings() throws InterruptedException {
+        feed = new CommunityFeed(communityPostRepository, 3, 10, 1);
+        assertEquals(List.of(5L), ids(feed.getPage(1L, null, 1)));
+
+        // Saved on another node, so this feed is never told about it
+        posts.add(post(6L, NOON.plusHours(6)));
+        Thread.sleep(5);
+
+        assertEquals(List.of(6L), ids(feed.getPage(1L, null, 1)));
+        verify(communityPostRepository, times(2)).findFeedPage(eq(1L), any(), any(), any(Pageable.class));
+    }
+
+    private CommunityPost post(long id, LocalDateTime publishedAt) {
+        CommunityPost post = new CommunityPost();
+        post.setId(id);
+        post.setTitle("Post " + id);
+        post.setDescription("Descripción");
+        post.setPublishedAt(publishedAt);
+        post.setCommunity(community);
+        post.setAuthor(author);
+        return post;
+    }
+
+    private List<CommunityPost> page(LocalDateTime beforeDate, Long beforeId, Pageable pageable) {
+        CommunityPostCursor before = beforeId != null ? new CommunityPostCursor(beforeDate, beforeId) : null;
+        return posts.stream()
+            .sorted(Comparator.comparing(CommunityPost::getPublishedAt).thenComparing(CommunityPost::getId).reversed())
+            .filter(post -> before == null || before.isBefore(CommunityPostResponseDTO.fromEntity(post)))
+            .limit(pageable.getPageSize())
+            .toList();
+    }
+
+    private static List<Long> ids(List<CommunityPostResponseDTO> page) {
+        return page.stream().map(CommunityPostResponseDTO::getId).toList();
+    }
+}
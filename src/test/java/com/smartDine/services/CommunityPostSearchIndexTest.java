@@ -0,0 +1,180 @@
+package com.smartDine.services;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.smartDine.entity.Community;
+import com.smartDine.entity.Member;
+import com.smartDine.entity.community.CommunityPost;
+import com.smartDine.repository.CommunityPostRepository;
+import com.smartDine.repository.CommunityPostRepository.PostSearchDocument;
+
+@ExtendWith(MockitoExtension.class)
+class CommunityPostSearchIndexTest {
+
+    @Mock
+    private CommunityPostRepository communityPostRepository;
+
+    private CommunityPostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CommunityPostSearchIndex(communityPostRepository, false, 0);
+    }
+
+    @Test
+    @DisplayName("Should rank title matches above description matches and repeated words above single ones")
+    void ranksByFieldAndFrequency() {
+        index.put(post(1L, 10L, 20L, "Cena del viernes", "Probamos la paella"));
+        index.put(post(2L, 10L, 20L, "Paella en la playa", "Arroz con marisco"));
+        index.put(post(3L, 10L, 20L, "Ruta de arroces", "Paella valenciana y paella negra"));
+
+        assertEquals(List.of(2L, 3L, 1L), index.search("paella", 10L, null, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should match prefixes, accents and case, and rank posts matching more words first")
+    void matchesPrefixesAndAccents() {
+        index.put(post(1L, 10L, 20L, "Menú de Mesón Andaluz", "Gazpacho y salmorejo"));
+        index.put(post(2L, 10L, 20L, "Sushi en Madrid", "Ramen y gyozas"));
+        index.put(post(3L, 10L, 20L, "Tapas en Madrid", "Salmorejo cordobés"));
+
+        assertEquals(List.of(1L), index.search("MESON", 10L, null, 0, 10));
+        assertEquals(List.of(1L), index.search("anda", 10L, null, 0, 10));
+        assertEquals(List.of(3L, 1L), index.search("salmorejo cordobes", 10L, null, 0, 10));
+        assertTrue(index.search("pizza", 10L, null, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should only return posts of the requested community or author")
+    void filtersByCommunityAndAuthor() {
+        index.put(post(1L, 10L, 20L, "Paella", "Arroz"));
+        index.put(post(2L, 11L, 21L, "Paella", "Arroz"));
+        index.put(post(3L, 10L, 21L, "Paella", "Arroz"));
+
+        assertEquals(List.of(1L, 3L), index.search("paella", 10L, null, 0, 10));
+        assertEquals(List.of(2L, 3L), index.search("paella", null, 21L, 0, 10));
+        assertEquals(List.of(3L), index.search("paella", 10L, 21L, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should page results, ordering equal scores by id")
+    void pagesResults() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(post(id, 10L, 20L, "Quedada " + id, "Cena"));
+        }
+
+        assertEquals(List.of(1L, 2L), index.search("cena", 10L, null, 0, 2));
+        assertEquals(List.of(5L), index.search("cena", 10L, null, 2, 2));
+        assertTrue(index.search("cena", 10L, null, 3, 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replace updated posts and forget deleted ones")
+    void updatesAndRemovesPosts() {
+        index.put(post(1L, 10L, 20L, "Paella", "Arroz"));
+        index.put(post(1L, 10L, 20L, "Pizza", "Masa fina"));
+        index.put(post(2L, 10L, 20L, "Pizza napolitana", "Horno de leña"));
+        index.remove(2L);
+
+        assertTrue(index.search("paella", 10L, null, 0, 10).isEmpty());
+        assertEquals(List.of(1L), index.search("pizza", 10L, null, 0, 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index from the stored posts")
+    void rebuildsFromRepository() {
+        PostSearchDocument document = mock(PostSearchDocument.class);
+        when(document.getId()).thenReturn(7L);
+        when(document.getCommunityId()).thenReturn(10L);
+        when(document.getAuthorId()).thenReturn(20L);
+        when(document.getTitle()).thenReturn("Noche de tapas");
+        when(document.getDescription()).thenReturn("Croquetas caseras");
+        when(communityPostRepository.findSearchDocuments()).thenReturn(List.of(document));
+
+        assertEquals(1, index.rebuild());
+        assertEquals(List.of(7L), index.search("croquetas", 10L, null, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Should keep posts changed while a rebuild reads the database")
+    void keepsChangesDuringRebuild() {
+        PostSearchDocument edited = document(7L, "Noche de tapas", "Croquetas caseras");
+        PostSearchDocument deleted = document(8L, "Paella", "Arroz");
+        PostSearchDocument unchanged = document(9L, "Cocido", "Garbanzos");
+        when(communityPostRepository.findSearchDocuments()).thenAnswer(invocation -> {
+            // Committed after the snapshot below was read
+            index.put(post(7L, 10L, 20L, "Noche de vinos", "Tintos"));
+            index.remove(8L);
+            return List.of(edited, deleted, unchanged);
+        });
+
+        index.rebuild();
+
+        assertTrue(index.search("croquetas", 10L, null, 0, 10).isEmpty());
+        assertEquals(List.of(7L), index.search("vinos", 10L, null, 0, 10));
+        assertTrue(index.search("paella", 10L, null, 0, 10).isEmpty());
+        assertEquals(List.of(9L), index.search("cocido", 10L, null, 0, 10));
+
+        // A later rebuild takes the database as it is again
+        when(communityPostRepository.findSearchDocuments()).thenReturn(List.of(edited, deleted));
+        index.rebuild();
+        assertEquals(List.of(7L), index.search("croquetas", 10L, null, 0, 10));
+        assertEquals(List.of(8L), index.search("paella", 10L, null, 0, 10));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    @DisplayName("Should highlight matching words in an escaped excerpt around the first match")
+    void buildsSnippets() {
+        assertEquals("Probamos la <mark>paella</mark> &amp; el <mark>Pañuelo</mark>",
+            CommunityPostSearchIndex.snippet("Probamos la paella & el Pañuelo", "paella pa"));
+        assertEquals("&lt;b&gt;Sin coincidencias&lt;/b&gt;",
+            CommunityPostSearchIndex.snippet("<b>Sin coincidencias</b>", "paella"));
+
+        String text = "Empezamos con unas cuantas tapas variadas por el centro de la ciudad y, después de mucho "
+            + "caminar, terminamos en un pequeño restaurante junto al puerto donde pedimos una paella "
+            + "enorme que compartimos entre todos mientras caía el sol sobre el mar y la música sonaba "
+            + "de fondo hasta bien entrada la noche, cuando volvimos caminando despacio hacia el hotel";
+        String snippet = CommunityPostSearchIndex.snippet(text, "paella");
+        assertTrue(snippet.startsWith("…"));
+        assertTrue(snippet.endsWith("…"));
+        assertTrue(snippet.contains("<mark>paella</mark>"));
+        assertTrue(snippet.length() < text.length());
+    }
+
+    private static PostSearchDocument document(Long id, String title, String description) {
+        PostSearchDocument document = mock(PostSearchDocument.class);
+        when(document.getId()).thenReturn(id);
+        when(document.getCommunityId()).thenReturn(10L);
+        when(document.getAuthorId()).thenReturn(20L);
+        when(document.getTitle()).thenReturn(title);
+        when(document.getDescription()).thenReturn(description);
+        return document;
+    }
+
+    private static CommunityPost post(Long id, Long communityId, Long authorId, String title, String description) {
+        Community community = new Community();
+        community.setId(communityId);
+        Member author = new Member();
+        author.setId(authorId);
+        CommunityPost post = new CommunityPost();
+        post.setId(id);
+        post.setCommunity(community);
+        post.setAuthor(author);
+        post.setTitle(title);
+        post.setDescription(description);
+        return post;
+    }
+}
@@ -3,6 +3,7 @@ package com.smartDine.services;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -18,10 +19,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.BadCredentialsException;
 
+import com.smartDine.dto.community.post.CommunityPostCursor;
+import com.smartDine.dto.community.post.CommunityPostResponseDTO;
+import com.smartDine.dto.community.post.CommunityPostSearchResultDTO;
 import com.smartDine.dto.community.post.CreateCommunityPostRequestDTO;
 import com.smartDine.dto.community.post.CreateOpenReservationPostDTO;
 import com.smartDine.dto.community.post.UpdateCommunityPostRequestDTO;
@@ -30,7 +35,6 @@ import com.smartDine.entity.CommunityType;
 import com.smartDine.entity.Customer;
 import com.smartDine.entity.Member;
 import com.smartDine.entity.MemberRole;
-import com.smartDine.entity.Notification;
 import com.smartDine.entity.Reservation;
 import com.smartDine.entity.ReservationStatus;
 import com.smartDine.entity.Restaurant;
@@ -62,7 +66,11 @@ public class CommunityPostServiceImplTest {
     @Mock
     private ReservationService reservationService;
     @Mock
-    private NotificationService notificationService;
+    private NotificationOutbox notificationOutbox;
+    @Mock
+    private CommunityFeed communityFeed;
+    @Mock
+    private CommunityPostSearchIndex communityPostSearchIndex;
 
     @InjectMocks
     private CommunityPostServiceImpl communityPostService;
@@ -128,6 +136,85 @@ public class CommunityPostServiceImplTest {
         var response = communityPostService.createPost(user.getId(), requestDTO);
         assertEquals(100L, response.getId());
         assertEquals("Hello", response.getTitle());
+        verify(communityFeed).postSaved(response);
+        verify(communityPostSearchIndex).put(response);
+    }
+
+    @Test
+    void getFeedShouldServePageFromFeedWhenMember() {
+        CommunityPostResponseDTO dto = new CommunityPostResponseDTO();
+        dto.setId(100L);
+        CommunityPostCursor cursor = new CommunityPostCursor(LocalDate.of(2025, 5, 1).atStartOfDay(), 120L);
+        when(communityRepository.findById(community.getId())).thenReturn(Optional.of(community));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(communityMemberRepository.findByUserAndCommunity(user, community)).thenReturn(Optional.of(adminMember));
+        when(communityFeed.getPage(community.getId(), cursor, 20)).thenReturn(List.of(dto));
+
+        var page = communityPostService.getFeed(community.getId(), cursor.toString(), 20, user.getId());
+
+        assertEquals(List.of(dto), page);
+    }
+
+    @Test
+    void getFeedShouldRejectInvalidLimitOrCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> communityPostService.getFeed(community.getId(), null, 0, user.getId()));
+        assertThrows(IllegalArgumentException.class,
+                () -> communityPostService.getFeed(community.getId(), null, CommunityPostServiceImpl.MAX_FEED_PAGE_SIZE + 1, user.getId()));
+        assertThrows(IllegalArgumentException.class,
+                () -> communityPostService.getFeed(community.getId(), "not-a-cursor", 20, user.getId()));
+    }
+
+    @Test
+    void searchPostsShouldReturnRankedPostsWithSnippets() {
+        CommunityPost first = post(101L, "Paella", "La mejor paella de la ciudad");
+        CommunityPost second = post(102L, "Arroces", "Probamos una paella negra");
+        when(communityRepository.findById(community.getId())).thenReturn(Optional.of(community));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(communityMemberRepository.findByUserAndCommunity(user, community)).thenReturn(Optional.of(adminMember));
+        when(communityPostSearchIndex.search("paella", community.getId(), null, 0, 20)).thenReturn(List.of(101L, 102L));
+        // The repository returns the posts in any order
+        when(communityPostRepository.findAllWithAuthorByIdIn(List.of(101L, 102L))).thenReturn(List.of(second, first));
+
+        var results = communityPostService.searchPosts(community.getId(), "paella", 0, 20, user.getId());
+
+        assertEquals(List.of(101L, 102L), results.stream().map(CommunityPostSearchResultDTO::getId).toList());
+        assertEquals("La mejor <mark>paella</mark> de la ciudad", results.get(0).getSnippet());
+    }
+
+    @Test
+    void searchPostsShouldRejectInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> communityPostService.searchPosts(community.getId(), " ", 0, 20, user.getId()));
+        assertThrows(IllegalArgumentException.class,
+                () -> communityPostService.searchPosts(community.getId(), "paella", -1, 20, user.getId()));
+        assertThrows(IllegalArgumentException.class,
+                () -> communityPostService.searchPosts(community.getId(), "paella", 0, CommunityPostServiceImpl.MAX_SEARCH_PAGE_SIZE + 1, user.getId()));
+    }
+
+    @Test
+    void getPostsByCommunityShouldSearchThroughIndex() {
+        CommunityPost found = post(101L, "Paella", "Valenciana");
+        when(communityRepository.findById(community.getId())).thenReturn(Optional.of(community));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(communityMemberRepository.findByUserAndCommunity(user, community)).thenReturn(Optional.of(adminMember));
+        when(communityPostSearchIndex.search("paella", community.getId(), null, 0, Integer.MAX_VALUE))
+                .thenReturn(List.of(101L, 999L));
+        when(communityPostRepository.findAllWithAuthorByIdIn(List.of(101L, 999L))).thenReturn(List.of(found));
+
+        var results = communityPostService.getPostsByCommunity(community.getId(), "paella", user.getId());
+
+        assertEquals(List.of(found), results);
+    }
+
+    private CommunityPost post(Long id, String title, String description) {
+        CommunityPost post = new CommunityPost();
+        post.setId(id);
+        post.setCommunity(community);
+        post.setAuthor(adminMember);
+        post.setTitle(title);
+        post.setDescription(description);
+        return post;
     }
 
     @Test
@@ -342,11 +429,6 @@ public class CommunityPostServiceImplTest {
         when(communityMemberRepository.findByUserAndCommunity(joiner, community)).thenReturn(Optional.of(joinerMember));
         doNothing().when(reservationService).addParticipantToReservation(reservation.getId(), joiner, 3);
         when(openReservationPostRepository.save(any(OpenReservationPost.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(notificationService.createNotification(any(), any())).thenAnswer(inv -> {
-            Notification n = new Notification(inv.getArgument(0), inv.getArgument(1));
-            n.setId(100L);
-            return n;
-        });
 
         OpenReservationPost result = communityPostService.joinOpenReservationPost(500L, joiner.getId());
 
@@ -354,9 +436,10 @@ public class CommunityPostServiceImplTest {
         assertEquals(1, result.getCurrentParticipants());
         
         // Verify notification was sent to reservation owner
-        org.mockito.Mockito.verify(notificationService).createNotification(
+        org.mockito.Mockito.verify(notificationOutbox).enqueue(
             org.mockito.ArgumentMatchers.eq(reservationOwner),
-            org.mockito.ArgumentMatchers.contains("Joiner se ha unido a la reserva abierta")
+            org.mockito.ArgumentMatchers.contains("Joiner se ha unido a la reserva abierta"),
+            org.mockito.ArgumentMatchers.eq("open-reservation-joins:500")
         );
     }
 
@@ -23,6 +23,7 @@ import org.springframework.transaction.annotation.Transactional;
 import com.smartDine.adapters.ImageAdapter;
 import com.smartDine.dto.CreateCommunityDTO;
 import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Community;
 import com.smartDine.entity.CommunityType;
@@ -187,9 +188,10 @@ public class CommunityServiceTest {
         UploadResponse mockResponse = new UploadResponse("key", "url", "image/jpeg", 100L);
         when(imageAdapter.uploadImage(any(), any())).thenReturn(mockResponse);
 
-        UploadResponse response = communityService.uploadCommunityImage(community.getId(), file, testBusiness);
+        UploadTicketDTO response = communityService.uploadCommunityImage(community.getId(), file, testBusiness);
 
         assertNotNull(response);
+        assertEquals(UploadTicketDTO.Status.COMPLETED, response.getStatus());
         Community updated = communityService.getCommunityById(community.getId());
         assertNotNull(updated.getImageUrl());
     }
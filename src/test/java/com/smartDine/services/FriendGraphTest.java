@@ -0,0 +1,83 @@
+package com.smartDine.services;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.smartDine.repository.FriendshipRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FriendGraphTest {
+
+    @Mock
+    private FriendshipRepository friendshipRepository;
+
+    private FriendGraph friendGraph;
+
+    @BeforeEach
+    void setUp() {
+        friendGraph = new FriendGraph(friendshipRepository, 10);
+    }
+
+    @Test
+    @DisplayName("Should load a customer's friends once and answer from memory afterwards")
+    void loadsFriendsOnce() {
+        when(friendshipRepository.findFriendIdsAsUserA(2L)).thenReturn(List.of(5L, 9L));
+        when(friendshipRepository.findFriendIdsAsUserB(2L)).thenReturn(List.of(1L));
+
+        assertTrue(friendGraph.areFriends(2L, 1L));
+        assertTrue(friendGraph.areFriends(9L, 2L), "The loaded side answers either order");
+        assertFalse(friendGraph.areFriends(2L, 3L));
+        assertEquals(List.of(1L, 5L, 9L), friendGraph.getFriendIds(2L).stream().sorted().toList());
+
+        verify(friendshipRepository, times(1)).findFriendIdsAsUserA(2L);
+        verify(friendshipRepository, times(1)).findFriendIdsAsUserB(2L);
+    }
+
+    @Test
+    @DisplayName("Should apply created and removed friendships to both loaded customers")
+    void appliesChanges() {
+        when(friendshipRepository.findFriendIdsAsUserA(1L)).thenReturn(List.of());
+        when(friendshipRepository.findFriendIdsAsUserB(1L)).thenReturn(List.of());
+        when(friendshipRepository.findFriendIdsAsUserA(2L)).thenReturn(List.of());
+        when(friendshipRepository.findFriendIdsAsUserB(2L)).thenReturn(List.of());
+        assertTrue(friendGraph.getFriendIds(1L).isEmpty());
+        assertTrue(friendGraph.getFriendIds(2L).isEmpty());
+
+        friendGraph.friendshipCreated(1L, 2L);
+        assertEquals(List.of(2L), friendGraph.getFriendIds(1L));
+        assertEquals(List.of(1L), friendGraph.getFriendIds(2L));
+
+        friendGraph.friendshipRemoved(2L, 1L);
+        assertFalse(friendGraph.areFriends(1L, 2L));
+        assertTrue(friendGraph.getFriendIds(2L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep large friend sets exact")
+    void friendSetMembership() {
+        FriendSet set = FriendSet.EMPTY;
+        for (long id = 1; id <= 1000; id++) {
+            set = set.with(id * 7);
+        }
+        set = set.without(700L);
+
+        assertEquals(999, set.size());
+        assertTrue(set.contains(7L));
+        assertTrue(set.contains(7000L));
+        assertFalse(set.contains(700L));
+        assertFalse(set.contains(8L));
+        assertFalse(set.contains(0L));
+    }
+}
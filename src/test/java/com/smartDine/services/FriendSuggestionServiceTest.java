@@ -0,0 +1,152 @@
+package com.smartDine.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.smartDine.repository.FriendshipRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FriendSuggestionServiceTest {
+
+    @Mock
+    private FriendshipRepository friendshipRepository;
+
+    // Stored friendships as ordered pairs
+    private final Set<List<Long>> pairs = new HashSet<>();
+
+    private FriendGraph friendGraph;
+    private FriendSuggestionService suggestionService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(friendshipRepository.findFriendIdsAsUserA(anyLong()))
+            .thenAnswer(invocation -> others(invocation.getArgument(0), 0));
+        lenient().when(friendshipRepository.findFriendIdsAsUserB(anyLong()))
+            .thenAnswer(invocation -> others(invocation.getArgument(0), 1));
+        lenient().when(friendshipRepository.findPairsByUserAIn(any()))
+            .thenAnswer(invocation -> pairsOf(invocation.getArgument(0), 0));
+        lenient().when(friendshipRepository.findPairsByUserBIn(any()))
+            .thenAnswer(invocation -> pairsOf(invocation.getArgument(0), 1));
+
+        friendGraph = new FriendGraph(friendshipRepository, 1000);
+        suggestionService = new FriendSuggestionService(friendGraph, 1000, 1000);
+
+        // 1 - 2, 1 - 3, 2 - 4, 3 - 4, 3 - 5, 4 - 6
+        store(1, 2);
+        store(1, 3);
+        store(2, 4);
+        store(3, 4);
+        store(3, 5);
+        store(4, 6);
+    }
+
+    @Test
+    @DisplayName("Should rank friends of friends by mutual friends")
+    void ranksFriendsOfFriends() {
+        assertEquals(List.of(new FriendSuggestionService.Suggestion(4L, 2), new FriendSuggestionService.Suggestion(5L, 1)),
+            suggestionService.getSuggestions(1L, 10));
+        assertEquals(FriendSuggestionService.FRIEND, suggestionService.getDistance(1L, 2L));
+        assertEquals(FriendSuggestionService.FRIEND_OF_FRIEND, suggestionService.getDistance(1L, 4L));
+        assertEquals(FriendSuggestionService.UNRELATED, suggestionService.getDistance(1L, 6L));
+        assertEquals(0, suggestionService.getMutualFriends(1L, 2L));
+    }
+
+    @Test
+    @DisplayName("Should keep cached suggestions equal to a full recomputation after friendship changes")
+    void updatesIncrementally() {
+        for (long id = 1; id <= 6; id++) {
+            suggestionService.getSuggestions(id, 10);
+        }
+
+        createFriendship(1, 4);
+        createFriendship(5, 6);
+        removeFriendship(3, 4);
+        removeFriendship(1, 2);
+        createFriendship(2, 6);
+
+        FriendSuggestionService fresh = new FriendSuggestionService(new FriendGraph(friendshipRepository, 1000), 1000, 1000);
+        for (long id = 1; id <= 6; id++) {
+            assertEquals(fresh.getSuggestions(id, 10), suggestionService.getSuggestions(id, 10), "Suggestions of " + id);
+        }
+    }
+
+    @Test
+    @DisplayName("Should recompute rather than adjust suggestions built from only some friends")
+    void recomputesPartialSuggestions() {
+        FriendSuggestionService partial = new FriendSuggestionService(friendGraph, 1, 1000);
+        int before = partial.getSuggestions(1L, 10).size();
+
+        store(2, 8);
+        store(3, 9);
+        friendGraph.friendshipCreated(2L, 8L);
+        partial.friendshipCreated(2L, 8L);
+        friendGraph.friendshipCreated(3L, 9L);
+        partial.friendshipCreated(3L, 9L);
+
+        FriendSuggestionService fresh = new FriendSuggestionService(new FriendGraph(friendshipRepository, 1000), 1, 1000);
+        List<FriendSuggestionService.Suggestion> expected = fresh.getSuggestions(1L, 10);
+        assertEquals(expected, partial.getSuggestions(1L, 10));
+        assertEquals(before + 1, expected.size(), "Only one of the two friends is walked");
+    }
+
+    @Test
+    @DisplayName("Should page ranked suggestions")
+    void limitsSuggestions() {
+        assertEquals(List.of(new FriendSuggestionService.Suggestion(4L, 2)), suggestionService.getSuggestions(1L, 1));
+        assertEquals(List.of(), suggestionService.getSuggestions(1L, 0));
+    }
+
+    private void createFriendship(long a, long b) {
+        store(a, b);
+        friendGraph.friendshipCreated(a, b);
+        suggestionService.friendshipCreated(a, b);
+    }
+
+    private void removeFriendship(long a, long b) {
+        pairs.remove(List.of(Math.min(a, b), Math.max(a, b)));
+        friendGraph.friendshipRemoved(a, b);
+        suggestionService.friendshipRemoved(a, b);
+    }
+
+    private void store(long a, long b) {
+        pairs.add(List.of(Math.min(a, b), Math.max(a, b)));
+    }
+
+    private List<Long> others(Long id, int side) {
+        List<Long> result = new ArrayList<>();
+        for (List<Long> pair : pairs) {
+            if (pair.get(side).equals(id)) {
+                result.add(pair.get(1 - side));
+            }
+        }
+        return result;
+    }
+
+    private List<Object[]> pairsOf(Collection<Long> ids, int side) {
+        Map<Long, Boolean> wanted = new HashMap<>();
+        ids.forEach(id -> wanted.put(id, true));
+        List<Object[]> result = new ArrayList<>();
+        for (List<Long> pair : pairs) {
+            if (wanted.containsKey(pair.get(side))) {
+                result.add(new Object[] { pair.get(0), pair.get(1) });
+            }
+        }
+        return result;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +20,8 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import com.smartDine.entity.Customer;
 import com.smartDine.entity.Request;
@@ -38,6 +41,12 @@ class FriendshipRequestServiceTest {
     @Mock
     private RequestRepository requestRepository;
 
+    @Mock
+    private PendingRequestIndex pendingRequestIndex;
+
+    @Mock
+    private PendingRequestCounter pendingRequestCounter;
+
     @Mock
     private CustomerRepository customerRepository;
 
@@ -47,6 +56,9 @@ class FriendshipRequestServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private FriendshipRequestService friendshipRequestService;
 
@@ -111,34 +123,30 @@ class FriendshipRequestServiceTest {
         }
 
         @Test
-        @DisplayName("Should throw DuplicateFriendRequestException when pending request exists")
+        @DisplayName("Should throw DuplicateFriendRequestException when pending request exists in either direction")
         void sendFriendRequestDuplicate() {
-            when(customerRepository.findById(2L)).thenReturn(Optional.of(receiver));
-            when(friendshipService.areFriends(sender, receiver)).thenReturn(false);
-            when(requestRepository.existsBySenderAndReceiverAndRequestTypeAndStatus(
-                    sender, receiver, RequestType.FRIEND_REQUEST, RequestStatus.PENDING))
-                    .thenReturn(true);
+            when(pendingRequestIndex.isPendingForInsert(RequestType.FRIEND_REQUEST, 1L, 2L)).thenReturn(true);
 
             assertThrows(DuplicateFriendRequestException.class, () -> {
                 friendshipRequestService.sendFriendRequest(sender, 2L);
             });
+
+            verify(customerRepository, never()).findById(2L);
+            verify(requestRepository, never()).save(any());
         }
 
         @Test
-        @DisplayName("Should throw DuplicateFriendRequestException when reverse pending request exists")
-        void sendFriendRequestReverseDuplicate() {
+        @DisplayName("Should throw DuplicateFriendRequestException when a concurrent request takes the pending key")
+        void sendFriendRequestConcurrentDuplicate() {
             when(customerRepository.findById(2L)).thenReturn(Optional.of(receiver));
             when(friendshipService.areFriends(sender, receiver)).thenReturn(false);
-            when(requestRepository.existsBySenderAndReceiverAndRequestTypeAndStatus(
-                    sender, receiver, RequestType.FRIEND_REQUEST, RequestStatus.PENDING))
-                    .thenReturn(false);
-            when(requestRepository.existsBySenderAndReceiverAndRequestTypeAndStatus(
-                    receiver, sender, RequestType.FRIEND_REQUEST, RequestStatus.PENDING))
-                    .thenReturn(true);
+            when(requestRepository.save(any(Request.class))).thenThrow(new DataIntegrityViolationException("uk_requests_pending_key"));
 
             assertThrows(DuplicateFriendRequestException.class, () -> {
                 friendshipRequestService.sendFriendRequest(sender, 2L);
             });
+
+            verify(pendingRequestIndex, never()).requestCreated(any());
         }
 
         @Test
@@ -146,12 +154,6 @@ class FriendshipRequestServiceTest {
         void sendFriendRequestSuccess() {
             when(customerRepository.findById(2L)).thenReturn(Optional.of(receiver));
             when(friendshipService.areFriends(sender, receiver)).thenReturn(false);
-            when(requestRepository.existsBySenderAndReceiverAndRequestTypeAndStatus(
-                    sender, receiver, RequestType.FRIEND_REQUEST, RequestStatus.PENDING))
-                    .thenReturn(false);
-            when(requestRepository.existsBySenderAndReceiverAndRequestTypeAndStatus(
-                    receiver, sender, RequestType.FRIEND_REQUEST, RequestStatus.PENDING))
-                    .thenReturn(false);
             when(requestRepository.save(any(Request.class))).thenAnswer(invocation -> {
                 Request req = invocation.getArgument(0);
                 req.setId(10L);
@@ -165,6 +167,9 @@ class FriendshipRequestServiceTest {
             assertEquals(receiver, result.getReceiver());
             assertEquals(RequestType.FRIEND_REQUEST, result.getRequestType());
             assertEquals(RequestStatus.PENDING, result.getStatus());
+            assertEquals("FRIEND_REQUEST:1:2", result.getPendingKey());
+            verify(pendingRequestIndex).requestCreated("FRIEND_REQUEST:1:2");
+            verify(pendingRequestCounter).adjustAfterCommit(2L, RequestType.FRIEND_REQUEST, 1);
         }
     }
 
@@ -257,10 +262,14 @@ class FriendshipRequestServiceTest {
             when(requestRepository.save(any(Request.class))).thenAnswer(invocation -> invocation.getArgument(0));
             when(customerRepository.findById(1L)).thenReturn(Optional.of(sender));
             when(customerRepository.findById(2L)).thenReturn(Optional.of(receiver));
+            when(notificationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
             Request result = friendshipRequestService.acceptRequest(10L, receiver);
 
             assertEquals(RequestStatus.ACCEPTED, result.getStatus());
+            assertNull(result.getPendingKey());
+            verify(pendingRequestIndex).requestResolved("FRIEND_REQUEST:1:2");
+            verify(pendingRequestCounter).adjustAfterCommit(2L, RequestType.FRIEND_REQUEST, -1);
             verify(friendshipService).createFriendship(sender, receiver);
             // Verify notification is created
             verify(notificationRepository).save(any());
@@ -319,6 +328,8 @@ class FriendshipRequestServiceTest {
             Request result = friendshipRequestService.rejectRequest(10L, receiver);
 
             assertEquals(RequestStatus.REJECTED, result.getStatus());
+            verify(pendingRequestIndex).requestResolved("FRIEND_REQUEST:1:2");
+            verify(pendingRequestCounter).adjustAfterCommit(2L, RequestType.FRIEND_REQUEST, -1);
             verify(friendshipService, never()).createFriendship(any(), any());
         }
     }
@@ -37,6 +37,12 @@ class FriendshipServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private FriendGraph friendGraph;
+
+    @Mock
+    private FriendSuggestionService friendSuggestionService;
+
     @InjectMocks
     private FriendshipService friendshipService;
 
@@ -114,7 +120,7 @@ class FriendshipServiceTest {
         @Test
         @DisplayName("Should return true when users are friends")
         void areFriendsTrue() {
-            when(friendshipRepository.existsBetween(userA, userB)).thenReturn(true);
+            when(friendGraph.areFriends(1L, 2L)).thenReturn(true);
 
             boolean result = friendshipService.areFriends(userA, userB);
 
@@ -124,7 +130,7 @@ class FriendshipServiceTest {
         @Test
         @DisplayName("Should return false when users are not friends")
         void areFriendsFalse() {
-            when(friendshipRepository.existsBetween(userA, userC)).thenReturn(false);
+            when(friendGraph.areFriends(1L, 3L)).thenReturn(false);
 
             boolean result = friendshipService.areFriends(userA, userC);
 
@@ -134,8 +140,8 @@ class FriendshipServiceTest {
         @Test
         @DisplayName("Should be symmetric - areFriends(A, B) same as areFriends(B, A)")
         void areFriendsSymmetric() {
-            when(friendshipRepository.existsBetween(userA, userB)).thenReturn(true);
-            when(friendshipRepository.existsBetween(userB, userA)).thenReturn(true);
+            when(friendGraph.areFriends(1L, 2L)).thenReturn(true);
+            when(friendGraph.areFriends(2L, 1L)).thenReturn(true);
 
             boolean resultAB = friendshipService.areFriends(userA, userB);
             boolean resultBA = friendshipService.areFriends(userB, userA);
@@ -177,6 +183,8 @@ class FriendshipServiceTest {
             assertEquals(20L, result.getId());
             assertTrue(result.involves(userA));
             assertTrue(result.involves(userB));
+            verify(friendGraph).friendshipCreated(1L, 2L);
+            verify(friendSuggestionService).friendshipCreated(1L, 2L);
         }
     }
 
@@ -217,6 +225,8 @@ class FriendshipServiceTest {
             friendshipService.removeFriend(userA, 2L);
 
             verify(friendshipRepository).delete(friendship);
+            verify(friendGraph).friendshipRemoved(1L, 2L);
+            verify(friendSuggestionService).friendshipRemoved(1L, 2L);
         }
 
         @Test
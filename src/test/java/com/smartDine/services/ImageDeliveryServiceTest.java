@@ -0,0 +1,189 @@
+package com.smartDine.services;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.smartDine.adapters.ImageAdapter;
+import com.smartDine.dto.ImageFetchRequest;
+import com.smartDine.dto.ImageResponseDTO;
+import com.smartDine.dto.ImageVariant;
+
+@ExtendWith(MockitoExtension.class)
+class ImageDeliveryServiceTest {
+
+    private static final String KEY = "restaurants/1/images/photo.jpg";
+    private static final String CONTENT = "0123456789";
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    @Mock
+    private ImageAdapter imageAdapter;
+
+    private ImageVariantService imageVariantService;
+    private ImageDeliveryService imageDeliveryService;
+
+    @BeforeEach
+    void setUp() {
+        imageVariantService = new ImageVariantService(imageAdapter, 1, 1, 10_000_000L, 60_000L, 100);
+        imageDeliveryService = new ImageDeliveryService(imageAdapter, imageVariantService, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageVariantService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should stream the whole image with validators and range support advertised")
+    void servesWholeImage() throws Exception {
+        when(imageAdapter.getImage(eq(KEY), eq(ImageFetchRequest.full()))).thenReturn(image(CONTENT, null, null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageDeliveryService.writeImage(KEY, ImageVariant.FULL,
+            new MockHttpServletRequest("GET", "/smartdine/api/images"), response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(CONTENT, response.getContentAsString());
+        assertEquals("image/jpeg", response.getContentType());
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("\"abc123\"", response.getHeader("ETag"));
+        assertEquals(LAST_MODIFIED, response.getDateHeader("Last-Modified"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertTrue(response.getHeader("Content-Disposition").contains("photo.jpg"));
+    }
+
+    @Test
+    @DisplayName("Should serve the requested variant and fall back to the original, without re-reading missing variants")
+    void servesVariants() throws Exception {
+        when(imageAdapter.getImage(eq("restaurants/1/images/photo.thumbnail.jpg"), eq(ImageFetchRequest.full())))
+            .thenReturn(image("thumb", null, null));
+        MockHttpServletResponse thumbnail = new MockHttpServletResponse();
+
+        imageDeliveryService.writeImage(KEY, ImageVariant.THUMBNAIL,
+            new MockHttpServletRequest("GET", "/smartdine/api/images"), thumbnail);
+
+        assertEquals("thumb", thumbnail.getContentAsString());
+
+        when(imageAdapter.getImage(eq("restaurants/1/images/photo.medium.jpg"), eq(ImageFetchRequest.full())))
+            .thenThrow(new IllegalArgumentException("No se encontró el archivo con la clave"));
+        when(imageAdapter.getImage(eq(KEY), eq(ImageFetchRequest.full()))).thenReturn(image(CONTENT, null, null));
+        MockHttpServletResponse medium = new MockHttpServletResponse();
+
+        imageDeliveryService.writeImage(KEY, ImageVariant.MEDIUM,
+            new MockHttpServletRequest("GET", "/smartdine/api/images"), medium);
+
+        assertEquals(CONTENT, medium.getContentAsString());
+
+        when(imageAdapter.getImage(eq(KEY), eq(ImageFetchRequest.full()))).thenReturn(image(CONTENT, null, null));
+        MockHttpServletResponse again = new MockHttpServletResponse();
+        imageDeliveryService.writeImage(KEY, ImageVariant.MEDIUM,
+            new MockHttpServletRequest("GET", "/smartdine/api/images"), again);
+
+        assertEquals(CONTENT, again.getContentAsString());
+        verify(imageAdapter, times(1)).getImage(eq("restaurants/1/images/photo.medium.jpg"), any());
+    }
+
+    @Test
+    @DisplayName("Should answer 304 without a body when the entity tag still matches")
+    void answersNotModified() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/smartdine/api/images");
+        request.addHeader("If-None-Match", "W/\"abc123\"");
+        request.addHeader("If-Modified-Since", LAST_MODIFIED);
+        when(imageAdapter.getImage(eq(KEY), eq(new ImageFetchRequest(List.of("abc123"), null, null, null))))
+            .thenReturn(ImageResponseDTO.notModified("abc123"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageDeliveryService.writeImage(KEY, ImageVariant.FULL, request, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals("\"abc123\"", response.getHeader("ETag"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Should answer a single byte range with 206 and Content-Range")
+    void servesPartialContent() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/smartdine/api/images");
+        request.addHeader("Range", "bytes=2-5");
+        when(imageAdapter.getImage(eq(KEY), eq(new ImageFetchRequest(List.of(), null, 2L, 5L))))
+            .thenReturn(image(CONTENT.substring(2, 6), 2L, 5L));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageDeliveryService.writeImage(KEY, ImageVariant.FULL, request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+        assertEquals(4, response.getContentLengthLong());
+    }
+
+    @Test
+    @DisplayName("Should ignore multiple, inverted and If-Range guarded ranges")
+    void ignoresUnsupportedRanges() {
+        assertNull(fetchRequestWith("Range", "bytes=0-1,4-5").rangeStart());
+        assertNull(fetchRequestWith("Range", "bytes=5-2").rangeStart());
+        assertNull(fetchRequestWith("Range", "bytes=-500").rangeStart());
+
+        MockHttpServletRequest guarded = new MockHttpServletRequest();
+        guarded.addHeader("Range", "bytes=0-1");
+        guarded.addHeader("If-Range", "\"abc123\"");
+        assertNull(ImageDeliveryService.fetchRequestOf(guarded).rangeStart());
+
+        ImageFetchRequest openEnded = fetchRequestWith("Range", "bytes=4-");
+        assertEquals(4L, openEnded.rangeStart());
+        assertNull(openEnded.rangeEnd());
+    }
+
+    @Test
+    @DisplayName("Should use If-Modified-Since only when no entity tag is sent")
+    void usesModifiedSinceWithoutTags() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/smartdine/api/images");
+        request.addHeader("If-Modified-Since", LAST_MODIFIED);
+        when(imageAdapter.getImage(eq(KEY), eq(new ImageFetchRequest(List.of(), LAST_MODIFIED, null, null))))
+            .thenReturn(ImageResponseDTO.notModified(null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageDeliveryService.writeImage(KEY, ImageVariant.FULL, request, response);
+
+        assertEquals(304, response.getStatus());
+        ArgumentCaptor<ImageFetchRequest> captor = ArgumentCaptor.forClass(ImageFetchRequest.class);
+        verify(imageAdapter).getImage(eq(KEY), captor.capture());
+        assertTrue(captor.getValue().isConditional());
+    }
+
+    private static ImageFetchRequest fetchRequestWith(String header, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(header, value);
+        return ImageDeliveryService.fetchRequestOf(request);
+    }
+
+    private static ImageResponseDTO image(String content, Long rangeStart, Long rangeEnd) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        ImageResponseDTO image = new ImageResponseDTO(new ByteArrayInputStream(bytes), "image/jpeg", bytes.length, "photo.jpg");
+        image.setETag("abc123");
+        image.setLastModified(LAST_MODIFIED);
+        image.setTotalLength(CONTENT.length());
+        image.setRangeStart(rangeStart);
+        image.setRangeEnd(rangeEnd);
+        return image;
+    }
+}
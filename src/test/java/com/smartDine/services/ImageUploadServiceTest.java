@@ -0,0 +1,248 @@
+package com.smartDine.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.smartDine.adapters.ImageAdapter;
+import com.smartDine.dto.ImageFetchRequest;
+import com.smartDine.dto.ImageResponseDTO;
+import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
+import com.smartDine.dto.UploadTicketDTO.Status;
+import com.smartDine.entity.Customer;
+import com.smartDine.exceptions.ServiceBusyException;
+
+@ExtendWith(MockitoExtension.class)
+class ImageUploadServiceTest {
+
+    private static final String KEY = "restaurants/1/images/photo.jpg";
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImageUploadService imageUploadService;
+
+    @AfterEach
+    void tearDown() {
+        if (imageUploadService != null) {
+            imageUploadService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should store the upload in the background and assign the key once it is stored")
+    void storesInBackground() throws Exception {
+        FlakyStorage storage = new FlakyStorage(0);
+        imageUploadService = service(storage, 2, 4, 3);
+        List<String> assigned = new ArrayList<>();
+
+        UploadTicketDTO ticket = imageUploadService.submit(image(), KEY, USER_ID, assigned::add);
+
+        assertEquals(KEY, ticket.getKey());
+        UploadTicketDTO done = awaitFinished(ticket.getTicketId());
+        assertEquals(Status.COMPLETED, done.getStatus());
+        assertEquals("memory://" + KEY, done.getUrl());
+        assertEquals(List.of(KEY), assigned);
+        assertArrayEquals("image content".getBytes(), storage.lastContent);
+        assertFalse(Files.exists(storage.lastSpooledPath), "The local copy is deleted once stored");
+        verify(imageVariantService).createVariants(any(), eq(KEY));
+    }
+
+    @Test
+    @DisplayName("Should retry failed transfers and give up after the maximum attempts")
+    void retriesTransfers() throws Exception {
+        imageUploadService = service(new FlakyStorage(2), 1, 4, 3);
+        UploadTicketDTO recovered = awaitFinished(imageUploadService.submit(image(), KEY, USER_ID, key -> { }).getTicketId());
+        assertEquals(Status.COMPLETED, recovered.getStatus());
+        assertEquals(3, recovered.getAttempts());
+        // Variants are queued by the first attempt only
+        verify(imageVariantService, times(1)).createVariants(any(), eq(KEY));
+
+        List<String> assigned = new ArrayList<>();
+        imageUploadService.shutdown();
+        imageUploadService = service(new FlakyStorage(5), 1, 4, 3);
+        UploadTicketDTO failed = awaitFinished(imageUploadService.submit(image(), KEY, USER_ID, assigned::add).getTicketId());
+        assertEquals(Status.FAILED, failed.getStatus());
+        assertEquals(3, failed.getAttempts());
+        assertNotNull(failed.getError());
+        assertTrue(assigned.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not retry invalid images")
+    void doesNotRetryInvalidImages() throws Exception {
+        FlakyStorage storage = new FlakyStorage(0);
+        imageUploadService = service(storage, 1, 4, 3);
+        doThrow(new IllegalArgumentException("La imagen es demasiado grande"))
+            .when(imageVariantService).createVariants(any(), eq(KEY));
+
+        UploadTicketDTO failed = awaitFinished(imageUploadService.submit(image(), KEY, USER_ID, key -> { }).getTicketId());
+
+        assertEquals(Status.FAILED, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertEquals("La imagen es demasiado grande", failed.getError());
+        assertEquals(0, storage.attempts);
+    }
+
+    @Test
+    @DisplayName("Should delete the stored image when its entity can no longer be updated")
+    void discardsImageWhenAssignmentFails() throws Exception {
+        FlakyStorage storage = new FlakyStorage(0);
+        imageUploadService = service(storage, 0, 4, 3);
+
+        UploadTicketDTO ticket = imageUploadService.submit(image(), KEY, USER_ID, key -> {
+            throw new IllegalArgumentException("Restaurante no encontrado con ID: 1");
+        });
+
+        // threads=0 runs on the calling thread
+        assertEquals(Status.FAILED, ticket.getStatus());
+        assertEquals(List.of(KEY), storage.deleted);
+        verify(imageVariantService).deleteVariants(KEY);
+    }
+
+    @Test
+    @DisplayName("Should reject uploads while the in-flight limit is reached")
+    void rejectsWhenBusy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FlakyStorage storage = new FlakyStorage(0);
+        storage.gate = release;
+        imageUploadService = service(storage, 1, 0, 1);
+
+        UploadTicketDTO first = imageUploadService.submit(image(), KEY, USER_ID, key -> { });
+        assertThrows(ServiceBusyException.class, () -> imageUploadService.submit(image(), KEY, USER_ID, key -> { }));
+
+        release.countDown();
+        assertEquals(Status.COMPLETED, awaitFinished(first.getTicketId()).getStatus());
+        UploadTicketDTO next = imageUploadService.submit(image(), KEY, USER_ID, key -> { });
+        assertEquals(Status.COMPLETED, awaitFinished(next.getTicketId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("Should fail the ticket and free its slot when the worker pool no longer accepts uploads")
+    void failsTicketsRejectedByThePool() throws Exception {
+        FlakyStorage storage = new FlakyStorage(0);
+        imageUploadService = service(storage, 1, 0, 1);
+        imageUploadService.shutdown();
+
+        // A single slot: a leaked permit would make the second upload busy
+        for (int i = 0; i < 2; i++) {
+            UploadTicketDTO ticket = imageUploadService.submit(image(), KEY, USER_ID, key -> { });
+            assertEquals(Status.FAILED, ticket.getStatus());
+            assertNotNull(ticket.getError());
+        }
+        assertEquals(0, storage.attempts);
+    }
+
+    @Test
+    @DisplayName("Should only show a ticket to the user who made the upload")
+    void ticketsBelongToTheirUser() throws Exception {
+        imageUploadService = service(new FlakyStorage(0), 0, 4, 1);
+        UploadTicketDTO ticket = imageUploadService.submit(image(), KEY, USER_ID, key -> { });
+
+        Customer owner = new Customer("Owner", "owner@test.com", "password", 600000001L);
+        owner.setId(USER_ID);
+        Customer other = new Customer("Other", "other@test.com", "password", 600000002L);
+        other.setId(8L);
+
+        assertEquals(Status.COMPLETED, imageUploadService.getTicket(ticket.getTicketId(), owner).getStatus());
+        assertThrows(IllegalArgumentException.class, () -> imageUploadService.getTicket(ticket.getTicketId(), other));
+        assertThrows(IllegalArgumentException.class, () -> imageUploadService.getTicket("missing", owner));
+    }
+
+    private ImageUploadService service(ImageAdapter storage, int threads, int queueCapacity, int maxAttempts) {
+        return new ImageUploadService(storage, imageVariantService, transactionManager,
+            threads, queueCapacity, maxAttempts, 1L, 60000L);
+    }
+
+    private UploadTicketDTO awaitFinished(String ticketId) throws InterruptedException {
+        Customer user = new Customer("Owner", "owner@test.com", "password", 600000001L);
+        user.setId(USER_ID);
+        for (int i = 0; i < 250; i++) {
+            UploadTicketDTO ticket = imageUploadService.getTicket(ticketId, user);
+            if (ticket.getStatus() == Status.COMPLETED || ticket.getStatus() == Status.FAILED) {
+                return ticket;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Upload did not finish: " + ticketId);
+    }
+
+    private static MockMultipartFile image() {
+        return new MockMultipartFile("file", "photo.jpg", "image/jpeg", "image content".getBytes());
+    }
+
+    /**
+     * In-memory stand-in for the remote storage that fails the first transfers.
+     */
+    private static class FlakyStorage implements ImageAdapter {
+
+        private final int failures;
+        private final List<String> deleted = new ArrayList<>();
+        private volatile int attempts;
+        private volatile byte[] lastContent;
+        private volatile Path lastSpooledPath;
+        private volatile CountDownLatch gate;
+
+        FlakyStorage(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public UploadResponse uploadImage(MultipartFile image, String path) throws IOException {
+            attempts++;
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (attempts <= failures) {
+                throw new IOException("Connection reset");
+            }
+            lastContent = image.getBytes();
+            lastSpooledPath = ((SpooledImageFile) image).getPath();
+            return new UploadResponse(path, "memory://" + path, image.getContentType(), image.getSize());
+        }
+
+        @Override
+        public ImageResponseDTO getImage(String key, ImageFetchRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteImage(String key) {
+            deleted.add(key);
+        }
+    }
+}
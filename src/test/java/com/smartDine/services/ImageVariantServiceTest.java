@@ -0,0 +1,210 @@
+package com.smartDine.services;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.smartDine.adapters.ImageAdapter;
+import com.smartDine.dto.ImageVariant;
+import com.smartDine.exceptions.ServiceBusyException;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantServiceTest {
+
+    private static final String KEY = "restaurants/1/images/photo.png";
+
+    @Mock
+    private ImageAdapter imageAdapter;
+
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        imageVariantService = new ImageVariantService(imageAdapter, 1, 1, 10_000_000L, 60_000L, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageVariantService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should derive variant keys next to the original")
+    void derivesVariantKeys() {
+        assertEquals("restaurants/1/images/photo.thumbnail.png", ImageVariant.THUMBNAIL.keyFor(KEY));
+        assertEquals("restaurants/1/images/photo.medium.png", ImageVariant.MEDIUM.keyFor(KEY));
+        assertEquals(KEY, ImageVariant.FULL.keyFor(KEY));
+        assertEquals("communities/1.5/images/photo.thumbnail", ImageVariant.THUMBNAIL.keyFor("communities/1.5/images/photo"));
+        assertEquals(ImageVariant.FULL, ImageVariant.fromParam(null));
+        assertEquals(ImageVariant.THUMBNAIL, ImageVariant.fromParam("Thumbnail"));
+        assertThrows(IllegalArgumentException.class, () -> ImageVariant.fromParam("huge"));
+    }
+
+    @Test
+    @DisplayName("Should store downscaled medium and thumbnail variants in the original format")
+    void storesScaledVariants() throws Exception {
+        imageVariantService.createVariants(image(2000, 1000, "png"), KEY).get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<MultipartFile> files = ArgumentCaptor.forClass(MultipartFile.class);
+        verify(imageAdapter).uploadImage(files.capture(), eq("restaurants/1/images/photo.medium.png"));
+        verify(imageAdapter).uploadImage(files.capture(), eq("restaurants/1/images/photo.thumbnail.png"));
+
+        BufferedImage medium = ImageIO.read(new ByteArrayInputStream(files.getAllValues().get(0).getBytes()));
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(files.getAllValues().get(1).getBytes()));
+        assertEquals(640, medium.getWidth());
+        assertEquals(320, medium.getHeight());
+        assertEquals(160, thumbnail.getWidth());
+        assertEquals(80, thumbnail.getHeight());
+        assertEquals("image/png", files.getAllValues().get(1).getContentType());
+    }
+
+    @Test
+    @DisplayName("Should store images that already fit a variant unchanged")
+    void keepsSmallImages() throws Exception {
+        MockMultipartFile small = image(300, 200, "jpg");
+
+        imageVariantService.createVariants(small, "restaurants/1/images/photo.jpg").get(5, TimeUnit.SECONDS);
+
+        ArgumentCaptor<MultipartFile> files = ArgumentCaptor.forClass(MultipartFile.class);
+        verify(imageAdapter).uploadImage(files.capture(), eq("restaurants/1/images/photo.medium.jpg"));
+        verify(imageAdapter).uploadImage(files.capture(), eq("restaurants/1/images/photo.thumbnail.jpg"));
+        assertArrayEquals(small.getBytes(), files.getAllValues().get(0).getBytes());
+        assertEquals(160, ImageIO.read(new ByteArrayInputStream(files.getAllValues().get(1).getBytes())).getWidth());
+    }
+
+    @Test
+    @DisplayName("Should skip formats that cannot be decoded and reject oversized images")
+    void skipsUndecodableAndRejectsOversized() throws Exception {
+        imageVariantService.createVariants(
+            new MockMultipartFile("file", "photo.webp", "image/webp", "not an image".getBytes()), KEY)
+            .get(5, TimeUnit.SECONDS);
+        verify(imageAdapter, never()).uploadImage(any(), any());
+
+        ImageVariantService limited = new ImageVariantService(imageAdapter, 1, 1, 1000L, 60_000L, 2);
+        try {
+            assertThrows(IllegalArgumentException.class, () -> limited.createVariants(image(100, 100, "png"), KEY));
+        } finally {
+            limited.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject uploads when the processing queue is full")
+    void rejectsWhenBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(imageAdapter.uploadImage(any(), eq("busy.medium.png"))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        try {
+            // One image runs on the single worker and one waits in the queue
+            Future<?> running = imageVariantService.createVariants(image(1000, 1000, "png"), "busy.png");
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<?> queued = imageVariantService.createVariants(image(10, 10, "png"), "queued.png");
+            assertEquals(1, imageVariantService.queuedTasks());
+
+            assertThrows(ServiceBusyException.class, () -> imageVariantService.createVariants(image(10, 10, "png"), KEY));
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+            verify(imageAdapter, times(4)).uploadImage(any(), any(String.class));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return before the variants are stored and skip a variant that cannot be stored")
+    void storesVariantsInTheBackground() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(imageAdapter.uploadImage(any(), eq("restaurants/1/images/photo.medium.png"))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            throw new IOException("S3 no disponible");
+        });
+
+        Future<?> variants = imageVariantService.createVariants(image(2000, 1000, "png"), KEY);
+        assertFalse(variants.isDone());
+
+        release.countDown();
+        variants.get(5, TimeUnit.SECONDS);
+        verify(imageAdapter).uploadImage(any(), eq("restaurants/1/images/photo.thumbnail.png"));
+    }
+
+    @Test
+    @DisplayName("Should remember missing variants until they expire, are stored or are pushed out")
+    void remembersMissingVariants() throws Exception {
+        String thumbnail = ImageVariant.THUMBNAIL.keyFor(KEY);
+        imageVariantService.markMissing(thumbnail);
+        assertTrue(imageVariantService.isMissing(thumbnail));
+
+        imageVariantService.createVariants(image(2000, 1000, "png"), KEY).get(5, TimeUnit.SECONDS);
+        assertFalse(imageVariantService.isMissing(thumbnail));
+
+        imageVariantService.markMissing("a");
+        imageVariantService.markMissing("b");
+        imageVariantService.markMissing("c");
+        assertFalse(imageVariantService.isMissing("a"));
+        assertTrue(imageVariantService.isMissing("c"));
+
+        ImageVariantService shortLived = new ImageVariantService(imageAdapter, 1, 1, 10_000_000L, 1L, 2);
+        try {
+            shortLived.markMissing(thumbnail);
+            Thread.sleep(5);
+            assertFalse(shortLived.isMissing(thumbnail));
+        } finally {
+            shortLived.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should delete every scaled variant of an image")
+    void deletesVariants() {
+        imageVariantService.deleteVariants(KEY);
+        imageVariantService.deleteVariants(null);
+
+        List.of(ImageVariant.THUMBNAIL, ImageVariant.MEDIUM)
+            .forEach(variant -> verify(imageAdapter).deleteImage(variant.keyFor(KEY)));
+        verify(imageAdapter, times(2)).deleteImage(any());
+    }
+
+    private static MockMultipartFile image(int width, int height, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        String contentType = format.equals("jpg") ? "image/jpeg" : "image/" + format;
+        return new MockMultipartFile("file", "photo." + format, contentType, out.toByteArray());
+    }
+}
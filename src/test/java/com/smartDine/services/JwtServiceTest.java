@@ -0,0 +1,87 @@
+package com.smartDine.services;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.smartDine.entity.Customer;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+class JwtServiceTest {
+
+    static final String SECRET = "VGhpcyBpcyBhIHZlcnkgbG9uZyBzZWNyZXQga2V5IGZvciBqd3QgdG9rZW5zIHRoYXQgaXMgYmFzZTY0IGVuY29kZWQ=";
+
+    private JwtService jwtService;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = createJwtService(3600000L, 100);
+        customer = new Customer("Jwt Customer", "jwt@smartdine.com", "password", 123456789L);
+    }
+
+    static JwtService createJwtService(long expiration, int cacheSize) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expiration);
+        ReflectionTestUtils.setField(service, "claimsCacheSize", cacheSize);
+        service.init();
+        return service;
+    }
+
+    @Test
+    @DisplayName("Should parse a generated token and validate it against its user")
+    void generatedTokenIsValid() {
+        String token = jwtService.generateToken(customer);
+
+        assertEquals("jwt@smartdine.com", jwtService.extractUsername(token));
+        assertTrue(jwtService.isTokenValid(token, customer));
+        assertFalse(jwtService.isTokenValid(token, new Customer("Other", "other@smartdine.com", "password", 1L)));
+    }
+
+    @Test
+    @DisplayName("Should serve an already verified token from the claims cache")
+    void verifiedTokenIsCached() {
+        String token = jwtService.generateToken(customer);
+
+        Claims first = jwtService.extractAllClaims(token);
+        Claims second = jwtService.extractAllClaims(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    @DisplayName("Should reject expired and tampered tokens")
+    void rejectsExpiredAndTamperedTokens() {
+        JwtService expiring = createJwtService(-1000L, 100);
+        String expired = expiring.generateToken(new HashMap<>(), customer);
+        assertThrows(ExpiredJwtException.class, () -> expiring.extractAllClaims(expired));
+
+        String token = jwtService.generateToken(customer);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(SignatureException.class, () -> jwtService.extractAllClaims(tampered));
+    }
+
+    @Test
+    @DisplayName("Should sign the user id, role and subtype into generated tokens")
+    void embedsPrincipalClaims() {
+        customer.setId(42L);
+
+        Claims claims = jwtService.extractAllClaims(jwtService.generateToken(customer));
+
+        assertEquals(42L, jwtService.extractUserId(claims));
+        assertEquals("ROLE_CUSTOMER", claims.get(JwtService.CLAIM_ROLE));
+        assertEquals("customer", claims.get(JwtService.CLAIM_USER_TYPE));
+    }
+}
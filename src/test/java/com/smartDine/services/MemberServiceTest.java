@@ -1,8 +1,10 @@
 package com.smartDine.services;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -20,8 +22,10 @@ import com.smartDine.entity.Community;
 import com.smartDine.entity.Customer;
 import com.smartDine.entity.Member;
 import com.smartDine.entity.MemberRole;
+import com.smartDine.entity.community.CommunityPost;
 import com.smartDine.exceptions.NoUserIsMemberException;
 import com.smartDine.repository.BusinessRepository;
+import com.smartDine.repository.CommunityPostRepository;
 import com.smartDine.repository.CustomerRepository;
 
 @SpringBootTest
@@ -41,6 +45,9 @@ public class MemberServiceTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private CommunityPostRepository communityPostRepository;
+
 
     private Business owner;
     private Customer user;
@@ -125,6 +132,16 @@ public class MemberServiceTest {
             memberService.getMemberById(99999L));
     }
 
+    @Test
+    @DisplayName("Should join with the stored user when given an authenticated principal")
+    void testJoinCommunityFromPrincipal() {
+        Member member = memberService.joinCommunity(publicCommunity.getId(),
+            PrincipalCache.CachedPrincipal.of(user).toUser());
+
+        assertEquals(user.getId(), member.getUser().getId());
+        assertEquals(222222222L, member.getUser().getPhoneNumber());
+    }
+
     // Tests for deleteMember
     @Test
     @DisplayName("Should delete member when user is community owner")
@@ -192,6 +209,24 @@ public class MemberServiceTest {
             memberService.getMemberById(memberId));
     }
 
+    @Test
+    @DisplayName("Should delete the member's posts with it")
+    void testDeleteMemberWithPosts() {
+        Member member = memberService.joinCommunity(publicCommunity.getId(), user);
+        CommunityPost post = new CommunityPost();
+        post.setTitle("Cena");
+        post.setDescription("Paella");
+        post.setPublishedAt(LocalDateTime.now());
+        post.setCommunity(publicCommunity);
+        post.setAuthor(member);
+        post = communityPostRepository.save(post);
+        member.getPosts().add(post);
+
+        memberService.deleteMember(member.getId(), user);
+
+        assertFalse(communityPostRepository.existsById(post.getId()));
+    }
+
     // Tests for getMembersByCommunityId
     @Test
     @DisplayName("Should get all members by community ID")
@@ -4,15 +4,18 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
@@ -25,7 +28,7 @@ import org.springframework.mock.web.MockMultipartFile;
 import com.smartDine.adapters.ImageAdapter;
 import com.smartDine.dto.DishDTO;
 import com.smartDine.dto.DrinkDTO;
-import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.CourseType;
 import com.smartDine.entity.Dish;
@@ -56,6 +59,15 @@ class MenuItemServiceTest {
     @Mock
     private ImageAdapter imageAdapter;
 
+    @Mock
+    private RestaurantSearchIndex searchIndex;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private ImageUploadService imageUploadService;
+
     @InjectMocks
     private MenuItemService menuItemService;
 
@@ -187,22 +199,27 @@ class MenuItemServiceTest {
         );
         
         String expectedKeyPattern = "restaurants/" + restaurant.getId() + "/menu-items/" + dish.getId() + "/images/";
-        String mockKey = expectedKeyPattern + "test-uuid.jpg";
-        String mockUrl = "https://smartdine-s3-bucket.s3.amazonaws.com/" + mockKey;
-        UploadResponse mockResponse = new UploadResponse(mockKey, mockUrl, "image/jpeg", file.getSize());
         
         when(restaurantService.isOwnerOfRestaurant(restaurant.getId(), owner)).thenReturn(true);
+        when(menuItemRepository.existsById(dish.getId())).thenReturn(true);
+        when(menuItemRepository.existsByIdAndRestaurantId(dish.getId(), restaurant.getId())).thenReturn(true);
         when(menuItemRepository.findById(dish.getId())).thenReturn(Optional.of(dish));
-        when(restaurantService.getRestaurantById(restaurant.getId())).thenReturn(restaurant);
-        when(imageAdapter.uploadImage(any(), any())).thenReturn(mockResponse);
         when(menuItemRepository.save(any(MenuItem.class))).thenReturn(dish);
+        // Complete the upload right away: the callback assigns the key
+        when(imageUploadService.submit(any(), any(), eq(owner.getId()), any())).thenAnswer(invocation -> {
+            String key = invocation.getArgument(1);
+            Consumer<String> onComplete = invocation.getArgument(3);
+            onComplete.accept(key);
+            return new UploadTicketDTO("ticket-1", key, UploadTicketDTO.Status.COMPLETED, 1, null, "image/jpeg", 20L, null);
+        });
         
-        UploadResponse response = menuItemService.uploadMenuItemImage(restaurant.getId(), dish.getId(), file, owner);
+        UploadTicketDTO response = menuItemService.uploadMenuItemImage(restaurant.getId(), dish.getId(), file, owner);
         
         assertNotNull(response);
         assertNotNull(response.getKey());
+        assertTrue(response.getKey().startsWith(expectedKeyPattern));
+        assertEquals(response.getKey(), dish.getImageUrl());
         verify(menuItemRepository).save(any(MenuItem.class));
-        verify(imageAdapter).uploadImage(any(), any());
     }
     
     @Test
@@ -218,7 +235,7 @@ class MenuItemServiceTest {
         );
         
         when(restaurantService.isOwnerOfRestaurant(restaurant.getId(), owner)).thenReturn(true);
-        when(menuItemRepository.findById(nonExistentId)).thenReturn(Optional.empty());
+        when(menuItemRepository.existsById(nonExistentId)).thenReturn(false);
         
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
@@ -226,7 +243,7 @@ class MenuItemServiceTest {
         );
         
         assertEquals("Menu item not found with ID: " + nonExistentId, exception.getMessage());
-        verify(imageAdapter, never()).uploadImage(any(), any());
+        verify(imageUploadService, never()).submit(any(), any(), any(), any());
     }
     
     @Test
@@ -250,14 +267,35 @@ class MenuItemServiceTest {
         );
         
         assertEquals("You do not own this restaurant", exception.getMessage());
-        verify(imageAdapter, never()).uploadImage(any(), any());
+        verify(imageUploadService, never()).submit(any(), any(), any(), any());
+    }
+    
+    @Test
+    @DisplayName("Should throw exception when the menu item belongs to another restaurant")
+    void testUploadMenuItemImage_OtherRestaurant() throws IOException {
+        MockMultipartFile file = new MockMultipartFile(
+            "file",
+            "menu-item.jpg",
+            "image/jpeg",
+            "test menu item image".getBytes()
+        );
+        
+        when(restaurantService.isOwnerOfRestaurant(restaurant.getId(), owner)).thenReturn(true);
+        when(menuItemRepository.existsById(dish.getId())).thenReturn(true);
+        when(menuItemRepository.existsByIdAndRestaurantId(dish.getId(), restaurant.getId())).thenReturn(false);
+        
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> menuItemService.uploadMenuItemImage(restaurant.getId(), dish.getId(), file, owner)
+        );
+        
+        assertEquals("Menu item does not belong to this restaurant", exception.getMessage());
+        verify(imageUploadService, never()).submit(any(), any(), any(), any());
     }
     
     @Test
     @DisplayName("Should throw exception when file is empty")
     void testUploadMenuItemImage_EmptyFile() throws IOException {
-        restaurant.getMenu().add(dish);
-        
         MockMultipartFile emptyFile = new MockMultipartFile(
             "file",
             "empty.jpg",
@@ -266,8 +304,8 @@ class MenuItemServiceTest {
         );
         
         when(restaurantService.isOwnerOfRestaurant(restaurant.getId(), owner)).thenReturn(true);
-        when(menuItemRepository.findById(dish.getId())).thenReturn(Optional.of(dish));
-        when(restaurantService.getRestaurantById(restaurant.getId())).thenReturn(restaurant);
+        when(menuItemRepository.existsById(dish.getId())).thenReturn(true);
+        when(menuItemRepository.existsByIdAndRestaurantId(dish.getId(), restaurant.getId())).thenReturn(true);
         
         IllegalArgumentException exception = assertThrows(
             IllegalArgumentException.class,
@@ -275,7 +313,7 @@ class MenuItemServiceTest {
         );
         
         assertEquals("File cannot be null or empty", exception.getMessage());
-        verify(imageAdapter, never()).uploadImage(any(), any());
+        verify(imageUploadService, never()).submit(any(), any(), any(), any());
     }
 
     @Test
@@ -293,6 +331,8 @@ class MenuItemServiceTest {
 
         verify(menuItemRepository).delete(dish);
         verify(menuItemRepository).flush();
+        verify(searchIndex).refresh(restaurant.getId());
+        verify(imageVariantService).deleteVariants("test-image-url.jpg");
     }
 
     @Test
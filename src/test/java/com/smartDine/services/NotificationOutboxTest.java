@@ -0,0 +1,161 @@
+package com.smartDine.services;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.smartDine.dto.NotificationDTO;
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Notification;
+import com.smartDine.entity.OutboxNotification;
+import com.smartDine.repository.CustomerRepository;
+import com.smartDine.repository.NotificationRepository;
+import com.smartDine.repository.OutboxNotificationRepository;
+
+/**
+ * Not transactional: the outbox only dispatches committed rows, and the data is removed
+ * afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class NotificationOutboxTest {
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private OutboxNotificationRepository outboxRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private TransactionTemplate transactionTemplate;
+    private Customer receiver;
+
+    /**
+     * Runs a hook once the dispatching transaction commits, before any other after-commit
+     * work registered for the same event.
+     */
+    @TestConfiguration
+    static class AfterDispatchCommit {
+
+        static volatile Runnable hook;
+
+        @EventListener
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        public void onNotificationsStored(NotificationsDispatchedEvent event) {
+            Runnable action = hook;
+            if (action != null) {
+                TransactionCallbacks.afterCommit(action);
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        outboxRepository.deleteAll();
+        receiver = customerRepository.save(new Customer("Outbox Receiver", "outbox.receiver@smartdine.com", "password", 720000001L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        AfterDispatchCommit.hook = null;
+        unreadNotificationCounter.evict(receiver.getId());
+        outboxRepository.deleteAll();
+        notificationRepository.deleteAll(notificationRepository.findByReceiverOrderByDateDesc(receiver));
+        customerRepository.delete(receiver);
+    }
+
+    @Test
+    @DisplayName("Should store queued notifications only once their transaction commits")
+    void dispatchesCommittedNotifications() {
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationOutbox.enqueue(receiver, "Primera");
+            notificationOutbox.enqueue(receiver, "Segunda");
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationOutbox.enqueue(receiver, "Descartada");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(2, outboxRepository.count());
+        assertTrue(notificationRepository.findByReceiverOrderByDateDesc(receiver).isEmpty());
+
+        assertEquals(2, notificationOutbox.dispatchPending());
+
+        List<Notification> stored = notificationRepository.findByReceiverOrderByDateDesc(receiver);
+        assertEquals(2, stored.size());
+        assertTrue(stored.stream().allMatch(notification -> !notification.isRead()));
+        assertTrue(stored.stream().anyMatch(notification -> notification.getMessage().equals("Primera")));
+        assertEquals(0, outboxRepository.count());
+
+        List<NotificationDTO> published = events.stream(NotificationsDispatchedEvent.class)
+            .flatMap(event -> event.byReceiver().getOrDefault(receiver.getId(), List.of()).stream())
+            .toList();
+        assertEquals(2, published.size());
+        assertNotNull(published.get(0).getId());
+        assertEquals("Primera", published.get(0).getMessage());
+        assertEquals(0, notificationOutbox.dispatchPending());
+    }
+
+    @Test
+    @DisplayName("Should drop rows that cannot be delivered without losing the rest of the batch")
+    void dropsUndeliverableRows() {
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationOutbox.enqueue(receiver, "Antes");
+            outboxRepository.save(new OutboxNotification(Long.MAX_VALUE, "Sin destinatario"));
+            notificationOutbox.enqueue(receiver, "Después");
+        });
+
+        assertEquals(3, notificationOutbox.dispatchPending());
+
+        assertEquals(2, notificationRepository.findByReceiverOrderByDateDesc(receiver).size());
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should count dispatched notifications once when the count is read right after they commit")
+    void countsDispatchedNotificationsOnce() {
+        transactionTemplate.executeWithoutResult(status -> {
+            notificationOutbox.enqueue(receiver, "Primera");
+            notificationOutbox.enqueue(receiver, "Segunda");
+        });
+        // Read after the dispatch commits, before the counter applies it
+        AfterDispatchCommit.hook = () -> assertEquals(2, unreadNotificationCounter.get(receiver.getId()));
+
+        assertEquals(2, notificationOutbox.dispatchPending());
+
+        assertEquals(2, unreadNotificationCounter.get(receiver.getId()));
+    }
+}
@@ -0,0 +1,162 @@
+package com.smartDine.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Notification;
+import com.smartDine.entity.Request;
+import com.smartDine.entity.RequestType;
+import com.smartDine.repository.CustomerRepository;
+import com.smartDine.repository.NotificationRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Not transactional: every batch of the job runs in its own transaction, and the data is
+ * removed afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class NotificationRetentionJobTest {
+
+    @Autowired
+    private NotificationRetentionJob retentionJob;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Customer receiver;
+    private Customer sender;
+
+    @BeforeEach
+    void setUp() {
+        receiver = customerRepository.save(new Customer("Retention Receiver", "retention.receiver@smartdine.com", "password", 730000001L));
+        sender = customerRepository.save(new Customer("Retention Sender", "retention.sender@smartdine.com", "password", 730000002L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll(notificationRepository.findByReceiverOrderByDateDesc(receiver));
+        customerRepository.deleteAll(List.of(receiver, sender));
+    }
+
+    @Test
+    @DisplayName("Should delete old read notifications but keep unread, recent and pending ones")
+    void purgesOldReadNotifications() {
+        LocalDateTime old = LocalDateTime.now().minusDays(60);
+        notification("Antigua leída", old, true, null);
+        Notification unread = notification("Antigua sin leer", old, false, null);
+        Notification recent = notification("Reciente", LocalDateTime.now(), true, null);
+        Request pending = new Request(sender, receiver, RequestType.FRIEND_REQUEST);
+        pending.setDate(old);
+        pending = notificationRepository.save(pending);
+        pending.markAsRead();
+        pending = notificationRepository.save(pending);
+        Request accepted = new Request(sender, receiver, RequestType.FRIEND_REQUEST);
+        accepted.setDate(old);
+        // Resolved before it is stored, as only one request between the two can be pending
+        accepted.accept();
+        accepted = notificationRepository.save(accepted);
+        accepted.markAsRead();
+        notificationRepository.save(accepted);
+        double before = meterRegistry.counter("notifications.retention.purged").count();
+
+        NotificationRetentionJob.Result result = retentionJob.run();
+
+        assertEquals(2, result.purged());
+        List<Long> remaining = ids();
+        assertEquals(3, remaining.size());
+        assertTrue(remaining.containsAll(List.of(unread.getId(), recent.getId(), pending.getId())));
+        assertEquals(2, meterRegistry.counter("notifications.retention.purged").count() - before);
+        assertTrue(meterRegistry.timer("notifications.retention.duration").count() > 0);
+    }
+
+    @Test
+    @DisplayName("Should compact old read notifications of the same group into a digest")
+    void compactsRepeatedNotifications() {
+        LocalDateTime old = LocalDateTime.now().minusHours(5);
+        notification("Ana se ha unido", old, true, "open-reservation-joins:1");
+        Notification unread = notification("Luis se ha unido", old.plusMinutes(1), false, "open-reservation-joins:1");
+        notification("Marta se ha unido", old.plusMinutes(2), true, "open-reservation-joins:1");
+        Notification newest = notification("Eva se ha unido", old.plusMinutes(3), true, "open-reservation-joins:1");
+        Notification other = notification("Reserva nueva", old, true, "restaurant-reservations:1");
+        Notification fresh = notification("Pablo se ha unido", LocalDateTime.now(), true, "open-reservation-joins:1");
+        assertEquals(1, unreadCounter.get(receiver.getId()));
+
+        NotificationRetentionJob.Result result = retentionJob.run();
+
+        assertEquals(2, result.compacted());
+        assertEquals(List.of(unread.getId(), newest.getId(), other.getId(), fresh.getId()).stream().sorted().toList(), ids());
+        Notification digest = notificationRepository.findById(newest.getId()).orElseThrow();
+        assertEquals("Eva se ha unido (y 2 más)", digest.getMessage());
+        assertEquals(3, digest.getGroupedCount());
+        assertTrue(digest.isRead());
+        assertEquals(1, unreadCounter.get(receiver.getId()));
+
+        // A later digest of the same group keeps counting
+        notification("Sara se ha unido", old.plusMinutes(4), true, "open-reservation-joins:1");
+        retentionJob.run();
+        Notification redigested = notificationRepository.findByReceiverOrderByDateDesc(receiver).stream()
+            .filter(notification -> notification.getMessage().startsWith("Sara")).findFirst().orElseThrow();
+        assertEquals("Sara se ha unido (y 3 más)", redigested.getMessage());
+        assertEquals(4, redigested.getGroupedCount());
+    }
+
+    @Test
+    @DisplayName("Should keep every unread booking notice of a restaurant")
+    void keepsUnreadReservationNotices() {
+        LocalDateTime old = LocalDateTime.now().minusHours(5);
+        Notification first = notification("Ana ha hecho una reserva el día 2026-11-02", old, false, "restaurant-reservations:1");
+        Notification second = notification("Luis ha hecho una reserva el día 2026-11-03", old.plusMinutes(1), false, "restaurant-reservations:1");
+        Notification third = notification("Eva ha hecho una reserva el día 2026-11-04", old.plusMinutes(2), false, "restaurant-reservations:1");
+
+        NotificationRetentionJob.Result result = retentionJob.run();
+
+        assertEquals(0, result.compacted());
+        assertEquals(List.of(first.getId(), second.getId(), third.getId()), ids());
+        assertEquals("Luis ha hecho una reserva el día 2026-11-03",
+            notificationRepository.findById(second.getId()).orElseThrow().getMessage());
+        assertEquals(3, unreadCounter.get(receiver.getId()));
+    }
+
+    /**
+     * Stores a notification; new notifications are always stored unread, so read ones are
+     * marked afterwards.
+     */
+    private Notification notification(String message, LocalDateTime date, boolean read, String groupKey) {
+        Notification notification = new Notification(receiver, message);
+        notification.setDate(date);
+        notification.setGroupKey(groupKey);
+        notification = notificationRepository.save(notification);
+        if (read) {
+            notification.markAsRead();
+            notification = notificationRepository.save(notification);
+        }
+        return notification;
+    }
+
+    private List<Long> ids() {
+        return notificationRepository.findByReceiverOrderByDateDesc(receiver).stream()
+            .map(Notification::getId).sorted().toList();
+    }
+}
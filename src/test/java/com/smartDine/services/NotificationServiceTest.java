@@ -1,5 +1,6 @@
 package com.smartDine.services;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,12 +14,17 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.smartDine.dto.NotificationDTO;
 import com.smartDine.entity.Customer;
 import com.smartDine.entity.Notification;
 import com.smartDine.entity.Request;
@@ -31,6 +37,12 @@ class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UnreadNotificationCounter unreadCounter;
+
     @InjectMocks
     private NotificationService notificationService;
 
@@ -79,6 +91,7 @@ class NotificationServiceTest {
             assertEquals(30L, result.getId());
             assertEquals("New message", result.getMessage());
             assertEquals(user, result.getReceiver());
+            verify(eventPublisher).publishEvent(any(NotificationsDispatchedEvent.class));
         }
     }
 
@@ -197,6 +210,19 @@ class NotificationServiceTest {
 
             assertTrue(result.isRead());
             verify(notificationRepository).save(notification);
+            verify(unreadCounter).adjustAfterCommit(1L, -1);
+        }
+
+        @Test
+        @DisplayName("Should not count an already read notification again")
+        void markAsReadAlreadyRead() {
+            notification.markAsRead();
+            when(notificationRepository.findById(10L)).thenReturn(Optional.of(notification));
+            when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            notificationService.markAsRead(10L, user);
+
+            verify(unreadCounter, never()).adjustAfterCommit(anyLong(), anyLong());
         }
 
         @Test
@@ -211,4 +237,40 @@ class NotificationServiceTest {
             verify(notificationRepository).save(friendRequest);
         }
     }
+
+    // ========== Inbox Tests ==========
+    @Nested
+    @DisplayName("inbox")
+    class InboxTests {
+
+        @Test
+        @DisplayName("Should read the page after the cursor")
+        void getInboxPageAfterCursor() {
+            when(notificationRepository.findInboxPage(eq(1L), eq(true), eq(LocalDateTime.of(2025, 5, 1, 10, 30)),
+                    eq(10L), any())).thenReturn(List.of(friendRequest));
+
+            List<NotificationDTO> page = notificationService.getInboxPage(user, "2025-05-01T10:30_10", 20, true);
+
+            assertEquals(1, page.size());
+            assertEquals(20L, page.get(0).getId());
+        }
+
+        @Test
+        @DisplayName("Should reject invalid cursors and limits")
+        void getInboxPageInvalid() {
+            assertThrows(IllegalArgumentException.class, () -> notificationService.getInboxPage(user, "10", 20, false));
+            assertThrows(IllegalArgumentException.class, () -> notificationService.getInboxPage(user, null, 0, false));
+            assertThrows(IllegalArgumentException.class, () -> notificationService.getInboxPage(user, null, 101, false));
+        }
+
+        @Test
+        @DisplayName("Should mark all as read with one update and adjust the unread count")
+        void markAllAsRead() {
+            when(notificationRepository.markAllAsRead(1L)).thenReturn(3);
+
+            assertEquals(3, notificationService.markAllAsRead(user));
+
+            verify(unreadCounter).adjustAfterCommit(1L, -3);
+        }
+    }
 }
@@ -0,0 +1,241 @@
+package com.smartDine.services;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.smartDine.dto.NotificationDTO;
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Notification;
+import com.smartDine.repository.NotificationRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationStreamServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationStreamService streamService;
+    private Customer user;
+    private Customer otherUser;
+
+    @BeforeEach
+    void setUp() {
+        streamService = service(8, 2);
+        user = customer(1L);
+        otherUser = customer(2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should push a stored notification to every stream of its receiver only")
+    void fansOutToReceiverStreams() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        streamService.subscribe(user, null, first);
+        streamService.subscribe(user, null, second);
+        streamService.subscribe(otherUser, null, other);
+
+        streamService.onNotificationsStored(event(1L, notification(5L, "Nueva reserva")));
+
+        assertEquals(List.of(5L), first.awaitIds(1));
+        assertEquals(List.of(5L), second.awaitIds(1));
+        Thread.sleep(50);
+        assertTrue(other.ids().isEmpty());
+        assertTrue(first.text().contains("event:notification"));
+    }
+
+    @Test
+    @DisplayName("Should replay the notifications missed after the last event id without duplicates")
+    void replaysMissedNotifications() throws Exception {
+        when(notificationRepository.findByReceiverIdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(10L), any()))
+            .thenReturn(List.of(stored(11L), stored(12L)));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        streamService.subscribe(user, 10L, emitter);
+        streamService.onNotificationsStored(event(1L, notification(12L, "Repetida"), notification(13L, "Nueva")));
+
+        assertEquals(List.of(11L, 12L, 13L), emitter.awaitIds(3));
+    }
+
+    @Test
+    @DisplayName("Should push notifications committed out of id order")
+    void pushesLateCommits() throws Exception {
+        when(notificationRepository.findByReceiverIdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(10L), any()))
+            .thenReturn(List.of(stored(12L)));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        streamService.subscribe(user, 10L, emitter);
+        streamService.onNotificationsStored(event(1L, notification(14L, "Primera en confirmarse")));
+        streamService.onNotificationsStored(event(1L, notification(13L, "Confirmada después")));
+        streamService.onNotificationsStored(event(1L, notification(11L, "Lote retrasado")));
+
+        assertEquals(List.of(12L, 14L, 13L, 11L), emitter.awaitIds(4));
+    }
+
+    @Test
+    @DisplayName("Should ask the client to reload when too many notifications were missed")
+    void resyncsWhenTooFarBehind() throws Exception {
+        streamService.shutdown();
+        streamService = service(8, 1);
+        when(notificationRepository.findByReceiverIdAndIdGreaterThanOrderByIdAsc(eq(1L), eq(10L), any()))
+            .thenReturn(List.of(stored(11L), stored(12L)));
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        streamService.subscribe(user, 10L, emitter);
+
+        assertTrue(emitter.text().contains("event:resync"));
+        assertTrue(emitter.ids().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should close the stream of a client that falls behind")
+    void closesSlowStreams() throws Exception {
+        streamService.shutdown();
+        streamService = service(1, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        streamService.subscribe(user, null, slow);
+
+        streamService.onNotificationsStored(event(1L, notification(1L, "Uno")));
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+        // One notification is being sent and one fills the queue
+        streamService.onNotificationsStored(event(1L, notification(2L, "Dos"), notification(3L, "Tres")));
+
+        release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, streamService.openStreams(1L));
+    }
+
+    @Test
+    @DisplayName("Should close the oldest stream when a user opens too many")
+    void limitsStreamsPerUser() throws Exception {
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            streamService.subscribe(user, null, emitter);
+        }
+
+        assertEquals(5, streamService.openStreams(1L));
+        assertTrue(emitters.get(0).completed.await(1, TimeUnit.SECONDS));
+        assertFalse(emitters.get(5).completed.await(50, TimeUnit.MILLISECONDS));
+    }
+
+    private NotificationStreamService service(int queueCapacity, int replayLimit) {
+        return new NotificationStreamService(notificationRepository, transactionManager, new SimpleMeterRegistry(),
+            60000L, queueCapacity, 5, replayLimit, 1, 0L);
+    }
+
+    private static NotificationsDispatchedEvent event(Long receiverId, NotificationDTO... notifications) {
+        return new NotificationsDispatchedEvent(Map.of(receiverId, List.of(notifications)));
+    }
+
+    private static NotificationDTO notification(Long id, String message) {
+        return new NotificationDTO(id, message, LocalDateTime.now(), false, "NOTIFICATION", null, null, null, null);
+    }
+
+    private Notification stored(Long id) {
+        Notification notification = new Notification(user, "Perdida " + id);
+        notification.setId(id);
+        return notification;
+    }
+
+    private static Customer customer(Long id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        customer.setName("User " + id);
+        return customer;
+    }
+
+    /**
+     * Emitter that records what is sent instead of writing a response.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final StringBuilder text = new StringBuilder();
+        private final List<Long> ids = new ArrayList<>();
+        private final CountDownLatch release;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter() {
+            this(null);
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            synchronized (this) {
+                builder.build().forEach(part -> {
+                    if (part.getData() instanceof String string) {
+                        text.append(string);
+                    } else if (part.getData() instanceof NotificationDTO notification) {
+                        ids.add(notification.getId());
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        synchronized String text() {
+            return text.toString();
+        }
+
+        synchronized List<Long> ids() {
+            return new ArrayList<>(ids);
+        }
+
+        List<Long> awaitIds(int count) throws InterruptedException {
+            for (int i = 0; i < 250 && ids().size() < count; i++) {
+                Thread.sleep(20);
+            }
+            return ids();
+        }
+    }
+}
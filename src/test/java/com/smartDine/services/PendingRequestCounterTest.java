@@ -0,0 +1,83 @@
+package com.smartDine.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.smartDine.entity.RequestStatus;
+import com.smartDine.entity.RequestType;
+import com.smartDine.repository.RequestRepository;
+
+@ExtendWith(MockitoExtension.class)
+class PendingRequestCounterTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    private PendingRequestCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new PendingRequestCounter(requestRepository, 60_000, 100);
+    }
+
+    @Test
+    @DisplayName("Should load a count once and then adjust it in memory")
+    void adjustsCachedCount() {
+        when(requestRepository.countByReceiverIdAndRequestTypeAndStatus(1L, RequestType.FRIEND_REQUEST, RequestStatus.PENDING))
+            .thenReturn(2L);
+
+        assertEquals(2, counter.get(1L, RequestType.FRIEND_REQUEST));
+        counter.adjustAfterCommit(1L, RequestType.FRIEND_REQUEST, 1);
+        counter.adjustAfterCommit(1L, RequestType.FRIEND_REQUEST, -1);
+        counter.adjustAfterCommit(1L, RequestType.FRIEND_REQUEST, -1);
+
+        assertEquals(1, counter.get(1L, RequestType.FRIEND_REQUEST));
+        verify(requestRepository, times(1))
+            .countByReceiverIdAndRequestTypeAndStatus(1L, RequestType.FRIEND_REQUEST, RequestStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("Should ignore adjustments for counts that are not loaded")
+    void ignoresUnloadedCounts() {
+        counter.adjustAfterCommit(1L, RequestType.FRIEND_REQUEST, 5);
+        when(requestRepository.countByReceiverIdAndRequestTypeAndStatus(1L, RequestType.FRIEND_REQUEST, RequestStatus.PENDING))
+            .thenReturn(0L);
+
+        assertEquals(0, counter.get(1L, RequestType.FRIEND_REQUEST));
+    }
+
+    @Test
+    @DisplayName("Should not cache a count read while a request change is committing")
+    void skipsCountsReadDuringChanges() {
+        when(requestRepository.countByReceiverIdAndRequestTypeAndStatus(1L, RequestType.FRIEND_REQUEST, RequestStatus.PENDING))
+            .thenReturn(3L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counter.adjustAfterCommit(1L, RequestType.FRIEND_REQUEST, 1);
+            // Read once the new request is visible, before the adjustment runs
+            assertEquals(3, counter.get(1L, RequestType.FRIEND_REQUEST));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(3, counter.get(1L, RequestType.FRIEND_REQUEST));
+        assertEquals(3, counter.get(1L, RequestType.FRIEND_REQUEST));
+        verify(requestRepository, times(2))
+            .countByReceiverIdAndRequestTypeAndStatus(1L, RequestType.FRIEND_REQUEST, RequestStatus.PENDING);
+    }
+}
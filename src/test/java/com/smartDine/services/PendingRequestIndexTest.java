@@ -0,0 +1,81 @@
+package com.smartDine.services;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.smartDine.entity.RequestType;
+import com.smartDine.repository.RequestRepository;
+
+@ExtendWith(MockitoExtension.class)
+class PendingRequestIndexTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    private PendingRequestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PendingRequestIndex(requestRepository, 60_000, 100);
+    }
+
+    @Test
+    @DisplayName("Should answer both directions from one cached probe")
+    void probesOncePerPair() {
+        when(requestRepository.existsByPendingKey("FRIEND_REQUEST:1:2")).thenReturn(true);
+
+        assertTrue(index.isPending(RequestType.FRIEND_REQUEST, 1L, 2L));
+        assertTrue(index.isPending(RequestType.FRIEND_REQUEST, 2L, 1L));
+
+        verify(requestRepository, times(1)).existsByPendingKey("FRIEND_REQUEST:1:2");
+    }
+
+    @Test
+    @DisplayName("Should follow created and resolved requests without querying again")
+    void tracksCreatedAndResolvedRequests() {
+        when(requestRepository.existsByPendingKey("FRIEND_REQUEST:3:7")).thenReturn(false);
+        assertFalse(index.isPending(RequestType.FRIEND_REQUEST, 7L, 3L));
+
+        index.requestCreated("FRIEND_REQUEST:3:7");
+        assertTrue(index.isPending(RequestType.FRIEND_REQUEST, 3L, 7L));
+
+        index.requestResolved("FRIEND_REQUEST:3:7");
+        assertFalse(index.isPending(RequestType.FRIEND_REQUEST, 7L, 3L));
+
+        verify(requestRepository, times(1)).existsByPendingKey("FRIEND_REQUEST:3:7");
+    }
+
+    @Test
+    @DisplayName("Should check a cached pending key again before a request is stored")
+    void confirmsPendingBeforeInsert() {
+        when(requestRepository.existsByPendingKey("FRIEND_REQUEST:1:2")).thenReturn(true, false);
+        assertTrue(index.isPending(RequestType.FRIEND_REQUEST, 1L, 2L));
+
+        // Resolved without the index hearing about it
+        assertFalse(index.isPendingForInsert(RequestType.FRIEND_REQUEST, 2L, 1L));
+        assertFalse(index.isPendingForInsert(RequestType.FRIEND_REQUEST, 1L, 2L));
+
+        verify(requestRepository, times(2)).existsByPendingKey("FRIEND_REQUEST:1:2");
+    }
+
+    @Test
+    @DisplayName("Should forget keys after the time to live")
+    void expiresKeys() throws InterruptedException {
+        index = new PendingRequestIndex(requestRepository, 5, 100);
+        when(requestRepository.existsByPendingKey("FRIEND_REQUEST:1:2")).thenReturn(true, false);
+        assertTrue(index.isPending(RequestType.FRIEND_REQUEST, 1L, 2L));
+
+        Thread.sleep(10);
+
+        assertFalse(index.isPending(RequestType.FRIEND_REQUEST, 1L, 2L));
+    }
+}
@@ -0,0 +1,113 @@
+package com.smartDine.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.smartDine.entity.Business;
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Role;
+import com.smartDine.entity.User;
+import com.smartDine.services.PrincipalCache.CachedPrincipal;
+
+class PrincipalCacheTest {
+
+    static PrincipalCache createPrincipalCache(long ttlMillis, int maxSize) {
+        PrincipalCache cache = new PrincipalCache();
+        ReflectionTestUtils.setField(cache, "ttlMillis", ttlMillis);
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+        return cache;
+    }
+
+    private static Customer customer(long id) {
+        Customer customer = new Customer("Customer " + id, "customer" + id + "@smartdine.com", "password", 600000000L + id);
+        customer.setId(id);
+        return customer;
+    }
+
+    @Test
+    @DisplayName("Should return a snapshot of a cached user until it is invalidated")
+    void cachesUntilInvalidated() {
+        PrincipalCache cache = createPrincipalCache(60000L, 10);
+        Customer customer = customer(1L);
+
+        cache.put(customer);
+        assertEquals(new CachedPrincipal(1L, "Customer 1", "customer1@smartdine.com", Role.ROLE_CUSTOMER,
+            JwtService.CUSTOMER_TYPE), cache.get(1L));
+
+        cache.invalidate(1L);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Should keep the snapshot unchanged when the cached entity is modified afterwards")
+    void snapshotsAreIndependentOfTheEntity() {
+        PrincipalCache cache = createPrincipalCache(60000L, 10);
+        Customer customer = customer(1L);
+        cache.put(customer);
+
+        customer.setEmail("changed@smartdine.com");
+        customer.setRole("admin");
+
+        assertEquals("customer1@smartdine.com", cache.get(1L).email());
+        assertEquals(Role.ROLE_CUSTOMER, cache.get(1L).role());
+    }
+
+    @Test
+    @DisplayName("Should build a new user of the cached subtype on every request")
+    void buildsFreshUsers() {
+        PrincipalCache cache = createPrincipalCache(60000L, 10);
+        Business business = new Business("Business", "business@smartdine.com", "password", 611111111L);
+        business.setId(2L);
+        cache.put(business);
+
+        User first = cache.get(2L).toUser();
+        User second = cache.get(2L).toUser();
+
+        assertInstanceOf(Business.class, first);
+        assertEquals(2L, first.getId());
+        assertEquals(Role.ROLE_BUSINESS, first.getRole());
+        assertNotSame(first, second);
+        assertTrue(cache.get(2L).matches("business@smartdine.com", "ROLE_BUSINESS", JwtService.BUSINESS_TYPE));
+        assertFalse(cache.get(2L).matches("business@smartdine.com", "ROLE_CUSTOMER", null));
+    }
+
+    @Test
+    @DisplayName("Should drop entries once their time to live has passed")
+    void expiresEntries() throws InterruptedException {
+        PrincipalCache cache = createPrincipalCache(1L, 10);
+        cache.put(customer(1L));
+
+        Thread.sleep(5);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Should never hold more users than its maximum size")
+    void staysBounded() {
+        PrincipalCache cache = createPrincipalCache(60000L, 3);
+        for (long id = 1; id <= 10; id++) {
+            cache.put(customer(id));
+        }
+
+        assertTrue(cache.size() <= 3);
+        assertEquals(10L, cache.get(10L).id());
+    }
+
+    @Test
+    @DisplayName("Should not cache anything when the time to live is zero")
+    void disabledWithZeroTtl() {
+        PrincipalCache cache = createPrincipalCache(0L, 10);
+        cache.put(customer(1L));
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get(1L));
+    }
+}
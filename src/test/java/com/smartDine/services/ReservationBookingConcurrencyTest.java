@@ -0,0 +1,230 @@
+package com.smartDine.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.smartDine.dto.ReservationDTO;
+import com.smartDine.entity.Business;
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Reservation;
+import com.smartDine.entity.Restaurant;
+import com.smartDine.entity.RestaurantTable;
+import com.smartDine.entity.TimeSlot;
+import com.smartDine.exceptions.TableAlreadyBookedException;
+import com.smartDine.repository.BusinessRepository;
+import com.smartDine.repository.CustomerRepository;
+import com.smartDine.repository.NotificationRepository;
+import com.smartDine.repository.ReservationRepository;
+import com.smartDine.repository.RestaurantRepository;
+import com.smartDine.repository.RestaurantTableRepository;
+import com.smartDine.repository.TimeSlotRepository;
+
+/**
+ * Concurrent stress test for table bookings. Not transactional: every booking commits
+ * on its own thread, and the data is removed afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservationBookingConcurrencyTest {
+
+    private static final int CONTENDERS = 200;
+    private static final int UNRELATED_TABLES = 40;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationOutbox notificationOutbox;
+
+    @Autowired
+    private BusinessRepository businessRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Business owner;
+    private Restaurant restaurant;
+    private TimeSlot timeSlot;
+    private List<RestaurantTable> tables;
+    private Customer customer;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        owner = new Business("Stress Owner", "stress.owner@smartdine.com", "password", 710000001L);
+        owner.setRestaurants(new ArrayList<>());
+        owner = businessRepository.save(owner);
+
+        restaurant = new Restaurant();
+        restaurant.setName("Stress Restaurant");
+        restaurant.setAddress("1 Stress St");
+        restaurant.setDescription("Description");
+        restaurant.setOwner(owner);
+        restaurant = restaurantRepository.save(restaurant);
+
+        timeSlot = new TimeSlot();
+        timeSlot.setRestaurant(restaurant);
+        timeSlot.setDayOfWeek(DayOfWeek.FRIDAY);
+        timeSlot.setStartTime(21.0);
+        timeSlot.setEndTime(23.0);
+        timeSlot = timeSlotRepository.save(timeSlot);
+
+        tables = new ArrayList<>();
+        for (int i = 0; i <= UNRELATED_TABLES; i++) {
+            RestaurantTable table = new RestaurantTable();
+            table.setRestaurant(restaurant);
+            table.setNumber(i + 1);
+            table.setCapacity(4);
+            table.setOutside(false);
+            tables.add(tableRepository.save(table));
+        }
+
+        customer = new Customer("Stress Customer", "stress.customer@smartdine.com", "password", 710000002L);
+        customer.setReservations(new ArrayList<>());
+        customer = customerRepository.save(customer);
+
+        date = LocalDate.now().plusDays(7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll(reservationRepository.findByCustomerId(customer.getId()));
+        notificationOutbox.dispatchPending();
+        notificationRepository.deleteAll(notificationRepository.findByReceiverOrderByDateDesc(owner));
+        customerRepository.delete(customer);
+        tableRepository.deleteAll(tables);
+        timeSlotRepository.delete(timeSlot);
+        restaurantRepository.delete(restaurant);
+        businessRepository.deleteById(owner.getId());
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of hundreds of concurrent bookings of the same slot win")
+    void exactlyOneBookingWins() throws Exception {
+        RestaurantTable table = tables.get(0);
+        List<Callable<Boolean>> bookings = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            bookings.add(() -> book(table));
+        }
+
+        List<Boolean> results = runConcurrently(bookings);
+
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        assertEquals(1, reservationRepository.findByRestaurantIdAndDateAndTimeSlotId(
+            restaurant.getId(), date, timeSlot.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Should not block unrelated tables while a slot is being booked")
+    void unrelatedSlotsDoNotWait() throws Exception {
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService holder = Executors.newSingleThreadExecutor();
+        Future<?> held = holder.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            book(tables.get(0));
+            holding.countDown();
+            await(release);
+        }));
+        assertTrue(holding.await(10, TimeUnit.SECONDS));
+
+        try {
+            List<Callable<Boolean>> bookings = new ArrayList<>();
+            for (int i = 1; i <= UNRELATED_TABLES; i++) {
+                RestaurantTable table = tables.get(i);
+                bookings.add(() -> book(table));
+            }
+            List<Boolean> results = runConcurrently(bookings);
+
+            // All of them commit while the first slot is still held by an open transaction
+            assertTrue(results.stream().allMatch(Boolean::booleanValue));
+        } finally {
+            release.countDown();
+            held.get(10, TimeUnit.SECONDS);
+            holder.shutdown();
+        }
+        assertEquals(UNRELATED_TABLES + 1, reservationRepository.findByCustomerId(customer.getId()).size());
+    }
+
+    private boolean book(RestaurantTable table) {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setRestaurantId(restaurant.getId());
+        dto.setTimeSlotId(timeSlot.getId());
+        dto.setTableId(table.getId());
+        dto.setNumCustomers(2);
+        dto.setDate(date);
+        try {
+            Reservation reservation = reservationService.createReservation(dto, customer);
+            return reservation.getId() != null;
+        } catch (TableAlreadyBookedException e) {
+            return false;
+        }
+    }
+
+    private List<Boolean> runConcurrently(List<Callable<Boolean>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<Boolean> results = new ArrayList<>();
+            for (Future<Boolean> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.smartDine.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.smartDine.entity.Business;
+import com.smartDine.entity.Customer;
+import com.smartDine.entity.Reservation;
+import com.smartDine.entity.ReservationParticipation;
+import com.smartDine.entity.ReservationStatus;
+import com.smartDine.entity.Restaurant;
+import com.smartDine.entity.RestaurantTable;
+import com.smartDine.entity.TimeSlot;
+import com.smartDine.repository.BusinessRepository;
+import com.smartDine.repository.CustomerRepository;
+import com.smartDine.repository.ReservationParticipationRepository;
+import com.smartDine.repository.ReservationRepository;
+import com.smartDine.repository.RestaurantRepository;
+import com.smartDine.repository.RestaurantTableRepository;
+import com.smartDine.repository.TimeSlotRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+
+/**
+ * Checks that hasTimeConflict runs as a single query that loads no entities, whatever
+ * the size of the customer's reservation history. The latency comparison between a small
+ * and a large history is tagged "benchmark" and only runs with -Pdev,benchmark.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ReservationConflictBenchmarkTest {
+
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationParticipationRepository participationRepository;
+
+    @Autowired
+    private BusinessRepository businessRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private TimeSlotRepository timeSlotRepository;
+
+    @Autowired
+    private RestaurantTableRepository tableRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Restaurant restaurant;
+    private TimeSlot lunch;
+    private RestaurantTable table;
+    private LocalDate monday;
+
+    @BeforeEach
+    void setUp() {
+        Business owner = new Business("Bench Owner", "bench.owner@smartdine.com", "password", 700000001L);
+        owner.setRestaurants(new ArrayList<>());
+        owner = businessRepository.save(owner);
+
+        restaurant = new Restaurant();
+        restaurant.setName("Bench Restaurant");
+        restaurant.setAddress("1 Bench St");
+        restaurant.setDescription("Description");
+        restaurant.setOwner(owner);
+        restaurant = restaurantRepository.save(restaurant);
+
+        lunch = new TimeSlot();
+        lunch.setRestaurant(restaurant);
+        lunch.setDayOfWeek(DayOfWeek.MONDAY);
+        lunch.setStartTime(13.0);
+        lunch.setEndTime(15.0);
+        lunch = timeSlotRepository.save(lunch);
+
+        table = new RestaurantTable();
+        table.setRestaurant(restaurant);
+        table.setNumber(1);
+        table.setCapacity(4);
+        table.setOutside(false);
+        table = tableRepository.save(table);
+
+        monday = LocalDate.of(2030, 1, 7);
+    }
+
+    @Test
+    @DisplayName("Should detect owned and participated conflicts, ignoring cancelled and excluded reservations")
+    void detectsConflicts() {
+        Customer owner = createCustomer("owner@bench.com", 700000010L);
+        Customer participant = createCustomer("participant@bench.com", 700000011L);
+        Reservation reservation = createReservation(owner, monday, ReservationStatus.CONFIRMED);
+        participationRepository.save(new ReservationParticipation(reservation, participant));
+        Reservation cancelled = createReservation(participant, monday.plusWeeks(1), ReservationStatus.CANCELLED);
+
+        assertTrue(reservationService.hasTimeConflict(owner, lunch, monday, null));
+        assertTrue(reservationService.hasTimeConflict(participant, lunch, monday, null));
+        assertFalse(reservationService.hasTimeConflict(owner, lunch, monday, reservation.getId()));
+        assertFalse(reservationService.hasTimeConflict(participant, lunch, cancelled.getDate(), null));
+        assertFalse(reservationService.hasTimeConflict(owner, lunch, monday.plusDays(1), null));
+    }
+
+    @Test
+    @DisplayName("Should run a single query with no entity loads regardless of history size")
+    void staysFlatAsHistoryGrows() {
+        Customer light = createCustomer("light@bench.com", 700000020L);
+        Customer heavy = createCustomer("heavy@bench.com", 700000021L);
+        createHistory(light, heavy);
+
+        withStatistics(statistics -> {
+            assertSingleQuery(light, statistics);
+            assertSingleQuery(heavy, statistics);
+        });
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Should keep hasTimeConflict latency flat as history grows")
+    void latencyStaysFlatAsHistoryGrows() {
+        Customer light = createCustomer("light@bench.com", 700000020L);
+        Customer heavy = createCustomer("heavy@bench.com", 700000021L);
+        createHistory(light, heavy);
+
+        long lightNanos = medianNanos(light);
+        long heavyNanos = medianNanos(heavy);
+
+        System.out.printf("hasTimeConflict median: 1 reservation = %d us, 500 reservations = %d us%n",
+            lightNanos / 1_000, heavyNanos / 1_000);
+        // A per-reservation scan would grow with the history; the indexed query must not
+        assertTrue(heavyNanos < Math.max(5 * lightNanos, 1_000_000L),
+            "500 reservations took " + heavyNanos + " ns against " + lightNanos + " ns for one");
+    }
+
+    private void createHistory(Customer light, Customer heavy) {
+        createReservation(light, monday.minusWeeks(1), ReservationStatus.COMPLETED);
+        for (int i = 1; i <= 500; i++) {
+            createReservation(heavy, monday.minusWeeks(i), ReservationStatus.COMPLETED);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void withStatistics(Consumer<Statistics> check) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            check.accept(statistics);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private void assertSingleQuery(Customer customer, Statistics statistics) {
+        statistics.clear();
+        reservationService.hasTimeConflict(customer, lunch, monday, null);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    private long medianNanos(Customer customer) {
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            reservationService.hasTimeConflict(customer, lunch, monday, null);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+
+    private Customer createCustomer(String email, Long phoneNumber) {
+        Customer customer = new Customer("Bench Customer", email, "password", phoneNumber);
+        customer.setReservations(new ArrayList<>());
+        return customerRepository.save(customer);
+    }
+
+    private Reservation createReservation(Customer customer, LocalDate date, ReservationStatus status) {
+        Reservation reservation = new Reservation();
+        reservation.setCustomer(customer);
+        reservation.setRestaurant(restaurant);
+        reservation.setTimeSlot(lunch);
+        reservation.setRestaurantTable(table);
+        reservation.setNumGuests(2);
+        reservation.setDate(date);
+        reservation.setCreatedAt(LocalDate.now());
+        reservation.setStatus(status);
+        return reservationRepository.save(reservation);
+    }
+}
@@ -7,7 +7,10 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,7 +18,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.smartDine.dto.ReservationCursor;
 import com.smartDine.dto.ReservationDTO;
+import com.smartDine.dto.ReservationDetailsDTO;
+import com.smartDine.dto.RestaurantReservationDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Customer;
 import com.smartDine.entity.Reservation;
@@ -26,12 +32,16 @@ import com.smartDine.entity.RestaurantTable;
 import com.smartDine.entity.TimeSlot;
 import com.smartDine.exceptions.ExpiredOpenReservationException;
 import com.smartDine.exceptions.IllegalReservationStateChangeException;
+import com.smartDine.exceptions.TableAlreadyBookedException;
 import com.smartDine.repository.BusinessRepository;
 import com.smartDine.repository.CustomerRepository;
 import com.smartDine.repository.RestaurantRepository;
 import com.smartDine.repository.RestaurantTableRepository;
 import com.smartDine.repository.TimeSlotRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
 
 @SpringBootTest
@@ -60,6 +70,12 @@ class ReservationServiceTest {
     @Autowired
     private FriendshipService friendshipService;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     @DisplayName("Should create a reservation with specified table and date")
     void createReservationAssignsTable() {
@@ -89,6 +105,79 @@ class ReservationServiceTest {
         assertEquals(LocalDate.now(), reservation.getCreatedAt());
     }
 
+    @Test
+    @DisplayName("Should reject a second booking of the same table, date and time slot")
+    void createReservationRejectsDoubleBooking() {
+        Business owner = createBusiness("OwnerDouble", "ownerdouble@smartdine.com", 111111112L);
+        Restaurant restaurant = createRestaurant(owner, "Double Booking Restaurant");
+        TimeSlot timeSlot = createTimeSlot(restaurant, DayOfWeek.MONDAY, 12.0, 14.0);
+        RestaurantTable table = createTable(restaurant, 1, 4);
+        Customer first = createCustomer("First", "firstbooker@smartdine.com", 222222223L);
+        Customer second = createCustomer("Second", "secondbooker@smartdine.com", 222222224L);
+
+        ReservationDTO dto = new ReservationDTO();
+        dto.setRestaurantId(restaurant.getId());
+        dto.setTimeSlotId(timeSlot.getId());
+        dto.setTableId(table.getId());
+        dto.setNumCustomers(2);
+        dto.setDate(LocalDate.now().plusDays(1));
+
+        reservationService.createReservation(dto, first);
+
+        assertThrows(TableAlreadyBookedException.class, () -> reservationService.createReservation(dto, second));
+    }
+
+    @Test
+    @DisplayName("Should let the database reject a second reservation holding the same booking key")
+    void bookingKeyIsUnique() {
+        Business owner = createBusiness("OwnerKey", "ownerkey@smartdine.com", 111111113L);
+        Restaurant restaurant = createRestaurant(owner, "Booking Key Restaurant");
+        TimeSlot timeSlot = createTimeSlot(restaurant, DayOfWeek.MONDAY, 12.0, 14.0);
+        RestaurantTable table = createTable(restaurant, 1, 4);
+        Customer first = createCustomer("KeyFirst", "keyfirst@smartdine.com", 222222225L);
+        Customer second = createCustomer("KeySecond", "keysecond@smartdine.com", 222222226L);
+        LocalDate date = LocalDate.now().plusDays(1);
+
+        Reservation booked = reservationService.createReservation(bookingOf(restaurant, timeSlot, table, date), first);
+        assertEquals(Reservation.bookingKey(table.getId(), date, timeSlot.getId()), booked.getBookingKey());
+
+        // A booking that slipped past the availability check, e.g. from another instance
+        Reservation duplicate = new Reservation();
+        duplicate.setCustomer(second);
+        duplicate.setRestaurant(restaurant);
+        duplicate.setTimeSlot(timeSlot);
+        duplicate.setRestaurantTable(table);
+        duplicate.setNumGuests(2);
+        duplicate.setDate(date);
+        duplicate.setCreatedAt(LocalDate.now());
+        duplicate.setStatus(ReservationStatus.CONFIRMED);
+        duplicate.setBookingKey(booked.getBookingKey());
+
+        assertThrows(PersistenceException.class, () -> {
+            entityManager.persist(duplicate);
+            entityManager.flush();
+        });
+    }
+
+    @Test
+    @DisplayName("Should free the slot when a reservation is cancelled")
+    void cancellingFreesTheSlot() {
+        Business owner = createBusiness("OwnerCancel", "ownercancel@smartdine.com", 111111114L);
+        Restaurant restaurant = createRestaurant(owner, "Cancel Restaurant");
+        TimeSlot timeSlot = createTimeSlot(restaurant, DayOfWeek.MONDAY, 12.0, 14.0);
+        RestaurantTable table = createTable(restaurant, 1, 4);
+        Customer first = createCustomer("CancelFirst", "cancelfirst@smartdine.com", 222222227L);
+        Customer second = createCustomer("CancelSecond", "cancelsecond@smartdine.com", 222222228L);
+        ReservationDTO dto = bookingOf(restaurant, timeSlot, table, LocalDate.now().plusDays(1));
+
+        Reservation booked = reservationService.createReservation(dto, first);
+        Reservation cancelled = reservationService.changeReservationStatus(booked.getId(), ReservationStatus.CANCELLED, first);
+        Reservation rebooked = reservationService.createReservation(dto, second);
+
+        assertNull(cancelled.getBookingKey());
+        assertEquals(booked.getRestaurantTable().getId(), rebooked.getRestaurantTable().getId());
+    }
+
     @Test
     @DisplayName("Should fail when the time slot does not belong to the restaurant")
     void createReservationWithMismatchedTimeSlot() {
@@ -167,6 +256,45 @@ class ReservationServiceTest {
         assertEquals(table.getNumber(), reservations.get(0).getRestaurantTable().getNumber());
     }
 
+    @Test
+    @DisplayName("Should page restaurant reservations by time slot start and id, and stream them in the same order")
+    void getReservationPageFollowsCursor() {
+        Business owner = createBusiness("OwnerPage", "ownerpage@smartdine.com", 999999990L);
+        Restaurant restaurant = createRestaurant(owner, "Owner Restaurant Page");
+        TimeSlot dinner = createTimeSlot(restaurant, DayOfWeek.TUESDAY, 20.0, 22.0);
+        TimeSlot lunch = createTimeSlot(restaurant, DayOfWeek.TUESDAY, 13.0, 15.0);
+        Customer customer = createCustomer("Pager", "pager@smartdine.com", 111222330L);
+        LocalDate reservationDate = LocalDate.now().plusDays(3);
+
+        for (int i = 1; i <= 5; i++) {
+            RestaurantTable table = createTable(restaurant, i, 4);
+            TimeSlot slot = i % 2 == 0 ? lunch : dinner;
+            reservationService.createReservation(reservationFor(restaurant, slot, table, reservationDate), customer);
+        }
+
+        List<RestaurantReservationDTO> collected = new ArrayList<>();
+        String cursor = null;
+        List<RestaurantReservationDTO> page;
+        do {
+            page = reservationService.getReservationPage(restaurant.getId(), reservationDate, owner, cursor, 2);
+            collected.addAll(page);
+            if (!page.isEmpty()) {
+                cursor = ReservationCursor.of(page.get(page.size() - 1)).toString();
+            }
+        } while (page.size() == 2);
+
+        assertEquals(5, collected.size());
+        assertEquals(List.of(13.0, 13.0, 20.0, 20.0, 20.0),
+            collected.stream().map(RestaurantReservationDTO::getStartTime).toList());
+        assertEquals(List.of(2, 4, 1, 3, 5),
+            collected.stream().map(RestaurantReservationDTO::getNumTable).toList());
+
+        List<RestaurantReservationDTO> streamed = new ArrayList<>();
+        reservationService.streamReservations(restaurant.getId(), reservationDate, owner, streamed::add);
+        assertEquals(collected.stream().map(RestaurantReservationDTO::getId).toList(),
+            streamed.stream().map(RestaurantReservationDTO::getId).toList());
+    }
+
     @Test
     @DisplayName("Should fail to get reservations when not owner")
     void getReservationsByRestaurantAndDateAsNonOwner() {
@@ -580,6 +708,43 @@ class ReservationServiceTest {
         assertEquals(List.of(customer1.getId(), customer2.getId()), customerIds);
     }
 
+    @Test
+    @DisplayName("getReservationDetailsForCustomer builds owned and participated details with a single statement")
+    void getReservationDetailsForCustomerUsesSingleStatement() {
+        Business owner = createBusiness("Owner Details", "ownerdetails@smartdine.com", 777777779L);
+        Restaurant restaurant = createRestaurant(owner, "Restaurant Details");
+        TimeSlot timeSlot = createTimeSlot(restaurant, DayOfWeek.TUESDAY, 18.0, 20.0);
+        RestaurantTable table = createTable(restaurant, 1, 6);
+        Customer customer = createCustomer("Customer Details", "customerdetails@smartdine.com", 888888889L);
+        Customer friend = createCustomer("Friend Details", "frienddetails@smartdine.com", 888888890L);
+
+        for (int i = 1; i <= 6; i++) {
+            reservationService.createReservation(reservationFor(restaurant, timeSlot, table, LocalDate.now().plusDays(i)), customer);
+        }
+        for (int i = 10; i <= 12; i++) {
+            Reservation joined = reservationService.createReservation(
+                reservationFor(restaurant, timeSlot, table, LocalDate.now().plusDays(i)), friend);
+            reservationService.addParticipantToReservation(joined.getId(), customer, 1);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        List<ReservationDetailsDTO> details = reservationService.getReservationDetailsForCustomer(customer.getId());
+        long statements = statistics.getPrepareStatementCount();
+        long entityLoads = statistics.getEntityLoadCount();
+        statistics.setStatisticsEnabled(false);
+
+        assertEquals(1, statements);
+        assertEquals(0, entityLoads);
+        assertEquals(9, details.size());
+        assertEquals(LocalDate.now().plusDays(12).toString(), details.get(0).getReservationDate());
+        assertEquals("Restaurant Details", details.get(0).getRestaurantName());
+        assertEquals(18.0, details.get(0).getStartTime());
+    }
+
     @Test
     @DisplayName("getAllReservationsForCustomer prevents owner from being added as participant")
     void getAllReservationsForCustomerOwnerCannotBeParticipant() {
@@ -935,6 +1100,16 @@ class ReservationServiceTest {
         assertEquals("Only the reservation owner or the participant themselves can remove a participant", exception.getMessage());
     }
 
+    private ReservationDTO reservationFor(Restaurant restaurant, TimeSlot timeSlot, RestaurantTable table, LocalDate date) {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setRestaurantId(restaurant.getId());
+        dto.setTimeSlotId(timeSlot.getId());
+        dto.setTableId(table.getId());
+        dto.setNumCustomers(2);
+        dto.setDate(date);
+        return dto;
+    }
+
     private Business createBusiness(String name, String email, Long phoneNumber) {
         Business business = new Business(name, email, "password", phoneNumber);
         business.setRestaurants(new ArrayList<>());
@@ -971,6 +1146,16 @@ class ReservationServiceTest {
         return tableRepository.save(table);
     }
 
+    private ReservationDTO bookingOf(Restaurant restaurant, TimeSlot timeSlot, RestaurantTable table, LocalDate date) {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setRestaurantId(restaurant.getId());
+        dto.setTimeSlotId(timeSlot.getId());
+        dto.setTableId(table.getId());
+        dto.setNumCustomers(2);
+        dto.setDate(date);
+        return dto;
+    }
+
     private Customer createCustomer(String name, String email, Long phoneNumber) {
         Customer customer = new Customer(name, email, "password", phoneNumber);
         customer.setReservations(new ArrayList<>());
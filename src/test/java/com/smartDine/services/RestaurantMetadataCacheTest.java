@@ -0,0 +1,92 @@
+package com.smartDine.services;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.smartDine.dto.RestaurantMetadata;
+import com.smartDine.repository.RestaurantRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class RestaurantMetadataCacheTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RestaurantMetadataCache cache;
+    private RestaurantMetadata metadata;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RestaurantMetadataCache(restaurantRepository, meterRegistry, 60000L, 2);
+        metadata = new RestaurantMetadata(1L, 10L, "Casa Pepe", "Calle Mayor 1", "Tapas", "restaurants/1/images/a.jpg");
+    }
+
+    @Test
+    @DisplayName("Should load a restaurant once and serve later lookups from memory")
+    void readsThrough() {
+        when(restaurantRepository.findMetadataById(1L)).thenReturn(Optional.of(metadata));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(metadata, cache.get(1L));
+        }
+
+        verify(restaurantRepository, times(1)).findMetadataById(1L);
+        assertEquals(4.0, gets("hit"));
+        assertEquals(1.0, gets("miss"));
+        assertEquals(1.0, meterRegistry.get("cache.size").tag("cache", "restaurantMetadata").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should reload a restaurant after it is evicted")
+    void reloadsAfterEviction() {
+        RestaurantMetadata renamed = new RestaurantMetadata(1L, 10L, "Casa Juan", "Calle Mayor 1", "Tapas", null);
+        when(restaurantRepository.findMetadataById(1L)).thenReturn(Optional.of(metadata), Optional.of(renamed));
+
+        cache.get(1L);
+        cache.evict(1L);
+
+        assertEquals("Casa Juan", cache.get(1L).name());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").tag("cache", "restaurantMetadata")
+            .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should not hold more restaurants than its maximum size")
+    void staysBounded() {
+        for (long id = 1; id <= 3; id++) {
+            when(restaurantRepository.findMetadataById(id))
+                .thenReturn(Optional.of(new RestaurantMetadata(id, 10L, "R" + id, "Street", null, null)));
+            cache.get(id);
+        }
+
+        assertEquals(2.0, meterRegistry.get("cache.size").tag("cache", "restaurantMetadata").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException for unknown restaurants")
+    void unknownRestaurant() {
+        when(restaurantRepository.findMetadataById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(99L));
+    }
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tags("cache", "restaurantMetadata", "result", result)
+            .functionCounter().count();
+    }
+}
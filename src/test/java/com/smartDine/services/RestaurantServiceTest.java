@@ -19,10 +19,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
 
 import com.smartDine.adapters.ImageAdapter;
 import com.smartDine.dto.RestaurantDTO;
 import com.smartDine.dto.UploadResponse;
+import com.smartDine.dto.UploadTicketDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Dish;
 import com.smartDine.entity.MenuItem;
@@ -47,6 +49,8 @@ public class RestaurantServiceTest {
     private BusinessRepository businessRepository;
     @Autowired
     private DishRepository dishRepository;
+    @Autowired
+    private RestaurantSearchIndex searchIndex;
 
     @MockBean
     private ImageAdapter imageAdapter;
@@ -68,6 +72,15 @@ public class RestaurantServiceTest {
         testRestaurant = restaurantService.createRestaurant(testOwner, restaurantDTO);
     }
 
+    /**
+     * The index is shared by every test using this context and is only updated on commit,
+     * so tests that rebuild it from uncommitted rows reset it once the rollback is done.
+     */
+    @AfterTransaction
+    void resetSearchIndex() {
+        searchIndex.rebuild();
+    }
+
     @Test
     @DisplayName("Context loads and RestaurantService is not null")
     void contextLoads() {
@@ -94,6 +107,22 @@ public class RestaurantServiceTest {
         assertEquals(owner.getId(), createdRestaurant.getOwner().getId());
     }
 
+    @Test
+    @DisplayName("Should link a restaurant created by an authenticated principal to the stored business")
+    void testCreateRestaurantFromPrincipal() {
+        Business owner = businessRepository.save(new Business("Principal Owner", "principal.owner@test.com", "password", 111111112L));
+        Business principal = (Business) PrincipalCache.CachedPrincipal.of(owner).toUser();
+        RestaurantDTO restaurantDTO = new RestaurantDTO();
+        restaurantDTO.setName("Principal Restaurant");
+        restaurantDTO.setAddress("1 Principal St");
+        restaurantDTO.setDescription("Created from a token");
+
+        Restaurant createdRestaurant = restaurantService.createRestaurant(restaurantDTO, principal);
+
+        assertEquals(owner.getId(), createdRestaurant.getOwner().getId());
+        assertEquals(111111112L, createdRestaurant.getOwner().getPhoneNumber());
+    }
+
     @Test
     @DisplayName("Should throw exception when creating restaurant with duplicate name")
     void testCreateRestaurantWithExistingName() {
@@ -155,6 +184,43 @@ public class RestaurantServiceTest {
         assertEquals(owner.getId(), fetchedRestaurant.getOwner().getId());
     }
 
+    @Test
+    @DisplayName("Should rank search results over names and menu items and tolerate typos")
+    void testSearchRestaurants() {
+        Business owner = new Business("Search Owner", "searchowner@test.com", "password", 454545454L);
+        owner = businessRepository.save(owner);
+        Restaurant pizzeria = restaurantService.createRestaurant(owner, restaurantDTO("Pizzeria Napoli", "1 Via Roma", "Wood oven"));
+        Restaurant tavern = restaurantService.createRestaurant(owner, restaurantDTO("Taberna del Puerto", "2 Harbour Rd", "Seafood"));
+        Restaurant express = restaurantService.createRestaurant(owner, restaurantDTO("Pizza Express", "3 High St", "Fast food"));
+        Dish dish = new Dish();
+        dish.setName("Pizza marinara");
+        dish.setDescription("Tomato and garlic");
+        dish.setPrice(9.5);
+        dish.setRestaurant(tavern);
+        restaurantService.addMenuItem(tavern.getId(), dishRepository.save(dish));
+        // Inside the test transaction the index is only updated after commit, so reload it
+        searchIndex.rebuild();
+
+        List<Restaurant> results = restaurantService.getRestaurants("pizza", 0, 10);
+
+        // A name match ranks above a menu item match
+        assertEquals(List.of(express.getId(), tavern.getId()), results.stream().map(Restaurant::getId).toList());
+        assertEquals(List.of(tavern.getId()),
+            restaurantService.getRestaurants("pizza", 1, 1).stream().map(Restaurant::getId).toList());
+        assertEquals(List.of(pizzeria.getId()),
+            restaurantService.getRestaurants("pizzaria", 0, 10).stream().map(Restaurant::getId).toList());
+        assertEquals(1, restaurantService.getRestaurants(null, 0, 1).size());
+        assertThrows(IllegalArgumentException.class, () -> restaurantService.getRestaurants("pizza", 0, 1000));
+    }
+
+    private static RestaurantDTO restaurantDTO(String name, String address, String description) {
+        RestaurantDTO dto = new RestaurantDTO();
+        dto.setName(name);
+        dto.setAddress(address);
+        dto.setDescription(description);
+        return dto;
+    }
+
     @Test
     @DisplayName("Should delete existing restaurant successfully")
     void deleteExistingRestaurant_shouldRemoveRestaurant() {
@@ -305,11 +371,13 @@ public class RestaurantServiceTest {
         // Mock the adapter response
         when(imageAdapter.uploadImage(any(), any())).thenReturn(mockResponse);
 
-        // When
-        UploadResponse response = restaurantService.uploadRestaurantImage(testRestaurant.getId(), file, testOwner);
+        // When (uploads run on the calling thread in tests)
+        UploadTicketDTO response = restaurantService.uploadRestaurantImage(testRestaurant.getId(), file, testOwner);
 
         // Then
         assertNotNull(response);
+        assertNotNull(response.getTicketId());
+        assertEquals(UploadTicketDTO.Status.COMPLETED, response.getStatus());
         assertNotNull(response.getKey());
         assertTrue(response.getKey().startsWith(expectedKeyPattern), "Key should start with expected pattern");
         assertTrue(response.getKey().endsWith(".jpg"), "Key should end with .jpg");
@@ -327,7 +395,7 @@ public class RestaurantServiceTest {
     @DisplayName("Should throw exception when uploading image for non-existent restaurant")
     void testUploadRestaurantImage_RestaurantNotFound() {
         // Create test owner
-        Business testOwnerTemp = new Business("Test Owner", "testowner@example.com", "password", 222222222L);
+        Business testOwnerTemp = new Business("Test Owner", "testownernotfound@example.com", "password", 232323232L);
         final Business testOwner = businessRepository.save(testOwnerTemp);
 
         // Given
@@ -1,6 +1,10 @@
 package com.smartDine.services;
 
+import java.io.StringWriter;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -22,12 +26,18 @@ import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartDine.dto.AvailabilityGridDTO;
 import com.smartDine.dto.RestaurantTableDTO;
 import com.smartDine.entity.Business;
 import com.smartDine.entity.Restaurant;
+import com.smartDine.entity.ReservationStatus;
 import com.smartDine.entity.RestaurantTable;
+import com.smartDine.entity.TimeSlot;
 import com.smartDine.exceptions.RelatedEntityException;
 import com.smartDine.repository.ReservationRepository;
+import com.smartDine.repository.ReservationRepository.ReservedTable;
 import com.smartDine.repository.RestaurantTableRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +49,9 @@ class RestaurantTableServiceTest {
     @Mock
     private RestaurantService restaurantService;
 
+    @Mock
+    private TableAvailabilityEngine availabilityEngine;
+
     @Mock
     private ReservationRepository reservationRepository;
 
@@ -157,6 +170,7 @@ class RestaurantTableServiceTest {
 
         verify(tableRepository).delete(table);
         verify(tableRepository).flush();
+        verify(availabilityEngine).evictRestaurant(restaurant.getId());
     }
 
     @Test
@@ -194,4 +208,73 @@ class RestaurantTableServiceTest {
 
         assertEquals("No se puede eliminar la mesa porque tiene reservas asociadas.", exception.getMessage());
     }
+
+    @Test
+    @DisplayName("Should count free tables per date and slot from a single range query")
+    void availabilityGridCountsFreeTables() throws Exception {
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        RestaurantTable bigOutside = new RestaurantTable();
+        bigOutside.setId(2L);
+        bigOutside.setNumber(2);
+        bigOutside.setCapacity(8);
+        bigOutside.setOutside(true);
+        bigOutside.setRestaurant(restaurant);
+
+        TimeSlot lunch = new TimeSlot();
+        lunch.setId(10L);
+        lunch.setDayOfWeek(DayOfWeek.MONDAY);
+        lunch.setStartTime(13.0);
+        lunch.setEndTime(15.0);
+
+        when(restaurantService.getTables(restaurant.getId())).thenReturn(List.of(table, bigOutside));
+        when(restaurantService.getTimeSlots(restaurant.getId())).thenReturn(List.of(lunch));
+        when(reservationRepository.findReservedTablesInRange(restaurant.getId(), monday, monday.plusDays(7),
+            ReservationStatus.CANCELLED)).thenReturn(List.of(reserved(monday, 10L, 1L)));
+
+        AvailabilityGridDTO grid = tableService.getAvailabilityGrid(restaurant.getId(), monday, monday.plusDays(7));
+
+        assertEquals(0, grid.freeTables(monday, 10L)[0][1]);
+        assertEquals(1, grid.freeTables(monday, 10L)[1][3]);
+        assertEquals(1, grid.freeTables(monday.plusDays(7), 10L)[0][1]);
+
+        StringWriter json = new StringWriter();
+        ObjectMapper objectMapper = new ObjectMapper();
+        grid.writeTo(objectMapper.getFactory().createGenerator(json));
+        JsonNode root = objectMapper.readTree(json.toString());
+        assertEquals(8, root.get("days").size());
+        assertEquals(1, root.get("days").get(0).get("slots").size());
+        assertEquals(0, root.get("days").get(1).get("slots").size());
+        assertEquals(10L, root.get("days").get(0).get("slots").get(0).get("timeSlotId").asLong());
+    }
+
+    @Test
+    @DisplayName("Should reject availability grids with an invalid range")
+    void availabilityGridRejectsInvalidRange() {
+        LocalDate from = LocalDate.of(2030, 1, 7);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> tableService.getAvailabilityGrid(restaurant.getId(), from, from.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+            () -> tableService.getAvailabilityGrid(restaurant.getId(), from, from.plusDays(31)));
+        verify(reservationRepository, never()).findReservedTablesInRange(any(), any(), any(), any());
+    }
+
+    private ReservedTable reserved(LocalDate date, Long timeSlotId, Long tableId) {
+        return new ReservedTable() {
+            @Override
+            public LocalDate getDate() {
+                return date;
+            }
+
+            @Override
+            public Long getTimeSlotId() {
+                return timeSlotId;
+            }
+
+            @Override
+            public Long getTableId() {
+                return tableId;
+            }
+        };
+    }
 }
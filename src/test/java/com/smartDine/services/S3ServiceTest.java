@@ -4,16 +4,23 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,10 +30,14 @@ import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.services.s3.transfer.Upload;
+import com.smartDine.dto.ImageFetchRequest;
 
 /**
  * Test unitario para S3Service.
@@ -38,6 +49,9 @@ class S3ServiceTest {
     @Mock
     private AmazonS3 amazonS3;
 
+    @Mock
+    private TransferManager transferManager;
+
     @InjectMocks
     private S3Service s3Service;
 
@@ -183,6 +197,31 @@ class S3ServiceTest {
         verify(amazonS3, times(1)).getObject(BUCKET_NAME, customKeyName);
     }
 
+    /**
+     * Test: getObject debe pedir el rango y las condiciones en una sola petición GetObject.
+     */
+    @Test
+    void testGetObject_WithRangeAndETag_SingleRequest() {
+        // Arrange
+        S3Object mockS3Object = mock(S3Object.class);
+        when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(mockS3Object);
+
+        // Act
+        S3Object result = s3Service.getObject(KEY_NAME, new ImageFetchRequest(List.of("abc123"), 1000L, 10L, 19L));
+
+        // Assert
+        assertEquals(mockS3Object, result);
+        ArgumentCaptor<GetObjectRequest> captor = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(amazonS3, times(1)).getObject(captor.capture());
+        GetObjectRequest request = captor.getValue();
+        assertEquals(BUCKET_NAME, request.getBucketName());
+        assertEquals(KEY_NAME, request.getKey());
+        assertArrayEquals(new long[] {10L, 19L}, request.getRange());
+        assertEquals(List.of("abc123"), request.getNonmatchingETagConstraints());
+        // If-Modified-Since is not sent together with entity tags
+        assertNull(request.getModifiedSinceConstraint());
+    }
+
     /**
      * Test: getMetadata debe retornar los metadatos del archivo almacenado.
      */
@@ -242,4 +281,35 @@ class S3ServiceTest {
         verify(amazonS3, times(1)).putObject(any(PutObjectRequest.class));
         verify(amazonS3, times(1)).getObject(BUCKET_NAME, KEY_NAME);
     }
+
+    /**
+     * Test: uploadFile con un archivo copiado a disco debe subirlo con el TransferManager.
+     */
+    @Test
+    void testUploadFile_SpooledFile_UsesTransferManager() throws Exception {
+        // Arrange
+        Path path = Files.createTempFile("s3-service-test-", ".tmp");
+        try {
+            Files.write(path, FILE_CONTENT.getBytes());
+            SpooledImageFile file = new SpooledImageFile(path, KEY_NAME, CONTENT_TYPE, FILE_SIZE);
+            Upload upload = mock(Upload.class);
+            when(transferManager.upload(any(PutObjectRequest.class))).thenReturn(upload);
+            URL expectedUrl = new URL("https://test-bucket.s3.amazonaws.com/test-image.jpg");
+            when(amazonS3.getUrl(BUCKET_NAME, KEY_NAME)).thenReturn(expectedUrl);
+
+            // Act
+            String resultUrl = s3Service.uploadFile(file, KEY_NAME);
+
+            // Assert
+            assertEquals(expectedUrl.toString(), resultUrl);
+            ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+            verify(transferManager).upload(captor.capture());
+            assertEquals(path.toFile(), captor.getValue().getFile());
+            assertEquals(CONTENT_TYPE, captor.getValue().getMetadata().getContentType());
+            verify(upload).waitForCompletion();
+            verify(amazonS3, never()).putObject(any(PutObjectRequest.class));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
 }
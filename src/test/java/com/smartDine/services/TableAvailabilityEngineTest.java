@@ -0,0 +1,172 @@
+package com.smartDine.services;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.smartDine.dto.RestaurantTableDTO;
+import com.smartDine.entity.ReservationStatus;
+import com.smartDine.entity.Restaurant;
+import com.smartDine.entity.RestaurantTable;
+import com.smartDine.repository.ReservationRepository;
+import com.smartDine.repository.RestaurantRepository;
+import com.smartDine.repository.RestaurantTableRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TableAvailabilityEngineTest {
+
+    private static final Long RESTAURANT_ID = 1L;
+    private static final Long TIME_SLOT_ID = 10L;
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private RestaurantTableRepository tableRepository;
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    private TableAvailabilityEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new TableAvailabilityEngine(reservationRepository, tableRepository, restaurantRepository, 100);
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(RESTAURANT_ID);
+        lenient().when(tableRepository.findByRestaurantId(RESTAURANT_ID)).thenReturn(List.of(
+            createTable(restaurant, 100L, 1, false),
+            createTable(restaurant, 101L, 2, false),
+            createTable(restaurant, 102L, 3, true)
+        ));
+    }
+
+    @Test
+    @DisplayName("Should load occupancy once and serve later lookups from memory")
+    void coldMissThenCacheHit() {
+        when(reservationRepository.findReservedTableIds(RESTAURANT_ID, DATE, TIME_SLOT_ID, ReservationStatus.CANCELLED))
+            .thenReturn(List.of(100L));
+
+        List<RestaurantTableDTO> first = engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, false);
+        List<RestaurantTableDTO> second = engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, false);
+
+        assertEquals(List.of(101L), first.stream().map(RestaurantTableDTO::getId).toList());
+        assertEquals(List.of(101L), second.stream().map(RestaurantTableDTO::getId).toList());
+        verify(tableRepository, times(1)).findByRestaurantId(RESTAURANT_ID);
+        verify(reservationRepository, times(1))
+            .findReservedTableIds(RESTAURANT_ID, DATE, TIME_SLOT_ID, ReservationStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Should filter tables by outside preference")
+    void filtersByOutsidePreference() {
+        when(reservationRepository.findReservedTableIds(RESTAURANT_ID, DATE, TIME_SLOT_ID, ReservationStatus.CANCELLED))
+            .thenReturn(List.of());
+
+        List<RestaurantTableDTO> outside = engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, true);
+
+        assertEquals(1, outside.size());
+        assertEquals(102L, outside.get(0).getId());
+        assertEquals(RESTAURANT_ID, outside.get(0).getRestaurantId());
+    }
+
+    @Test
+    @DisplayName("Should apply bookings and releases incrementally")
+    void appliesBookingsAndReleases() {
+        when(reservationRepository.findReservedTableIds(RESTAURANT_ID, DATE, TIME_SLOT_ID, ReservationStatus.CANCELLED))
+            .thenReturn(List.of());
+        engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, false);
+
+        engine.reservationBooked(RESTAURANT_ID, DATE, TIME_SLOT_ID, 100L);
+        assertEquals(List.of(101L), engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, false)
+            .stream().map(RestaurantTableDTO::getId).toList());
+
+        engine.reservationReleased(RESTAURANT_ID, DATE, TIME_SLOT_ID, 100L);
+        assertEquals(List.of(100L, 101L), engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, false)
+            .stream().map(RestaurantTableDTO::getId).toList());
+
+        verify(reservationRepository, times(1))
+            .findReservedTableIds(RESTAURANT_ID, DATE, TIME_SLOT_ID, ReservationStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Should reload the layout after the restaurant is evicted")
+    void reloadsAfterEviction() {
+        when(reservationRepository.findReservedTableIds(RESTAURANT_ID, DATE, TIME_SLOT_ID, ReservationStatus.CANCELLED))
+            .thenReturn(List.of());
+        engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, false);
+
+        engine.evictRestaurant(RESTAURANT_ID);
+        engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, false);
+
+        verify(tableRepository, times(2)).findByRestaurantId(RESTAURANT_ID);
+    }
+
+    @Test
+    @DisplayName("Should not cache a layout read before its tables changed")
+    void skipsLayoutsReadDuringTableChanges() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(RESTAURANT_ID);
+        List<RestaurantTable> before = List.of(createTable(restaurant, 100L, 1, false));
+        List<RestaurantTable> after = List.of(createTable(restaurant, 100L, 1, false), createTable(restaurant, 103L, 4, false));
+        when(tableRepository.findByRestaurantId(RESTAURANT_ID))
+            .thenAnswer(invocation -> {
+                // Table 103 is added and committed while this read is in flight
+                engine.evictRestaurant(RESTAURANT_ID);
+                return before;
+            })
+            .thenReturn(after);
+        when(reservationRepository.findReservedTableIds(RESTAURANT_ID, DATE, TIME_SLOT_ID, ReservationStatus.CANCELLED))
+            .thenReturn(List.of());
+
+        assertEquals(List.of(100L), engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, false)
+            .stream().map(RestaurantTableDTO::getId).toList());
+        assertEquals(List.of(100L, 103L), engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, false)
+            .stream().map(RestaurantTableDTO::getId).toList());
+        assertEquals(List.of(100L, 103L), engine.getAvailableTables(RESTAURANT_ID, TIME_SLOT_ID, DATE, false)
+            .stream().map(RestaurantTableDTO::getId).toList());
+
+        verify(tableRepository, times(2)).findByRestaurantId(RESTAURANT_ID);
+        // The bitmap built against the stale layout was not cached either
+        verify(reservationRepository, times(2))
+            .findReservedTableIds(RESTAURANT_ID, DATE, TIME_SLOT_ID, ReservationStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Should throw exception for a non-existent restaurant")
+    void unknownRestaurant() {
+        when(tableRepository.findByRestaurantId(999L)).thenReturn(List.of());
+        when(restaurantRepository.existsById(999L)).thenReturn(false);
+
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> engine.getAvailableTables(999L, TIME_SLOT_ID, DATE, false)
+        );
+
+        assertEquals("Restaurante no encontrado con ID: 999", exception.getMessage());
+    }
+
+    private RestaurantTable createTable(Restaurant restaurant, Long id, int number, boolean outside) {
+        RestaurantTable table = new RestaurantTable();
+        table.setId(id);
+        table.setNumber(number);
+        table.setCapacity(4);
+        table.setOutside(outside);
+        table.setRestaurant(restaurant);
+        return table;
+    }
+}
@@ -0,0 +1,115 @@
+package com.smartDine.services;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.smartDine.dto.NotificationDTO;
+import com.smartDine.repository.NotificationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadNotificationCounterTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new UnreadNotificationCounter(notificationRepository, 60000L, 10);
+    }
+
+    @Test
+    @DisplayName("Should load the count once and then keep it up to date in memory")
+    void maintainsCountIncrementally() {
+        when(notificationRepository.countByReceiverIdAndReadFalse(1L)).thenReturn(2L);
+
+        assertEquals(2, counter.get(1L));
+
+        counter.onNotificationsStored(new NotificationsDispatchedEvent(Map.of(
+            1L, List.of(notification(5L), notification(6L)),
+            2L, List.of(notification(7L)))));
+        assertEquals(4, counter.get(1L));
+
+        counter.adjustAfterCommit(1L, -1);
+        assertEquals(3, counter.get(1L));
+
+        counter.adjustAfterCommit(1L, -10);
+        assertEquals(0, counter.get(1L));
+
+        verify(notificationRepository, times(1)).countByReceiverIdAndReadFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Should reload the count after it is evicted")
+    void reloadsAfterEviction() {
+        when(notificationRepository.countByReceiverIdAndReadFalse(1L)).thenReturn(2L, 7L);
+
+        assertEquals(2, counter.get(1L));
+        counter.evict(1L);
+
+        assertEquals(7, counter.get(1L));
+        assertEquals(7, counter.get(1L));
+        verify(notificationRepository, times(2)).countByReceiverIdAndReadFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Should not count a committed change twice when the count is read before it is applied")
+    void countsCommittedChangesOnce() {
+        // The stored notification is already counted by the database
+        when(notificationRepository.countByReceiverIdAndReadFalse(1L)).thenReturn(4L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counter.onNotificationsStored(new NotificationsDispatchedEvent(Map.of(1L, List.of(notification(5L)))));
+            // Read after the commit, before the after-commit adjustment runs
+            assertEquals(4, counter.get(1L));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(4, counter.get(1L));
+        assertEquals(4, counter.get(1L));
+        verify(notificationRepository, times(2)).countByReceiverIdAndReadFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Should keep caching other users' counts while one user's count changes")
+    void cachesOtherUsersDuringChanges() {
+        when(notificationRepository.countByReceiverIdAndReadFalse(2L)).thenReturn(3L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counter.adjustAfterCommit(1L, 1);
+            assertEquals(3, counter.get(2L));
+            assertEquals(3, counter.get(2L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(notificationRepository, times(1)).countByReceiverIdAndReadFalse(2L);
+    }
+
+    private static NotificationDTO notification(Long id) {
+        return new NotificationDTO(id, "Nueva", LocalDateTime.now(), false, "NOTIFICATION", null, null, null, null);
+    }
+}
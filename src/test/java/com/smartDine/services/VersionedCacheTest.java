@@ -0,0 +1,86 @@
+package com.smartDine.services;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VersionedCacheTest {
+
+    @Test
+    @DisplayName("Should serve but not cache a value loaded while its key changed")
+    void skipsRacedLoads() {
+        VersionedCache<Long, String> cache = new VersionedCache<>(0L, 10);
+
+        assertEquals("old", cache.get(1L, id -> {
+            cache.update(1L, value -> "changed");
+            return "old";
+        }));
+        assertNull(cache.getIfPresent(1L));
+
+        assertEquals("new", cache.get(1L, id -> "new"));
+        assertEquals("new", cache.getIfPresent(1L));
+    }
+
+    @Test
+    @DisplayName("Should keep caching a key while other keys change")
+    void versionsKeysIndependently() {
+        VersionedCache<Long, String> cache = new VersionedCache<>(0L, 10);
+
+        cache.get(1L, id -> {
+            cache.update(2L, value -> "changed");
+            cache.invalidate(3L);
+            return "one";
+        });
+
+        assertEquals("one", cache.getIfPresent(1L));
+    }
+
+    @Test
+    @DisplayName("Should drop the least recently used entries beyond the maximum size")
+    void evictsLeastRecentlyUsed() throws InterruptedException {
+        VersionedCache<Long, String> cache = new VersionedCache<>(0L, 2);
+        cache.put(1L, "one");
+        Thread.sleep(2);
+        cache.put(2L, "two");
+        Thread.sleep(2);
+        cache.getIfPresent(1L);
+
+        cache.put(3L, "three");
+
+        assertEquals(2, cache.size());
+        assertEquals("one", cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    @DisplayName("Should load missing keys with one call and cache them")
+    void loadsMissingKeysTogether() {
+        VersionedCache<Long, String> cache = new VersionedCache<>(0L, 10);
+        cache.put(1L, "one");
+
+        Map<Long, String> loaded = cache.getAll(List.of(1L, 2L, 3L), ids -> {
+            assertEquals(2, ids.size());
+            return Map.of(2L, "two", 3L, "three");
+        });
+
+        assertEquals(Map.of(2L, "two", 3L, "three"), loaded);
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    @DisplayName("Should expire entries after the time to live")
+    void expiresEntries() throws InterruptedException {
+        VersionedCache<Long, String> cache = new VersionedCache<>(5L, 10);
+        cache.put(1L, "one");
+
+        Thread.sleep(10);
+
+        assertNull(cache.getIfPresent(1L));
+        assertEquals("reloaded", cache.get(1L, id -> "reloaded"));
+    }
+}